@@ -27,6 +27,8 @@ import gov.uspto.patent.PatentReader;
 import gov.uspto.patent.PatentReaderException;
 import gov.uspto.patent.bulk.DumpFileAps;
 import gov.uspto.patent.bulk.DumpFileXml;
+import gov.uspto.patent.bulk.DumpFileXmlMapped;
+import gov.uspto.patent.bulk.DumpIndex;
 import gov.uspto.patent.bulk.DumpReader;
 import gov.uspto.patent.model.Patent;
 import joptsimple.OptionParser;
@@ -88,6 +90,17 @@ public class ExtractPatent {
 
 		PatentReader patentReader = new PatentReader(dumpReader.getPatentDocFormat());
 
+		if (dumpReader instanceof DumpFileXmlMapped && ((DumpFileXmlMapped) dumpReader).getIndex() != null) {
+			if (((DumpFileXmlMapped) dumpReader).seek(docId)) {
+				System.out.println("--- Found --- ");
+				write(dumpReader.next(), outdir, docId, isAps);
+			} else {
+				System.out.println("Not Found: " + docId);
+			}
+			dumpReader.close();
+			return;
+		}
+
 		while (dumpReader.hasNext()) {
 
 			String xmlDocStr;
@@ -155,6 +168,9 @@ public class ExtractPatent {
 						.defaultsTo(false);
 				accepts("aps").withOptionalArg().ofType(Boolean.class)
 						.describedAs("Read APS - Greenbook Patent Document Format").defaultsTo(false);
+				accepts("index").withOptionalArg().ofType(Boolean.class)
+						.describedAs("Use record offset index for --id, --num and --skip; writes <source>.idx when missing")
+						.defaultsTo(false);
 			}
 		};
 
@@ -169,6 +185,7 @@ public class ExtractPatent {
 		String xmlBodyTag = (String) options.valueOf("xmlBodyTag");
 		boolean addHtmlEntities = (Boolean) options.valueOf("addHtmlEntities");
 		boolean aps = (Boolean) options.valueOf("aps");
+		boolean useIndex = (Boolean) options.valueOf("index");
 
 		if (options.has("num")) {
 			skip = ((Integer) options.valueOf("num")) - 1;
@@ -193,12 +210,18 @@ public class ExtractPatent {
                 //filters.addRule(new SuffixFilter("txt"));
                 break;
             default:
-                DumpFileXml dumpXml = new DumpFileXml(inputFile);
-                if (addHtmlEntities) {
-                    dumpXml.addHTMLEntities();
-                }
-                dumpReader = dumpXml;
                 filters.addRule(new SuffixFileFilter("xml"));
+                if (useIndex && (options.has("id") || skip > 0)) {
+                    DumpFileXmlMapped dumpMapped = new DumpFileXmlMapped(inputFile);
+                    dumpMapped.setIndex(DumpIndex.loadOrBuild(inputFile, filters));
+                    dumpReader = dumpMapped;
+                } else {
+                    DumpFileXml dumpXml = new DumpFileXml(inputFile);
+                    if (addHtmlEntities) {
+                        dumpXml.addHTMLEntities();
+                    }
+                    dumpReader = dumpXml;
+                }
             }
         }
 
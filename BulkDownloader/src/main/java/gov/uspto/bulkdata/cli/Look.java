@@ -27,6 +27,8 @@ import gov.uspto.patent.PatentReader;
 import gov.uspto.patent.PatentReaderException;
 import gov.uspto.patent.bulk.DumpFileAps;
 import gov.uspto.patent.bulk.DumpFileXml;
+import gov.uspto.patent.bulk.DumpFileXmlMapped;
+import gov.uspto.patent.bulk.DumpIndex;
 import gov.uspto.patent.bulk.DumpReader;
 import gov.uspto.patent.model.DocumentId;
 import gov.uspto.patent.model.Patent;
@@ -42,8 +44,8 @@ import joptsimple.OptionSet;
  * Dump a single Patent XML Document by location in zipfile; the 3rd document:
  * --source="download/ipa150305.zip" --num=3 --fields=xml --out=download/patent.xml
  * 
- * Dump a single Patent XML Document by ID (note it may be slow as it parse each document to check its id):
- * --source="download/ipa150305.zip" --id=3 --fields=xml --out=download/patent.xml
+ * Dump a single Patent XML Document by ID; --index seeks with a record offset index, written next to the zipfile:
+ * --source="download/ipa150305.zip" --id=US20150066960A1 --index --fields=raw --out=download/patent.xml
  * 
  * @author Brian G. Feldman (brian.feldman@uspto.gov)
  *
@@ -93,6 +95,19 @@ public class Look {
 
         PatentReader patentReader = new PatentReader(dumpReader.getPatentDocFormat());
 
+        if (dumpReader instanceof DumpFileXmlMapped && ((DumpFileXmlMapped) dumpReader).getIndex() != null) {
+            if (((DumpFileXmlMapped) dumpReader).seek(docId)) {
+                rawDocStr = dumpReader.next();
+                try (StringReader rawText = new StringReader(rawDocStr)) {
+                    show(patentReader.read(rawText), fields, writer);
+                }
+            } else {
+                System.out.println("Not Found: " + docId);
+            }
+            dumpReader.close();
+            return;
+        }
+
         while (dumpReader.hasNext()) {
             try {
                 rawDocStr = dumpReader.next();
@@ -242,6 +257,9 @@ public class Look {
                         .defaultsTo(false);
                 accepts("aps").withOptionalArg().ofType(Boolean.class)
                         .describedAs("Read APS - Greenbook Patent Document Format").defaultsTo(false);
+                accepts("index").withOptionalArg().ofType(Boolean.class)
+                        .describedAs("Use record offset index for --id, --num and --skip; writes <source>.idx when missing")
+                        .defaultsTo(false);
             }
         };
 
@@ -254,6 +272,7 @@ public class Look {
         String xmlBodyTag = (String) options.valueOf("xmlBodyTag");
         boolean addHtmlEntities = (Boolean) options.valueOf("addHtmlEntities");
         boolean aps = (Boolean) options.valueOf("aps");
+        boolean useIndex = (Boolean) options.valueOf("index");
 
         if (options.has("num")) {
             skip = ((Integer) options.valueOf("num")) - 1;
@@ -279,12 +298,18 @@ public class Look {
                 //filters.addRule(new SuffixFilter("txt"));
                 break;
             default:
-                DumpFileXml dumpXml = new DumpFileXml(inputFile);
-                if (addHtmlEntities) {
-                    dumpXml.addHTMLEntities();
-                }
-                dumpReader = dumpXml;
                 filters.addRule(new SuffixFileFilter("xml"));
+                if (useIndex && (options.has("id") || skip > 0)) {
+                    DumpFileXmlMapped dumpMapped = new DumpFileXmlMapped(inputFile);
+                    dumpMapped.setIndex(DumpIndex.loadOrBuild(inputFile, filters));
+                    dumpReader = dumpMapped;
+                } else {
+                    DumpFileXml dumpXml = new DumpFileXml(inputFile);
+                    if (addHtmlEntities) {
+                        dumpXml.addHTMLEntities();
+                    }
+                    dumpReader = dumpXml;
+                }
             }
         }
 
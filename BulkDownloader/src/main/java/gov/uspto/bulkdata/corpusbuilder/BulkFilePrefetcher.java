@@ -0,0 +1,218 @@
+package gov.uspto.bulkdata.corpusbuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Queue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+import gov.uspto.bulkdata.cli2.BulkData;
+import gov.uspto.bulkdata.downloader.DownloadJob;
+import okhttp3.HttpUrl;
+
+/**
+ * Downloads bulk files ahead of their processing, on a single background thread.
+ *
+ *<p>
+ * Files are handed out by {@link #take()} in queue order. While the caller processes a file, the next files are
+ * downloaded, up to maxFiles files ahead. Disk use is bounded by maxBytes: no further download starts while the
+ * files downloaded ahead add up to maxBytes or more, so at most maxBytes plus one file is on disk besides the file
+ * being processed. A file taken is owned by the caller, which deletes it when done.
+ *</p>
+ *
+ *<p>
+ * A failed download is handed over in its place, with its error, and the following files are still downloaded.
+ * Should the download thread itself fail, {@link #take()} throws once the files downloaded before are taken.
+ *</p>
+ *
+ *<pre>
+ * BulkFilePrefetcher prefetcher = new BulkFilePrefetcher(downloader, urls, 2, 4L * 1024 * 1024 * 1024);
+ * prefetcher.start();
+ * BulkFilePrefetcher.Download download;
+ * while ((download = prefetcher.take()) != null) {
+ *     ...
+ *     download.getFile().delete();
+ * }
+ * prefetcher.close();
+ *</pre>
+ */
+public class BulkFilePrefetcher implements AutoCloseable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(BulkFilePrefetcher.class);
+
+	/**
+	 * Downloaded bulk file, or the exception which failed its download.
+	 */
+	public static class Download {
+		private final HttpUrl url;
+		private final File file;
+		private final IOException error;
+
+		private Download(HttpUrl url, File file, IOException error) {
+			this.url = url;
+			this.file = file;
+			this.error = error;
+		}
+
+		public HttpUrl getUrl() {
+			return url;
+		}
+
+		/**
+		 * @return downloaded file, null when the download failed.
+		 */
+		public File getFile() {
+			return file;
+		}
+
+		/**
+		 * @return download failure, null when downloaded.
+		 */
+		public IOException getError() {
+			return error;
+		}
+	}
+
+	private final BulkData downloader;
+	private final Queue<HttpUrl> urls;
+	private final int maxFiles;
+	private final long maxBytes;
+
+	private final Queue<Download> done = new ArrayDeque<Download>();
+	private long doneBytes = 0;
+	private boolean finished = false;
+	private boolean closed = false;
+	private Throwable failure;
+	private Thread thread;
+
+	/**
+	 * @param downloader
+	 * @param urls bulk files to download, in processing order
+	 * @param maxFiles maximum number of files downloaded ahead of the caller
+	 * @param maxBytes maximum bytes downloaded ahead of the caller before the next download waits
+	 */
+	public BulkFilePrefetcher(BulkData downloader, Collection<HttpUrl> urls, int maxFiles, long maxBytes) {
+		Preconditions.checkNotNull(downloader, "BulkData can not be Null");
+		Preconditions.checkArgument(maxFiles > 0, "maxFiles must be greater than 0");
+		Preconditions.checkArgument(maxBytes > 0, "maxBytes must be greater than 0");
+		this.downloader = downloader;
+		this.urls = new ArrayDeque<HttpUrl>(urls);
+		this.maxFiles = maxFiles;
+		this.maxBytes = maxBytes;
+	}
+
+	public synchronized void start() {
+		Preconditions.checkState(thread == null, "Prefetcher already started");
+		thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				downloadAll();
+			}
+		}, "bulk-file-prefetch");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void downloadAll() {
+		try {
+			HttpUrl url;
+			while ((url = nextUrl()) != null) {
+				LOGGER.info("Prefetching '{}', remaining in queue:[{}]", url, urls.size());
+				Download download;
+				try {
+					DownloadJob job = downloader.download(url);
+					download = new Download(url, job.getDownloadTasks().get(0).getOutFile(), null);
+				} catch (IOException e) {
+					download = new Download(url, null, e);
+				} catch (RuntimeException e) {
+					download = new Download(url, null, new IOException("Download failed: " + url, e));
+				}
+				if (!handOver(download)) {
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			// closed.
+		} catch (Throwable e) {
+			LOGGER.error("Bulk file prefetch failed", e);
+			synchronized (this) {
+				failure = e;
+			}
+		} finally {
+			synchronized (this) {
+				finished = true;
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Wait for room to download ahead.
+	 *
+	 * @return next url, null when none or closed.
+	 * @throws InterruptedException
+	 */
+	private synchronized HttpUrl nextUrl() throws InterruptedException {
+		while (!closed && (done.size() >= maxFiles || doneBytes >= maxBytes)) {
+			wait();
+		}
+		return closed ? null : urls.poll();
+	}
+
+	private synchronized boolean handOver(Download download) {
+		if (closed) {
+			return false;
+		}
+		done.add(download);
+		doneBytes += size(download);
+		notifyAll();
+		return true;
+	}
+
+	private static long size(Download download) {
+		return download.getFile() != null ? download.getFile().length() : 0;
+	}
+
+	/**
+	 * Next downloaded bulk file, waiting for its download to finish.
+	 *
+	 * @return next download, null when all have been taken.
+	 * @throws InterruptedException
+	 * @throws IOException when the download thread failed, leaving files not downloaded.
+	 */
+	public synchronized Download take() throws InterruptedException, IOException {
+		Preconditions.checkState(thread != null, "Prefetcher not started");
+		while (done.isEmpty() && !finished) {
+			wait();
+		}
+		if (done.isEmpty() && failure != null) {
+			throw new IOException("Bulk file prefetch failed", failure);
+		}
+		Download download = done.poll();
+		if (download != null) {
+			doneBytes -= size(download);
+			notifyAll();
+		}
+		return download;
+	}
+
+	/**
+	 * Stop downloading; files downloaded but not taken are left on disk.
+	 */
+	@Override
+	public void close() {
+		Thread downloadThread;
+		synchronized (this) {
+			closed = true;
+			notifyAll();
+			downloadThread = thread;
+		}
+		if (downloadThread != null) {
+			downloadThread.interrupt();
+		}
+	}
+}
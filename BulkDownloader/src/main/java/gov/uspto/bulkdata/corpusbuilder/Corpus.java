@@ -2,6 +2,9 @@ package gov.uspto.bulkdata.corpusbuilder;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.ParseException;
@@ -19,9 +22,13 @@ import javax.xml.xpath.XPathExpressionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Preconditions;
 import com.google.common.base.Splitter;
+import com.google.common.base.Supplier;
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.ListMultimap;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CharStreams;
 
 import gov.uspto.bulkdata.cli2.BulkData;
 import gov.uspto.bulkdata.cli2.BulkDataType;
@@ -29,13 +36,16 @@ import gov.uspto.bulkdata.downloader.DownloadJob;
 import gov.uspto.common.DateRange;
 import gov.uspto.patent.PatentDocFormat;
 import gov.uspto.patent.PatentDocFormatDetect;
+import gov.uspto.patent.PatentDocStreamReader;
 import gov.uspto.patent.PatentReaderException;
 import gov.uspto.patent.bulk.DumpFileAps;
-import gov.uspto.patent.bulk.DumpFileXml;
+import gov.uspto.patent.bulk.DumpFileXmlMapped;
 import gov.uspto.patent.bulk.DumpReader;
+import gov.uspto.patent.bulk.RecordSlice;
 import gov.uspto.patent.model.classification.Classification;
 import gov.uspto.patent.model.classification.CpcClassification;
 import gov.uspto.patent.model.classification.UspcClassification;
+import gov.uspto.patent.thread.RecordPipeline;
 
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
@@ -44,6 +54,11 @@ import okhttp3.HttpUrl;
 /**
  * Download Weekly Bulk Downloads, keeping one at a time, extract out Patent Documents which match specified CPC Classifications.
  * 
+ *<p>
+ * Optionally pipelined: with prefetch the next bulk files are downloaded while the current one is matched, and with
+ * match threads the records of a bulk file are matched in parallel, written in record order.
+ *</p>
+ * 
  *<pre>
  * Example Usage:
  *    gov.uspto.bulkdata.corpusbuilder.Corpus --type application --outdir="../download" --years=2014,2016 --cpc=H04N21/00 --uspc=725
@@ -58,9 +73,14 @@ public class Corpus {
 	private final CorpusMatch<?> corpusMatch;
 	private final Writer corpusWriter;
 	private final BulkData downloader;
+	private RecordPrefilter prefilter;
 	private Queue<HttpUrl> bulkFileQueue = new ArrayDeque<HttpUrl>();
 	private HttpUrl currentbulkFileUrl;
 	private DumpReader currentBulkFile;
+	private int prefetchFiles = 0;
+	private long prefetchMaxBytes = Long.MAX_VALUE;
+	private int matchThreads = 1;
+	private Supplier<? extends CorpusMatch<?>> matchSupplier;
 
 	private long bulkFileCount = 0;
 	private long writeCount = 0;
@@ -81,6 +101,48 @@ public class Corpus {
 		return this;
 	}
 
+	/**
+	 * Byte level prefilter, records it rejects are skipped without being decoded or handed to the CorpusMatch.
+	 * 
+	 * @param prefilter prefilter accepting every record the CorpusMatch can match, or null for none.
+	 * @return
+	 */
+	public Corpus setPrefilter(RecordPrefilter prefilter) {
+		this.prefilter = prefilter;
+		return this;
+	}
+
+	/**
+	 * Download bulk files ahead while the current bulk file is matched.
+	 * 
+	 * @param files number of bulk files to download ahead, 0 to download each bulk file when needed (default).
+	 * @param maxBytes no further download starts while the bulk files downloaded ahead total this many bytes.
+	 * @return
+	 */
+	public Corpus setPrefetch(int files, long maxBytes) {
+		Preconditions.checkArgument(files >= 0, "files can not be negative");
+		Preconditions.checkArgument(maxBytes > 0, "maxBytes must be greater than 0");
+		this.prefetchFiles = files;
+		this.prefetchMaxBytes = maxBytes;
+		return this;
+	}
+
+	/**
+	 * Match the records of a bulk file on multiple threads. CorpusMatch instances are stateful, so each thread
+	 * gets and sets up its own from the supplier.
+	 * 
+	 * @param threads number of matching threads, 1 to match on the calling thread (default).
+	 * @param matchSupplier supplies a new CorpusMatch equal to the one given to the constructor.
+	 * @return
+	 */
+	public Corpus setMatchThreads(int threads, Supplier<? extends CorpusMatch<?>> matchSupplier) {
+		Preconditions.checkArgument(threads > 0, "threads must be greater than 0");
+		Preconditions.checkArgument(threads == 1 || matchSupplier != null, "matchSupplier required for multiple threads");
+		this.matchThreads = threads;
+		this.matchSupplier = matchSupplier;
+		return this;
+	}
+
 	public Corpus enqueue(Collection<HttpUrl> bulkFiles) {
 		bulkFileQueue.addAll(bulkFiles);
 		return this;
@@ -128,21 +190,68 @@ public class Corpus {
 	}
 
 	public void processAllBulks(boolean deleteDone) {
+		if (prefetchFiles > 0) {
+			processAllBulksPrefetched(deleteDone);
+			return;
+		}
+
 		while (!bulkFileQueue.isEmpty()) {
 			try {
 				nextBulkFile();
-				readAndWrite();
-
-				currentBulkFile.close();
-				if (deleteDone) {
-					currentBulkFile.getFile().delete();
-				}
+				processBulkFile(deleteDone);
 			} catch (IOException e) {
 				LOGGER.error("Exception during download of '{}'", currentbulkFileUrl, e);
 			}
 		}
 	}
 
+	/**
+	 * Process the queue while a BulkFilePrefetcher downloads ahead; each bulk file is still deleted when done.
+	 * 
+	 * @param deleteDone
+	 */
+	private void processAllBulksPrefetched(boolean deleteDone) {
+		BulkFilePrefetcher prefetcher = new BulkFilePrefetcher(downloader, bulkFileQueue, prefetchFiles, prefetchMaxBytes);
+		bulkFileQueue.clear();
+		prefetcher.start();
+		try {
+			BulkFilePrefetcher.Download download;
+			while ((download = prefetcher.take()) != null) {
+				currentbulkFileUrl = download.getUrl();
+				if (download.getError() != null) {
+					LOGGER.error("Exception during download of '{}'", currentbulkFileUrl, download.getError());
+					continue;
+				}
+				try {
+					open(download.getFile());
+					processBulkFile(deleteDone);
+				} catch (IOException e) {
+					LOGGER.error("Exception during processing of '{}'", currentbulkFileUrl, e);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			LOGGER.warn("Interrupted, stopped processing bulk files");
+		} catch (IOException e) {
+			LOGGER.error("Stopped processing bulk files", e);
+		} finally {
+			prefetcher.close();
+		}
+	}
+
+	private void processBulkFile(boolean deleteDone) throws IOException {
+		if (matchThreads > 1) {
+			readAndWriteParallel();
+		} else {
+			readAndWrite();
+		}
+
+		// the read closes the bulk file.
+		if (deleteDone) {
+			currentBulkFile.getFile().delete();
+		}
+	}
+
 	/**
 	 * Get next bulk file, download if needed.
 	 * 
@@ -150,11 +259,13 @@ public class Corpus {
 	 */
 	public void nextBulkFile() throws IOException {
 		LOGGER.info("Bulk File Queue:[{}]", bulkFileQueue.size());
-		HttpUrl currentbulkFileUrl = bulkFileQueue.remove();
+		currentbulkFileUrl = bulkFileQueue.remove();
 
 		DownloadJob job = downloader.download(currentbulkFileUrl);
-		File currentFile = job.getDownloadTasks().get(0).getOutFile();
+		open(job.getDownloadTasks().get(0).getOutFile());
+	}
 
+	private void open(File currentFile) throws IOException {
 		PatentDocFormat patentDocFormat = new PatentDocFormatDetect().fromFileName(currentFile);
 
 		switch(patentDocFormat){
@@ -162,7 +273,7 @@ public class Corpus {
 			currentBulkFile = new DumpFileAps(currentFile);
 			break;
 		default:
-			currentBulkFile = new DumpFileXml(currentFile);
+			currentBulkFile = new DumpFileXmlMapped(currentFile);
 		}
 
 		currentBulkFile.open();
@@ -177,10 +288,24 @@ public class Corpus {
 			while (currentBulkFile.hasNext()) {
 				String docStr;
 				try {
-					docStr = currentBulkFile.next();
+					if (prefilter != null && currentBulkFile instanceof DumpFileXmlMapped) {
+						RecordSlice recordSlice = ((DumpFileXmlMapped) currentBulkFile).nextRecord();
+						if (recordSlice == null) {
+							break;
+						}
+						if (!prefilter.accept(recordSlice.asByteBuffer())) {
+							continue;
+						}
+						docStr = recordSlice.toString();
+					} else {
+						docStr = currentBulkFile.next();
+					}
 				} catch (NoSuchElementException e) {
 					break;
 				}
+				if (docStr == null) {
+					break;
+				}
 
 				try {
 					if (corpusMatch.on(docStr, currentBulkFile.getPatentDocFormat()).match()) {
@@ -198,6 +323,98 @@ public class Corpus {
 		}
 	}
 
+	/**
+	 * Match the records of the current bulk file on the match threads; matches are written in record order from
+	 * the calling thread.
+	 * 
+	 * @throws IOException
+	 */
+	public void readAndWriteParallel() throws IOException {
+		final String fileName = currentBulkFile.getFile().getName();
+		RecordPipeline<MatchedRecord> pipeline = new RecordPipeline<MatchedRecord>(
+				new MatchReader(matchSupplier, prefilter, currentBulkFile.getPatentDocFormat()), matchThreads);
+		try {
+			pipeline.run(currentBulkFile, new RecordPipeline.RecordHandler<MatchedRecord>() {
+				@Override
+				public void handle(int recordNumber, MatchedRecord record) throws IOException {
+					LOGGER.info("Found matching:[{}] at {}:{} ; matched: {}", getWriteCount() + 1, fileName,
+							recordNumber, record.matchPattern);
+					write(record.docStr);
+				}
+			});
+		} catch (NoSuchElementException e) {
+			// end of bulk file.
+		} finally {
+			currentBulkFile.close();
+		}
+	}
+
+	/**
+	 * Matching record with the pattern it matched.
+	 */
+	private static class MatchedRecord {
+		private final String docStr;
+		private final String matchPattern;
+
+		public MatchedRecord(String docStr, String matchPattern) {
+			this.docStr = docStr;
+			this.matchPattern = matchPattern;
+		}
+	}
+
+	/**
+	 * Matches records on the pipeline threads, each thread with its own CorpusMatch; returns null for records
+	 * which do not match, which the pipeline skips. Records handed over as bytes go through the prefilter before
+	 * being decoded.
+	 */
+	private static class MatchReader implements PatentDocStreamReader<MatchedRecord> {
+		private final ThreadLocal<CorpusMatch<?>> corpusMatch;
+		private final RecordPrefilter prefilter;
+		private final PatentDocFormat patentDocFormat;
+		private final Charset charset;
+
+		public MatchReader(final Supplier<? extends CorpusMatch<?>> matchSupplier, RecordPrefilter prefilter,
+				PatentDocFormat patentDocFormat) {
+			this.prefilter = prefilter;
+			this.patentDocFormat = patentDocFormat;
+			this.charset = patentDocFormat.getCharset();
+			this.corpusMatch = new ThreadLocal<CorpusMatch<?>>() {
+				@Override
+				protected CorpusMatch<?> initialValue() {
+					CorpusMatch<?> match = matchSupplier.get();
+					try {
+						match.setup();
+					} catch (XPathExpressionException e) {
+						throw new IllegalStateException("Failed to setup CorpusMatch", e);
+					}
+					return match;
+				}
+			};
+		}
+
+		@Override
+		public MatchedRecord read(InputStream inputStream) throws PatentReaderException, IOException {
+			byte[] bytes = ByteStreams.toByteArray(inputStream);
+			if (prefilter != null && !prefilter.accept(bytes)) {
+				return null;
+			}
+			return match(new String(bytes, charset));
+		}
+
+		@Override
+		public MatchedRecord read(Reader reader) throws PatentReaderException, IOException {
+			return match(CharStreams.toString(reader));
+		}
+
+		private MatchedRecord match(String docStr) throws PatentReaderException, IOException {
+			CorpusMatch<?> match = corpusMatch.get();
+			if (match.on(docStr, patentDocFormat).match()) {
+				return new MatchedRecord(docStr, match.getLastMatchPattern());
+			}
+			return null;
+		}
+	}
+
 	public void write(String xmlDocStr) throws IOException {
 		corpusWriter.write(xmlDocStr.getBytes());
 		writeCount++;
@@ -240,6 +457,12 @@ public class Corpus {
 						.defaultsTo("corpus");
 				accepts("eval").withOptionalArg().ofType(String.class).describedAs("Eval [xml, patent]: XML (Xpath XML lookup) or Patent to Instatiate Patent Object")
 				.defaultsTo("xml");
+				accepts("prefetch").withOptionalArg().ofType(Integer.class)
+						.describedAs("Number of bulk files to download ahead while matching, 0 for none").defaultsTo(0);
+				accepts("prefetchMaxMB").withOptionalArg().ofType(Long.class)
+						.describedAs("Stop downloading ahead while prefetched bulk files total this many MB").defaultsTo(4096L);
+				accepts("threads").withOptionalArg().ofType(Integer.class)
+						.describedAs("Number of threads matching records of a bulk file").defaultsTo(1);
 				accepts("xmlBodyTag").withOptionalArg().ofType(String.class).describedAs("XML Body Tag which wrapps document: [us-patent, PATDOC, patent-application-publication]").defaultsTo("us-patent");
 			}
 		};
@@ -250,9 +473,12 @@ public class Corpus {
 			System.exit(1);
 		}
 
-		String eval = (String) options.valueOf("eval");
+		final String eval = (String) options.valueOf("eval");
 		String type = (String) options.valueOf("type");
 		int skip = (Integer) options.valueOf("skip");
+		int prefetch = (Integer) options.valueOf("prefetch");
+		long prefetchMaxMB = (Long) options.valueOf("prefetchMaxMB");
+		int threads = (Integer) options.valueOf("threads");
 		Boolean deleteDone = (Boolean) options.valueOf("delete");
 		Path downloadDir = Paths.get((String) options.valueOf("outdir"));
 
@@ -301,7 +527,7 @@ public class Corpus {
 
         LOGGER.info("Request: {}", yearMap);
 
-		List<Classification> wantedClasses = new ArrayList<Classification>();
+		final List<Classification> wantedClasses = new ArrayList<Classification>();
 		List<String> cpcs = Splitter.on(',').omitEmptyStrings().trimResults().splitToList(cpc);
 		for (String cpcStr : cpcs) {
 			CpcClassification cpcClass = CpcClassification.fromText(cpcStr);
@@ -316,13 +542,19 @@ public class Corpus {
 
         BulkData downloader = new BulkData(downloadDir, dataType, yearMap, false);
 
-		CorpusMatch<?> corpusMatch;
-		if ("xml".equalsIgnoreCase(eval)){
-			corpusMatch = new MatchClassificationXPath(wantedClasses);
-			//corpusMatch = new MatchClassificationXPathSGML(wantedClasses);
-		} else {
-			corpusMatch = new MatchClassificationPatent(wantedClasses);
-		}
+		Supplier<CorpusMatch<?>> matchSupplier = new Supplier<CorpusMatch<?>>() {
+			@Override
+			public CorpusMatch<?> get() {
+				if ("xml".equalsIgnoreCase(eval)) {
+					return new MatchClassificationXPath(wantedClasses);
+					//return new MatchClassificationXPathSGML(wantedClasses);
+				} else {
+					return new MatchClassificationPatent(wantedClasses);
+				}
+			}
+		};
+
+		CorpusMatch<?> corpusMatch = matchSupplier.get();
 
 		Writer writer;
 		if ("zip".equalsIgnoreCase(out)) {
@@ -339,6 +571,11 @@ public class Corpus {
 
 		Corpus corpus = new Corpus(downloader, corpusMatch, writer);
 		corpus.setup();
+		if (corpusMatch instanceof MatchClassificationXPath) {
+			corpus.setPrefilter(((MatchClassificationXPath) corpusMatch).getPrefilter());
+		}
+		corpus.setPrefetch(prefetch, prefetchMaxMB * 1024 * 1024);
+		corpus.setMatchThreads(threads, matchSupplier);
 
 		if (filenames != null) {
 			corpus.enqueue();
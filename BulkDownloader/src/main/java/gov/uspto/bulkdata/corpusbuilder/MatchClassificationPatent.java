@@ -14,9 +14,8 @@ import gov.uspto.patent.PatentReader;
 import gov.uspto.patent.PatentReaderException;
 import gov.uspto.patent.model.Patent;
 import gov.uspto.patent.model.classification.Classification;
+import gov.uspto.patent.model.classification.ClassificationMatcher;
 import gov.uspto.patent.model.classification.ClassificationType;
-import gov.uspto.patent.model.classification.CpcClassification;
-import gov.uspto.patent.model.classification.UspcClassification;
 
 /**
  *  Match Patents by instantiating each Patent and then matching on Classification.
@@ -29,8 +28,7 @@ public class MatchClassificationPatent implements CorpusMatch<MatchClassificatio
 
 	private final List<Classification> wantedClasses;
 
-	private List<CpcClassification> wantedCPC;
-	private List<UspcClassification> wantedUSPC;
+	private ClassificationMatcher matcher;
 	private Patent patent;
 	private String lastPatternMatch;
 
@@ -38,12 +36,22 @@ public class MatchClassificationPatent implements CorpusMatch<MatchClassificatio
 		this.wantedClasses = wantedClasses;
 	}
 
-	@SuppressWarnings("unchecked")
-    @Override
+	/**
+	 * Wanted CPC match on main group, and all of its subgroups; wanted USPC match on main class.
+	 */
+	@Override
 	public void setup() throws XPathExpressionException {
-		wantedCPC = (List<CpcClassification>) Classification.getByType(wantedClasses, ClassificationType.CPC);
-		wantedUSPC = (List<UspcClassification>) Classification.getByType(wantedClasses, ClassificationType.USPC);
-
+		matcher = new ClassificationMatcher();
+		for (Classification wantedClass : wantedClasses) {
+			if (wantedClass == null) {
+				continue;
+			}
+			if (wantedClass.getType() == ClassificationType.CPC) {
+				matcher.add(wantedClass, ClassificationMatcher.DEPTH_MAINGROUP);
+			} else if (wantedClass.getType() == ClassificationType.USPC) {
+				matcher.add(wantedClass, 1);
+			}
+		}
 	}
 
 	@Override
@@ -66,35 +74,10 @@ public class MatchClassificationPatent implements CorpusMatch<MatchClassificatio
 			return false;
 		}
 
-		@SuppressWarnings("unchecked")
-        List<CpcClassification> patentCPC = (List<CpcClassification>) Classification.getByType(patent.getClassification(), ClassificationType.CPC);
-		for (Classification wantedCpcClass : wantedCPC) {
-			CpcClassification wantedCpc = (CpcClassification) wantedCpcClass;
-
-			for (Classification cpcClass : patentCPC) {
-				CpcClassification cpc = (CpcClassification) cpcClass;
-				if (cpc.getSection() == wantedCpc.getSection() && cpc.getMainClass() == wantedCpc.getMainClass()
-						&& cpc.getSubClass() == wantedCpc.getSubClass()
-						&& cpc.getMainGroup() == wantedCpc.getMainGroup()) {
-					lastPatternMatch="cpc";
-					return true;
-				}
-			}
-		}
-
-		@SuppressWarnings("unchecked")
-        List<UspcClassification> patentUSPC = (List<UspcClassification>) Classification.getByType(patent.getClassification(), ClassificationType.USPC);
-		for (Classification wantedUspcClass : wantedUSPC) {
-			UspcClassification wantedUspc = (UspcClassification) wantedUspcClass;
-
-			for (Classification usclass : patentUSPC) {
-				UspcClassification uspc = (UspcClassification) usclass;
-
-				if (uspc.getMainClass().equals(wantedUspc.getMainClass())) {
-					lastPatternMatch="uspc";
-					return true;
-				}
-			}
+		Classification wanted = matcher.match(patent.getClassification());
+		if (wanted != null) {
+			lastPatternMatch = wanted.getType().name().toLowerCase();
+			return true;
 		}
 
 		return false;
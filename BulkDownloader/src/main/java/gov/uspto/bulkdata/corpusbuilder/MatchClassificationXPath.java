@@ -1,5 +1,7 @@
 package gov.uspto.bulkdata.corpusbuilder;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.xml.xpath.XPathExpressionException;
@@ -26,6 +28,7 @@ public class MatchClassificationXPath implements CorpusMatch<MatchClassification
 
 	private final List<Classification> wantedClasses;
 	private PatternMatcher matcher;
+	private RecordPrefilter prefilter;
 	private String xmlDocStr;
 
 	private PatentDocFormat patentDocFormat;
@@ -37,6 +40,7 @@ public class MatchClassificationXPath implements CorpusMatch<MatchClassification
 	@Override
 	public void setup() throws XPathExpressionException{
 		matcher = new PatternMatcher();
+		List<List<String>> prefilterTokens = new ArrayList<List<String>>();
 
 		@SuppressWarnings("unchecked")
         List<CpcClassification> cpcClasses = (List<CpcClassification>) Classification.getByType(wantedClasses, ClassificationType.CPC);
@@ -45,6 +49,7 @@ public class MatchClassificationXPath implements CorpusMatch<MatchClassification
 			LOGGER.debug("CPC xPath: {}", CPCXpathStr);
 			PatternXPath CPC = new PatternXPath(CPCXpathStr);
 			matcher.add(CPC);
+			prefilterTokens.add(buildCPCTokens(cpcClass));
 		}
 
 		@SuppressWarnings("unchecked")
@@ -54,7 +59,19 @@ public class MatchClassificationXPath implements CorpusMatch<MatchClassification
 			LOGGER.debug("USPC xPath: {}", UspcXpathStr);
 			PatternXPath USPC = new PatternXPath(UspcXpathStr);
 			matcher.add(USPC);
+			prefilterTokens.add(buildUSPCTokens(uspcClass));
 		}
+
+		prefilter = prefilterTokens.isEmpty() ? null : new RecordPrefilter(prefilterTokens);
+	}
+
+	/**
+	 * Prefilter rejecting records which can not match, built by setup().
+	 * 
+	 * @return prefilter or null when no classifications are wanted.
+	 */
+	public RecordPrefilter getPrefilter() {
+		return prefilter;
 	}
 
 	@Override
@@ -89,6 +106,32 @@ public class MatchClassificationXPath implements CorpusMatch<MatchClassification
 		return stb.toString();
 	}
 
+	/**
+	 * Text the XML must contain for {@link #buildUSPCxPathString(UspcClassification)} to match.
+	 * 
+	 * @param uspcClass
+	 * @return
+	 */
+	public List<String> buildUSPCTokens(UspcClassification uspcClass) {
+		return Collections.singletonList("<main-classification>" + uspcClass.getMainClass());
+	}
+
+	/**
+	 * Text the XML must contain for {@link #buildCPCxPathString(CpcClassification)} to match; each value
+	 * being the whole text of its element, except main-group which only needs to start with its value.
+	 * 
+	 * @param cpcClass
+	 * @return
+	 */
+	public List<String> buildCPCTokens(CpcClassification cpcClass) {
+		List<String> tokens = new ArrayList<String>(4);
+		tokens.add("<section>" + cpcClass.getSection() + "<");
+		tokens.add("<class>" + cpcClass.getMainClass() + "<");
+		tokens.add("<subclass>" + cpcClass.getSubClass() + "<");
+		tokens.add("<main-group>" + cpcClass.getMainGroup());
+		return tokens;
+	}
+
 	/**
 	 * 
 	 * Build XPath Expression for CPC Classification lookup.
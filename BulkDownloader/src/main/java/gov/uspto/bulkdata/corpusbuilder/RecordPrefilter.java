@@ -0,0 +1,105 @@
+package gov.uspto.bulkdata.corpusbuilder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Preconditions;
+
+import gov.uspto.common.text.AhoCorasick;
+
+/**
+ * Byte level prefilter, rejects records which can not match without parsing them.
+ *
+ *<p>
+ * Built from groups of tokens, a record passes when all tokens of at least one group occur in its bytes. All tokens
+ * are compiled into one automaton, each record is scanned once and the scan stops as soon as a group is complete.
+ * The tokens of a group must be necessary for the exact match, a record passing the prefilter still needs the exact
+ * match, so results are the same as without the prefilter.
+ *</p>
+ *
+ *<pre>
+ * RecordPrefilter prefilter = new RecordPrefilter(groups);
+ * if (prefilter.accept(record.asByteBuffer()) &amp;&amp; corpusMatch.on(record.toString(), format).match()) {
+ *     ...
+ * }
+ *</pre>
+ */
+public class RecordPrefilter {
+
+	private final AhoCorasick matcher;
+	private final int[] groupSizes;
+	private final int[][] tokenGroups;
+
+	/**
+	 * @param groups token groups, tokens are ASCII
+	 */
+	public RecordPrefilter(List<List<String>> groups) {
+		Preconditions.checkArgument(!groups.isEmpty(), "At least one token group required");
+
+		Map<String, List<Integer>> tokens = new LinkedHashMap<String, List<Integer>>();
+		groupSizes = new int[groups.size()];
+		for (int g = 0; g < groups.size(); g++) {
+			for (String token : groups.get(g)) {
+				List<Integer> tokenGroupList = tokens.get(token);
+				if (tokenGroupList == null) {
+					tokenGroupList = new ArrayList<Integer>();
+					tokens.put(token, tokenGroupList);
+				}
+				if (!tokenGroupList.contains(g)) {
+					tokenGroupList.add(g);
+					groupSizes[g]++;
+				}
+			}
+			Preconditions.checkArgument(groupSizes[g] > 0, "Token group can not be empty");
+		}
+
+		List<byte[]> patterns = new ArrayList<byte[]>(tokens.size());
+		tokenGroups = new int[tokens.size()][];
+		int t = 0;
+		for (Map.Entry<String, List<Integer>> entry : tokens.entrySet()) {
+			patterns.add(entry.getKey().getBytes(StandardCharsets.US_ASCII));
+			int[] tokenGroupArray = new int[entry.getValue().size()];
+			for (int i = 0; i < tokenGroupArray.length; i++) {
+				tokenGroupArray[i] = entry.getValue().get(i);
+			}
+			tokenGroups[t++] = tokenGroupArray;
+		}
+
+		matcher = AhoCorasick.of(patterns);
+	}
+
+	/**
+	 * Scan the bytes between position and limit, the buffer position is not changed.
+	 *
+	 * @param bytes record bytes
+	 * @return true when the record may match
+	 */
+	public boolean accept(ByteBuffer bytes) {
+		boolean[] found = new boolean[tokenGroups.length];
+		int[] groupFound = new int[groupSizes.length];
+
+		int state = AhoCorasick.START;
+		for (int i = bytes.position(), end = bytes.limit(); i < end; i++) {
+			state = matcher.next(state, bytes.get(i));
+			for (int token : matcher.matches(state)) {
+				if (!found[token]) {
+					found[token] = true;
+					for (int group : tokenGroups[token]) {
+						if (++groupFound[group] == groupSizes[group]) {
+							return true;
+						}
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	public boolean accept(byte[] bytes) {
+		return accept(ByteBuffer.wrap(bytes));
+	}
+}
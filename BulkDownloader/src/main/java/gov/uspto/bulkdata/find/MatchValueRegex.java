@@ -6,8 +6,6 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
@@ -20,6 +18,8 @@ import org.xml.sax.SAXException;
 
 import com.google.common.base.Preconditions;
 
+import gov.uspto.parser.dom4j.XmlReaders;
+
 /**
  * Match XML value retrieved through XPATH against REGEX pattern.
  * <p>
@@ -62,12 +62,9 @@ public class MatchValueRegex implements Match {
 			return false;
 		}
 
-		DocumentBuilderFactory dbfact = DocumentBuilderFactory.newInstance();
-		dbfact.setAttribute("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-
 		try {
 
-			DocumentBuilder builder = dbfact.newDocumentBuilder();
+			DocumentBuilder builder = XmlReaders.documentBuilder();
 	        InputSource inputSource = new InputSource(new StringReader(xmlDocStr));
 	
 			org.w3c.dom.Document document = builder.parse(inputSource);
@@ -82,9 +79,6 @@ public class MatchValueRegex implements Match {
 		} catch (XPathExpressionException e) {
 			LOGGER.error("XML XPathExpressionException on doc:{}", xmlDocStr, e);
 			return false;
-		} catch (ParserConfigurationException e) {
-			LOGGER.error("XML ParserConfigurationException", e);
-			return false;
 		} catch (SAXException e) {
 			LOGGER.error("XML SAXException on doc:{}", xmlDocStr, e);
 			return false;
@@ -6,8 +6,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPathExpressionException;
 
 import org.slf4j.Logger;
@@ -15,6 +13,8 @@ import org.slf4j.LoggerFactory;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
+import gov.uspto.parser.dom4j.XmlReaders;
+
 /**
  * @author Brian G. Feldman (brian.feldman@uspto.gov)
  *
@@ -23,20 +23,8 @@ public class PatternMatcher {
 	private static final Logger LOGGER = LoggerFactory.getLogger(PatternMatcher.class);
 
 	private List<XPathMatch> patterns = new ArrayList<XPathMatch>();
-	private DocumentBuilder docBuilder;
 	private XPathMatch lastMatchedPattern;
 
-	public PatternMatcher() {
-		DocumentBuilderFactory dbfact = DocumentBuilderFactory.newInstance();
-		dbfact.setAttribute("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-		try {
-			docBuilder = dbfact.newDocumentBuilder();
-		} catch (ParserConfigurationException e) {
-			LOGGER.error("XML ParserConfigurationException", e);
-			// ignore...
-		}
-	}
-
 	public void add(XPathMatch pattern) {
 		patterns.add(pattern);
 	}
@@ -47,7 +35,7 @@ public class PatternMatcher {
 			return false;
 		}
 
-		docBuilder.reset();
+		DocumentBuilder docBuilder = XmlReaders.documentBuilder();
 
 		try {
 
@@ -0,0 +1,165 @@
+package gov.uspto.bulkdata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.LinkedListMultimap;
+
+import gov.uspto.bulkdata.cli2.BulkData;
+import gov.uspto.bulkdata.cli2.BulkDataType;
+import gov.uspto.bulkdata.corpusbuilder.BulkFilePrefetcher;
+import gov.uspto.bulkdata.downloader.DownloadJob;
+import gov.uspto.common.DateRange;
+import okhttp3.HttpUrl;
+
+public class BulkFilePrefetcherTest {
+
+	private Path downloadDir;
+	private final AtomicInteger started = new AtomicInteger();
+	private final AtomicInteger taken = new AtomicInteger();
+	private final AtomicInteger maxAhead = new AtomicInteger();
+
+	/**
+	 * Writes a 100 byte file instead of downloading, fails urls with "fail", "bug" or "crash" in their name.
+	 */
+	private class FakeBulkData extends BulkData {
+		public FakeBulkData() {
+			super(downloadDir, BulkDataType.GRANT_REDBOOK_TEXT, LinkedListMultimap.<String, DateRange> create(), false);
+		}
+
+		@Override
+		public DownloadJob download(HttpUrl url) throws IOException {
+			int ahead = started.incrementAndGet() - taken.get();
+			if (ahead > maxAhead.get()) {
+				maxAhead.set(ahead);
+			}
+			if (url.toString().contains("fail")) {
+				throw new IOException("download failed");
+			} else if (url.toString().contains("bug")) {
+				throw new IllegalStateException("download bug");
+			} else if (url.toString().contains("crash")) {
+				throw new StackOverflowError();
+			}
+			DownloadJob job = new DownloadJob(url, downloadDir);
+			Files.write(job.getDownloadTasks().get(0).getOutFile().toPath(), new byte[100]);
+			return job;
+		}
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		downloadDir = Files.createTempDirectory("prefetch");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		for (File file : downloadDir.toFile().listFiles()) {
+			file.delete();
+		}
+		Files.delete(downloadDir);
+	}
+
+	private static List<HttpUrl> urls(String... names) {
+		List<HttpUrl> urls = new ArrayList<HttpUrl>();
+		for (String name : names) {
+			urls.add(HttpUrl.parse("http://localhost/bulk/" + name));
+		}
+		return urls;
+	}
+
+	@Test
+	public void inOrderWithinBound() throws Exception {
+		List<HttpUrl> urls = urls("ipg1.zip", "ipg2.zip", "ipg3.zip", "ipg4.zip", "ipg5.zip", "ipg6.zip");
+		try (BulkFilePrefetcher prefetcher = new BulkFilePrefetcher(new FakeBulkData(), urls, 2, Long.MAX_VALUE)) {
+			prefetcher.start();
+			for (HttpUrl url : urls) {
+				BulkFilePrefetcher.Download download = prefetcher.take();
+				assertEquals(url, download.getUrl());
+				assertTrue(download.getFile().exists());
+				Thread.sleep(20);
+				taken.incrementAndGet();
+				download.getFile().delete();
+			}
+			assertNull(prefetcher.take());
+		}
+		// file in download plus 2 ahead, plus 1 taken but not yet counted.
+		assertTrue("downloaded too far ahead: " + maxAhead.get(), maxAhead.get() <= 4);
+	}
+
+	@Test
+	public void boundedByBytes() throws Exception {
+		List<HttpUrl> urls = urls("ipg1.zip", "ipg2.zip", "ipg3.zip", "ipg4.zip");
+		try (BulkFilePrefetcher prefetcher = new BulkFilePrefetcher(new FakeBulkData(), urls, 10, 100)) {
+			prefetcher.start();
+			BulkFilePrefetcher.Download download;
+			while ((download = prefetcher.take()) != null) {
+				Thread.sleep(20);
+				taken.incrementAndGet();
+				download.getFile().delete();
+			}
+		}
+		assertEquals(4, started.get());
+		assertTrue("downloaded too far ahead: " + maxAhead.get(), maxAhead.get() <= 3);
+	}
+
+	@Test
+	public void failedDownloadHandedOver() throws Exception {
+		List<HttpUrl> urls = urls("ipg1.zip", "fail.zip", "ipg3.zip");
+		try (BulkFilePrefetcher prefetcher = new BulkFilePrefetcher(new FakeBulkData(), urls, 1, Long.MAX_VALUE)) {
+			prefetcher.start();
+			assertNotNull(prefetcher.take().getFile());
+
+			BulkFilePrefetcher.Download failed = prefetcher.take();
+			assertEquals(urls.get(1), failed.getUrl());
+			assertNull(failed.getFile());
+			assertNotNull(failed.getError());
+
+			assertEquals(urls.get(2), prefetcher.take().getUrl());
+			assertNull(prefetcher.take());
+		}
+	}
+
+	@Test
+	public void runtimeFailureHandedOver() throws Exception {
+		List<HttpUrl> urls = urls("bug.zip", "ipg2.zip");
+		try (BulkFilePrefetcher prefetcher = new BulkFilePrefetcher(new FakeBulkData(), urls, 1, Long.MAX_VALUE)) {
+			prefetcher.start();
+			BulkFilePrefetcher.Download failed = prefetcher.take();
+			assertNull(failed.getFile());
+			assertTrue(failed.getError().getCause() instanceof IllegalStateException);
+
+			assertEquals(urls.get(1), prefetcher.take().getUrl());
+			assertNull(prefetcher.take());
+		}
+	}
+
+	@Test
+	public void threadFailureReported() throws Exception {
+		List<HttpUrl> urls = urls("ipg1.zip", "crash.zip", "ipg3.zip");
+		try (BulkFilePrefetcher prefetcher = new BulkFilePrefetcher(new FakeBulkData(), urls, 1, Long.MAX_VALUE)) {
+			prefetcher.start();
+			assertNotNull(prefetcher.take().getFile());
+			try {
+				prefetcher.take();
+				fail("expected the prefetch failure");
+			} catch (IOException e) {
+				assertTrue(e.getCause() instanceof StackOverflowError);
+			}
+		}
+	}
+}
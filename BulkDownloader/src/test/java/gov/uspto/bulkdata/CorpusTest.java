@@ -0,0 +1,166 @@
+package gov.uspto.bulkdata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.xpath.XPathExpressionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Supplier;
+import com.google.common.collect.LinkedListMultimap;
+
+import gov.uspto.bulkdata.cli2.BulkData;
+import gov.uspto.bulkdata.cli2.BulkDataType;
+import gov.uspto.bulkdata.corpusbuilder.Corpus;
+import gov.uspto.bulkdata.corpusbuilder.CorpusMatch;
+import gov.uspto.bulkdata.corpusbuilder.Writer;
+import gov.uspto.bulkdata.downloader.DownloadJob;
+import gov.uspto.common.DateRange;
+import gov.uspto.patent.PatentDocFormat;
+import okhttp3.HttpUrl;
+
+public class CorpusTest {
+
+	private static final Pattern DOC_NUMBER = Pattern.compile("<doc-number>([^<]+)</doc-number>");
+	private static final int COPIES = 30;
+
+	private Path downloadDir;
+
+	/**
+	 * Writes a bulk file of the xml2014 samples instead of downloading, each record with its own doc-number.
+	 */
+	private class FakeBulkData extends BulkData {
+		public FakeBulkData() {
+			super(downloadDir, BulkDataType.GRANT_REDBOOK_TEXT, LinkedListMultimap.<String, DateRange> create(), false);
+		}
+
+		@Override
+		public DownloadJob download(HttpUrl url) throws IOException {
+			DownloadJob job = new DownloadJob(url, downloadDir);
+			File[] samples = new File("../PatentDocument/resources/samples/xml2014").listFiles();
+			int docNumber = url.toString().hashCode() & 0xFFFF;
+			try (OutputStream out = new FileOutputStream(job.getDownloadTasks().get(0).getOutFile())) {
+				for (int i = 0; i < COPIES; i++) {
+					for (File sample : samples) {
+						String xml = new String(Files.readAllBytes(sample.toPath()), StandardCharsets.UTF_8);
+						Matcher matcher = DOC_NUMBER.matcher(xml);
+						matcher.find();
+						xml = xml.substring(0, matcher.start(1)) + docNumber++ + xml.substring(matcher.end(1));
+						out.write(xml.getBytes(StandardCharsets.UTF_8));
+					}
+				}
+			}
+			return job;
+		}
+	}
+
+	/**
+	 * Matches records with an odd doc-number.
+	 */
+	private static class OddMatch implements CorpusMatch<OddMatch> {
+		private String docNumber;
+
+		@Override
+		public void setup() throws XPathExpressionException {
+			// nothing to set up.
+		}
+
+		@Override
+		public OddMatch on(String xmlDocStr, PatentDocFormat patentDocFormat) {
+			Matcher matcher = DOC_NUMBER.matcher(xmlDocStr);
+			docNumber = matcher.find() ? matcher.group(1) : "0";
+			return this;
+		}
+
+		@Override
+		public boolean match() {
+			return Integer.parseInt(docNumber) % 2 == 1;
+		}
+
+		@Override
+		public String getLastMatchPattern() {
+			return docNumber;
+		}
+	}
+
+	private static class ListWriter implements Writer {
+		private final List<String> docNumbers = new ArrayList<String>();
+		private boolean open;
+
+		@Override
+		public void open() {
+			open = true;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return open;
+		}
+
+		@Override
+		public void write(byte[] bytes) {
+			Matcher matcher = DOC_NUMBER.matcher(new String(bytes, StandardCharsets.UTF_8));
+			matcher.find();
+			docNumbers.add(matcher.group(1));
+		}
+
+		@Override
+		public void close() {
+			open = false;
+		}
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		downloadDir = Files.createTempDirectory("corpus");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		for (File file : downloadDir.toFile().listFiles()) {
+			file.delete();
+		}
+		Files.delete(downloadDir);
+	}
+
+	private List<String> matches(int threads) throws IOException, XPathExpressionException {
+		List<HttpUrl> urls = new ArrayList<HttpUrl>();
+		urls.add(HttpUrl.parse("http://localhost/bulk/ipg140101.xml"));
+		urls.add(HttpUrl.parse("http://localhost/bulk/ipg140108.xml"));
+
+		ListWriter writer = new ListWriter();
+		Corpus corpus = new Corpus(new FakeBulkData(), new OddMatch(), writer);
+		corpus.setMatchThreads(threads, new Supplier<OddMatch>() {
+			@Override
+			public OddMatch get() {
+				return new OddMatch();
+			}
+		});
+		corpus.setup().enqueue(urls).processAllBulks(true);
+		corpus.close();
+		assertEquals(2, corpus.getBulkFileCount());
+		return writer.docNumbers;
+	}
+
+	@Test
+	public void parallelMatchesSameAsSerial() throws IOException, XPathExpressionException {
+		List<String> serial = matches(1);
+		assertTrue(serial.size() > COPIES);
+		assertEquals(serial, matches(4));
+	}
+}
@@ -0,0 +1,62 @@
+package gov.uspto.bulkdata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import gov.uspto.bulkdata.cli.Look;
+import gov.uspto.patent.PatentReaderException;
+
+public class LookTest {
+
+	private static final Pattern DOC_NUMBER = Pattern.compile("<doc-number>([^<]+)</doc-number>");
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private String look(File bulkFile, String... options) throws IOException, PatentReaderException {
+		File outFile = tempFolder.newFile();
+		String[] args = new String[options.length + 3];
+		args[0] = "--source=" + bulkFile.getPath();
+		args[1] = "--fields=raw";
+		args[2] = "--out=" + outFile.getPath();
+		System.arraycopy(options, 0, args, 3, options.length);
+		Look.main(args);
+		return new String(Files.readAllBytes(outFile.toPath()), StandardCharsets.UTF_8).replace("\r\n", "\n");
+	}
+
+	@Test
+	public void numSameWithAndWithoutIndex() throws IOException, PatentReaderException {
+		File[] samples = new File("../PatentDocument/resources/samples/xml2014").listFiles();
+		File bulkFile = tempFolder.newFile("ipg140101.xml");
+		try (OutputStream out = new FileOutputStream(bulkFile)) {
+			for (File sample : samples) {
+				out.write(Files.readAllBytes(sample.toPath()));
+			}
+		}
+		File indexFile = new File(bulkFile.getPath() + ".idx");
+
+		String scanned = look(bulkFile, "--num=3");
+		assertFalse("index written without --index", indexFile.exists());
+
+		Matcher matcher = DOC_NUMBER.matcher(new String(Files.readAllBytes(samples[2].toPath()), StandardCharsets.UTF_8));
+		assertTrue(matcher.find());
+		assertTrue(scanned.contains("<doc-number>" + matcher.group(1) + "</doc-number>"));
+
+		assertEquals(scanned, look(bulkFile, "--num=3", "--index=true"));
+		assertTrue(indexFile.isFile());
+	}
+}
@@ -0,0 +1,84 @@
+package gov.uspto.bulkdata;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.xpath.XPathExpressionException;
+
+import org.junit.Test;
+
+import gov.uspto.bulkdata.corpusbuilder.MatchClassificationXPath;
+import gov.uspto.bulkdata.corpusbuilder.RecordPrefilter;
+import gov.uspto.patent.model.classification.Classification;
+import gov.uspto.patent.model.classification.CpcClassification;
+import gov.uspto.patent.model.classification.UspcClassification;
+
+public class RecordPrefilterTest {
+
+	private static final String CPC_DOC = "<us-patent-grant><classifications-cpc><main-cpc><classification-cpc>"
+			+ "<section>H</section>\n<class>04</class>\n<subclass>N</subclass>\n<main-group>21</main-group>"
+			+ "<subgroup>4394</subgroup></classification-cpc></main-cpc></classifications-cpc></us-patent-grant>";
+
+	private static final String OTHER_DOC = "<us-patent-grant><classifications-cpc><main-cpc><classification-cpc>"
+			+ "<section>H</section>\n<class>04</class>\n<subclass>L</subclass>\n<main-group>21</main-group>"
+			+ "<subgroup>4394</subgroup></classification-cpc></main-cpc></classifications-cpc>"
+			+ "<classification-national><main-classification>333101</main-classification></classification-national>"
+			+ "</us-patent-grant>";
+
+	private MatchClassificationXPath setup(Classification... wanted) throws XPathExpressionException {
+		List<Classification> wantedClasses = new ArrayList<Classification>();
+		for (Classification clazz : wanted) {
+			wantedClasses.add(clazz);
+		}
+		MatchClassificationXPath corpusMatch = new MatchClassificationXPath(wantedClasses);
+		corpusMatch.setup();
+		return corpusMatch;
+	}
+
+	private boolean accept(RecordPrefilter prefilter, String xml) {
+		return prefilter.accept(xml.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void sameAsXPathMatch() throws XPathExpressionException, ParseException {
+		MatchClassificationXPath corpusMatch = setup(CpcClassification.fromText("H04N21/00"),
+				UspcClassification.fromText("725/1"));
+		RecordPrefilter prefilter = corpusMatch.getPrefilter();
+
+		assertTrue(accept(prefilter, CPC_DOC));
+		assertTrue(corpusMatch.on(CPC_DOC, null).match());
+
+		// all tokens of H04N21 except the subclass, and no USPC 725.
+		assertFalse(accept(prefilter, OTHER_DOC));
+		assertFalse(corpusMatch.on(OTHER_DOC, null).match());
+	}
+
+	@Test
+	public void anyGroup() throws XPathExpressionException, ParseException {
+		MatchClassificationXPath corpusMatch = setup(CpcClassification.fromText("H04N21/00"),
+				UspcClassification.fromText("333/1"));
+		RecordPrefilter prefilter = corpusMatch.getPrefilter();
+
+		assertTrue(accept(prefilter, OTHER_DOC));
+		assertTrue(corpusMatch.on(OTHER_DOC, null).match());
+		assertTrue(corpusMatch.getLastMatchPattern().contains("main-classification[starts-with(.,'333')]"));
+	}
+
+	@Test
+	public void overlappingTokens() {
+		List<List<String>> groups = new ArrayList<List<String>>();
+		List<String> group = new ArrayList<String>();
+		group.add("<main-group>2");
+		group.add("<main-group>21");
+		groups.add(group);
+		RecordPrefilter prefilter = new RecordPrefilter(groups);
+
+		assertTrue(accept(prefilter, "<main-group>21</main-group>"));
+		assertFalse(accept(prefilter, "<main-group>2</main-group>"));
+	}
+}
@@ -0,0 +1,32 @@
+package gov.uspto.common.file.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Inflates the raw deflate data of a zip entry.
+ *
+ *<p>
+ * {@link InflaterDecompressor}, using the JDK Inflater, is the default. A faster implementation can be
+ * added to the classpath and registered as a service in
+ * {@code META-INF/services/gov.uspto.common.file.archive.Decompressor}, the first one found is used
+ * by {@link ZipReader}, or set one with {@link ZipReader#setDecompressor(Decompressor)}.
+ *</p>
+ */
+public interface Decompressor {
+
+    /**
+     * @return name, used when logging.
+     */
+    public String getName();
+
+    /**
+     * Uncompressed stream of raw deflate data; closing it closes the raw stream.
+     *
+     * @param raw compressed bytes of a zip entry, without zlib header
+     * @param bufferSize size of the compressed input buffer
+     * @return uncompressed stream
+     * @throws IOException
+     */
+    public InputStream inflate(InputStream raw, int bufferSize) throws IOException;
+}
@@ -0,0 +1,38 @@
+package gov.uspto.common.file.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * JDK Inflater (zlib) Decompressor, with a configurable input buffer.
+ */
+public class InflaterDecompressor implements Decompressor {
+
+    @Override
+    public String getName() {
+        return "jdk-inflater";
+    }
+
+    @Override
+    public InputStream inflate(InputStream raw, int bufferSize) throws IOException {
+        // nowrap inflater needs an extra dummy byte after the deflate data.
+        InputStream in = new SequenceInputStream(raw, new ByteArrayInputStream(new byte[1]));
+        return new InflaterInputStream(in, new Inflater(true), bufferSize) {
+            private boolean closed = false;
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    // release native memory now rather than on finalize.
+                    inf.end();
+                    super.close();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package gov.uspto.common.file.archive;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Counts bytes and time spent reading from the wrapped stream, logs throughput on close.
+ *
+ *<p>
+ * Wrapping a decompressing stream measures decompression apart from whatever consumes the bytes.
+ *</p>
+ */
+public class MeteredInputStream extends FilterInputStream {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MeteredInputStream.class);
+
+    private final String name;
+    private long bytes;
+    private long nanos;
+    private boolean closed = false;
+
+    public MeteredInputStream(InputStream in, String name) {
+        super(in);
+        this.name = name;
+    }
+
+    @Override
+    public int read() throws IOException {
+        long start = System.nanoTime();
+        int value = super.read();
+        nanos += System.nanoTime() - start;
+        if (value != -1) {
+            bytes++;
+        }
+        return value;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        long start = System.nanoTime();
+        int count = super.read(b, off, len);
+        nanos += System.nanoTime() - start;
+        if (count > 0) {
+            bytes += count;
+        }
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long start = System.nanoTime();
+        long count = super.skip(n);
+        nanos += System.nanoTime() - start;
+        bytes += count;
+        return count;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @return MB (10^6 bytes) per second of read time.
+     */
+    public double getMBPerSecond() {
+        return nanos == 0 ? 0 : (bytes / 1e6) / (nanos / 1e9);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            LOGGER.info("Read {}: {} MB in {} ms, {} MB/s", name, String.format("%.1f", bytes / 1e6), nanos / 1000000,
+                    String.format("%.1f", getMBPerSecond()));
+        }
+        super.close();
+    }
+}
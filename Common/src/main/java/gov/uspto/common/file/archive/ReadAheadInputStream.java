@@ -0,0 +1,201 @@
+package gov.uspto.common.file.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Reads ahead of the consumer on a separate thread, so reading (decompressing) the wrapped stream
+ * overlaps with processing the bytes already read.
+ *
+ *<p>
+ * The reader thread fills up to chunkCount chunks of chunkSize bytes, then waits for the consumer
+ * to hand a chunk back. Chunks are reused, no buffers are allocated after the first chunkCount reads.
+ * An exception or error from the wrapped stream is thrown to the consumer once it reaches that point.
+ *</p>
+ *
+ *<p>
+ * The stream must be closed: until then its reader thread waits for the consumer and holds the chunks,
+ * chunkSize * chunkCount bytes, even after the stream is no longer referenced.
+ *</p>
+ *
+ *<pre>
+ * InputStream in = new ReadAheadInputStream(zipFile.getInputStream(entry), 1024 * 1024, 4);
+ *</pre>
+ */
+public class ReadAheadInputStream extends InputStream {
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private static class Chunk {
+        private final byte[] data;
+        private int length;
+        private boolean end;
+        private Throwable error;
+
+        public Chunk(int size) {
+            this.data = new byte[size];
+        }
+    }
+
+    private final InputStream in;
+    private final BlockingQueue<Chunk> free = new LinkedBlockingQueue<Chunk>();
+    private final BlockingQueue<Chunk> filled = new LinkedBlockingQueue<Chunk>();
+    private final Thread reader;
+    private volatile boolean closed = false;
+
+    private Chunk current;
+    private int position;
+
+    public ReadAheadInputStream(InputStream in, int chunkSize, int chunkCount) {
+        Preconditions.checkNotNull(in, "InputStream can not be Null");
+        Preconditions.checkArgument(chunkSize > 0, "chunkSize must be greater than 0");
+        Preconditions.checkArgument(chunkCount > 0, "chunkCount must be greater than 0");
+        this.in = in;
+
+        for (int i = 0; i < chunkCount; i++) {
+            free.add(new Chunk(chunkSize));
+        }
+
+        reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                readAhead();
+            }
+        }, "read-ahead-" + THREAD_COUNT.incrementAndGet());
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private void readAhead() {
+        try {
+            while (!closed) {
+                Chunk chunk = free.take();
+                if (closed) {
+                    return;
+                }
+
+                chunk.length = 0;
+                try {
+                    while (chunk.length < chunk.data.length) {
+                        int count = in.read(chunk.data, chunk.length, chunk.data.length - chunk.length);
+                        if (count == -1) {
+                            chunk.end = true;
+                            break;
+                        }
+                        chunk.length += count;
+                    }
+                } catch (Throwable e) {
+                    chunk.error = e;
+                    chunk.end = true;
+                }
+
+                // always handed over, the consumer waits for it.
+                filled.put(chunk);
+                if (chunk.end) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // closed.
+        }
+    }
+
+    /**
+     * Current chunk with bytes left to read, or null at the end of the stream.
+     */
+    private Chunk fill() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        while (current == null || position == current.length) {
+            if (current != null) {
+                if (current.end) {
+                    if (current.error instanceof IOException) {
+                        throw (IOException) current.error;
+                    } else if (current.error instanceof RuntimeException) {
+                        throw (RuntimeException) current.error;
+                    } else if (current.error instanceof Error) {
+                        throw (Error) current.error;
+                    }
+                    return null;
+                }
+                free.add(current);
+                current = null;
+            }
+            try {
+                current = filled.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for read ahead");
+            }
+            position = 0;
+        }
+        return current;
+    }
+
+    @Override
+    public int read() throws IOException {
+        Chunk chunk = fill();
+        if (chunk == null) {
+            return -1;
+        }
+        return chunk.data[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        Chunk chunk = fill();
+        if (chunk == null) {
+            return -1;
+        }
+        int count = Math.min(len, chunk.length - position);
+        System.arraycopy(chunk.data, position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    /**
+     * Bytes left in the current chunk; else like InflaterInputStream, 1 until the end of stream has been
+     * reached, as line readers checking {@code ready()} depend on it.
+     */
+    @Override
+    public int available() {
+        if (current != null && position < current.length) {
+            return current.length - position;
+        }
+        return current != null && current.end ? 0 : 1;
+    }
+
+    /**
+     * Stops the reader thread, waiting for a read in progress to finish, then closes the wrapped stream.
+     *
+     *<p>
+     * The reader thread is not interrupted while reading; an interrupt would close an interruptible channel
+     * under the wrapped stream, such as the one shared by all entries of a zip file.
+     *</p>
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        free.add(new Chunk(0)); // wake reader waiting for a free chunk.
+        try {
+            reader.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        filled.clear();
+        current = null;
+        in.close();
+    }
+}
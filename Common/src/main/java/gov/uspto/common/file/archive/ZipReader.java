@@ -5,11 +5,18 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.ServiceLoader;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipException;
 
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
@@ -34,12 +41,22 @@ import com.google.common.base.Preconditions;
  * </pre></code>
  * </p>
  * 
+ * <p>
+ * Deflated entries are inflated by a pluggable {@link Decompressor} with a large input buffer, and read
+ * ahead on a separate thread in chunks of bufferSize. Inflate throughput is logged when an entry stream
+ * is closed, apart from the time spent parsing.
+ * </p>
+ * 
  * @author Brian G. Feldman (brian.feldman@uspto.gov)
  *
  */
 public class ZipReader implements Iterator<Reader>, Closeable {
     private static final Logger LOGGER = LoggerFactory.getLogger(ZipReader.class);
 
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+    public static final int DEFAULT_READ_AHEAD = 4;
+    private static final Decompressor DEFAULT_DECOMPRESSOR = loadDecompressor();
+
     private final File file;
     private final FileFilter filter;
     private ZipFile zipFile;
@@ -47,6 +64,11 @@ public class ZipReader implements Iterator<Reader>, Closeable {
     private ZipArchiveEntry currentEntry;
     private int currentRecCount = 0;
 
+    private Decompressor decompressor = DEFAULT_DECOMPRESSOR;
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private int readAheadChunks = DEFAULT_READ_AHEAD;
+    private Charset charset = StandardCharsets.UTF_8;
+
     /**
      * Constructor
      * 
@@ -61,6 +83,45 @@ public class ZipReader implements Iterator<Reader>, Closeable {
         this.filter = filter;
     }
 
+    /**
+     * First Decompressor registered as a service, else the JDK Inflater.
+     */
+    private static Decompressor loadDecompressor() {
+        Iterator<Decompressor> services = ServiceLoader.load(Decompressor.class).iterator();
+        Decompressor decompressor = services.hasNext() ? services.next() : new InflaterDecompressor();
+        LOGGER.debug("Zip decompressor: {}", decompressor.getName());
+        return decompressor;
+    }
+
+    public void setDecompressor(Decompressor decompressor) {
+        Preconditions.checkNotNull(decompressor, "Decompressor can not be null.");
+        this.decompressor = decompressor;
+    }
+
+    /**
+     * Size of the compressed input buffer and of each read ahead chunk, default 1MB.
+     */
+    public void setBufferSize(int bufferSize) {
+        Preconditions.checkArgument(bufferSize > 0, "bufferSize must be greater than 0");
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Number of chunks read ahead on a separate thread, default 4; 0 reads on the calling thread.
+     */
+    public void setReadAhead(int readAheadChunks) {
+        Preconditions.checkArgument(readAheadChunks >= 0, "readAheadChunks can not be negative");
+        this.readAheadChunks = readAheadChunks;
+    }
+
+    /**
+     * Charset of the readers returned by {@link #next()}, default UTF-8.
+     */
+    public void setCharset(Charset charset) {
+        Preconditions.checkNotNull(charset, "Charset can not be null.");
+        this.charset = charset;
+    }
+
     public ZipReader open() throws IOException {
         LOGGER.info("Reading zip file: {}", file);
         zipFile = new ZipFile(file);
@@ -79,7 +140,8 @@ public class ZipReader implements Iterator<Reader>, Closeable {
      */
     public ZipReader skip(int skipCount) {
         for (int i = 1; i <= skipCount; i++) {
-            next();
+            nextEntry();
+            currentRecCount++;
         }
         return this;
     }
@@ -92,9 +154,7 @@ public class ZipReader implements Iterator<Reader>, Closeable {
      * @return
      */
     public BufferedReader jumpTo(int recCount) {
-        for (int i = 1; i < recCount; i++) {
-            next();
-        }
+        skip(recCount - 1);
         return next();
     }
 
@@ -109,7 +169,7 @@ public class ZipReader implements Iterator<Reader>, Closeable {
                 currentRecCount++;
                 LOGGER.info("Found {} file[{}]: {}", currentRecCount, filter, currentEntry.getName());
                 try {
-                    return new BufferedReader(new InputStreamReader(zipFile.getInputStream(currentEntry)));
+                    return readEntry(currentEntry);
                 } catch (ZipException e) {
                     LOGGER.error("Error reading Zip File: {}", file, e);
                 } catch (IOException e) {
@@ -133,8 +193,60 @@ public class ZipReader implements Iterator<Reader>, Closeable {
         throw new NoSuchElementException();
     }
 
+    /**
+     * Names of all entries matching the filter, in archive order; does not move the iterator.
+     *
+     * @return entry names
+     */
+    public List<String> entryNames() {
+        Preconditions.checkState(zipFile != null, "ZipReader is not open: " + file);
+        List<String> names = new ArrayList<String>();
+        Enumeration<ZipArchiveEntry> allEntries = zipFile.getEntries();
+        while (allEntries.hasMoreElements()) {
+            ZipArchiveEntry entry = allEntries.nextElement();
+            if (filter.accept(new File(entry.getName()))) {
+                names.add(entry.getName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Entry by name, from the zip central directory.
+     *
+     * @param name
+     * @return entry or null if not found
+     */
+    public ZipArchiveEntry getEntry(String name) {
+        return zipFile.getEntry(name);
+    }
+
     public BufferedReader readEntry(ZipArchiveEntry zipEntry) throws ZipException, IOException {
-        return new BufferedReader(new InputStreamReader(zipFile.getInputStream(zipEntry)));
+        return new BufferedReader(new InputStreamReader(readEntryStream(zipEntry), charset));
+    }
+
+    /**
+     * Raw uncompressed bytes of the zip entry, for byte oriented readers which do their own decoding.
+     *
+     * @param zipEntry
+     * @return
+     * @throws ZipException
+     * @throws IOException
+     */
+    public InputStream readEntryStream(ZipArchiveEntry zipEntry) throws ZipException, IOException {
+        InputStream in;
+        if (zipEntry.getMethod() == ZipEntry.DEFLATED) {
+            in = decompressor.inflate(zipFile.getRawInputStream(zipEntry), bufferSize);
+        } else {
+            in = zipFile.getInputStream(zipEntry);
+        }
+
+        in = new MeteredInputStream(in, file.getName() + "!" + zipEntry.getName());
+
+        if (readAheadChunks > 0) {
+            in = new ReadAheadInputStream(in, bufferSize, readAheadChunks);
+        }
+        return in;
     }
 
     @Override
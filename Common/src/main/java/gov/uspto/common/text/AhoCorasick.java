@@ -0,0 +1,207 @@
+package gov.uspto.common.text;
+
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Byte level multi-pattern matcher (Aho-Corasick), finds any of a set of patterns in a single pass over the bytes.
+ *
+ *<p>
+ * The automaton is built once into a full transition table, matching is one table lookup per byte; a built
+ * matcher is immutable and thread safe. Patterns are numbered in the order given, {@link #match(int)} reports
+ * the lowest numbered pattern ending at a state, so earlier patterns take priority.
+ *</p>
+ *
+ *<pre>
+ * AhoCorasick matcher = AhoCorasick.of(StandardCharsets.US_ASCII, "&lt;us-patent-grant", "&lt;PATDOC ");
+ * int state = AhoCorasick.START;
+ * for (byte b : bytes) {
+ *     state = matcher.next(state, b);
+ *     if (matcher.match(state) != -1) {
+ *         ...
+ *     }
+ * }
+ *</pre>
+ */
+public class AhoCorasick {
+
+	public static final int START = 0;
+
+	private static final int[] NONE = new int[0];
+
+	private final int patternCount;
+	private final int[] transitions;
+	private final int[] match;
+	private final int[][] matches;
+
+	private AhoCorasick(int patternCount, int[] transitions, int[] match, int[][] matches) {
+		this.patternCount = patternCount;
+		this.transitions = transitions;
+		this.match = match;
+		this.matches = matches;
+	}
+
+	public static AhoCorasick of(Charset charset, String... patterns) {
+		List<byte[]> bytePatterns = new ArrayList<byte[]>(patterns.length);
+		for (String pattern : patterns) {
+			bytePatterns.add(pattern.getBytes(charset));
+		}
+		return of(bytePatterns);
+	}
+
+	public static AhoCorasick of(List<byte[]> patterns) {
+		Preconditions.checkNotNull(patterns, "patterns can not be Null");
+
+		// Trie.
+		List<int[]> gotoTable = new ArrayList<int[]>();
+		List<Integer> matchList = new ArrayList<Integer>();
+		gotoTable.add(newRow());
+		matchList.add(-1);
+
+		for (int p = 0; p < patterns.size(); p++) {
+			byte[] pattern = patterns.get(p);
+			Preconditions.checkArgument(pattern.length > 0, "pattern can not be empty");
+			int state = START;
+			for (byte b : pattern) {
+				int[] row = gotoTable.get(state);
+				if (row[b & 0xFF] == -1) {
+					row[b & 0xFF] = gotoTable.size();
+					gotoTable.add(newRow());
+					matchList.add(-1);
+				}
+				state = row[b & 0xFF];
+			}
+			if (matchList.get(state) == -1) {
+				matchList.set(state, p);
+			}
+		}
+
+		// Failure links, breadth first, folded into a full transition table.
+		int stateCount = gotoTable.size();
+		int[] transitions = new int[stateCount * 256];
+		int[] match = new int[stateCount];
+		int[][] matches = new int[stateCount][];
+		int[] fail = new int[stateCount];
+		for (int s = 0; s < stateCount; s++) {
+			match[s] = matchList.get(s);
+			matches[s] = NONE;
+		}
+		for (int p = 0; p < patterns.size(); p++) {
+			int state = START;
+			for (byte b : patterns.get(p)) {
+				state = gotoTable.get(state)[b & 0xFF];
+			}
+			matches[state] = append(matches[state], p);
+		}
+
+		Queue<Integer> queue = new ArrayDeque<Integer>();
+		int[] root = gotoTable.get(START);
+		for (int c = 0; c < 256; c++) {
+			if (root[c] == -1) {
+				transitions[c] = START;
+			} else {
+				transitions[c] = root[c];
+				fail[root[c]] = START;
+				queue.add(root[c]);
+			}
+		}
+
+		while (!queue.isEmpty()) {
+			int state = queue.poll();
+			match[state] = lowest(match[state], match[fail[state]]);
+			for (int p : matches[fail[state]]) {
+				matches[state] = append(matches[state], p);
+			}
+			int[] row = gotoTable.get(state);
+			for (int c = 0; c < 256; c++) {
+				int next = row[c];
+				if (next == -1) {
+					transitions[state * 256 + c] = transitions[fail[state] * 256 + c];
+				} else {
+					transitions[state * 256 + c] = next;
+					fail[next] = transitions[fail[state] * 256 + c];
+					queue.add(next);
+				}
+			}
+		}
+
+		return new AhoCorasick(patterns.size(), transitions, match, matches);
+	}
+
+	private static int[] append(int[] values, int value) {
+		int[] appended = Arrays.copyOf(values, values.length + 1);
+		appended[values.length] = value;
+		return appended;
+	}
+
+	private static int[] newRow() {
+		int[] row = new int[256];
+		Arrays.fill(row, -1);
+		return row;
+	}
+
+	private static int lowest(int a, int b) {
+		if (a == -1) {
+			return b;
+		}
+		if (b == -1) {
+			return a;
+		}
+		return Math.min(a, b);
+	}
+
+	public int getPatternCount() {
+		return patternCount;
+	}
+
+	/**
+	 * @param state current state, {@link #START} before the first byte
+	 * @param b next byte
+	 * @return next state
+	 */
+	public int next(int state, byte b) {
+		return transitions[state * 256 + (b & 0xFF)];
+	}
+
+	/**
+	 * @param state
+	 * @return lowest numbered pattern ending at the state, -1 for none.
+	 */
+	public int match(int state) {
+		return match[state];
+	}
+
+	/**
+	 * @param state
+	 * @return all patterns ending at the state, empty for none; the array is shared and must not be changed.
+	 */
+	public int[] matches(int state) {
+		return matches[state];
+	}
+
+	/**
+	 * Lowest numbered pattern ending first within the bytes.
+	 *
+	 * @return pattern number, -1 when none found.
+	 */
+	public int find(byte[] bytes, int offset, int length) {
+		int state = START;
+		for (int i = offset, end = offset + length; i < end; i++) {
+			state = transitions[state * 256 + (bytes[i] & 0xFF)];
+			if (match[state] != -1) {
+				return match[state];
+			}
+		}
+		return -1;
+	}
+
+	public boolean containsAny(byte[] bytes, int offset, int length) {
+		return find(bytes, offset, length) != -1;
+	}
+}
@@ -0,0 +1,150 @@
+package gov.uspto.common.file.archive;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.ByteStreams;
+
+import gov.uspto.common.filter.FileFilterChain;
+
+public class ZipReaderTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private byte[] content(int size) {
+        // compressible text like content, with some random bytes.
+        Random random = new Random(7);
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (random.nextInt(10) == 0 ? random.nextInt(256) : 'a' + (i % 26));
+        }
+        return data;
+    }
+
+    private File zip(byte[] data) throws IOException {
+        File zipFile = tempFolder.newFile("test.zip");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zipFile))) {
+            out.putNextEntry(new ZipEntry("deflated.xml"));
+            out.write(data);
+            out.closeEntry();
+
+            ZipEntry stored = new ZipEntry("stored.xml");
+            stored.setMethod(ZipEntry.STORED);
+            stored.setSize(data.length);
+            CRC32 crc = new CRC32();
+            crc.update(data);
+            stored.setCrc(crc.getValue());
+            out.putNextEntry(stored);
+            out.write(data);
+            out.closeEntry();
+        }
+        return zipFile;
+    }
+
+    private byte[] read(File zipFile, String entryName, int bufferSize, int readAhead) throws IOException {
+        ZipReader zipReader = new ZipReader(zipFile, new FileFilterChain());
+        zipReader.setBufferSize(bufferSize);
+        zipReader.setReadAhead(readAhead);
+        try {
+            zipReader.open();
+            ZipArchiveEntry entry = zipReader.getEntry(entryName);
+            try (InputStream in = zipReader.readEntryStream(entry)) {
+                return ByteStreams.toByteArray(in);
+            }
+        } finally {
+            zipReader.close();
+        }
+    }
+
+    @Test
+    public void readEntryStream() throws IOException {
+        byte[] data = content(3 * 1024 * 1024 + 17);
+        File zipFile = zip(data);
+
+        for (String entryName : new String[] { "deflated.xml", "stored.xml" }) {
+            assertArrayEquals(entryName, data, read(zipFile, entryName, ZipReader.DEFAULT_BUFFER_SIZE, 4));
+            assertArrayEquals(entryName, data, read(zipFile, entryName, 1000, 2));
+            assertArrayEquals(entryName, data, read(zipFile, entryName, 64 * 1024, 0));
+        }
+    }
+
+    @Test
+    public void readyUntilEnd() throws IOException {
+        byte[] data = content(500000);
+        InputStream in = new ReadAheadInputStream(new ByteArrayInputStream(data), 1000, 2);
+        int count = 0;
+        try {
+            // line readers loop on ready(), which needs available() > 0 until the end.
+            while (in.available() > 0 && in.read() != -1) {
+                count++;
+            }
+        } finally {
+            in.close();
+        }
+        assertEquals(data.length, count);
+    }
+
+    @Test(expected = IOException.class)
+    public void readAheadError() throws IOException {
+        try (InputStream in = new ReadAheadInputStream(new MeteredInputStream(new FailAfter(60), "test"), 16, 2)) {
+            ByteStreams.toByteArray(in);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class, timeout = 10000)
+    public void readAheadRuntimeError() throws IOException {
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() {
+                throw new IllegalStateException("read failed");
+            }
+        };
+        try (InputStream in = new ReadAheadInputStream(failing, 16, 2)) {
+            ByteStreams.toByteArray(in);
+        }
+    }
+
+    @Test
+    public void readAheadPartialThenClose() throws IOException {
+        byte[] data = content(10000);
+        InputStream in = new ReadAheadInputStream(new ByteArrayInputStream(data), 128, 3);
+        byte[] start = new byte[300];
+        ByteStreams.readFully(in, start);
+        in.close();
+        for (int i = 0; i < start.length; i++) {
+            assertEquals(data[i], start[i]);
+        }
+    }
+
+    private static class FailAfter extends InputStream {
+        private int remaining;
+
+        public FailAfter(int bytes) {
+            this.remaining = bytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining-- <= 0) {
+                throw new IOException("read failed");
+            }
+            return 'x';
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package gov.uspto.common.text;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class AhoCorasickTest {
+
+	private static byte[] bytes(String text) {
+		return text.getBytes(StandardCharsets.US_ASCII);
+	}
+
+	@Test
+	public void findFirstEnding() {
+		AhoCorasick matcher = AhoCorasick.of(StandardCharsets.US_ASCII, "he", "she", "his", "hers");
+		byte[] text = bytes("ushers");
+		assertEquals(0, matcher.find(text, 0, text.length)); // "she" and "he" end together, lowest number wins.
+	}
+
+	@Test
+	public void failureLinks() {
+		AhoCorasick matcher = AhoCorasick.of(StandardCharsets.US_ASCII, "abcd", "bce");
+		byte[] text = bytes("xxabcexx");
+		assertEquals(1, matcher.find(text, 0, text.length));
+		assertFalse(matcher.containsAny(bytes("abcabc"), 0, 6));
+	}
+
+	@Test
+	public void lowestNumberAtState() {
+		AhoCorasick matcher = AhoCorasick.of(StandardCharsets.US_ASCII, "PATN", "<PATN");
+		int state = AhoCorasick.START;
+		for (byte b : bytes("<PATN")) {
+			state = matcher.next(state, b);
+		}
+		assertEquals(0, matcher.match(state));
+	}
+
+	@Test
+	public void offsetAndLength() {
+		AhoCorasick matcher = AhoCorasick.of(StandardCharsets.US_ASCII, "G06F");
+		byte[] text = bytes("G06F xx G06");
+		assertTrue(matcher.containsAny(text, 0, 4));
+		assertFalse(matcher.containsAny(text, 1, text.length - 1));
+	}
+}
@@ -1,24 +1,41 @@
 package gov.uspto.parser.dom4j;
 
+import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.Set;
 
 import org.dom4j.Document;
 import org.dom4j.DocumentException;
-import org.dom4j.io.SAXReader;
-import org.xml.sax.SAXException;
 
 import com.google.common.base.Preconditions;
 
 import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.PatentSection;
 import gov.uspto.patent.model.Patent;
 
 public abstract class Dom4JParser implements Dom4j {
 
+	private Set<PatentSection> sections = PatentSection.ALL;
+
+	/**
+	 * Limit parsing to the given sections, default all; fragment readers of other sections are not run.
+	 * 
+	 * @param sections
+	 */
+	public void setSections(Set<PatentSection> sections) {
+		Preconditions.checkNotNull(sections, "sections can not be Null");
+		this.sections = sections;
+	}
+
+	protected boolean wanted(PatentSection section) {
+		return sections.contains(section);
+	}
+
 	/**
 	 * Parse CharSequence (String, StringBuffer, StringBuilder, CharBuffer)
 	 *  
@@ -45,8 +62,9 @@ public abstract class Dom4JParser implements Dom4j {
 	public Patent parse(File file) throws PatentReaderException, IOException {
 		Preconditions.checkNotNull(file, "File can not be Null");
 
-		try(FileReader reader = new FileReader(file)){
-			return parse(reader);
+		// bytes, the XML parser decodes them using the encoding of the XML declaration.
+		try(InputStream inputStream = new BufferedInputStream(new FileInputStream(file))){
+			return parse(inputStream);
 		}
 	}
 
@@ -59,11 +77,9 @@ public abstract class Dom4JParser implements Dom4j {
 	 */
 	public Patent parse(InputStream inputStream) throws PatentReaderException {
 		try {
-			SAXReader sax = new SAXReader(false);
-			sax.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-			Document document = sax.read(inputStream);
+			Document document = XmlReaders.read(inputStream);
 			return parse(document);
-		} catch (DocumentException | SAXException e) {
+		} catch (DocumentException e) {
 			throw new PatentReaderException(e);
 		}
 	}
@@ -77,12 +93,10 @@ public abstract class Dom4JParser implements Dom4j {
 	 */
 	public Patent parse(Reader reader) throws PatentReaderException {
 		try {
-			SAXReader sax = new SAXReader(false);
-			sax.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
 			//sax.setEntityResolver(new SystemEntityResolver());
-			Document document = sax.read(reader);
+			Document document = XmlReaders.read(reader);
 			return parse(document);
-		} catch (DocumentException | SAXException e) {
+		} catch (DocumentException e) {
 		//} catch (DocumentException e){
 			throw new PatentReaderException(e);
 		}
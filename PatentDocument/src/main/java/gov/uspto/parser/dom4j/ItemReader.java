@@ -17,6 +17,7 @@ public abstract class ItemReader<T> implements Reader<T> {
 	private static final Logger LOGGER = LoggerFactory.getLogger(ItemReader.class);
 
 	protected Node itemNode;
+	private boolean found = true;
 
 	public ItemReader(Node itemNode) {
 		this.itemNode = itemNode;
@@ -30,17 +31,17 @@ public abstract class ItemReader<T> implements Reader<T> {
 		if (itemNode.getName().equals(expectedNodeName)) {
 			// Check if current node matches what is exepected.
 			this.itemNode = itemNode;
-		} else if (itemNode.selectSingleNode(expectedNodeName) != null) {
-			// Check if Child Node Matches.
-			this.itemNode = itemNode.selectSingleNode(expectedNodeName);
 		} else {
-			this.itemNode = itemNode.selectSingleNode("//" + expectedNodeName);
+			// Check if Child Node Matches, else a descendant; never a node outside of the parent.
+			Node childNode = itemNode.selectSingleNode(expectedNodeName);
+			this.itemNode = childNode != null ? childNode : itemNode.selectSingleNode(".//" + expectedNodeName);
 		}
 
 		// Avoid NPE by creating empty node.
 		if (this.itemNode == null) {
 			LOGGER.warn("Could Not Find XML Fragment: {} in parent: {}", expectedNodeName, itemNode.getName());
 			this.itemNode = (Node) DocumentHelper.createElement("");
+			this.found = false;
 		}
 	}
 
@@ -59,10 +60,20 @@ public abstract class ItemReader<T> implements Reader<T> {
 		if (this.itemNode == null) {
 			LOGGER.warn("Could Not Find XML Fragment: {} in parent: {}", expectedNodeName, itemNode.getName());
 			this.itemNode = (Node) DocumentHelper.createElement("");
+			this.found = false;
 		}
 	}
 
+	/**
+	 * Whether the expected node was found; when not, the item node is an empty element and read() returns
+	 * an empty item, not null.
+	 */
+	public boolean isFound() {
+		return found;
+	}
+
 	public void setItemNode(Node itemNode) {
 		this.itemNode = itemNode;
+		this.found = itemNode != null;
 	}
 }
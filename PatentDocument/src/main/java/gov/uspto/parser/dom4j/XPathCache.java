@@ -0,0 +1,144 @@
+package gov.uspto.parser.dom4j;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+import org.dom4j.DocumentFactory;
+import org.dom4j.NodeFilter;
+import org.dom4j.XPath;
+import org.dom4j.xpath.DefaultXPath;
+import org.jaxen.SimpleNamespaceContext;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Shared cache of compiled XPath expressions, keyed by expression and namespace context.
+ * 
+ * <p>
+ * dom4j compiles the XPath string on every call to {@code selectSingleNode}, {@code selectNodes}, and
+ * {@code valueOf}; documents built by {@link #documentFactory()}, which includes all documents read through
+ * {@link XmlReaders}, get their compiled expressions from this cache instead, so existing fragment and item
+ * readers use it without change.
+ * </p>
+ * 
+ * <p>
+ * A compiled expression is thread safe for evaluation. Cached expressions have a fixed namespace context,
+ * the given namespace URIs else none; an expression using a namespace prefix without given namespace URIs
+ * is resolved against the context node, as dom4j does, so it is compiled each time and not cached.
+ * </p>
+ * 
+ * <pre>
+ * Node node = XPathCache.get("us-bibliographic-data-grant/invention-title").selectSingleNode(document);
+ * </pre>
+ */
+public class XPathCache {
+
+	private static final int MAX_SIZE = 10000;
+
+	private static final Pattern PREFIXED = Pattern.compile("[\\w.-]:[\\w*]");
+
+	private static final ConcurrentMap<Key, XPath> CACHE = new ConcurrentHashMap<Key, XPath>();
+
+	private static final DocumentFactory DOCUMENT_FACTORY = new CachingDocumentFactory();
+
+	private static class Key {
+		private final String expression;
+		private final Map<String, String> namespaceURIs;
+
+		public Key(String expression, Map<String, String> namespaceURIs) {
+			this.expression = expression;
+			this.namespaceURIs = namespaceURIs;
+		}
+
+		@Override
+		public int hashCode() {
+			return expression.hashCode() * 31 + namespaceURIs.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return expression.equals(other.expression) && namespaceURIs.equals(other.namespaceURIs);
+		}
+	}
+
+	/**
+	 * DocumentFactory whose nodes compile XPath expressions through the cache.
+	 */
+	private static class CachingDocumentFactory extends DocumentFactory {
+		private static final long serialVersionUID = 1L;
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public XPath createXPath(String xpathExpression) {
+			return get(xpathExpression, getXPathNamespaceURIs());
+		}
+
+		@Override
+		public NodeFilter createXPathFilter(String xpathFilterExpression) {
+			return createXPath(xpathFilterExpression);
+		}
+	}
+
+	private XPathCache() {
+		// static methods only.
+	}
+
+	/**
+	 * DocumentFactory whose documents and elements use the cache for their XPath expressions.
+	 */
+	public static DocumentFactory documentFactory() {
+		return DOCUMENT_FACTORY;
+	}
+
+	public static XPath get(String expression) {
+		return get(expression, null);
+	}
+
+	/**
+	 * Compiled XPath expression.
+	 * 
+	 * @param expression
+	 * @param namespaceURIs prefix to namespace URI, or null
+	 * @return
+	 */
+	public static XPath get(String expression, Map<String, String> namespaceURIs) {
+		Preconditions.checkNotNull(expression, "expression can not be Null");
+
+		Map<String, String> namespaces = namespaceURIs != null ? namespaceURIs : Collections.<String, String> emptyMap();
+		if (namespaces.isEmpty() && PREFIXED.matcher(expression).find()) {
+			return new DefaultXPath(expression);
+		}
+
+		Key key = new Key(expression, namespaces);
+		XPath xpath = CACHE.get(key);
+		if (xpath == null) {
+			xpath = compile(expression, namespaces);
+			if (CACHE.size() < MAX_SIZE) {
+				XPath existing = CACHE.putIfAbsent(new Key(expression, new HashMap<String, String>(namespaces)), xpath);
+				if (existing != null) {
+					xpath = existing;
+				}
+			}
+		}
+		return xpath;
+	}
+
+	private static XPath compile(String expression, Map<String, String> namespaces) {
+		DefaultXPath xpath = new DefaultXPath(expression);
+		// fixed namespace context; otherwise dom4j takes it from, and keeps a reference to, the first context node.
+		xpath.setNamespaceContext(new SimpleNamespaceContext(namespaces));
+		return xpath;
+	}
+
+	static int size() {
+		return CACHE.size();
+	}
+}
@@ -0,0 +1,100 @@
+package gov.uspto.parser.dom4j;
+
+import java.io.InputStream;
+import java.io.Reader;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.dom4j.Document;
+import org.dom4j.DocumentException;
+import org.dom4j.DocumentFactory;
+import org.dom4j.io.SAXReader;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Pre-configured XML readers, one per thread, shared by all parsers instead of creating and configuring
+ * a new reader for every document.
+ * 
+ * <p>
+ * Readers are non-validating and do not load external DTDs. The readers are not thread safe, so each
+ * thread gets its own; the underlying SAX parser resets itself at the start of each document. Callers
+ * must not change the configuration of a shared reader.
+ * </p>
+ * 
+ * <pre>
+ * Document document = XmlReaders.read(reader);
+ * </pre>
+ */
+public class XmlReaders {
+	private static final String LOAD_EXTERNAL_DTD = "http://apache.org/xml/features/nonvalidating/load-external-dtd";
+
+	private static final DocumentFactory DOCUMENT_FACTORY = XPathCache.documentFactory();
+
+	private static final ThreadLocal<SAXReader> SAX_READER = new ThreadLocal<SAXReader>() {
+		@Override
+		protected SAXReader initialValue() {
+			SAXReader sax = new SAXReader(DOCUMENT_FACTORY, false);
+			try {
+				sax.setFeature(LOAD_EXTERNAL_DTD, false);
+			} catch (SAXException e) {
+				throw new IllegalStateException("Failed to configure SAXReader", e);
+			}
+			return sax;
+		}
+	};
+
+	private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDER = new ThreadLocal<DocumentBuilder>() {
+		@Override
+		protected DocumentBuilder initialValue() {
+			DocumentBuilderFactory dbfact = DocumentBuilderFactory.newInstance();
+			dbfact.setAttribute(LOAD_EXTERNAL_DTD, false);
+			try {
+				return dbfact.newDocumentBuilder();
+			} catch (ParserConfigurationException e) {
+				throw new IllegalStateException("Failed to configure DocumentBuilder", e);
+			}
+		}
+	};
+
+	private XmlReaders() {
+		// static methods only.
+	}
+
+	/**
+	 * Shared DocumentFactory used by the readers, its nodes use the {@link XPathCache}.
+	 */
+	public static DocumentFactory documentFactory() {
+		return DOCUMENT_FACTORY;
+	}
+
+	/**
+	 * dom4j SAXReader of the current thread.
+	 */
+	public static SAXReader saxReader() {
+		return SAX_READER.get();
+	}
+
+	public static Document read(Reader reader) throws DocumentException {
+		return SAX_READER.get().read(reader);
+	}
+
+	public static Document read(InputStream inputStream) throws DocumentException {
+		return SAX_READER.get().read(inputStream);
+	}
+
+	public static Document read(InputSource inputSource) throws DocumentException {
+		return SAX_READER.get().read(inputSource);
+	}
+
+	/**
+	 * W3C DOM DocumentBuilder of the current thread, reset for the next document.
+	 */
+	public static DocumentBuilder documentBuilder() {
+		DocumentBuilder builder = DOCUMENT_BUILDER.get();
+		builder.reset();
+		return builder;
+	}
+}
@@ -8,6 +8,7 @@ import java.io.Reader;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import org.dom4j.Document;
 
@@ -15,10 +16,27 @@ import com.google.common.base.Preconditions;
 
 import gov.uspto.parser.dom4j.Dom4j;
 import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.PatentSection;
 import gov.uspto.patent.model.Patent;
 
 public abstract class KvParser implements Dom4j {
 
+	private Set<PatentSection> sections = PatentSection.ALL;
+
+	/**
+	 * Limit parsing to the given sections, default all; fragment readers of other sections are not run.
+	 * 
+	 * @param sections
+	 */
+	public void setSections(Set<PatentSection> sections) {
+		Preconditions.checkNotNull(sections, "sections can not be Null");
+		this.sections = sections;
+	}
+
+	protected boolean wanted(PatentSection section) {
+		return sections.contains(section);
+	}
+
 	private final KvReader kvReader;
 
 	public KvParser() {
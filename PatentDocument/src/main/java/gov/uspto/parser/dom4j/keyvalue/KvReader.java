@@ -12,11 +12,11 @@ import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
 import org.dom4j.Document;
-import org.dom4j.DocumentHelper;
 import org.dom4j.Element;
 
 import com.google.common.base.Strings;
 
+import gov.uspto.parser.dom4j.XmlReaders;
 import gov.uspto.parser.dom4j.keyvalue.config.FieldGroup;
 import gov.uspto.parser.dom4j.keyvalue.config.FieldIndex;
 import gov.uspto.parser.dom4j.keyvalue.config.IndexEntry;
@@ -107,7 +107,7 @@ public class KvReader {
      * @return
      */
     public Document genXml(List<KeyValue> keyValues) {    	
-        Document document = DocumentHelper.createDocument();
+        Document document = XmlReaders.documentFactory().createDocument();
         Element rootNode = document.addElement("DOCUMENT");
         Element currentSection = rootNode;
 
@@ -120,9 +120,9 @@ public class KvReader {
                 if (currentSection != rootNode) {
                     rootNode.add(currentSection);
                 }
-                currentSection = DocumentHelper.createElement(kv.getKey());                               
+                currentSection = XmlReaders.documentFactory().createElement(kv.getKey());                               
             } else {
-                Element field = DocumentHelper.createElement(kv.getKey());
+                Element field = XmlReaders.documentFactory().createElement(kv.getKey());
  
                 /*
                  * Add field ids
@@ -163,7 +163,7 @@ public class KvReader {
      */
     public Document genXml(List<KeyValue> keyValues, Collection<String> sections) {
 
-        Document document = DocumentHelper.createDocument();
+        Document document = XmlReaders.documentFactory().createDocument();
         Element rootNode = document.addElement("DOCUMENT");
         Element currentSection = rootNode;
 
@@ -171,9 +171,9 @@ public class KvReader {
 
             if (kv.getValue().isEmpty() && sections.contains(kv.getKey())) {
                 rootNode.add(currentSection);
-                currentSection = DocumentHelper.createElement(kv.getKey());
+                currentSection = XmlReaders.documentFactory().createElement(kv.getKey());
             } else {
-                Element field = DocumentHelper.createElement(kv.getKey());
+                Element field = XmlReaders.documentFactory().createElement(kv.getKey());
                 field.setText(kv.getValue());
                 currentSection.add(field);
             }
@@ -212,7 +212,7 @@ public class KvReader {
     public Document genXml(List<KeyValue> keyValues, List<FieldGroup> fieldGroup) {
         FieldIndex index = new FieldIndex(fieldGroup);
 
-        Document document = DocumentHelper.createDocument();
+        Document document = XmlReaders.documentFactory().createDocument();
         Element rootNode = document.addElement("DOCUMENT");
         Element currentSection = rootNode;
         FieldGroup currentFieldGroup = null;
@@ -236,13 +236,13 @@ public class KvReader {
                     }
 
                     currentFieldGroup = entry.getFieldGroup();
-                    currentSection = DocumentHelper.createElement(currentFieldGroup.getName());
+                    currentSection = XmlReaders.documentFactory().createElement(currentFieldGroup.getName());
 
-                    Element field = DocumentHelper.createElement(kv.getKey());
+                    Element field = XmlReaders.documentFactory().createElement(kv.getKey());
                     field.setText(kv.getValue());
                     currentSection.add(field);
                 } else {                    
-                    Element field = DocumentHelper.createElement(kv.getKey());
+                    Element field = XmlReaders.documentFactory().createElement(kv.getKey());
                     field.setText(kv.getValue());
                     currentSection.add(field);
                 }
@@ -257,14 +257,14 @@ public class KvReader {
                     rootNode.add(currentSection);
                 }
                 currentFieldGroup = entry.getFieldGroup();
-                currentSection = DocumentHelper.createElement(currentFieldGroup.getName());
+                currentSection = XmlReaders.documentFactory().createElement(currentFieldGroup.getName());
 
-                Element field = DocumentHelper.createElement(kv.getKey());
+                Element field = XmlReaders.documentFactory().createElement(kv.getKey());
                 field.setText(kv.getValue());
                 currentSection.add(field);
 
             } else if (currentFieldGroup == entry.getFieldGroup() && currentSection != rootNode) {
-                Element field = DocumentHelper.createElement(kv.getKey());
+                Element field = XmlReaders.documentFactory().createElement(kv.getKey());
                 field.setText(kv.getValue());
                 currentSection.add(field);
             } else {
@@ -274,7 +274,7 @@ public class KvReader {
                 }
                 currentSection = rootNode;
 
-                Element field = DocumentHelper.createElement(kv.getKey());
+                Element field = XmlReaders.documentFactory().createElement(kv.getKey());
                 field.setText(kv.getValue());
                 currentSection.add(field);
             }
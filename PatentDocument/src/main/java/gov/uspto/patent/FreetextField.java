@@ -1,10 +1,25 @@
 package gov.uspto.patent;
 
+import com.google.common.base.Preconditions;
+
 import gov.uspto.patent.doc.simplehtml.FreetextConfig;
 
+/**
+ * Free text field, rendered to normalized html and plain text by its TextProcessor.
+ *
+ *<p>
+ * The normalized html and the plain text of the default FreetextConfig are rendered once and cached;
+ * {@link #setRawText(String)} invalidates the cache. Plain text for other FreetextConfigs is not cached.
+ * With an {@link HtmlTextProcessor}, plain text is derived from the cached html, the raw text is not rendered
+ * again. The cache holds the TextProcessor's output; subclasses overriding getSimpleHtml() or getPlainText()
+ * decorate it on each call, their decoration is neither cached nor carried into the plain text.
+ *</p>
+ */
 public abstract class FreetextField implements TextField {
 
     private TextProcessor textProcessor;
+    private String simpleHtml;
+    private String plainText;
 
     public FreetextField(TextProcessor formatedTextProcessor) {
         this.textProcessor = formatedTextProcessor;
@@ -24,15 +39,67 @@ public abstract class FreetextField implements TextField {
     }
 
     public String getPlainText() {
-        return textProcessor.getPlainText(getRawText(), FreetextConfig.getDefault());
+        return processorPlainText();
     }
 
     public String getPlainText(FreetextConfig textConfig) {
+        if (textProcessor instanceof HtmlTextProcessor && simpleHtml != null) {
+            return ((HtmlTextProcessor) textProcessor).getPlainTextFromHtml(simpleHtml, textConfig);
+        }
+        Preconditions.checkState(getRawText() != null, "Raw text has been released");
         return textProcessor.getPlainText(getRawText(), textConfig);
     }
 
     public String getSimpleHtml() {
-        return textProcessor.getSimpleHtml(getRawText());
+        return processorHtml();
+    }
+
+    /**
+     * Cached html of the TextProcessor, without any subclass decoration.
+     */
+    private String processorHtml() {
+        if (simpleHtml == null) {
+            simpleHtml = textProcessor.getSimpleHtml(getRawText());
+        }
+        return simpleHtml;
+    }
+
+    /**
+     * Cached plain text of the TextProcessor for the default FreetextConfig, without any subclass decoration.
+     */
+    private String processorPlainText() {
+        if (plainText == null) {
+            if (textProcessor instanceof HtmlTextProcessor) {
+                plainText = ((HtmlTextProcessor) textProcessor).getPlainTextFromHtml(processorHtml(),
+                        FreetextConfig.getDefault());
+            } else {
+                plainText = textProcessor.getPlainText(getRawText(), FreetextConfig.getDefault());
+            }
+        }
+        return plainText;
+    }
+
+    /**
+     * Clear the cached normalized html and plain text; called when the raw text changes.
+     */
+    public void invalidate() {
+        simpleHtml = null;
+        plainText = null;
+    }
+
+    /**
+     * Render and cache the normalized html and plain text.
+     *
+     * @param releaseRawText drop the raw text once rendered to reduce heap, getRawText() then returns null.
+     */
+    public void render(boolean releaseRawText) {
+        String html = processorHtml();
+        String text = processorPlainText();
+        if (releaseRawText) {
+            setRawText(null);
+            simpleHtml = html;
+            plainText = text;
+        }
     }
 
     public TextProcessor getTextProcessor() {
@@ -0,0 +1,16 @@
+package gov.uspto.patent;
+
+import gov.uspto.patent.doc.simplehtml.FreetextConfig;
+
+/**
+ * TextProcessor whose plain text is derived from its normalized html, so plain text can be produced from html
+ * already rendered.
+ */
+public interface HtmlTextProcessor extends TextProcessor {
+    /**
+     * @param simpleHtml normalized html from {@link #getSimpleHtml(String)}
+     * @param textConfig
+     * @return plain text, the same as getPlainText(xmlRawText, textConfig)
+     */
+    public String getPlainTextFromHtml(String simpleHtml, FreetextConfig textConfig);
+}
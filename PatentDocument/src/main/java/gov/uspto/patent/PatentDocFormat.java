@@ -1,25 +1,40 @@
 package gov.uspto.patent;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Patent document formats, with the charset of their bulk files.
+ */
 public enum PatentDocFormat {
-	RedbookApplication("text/redbook-xml", "ipa", "us-patent-application", "<us-patent-application"),
-	RedbookGrant("text/redbook-xml",	"ipg", "us-patent-grant", "<us-patent-grant"),
-	Pap("text/pap-xml", "pa", "patent-application-publication", "<patent-application-publication>"),
-	Sgml("text/grant-sgml", "pg", "PATDOC", "<PATDOC "),
-	Greenbook("text/greenbook-aps", "pftaps", "PATN", "PATN"),
-    CpcMasterFile("text/cpc-masterfile", "", "uspat:CPCMasterClassificationRecord", "<uspat:CPCMasterClassificationRecord>"),
+	RedbookApplication("text/redbook-xml", "ipa", "us-patent-application", "<us-patent-application", StandardCharsets.UTF_8),
+	RedbookGrant("text/redbook-xml",	"ipg", "us-patent-grant", "<us-patent-grant", StandardCharsets.UTF_8),
+	Pap("text/pap-xml", "pa", "patent-application-publication", "<patent-application-publication>", StandardCharsets.UTF_8),
+	Sgml("text/grant-sgml", "pg", "PATDOC", "<PATDOC ", StandardCharsets.UTF_8),
+	Greenbook("text/greenbook-aps", "pftaps", "PATN", "PATN", StandardCharsets.ISO_8859_1),
+    CpcMasterFile("text/cpc-masterfile", "", "uspat:CPCMasterClassificationRecord", "<uspat:CPCMasterClassificationRecord>", StandardCharsets.UTF_8),
 	//CSS_BRS("text/css-brs", "", "*** BRS DOCUMENT BOUNDARY ***", ""),
-	Unknown("UNKOWN", "UNKOWN", "UNKOWN", "UNKOWN");
+	Unknown("UNKOWN", "UNKOWN", "UNKOWN", "UNKOWN", StandardCharsets.UTF_8);
 
 	private String parentElement;
 	private String mimeType;
 	private String match;
 	private String bulkFileStartWith;
+	private Charset charset;
 
-	private PatentDocFormat(String mimeType, String bulkFileStartWith, String parentElement, String match) {
+	private PatentDocFormat(String mimeType, String bulkFileStartWith, String parentElement, String match, Charset charset) {
 		this.mimeType = mimeType;
 		this.bulkFileStartWith = bulkFileStartWith;
 		this.parentElement = parentElement;
 		this.match = match;
+		this.charset = charset;
+	}
+
+	/**
+	 * Charset of the bulk files; greenbook (APS) text is single byte, the xml formats are UTF-8.
+	 */
+	public Charset getCharset() {
+		return charset;
 	}
 
 	public String getMimeType() {
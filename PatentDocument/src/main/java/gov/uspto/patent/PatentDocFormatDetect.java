@@ -4,15 +4,85 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.io.Reader;
-import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.ByteStreams;
+
+import gov.uspto.common.text.AhoCorasick;
+
+/**
+ * Detect the PatentDocFormat of a bulk file, from its file name or from the leading bytes of its content.
+ *
+ *<p>
+ * Content detection scans a fixed size prefix once for the match strings of all formats together, the format found
+ * on the first matching line is returned; when a line matches several formats the first in {@link PatentDocFormat}
+ * order wins. The result for a file (and zip entry) is cached, reopening the file does not detect it again.
+ *</p>
+ *
+ *<pre>
+ * PatentDocFormatDetect.DetectedStream in = new PatentDocFormatDetect().detect(file, null, new FileInputStream(file));
+ * PatentDocFormat format = in.getPatentDocFormat();
+ * Reader reader = new InputStreamReader(in, format.getCharset());
+ *</pre>
+ */
 public class PatentDocFormatDetect {
 	private static final Logger LOGGER = LoggerFactory.getLogger(PatentDocFormatDetect.class);
 
+	private static final int DETECT_PREFIX_SIZE = 64 * 1024;
+
+	private static final PatentDocFormat[] FORMATS;
+	private static final AhoCorasick MATCHER;
+	static {
+		List<PatentDocFormat> formats = new ArrayList<PatentDocFormat>();
+		List<byte[]> patterns = new ArrayList<byte[]>();
+		for (PatentDocFormat format : PatentDocFormat.values()) {
+			if (format != PatentDocFormat.Unknown) {
+				formats.add(format);
+				patterns.add(format.getMatch().getBytes(StandardCharsets.ISO_8859_1));
+			}
+		}
+		FORMATS = formats.toArray(new PatentDocFormat[formats.size()]);
+		MATCHER = AhoCorasick.of(patterns);
+	}
+
+	private static final Cache<String, PatentDocFormat> FILE_CACHE = CacheBuilder.newBuilder().maximumSize(1000).build();
+
+	/**
+	 * Stream returned by {@link PatentDocFormatDetect#detect(File, String, InputStream)}, the bytes read for
+	 * detection are pushed back, reading starts at the beginning.
+	 */
+	public static class DetectedStream extends PushbackInputStream {
+		private final PatentDocFormat patentDocFormat;
+
+		private DetectedStream(InputStream in, PatentDocFormat patentDocFormat, byte[] prefix, int length) {
+			super(in, Math.max(length, 1));
+			this.patentDocFormat = patentDocFormat;
+			if (length > 0) {
+				try {
+					unread(prefix, 0, length);
+				} catch (IOException e) {
+					throw new IllegalStateException(e); // buffer sized to fit.
+				}
+			}
+		}
+
+		public PatentDocFormat getPatentDocFormat() {
+			return patentDocFormat;
+		}
+	}
+
 	/**
 	 * Determine XML body tag from bulk zip file name
 	 * 
@@ -33,52 +103,163 @@ public class PatentDocFormatDetect {
 		return format;
 	}
 
-	public PatentDocFormat fromContent(String content) throws IOException {
-		try (StringReader reader = new StringReader(content)) {
-			return fromContent(reader);
+	/**
+	 * Detect the format of a file, or zip entry of a file, from the leading bytes of its stream; a format
+	 * detected before for the same unchanged file is taken from the cache without reading.
+	 * 
+	 * @param file file, used as cache key
+	 * @param entryName zip entry name, null for a plain file
+	 * @param in stream of the file or zip entry, at its start
+	 * @return stream starting at the beginning, with the detected format
+	 * @throws IOException
+	 */
+	public DetectedStream detect(File file, String entryName, InputStream in) throws IOException {
+		String key = cacheKey(file, entryName);
+		PatentDocFormat format = FILE_CACHE.getIfPresent(key);
+		if (format != null) {
+			return new DetectedStream(in, format, null, 0);
+		}
+
+		DetectedStream detected = detect(in);
+		if (detected.getPatentDocFormat() != PatentDocFormat.Unknown) {
+			FILE_CACHE.put(key, detected.getPatentDocFormat());
 		}
+		return detected;
+	}
+
+	/**
+	 * Detect the format from the leading bytes of a stream, without needing mark support.
+	 * 
+	 * @param in
+	 * @return stream starting at the beginning, with the detected format
+	 * @throws IOException
+	 */
+	public DetectedStream detect(InputStream in) throws IOException {
+		byte[] prefix = new byte[DETECT_PREFIX_SIZE];
+		int length = ByteStreams.read(in, prefix, 0, prefix.length);
+		PatentDocFormat format = fromBytes(prefix, 0, length);
+		return new DetectedStream(in, format, prefix, length);
+	}
+
+	/**
+	 * Cached format of a file or zip entry.
+	 * 
+	 * @return format or null when not detected before.
+	 */
+	public PatentDocFormat getCached(File file, String entryName) {
+		return FILE_CACHE.getIfPresent(cacheKey(file, entryName));
+	}
+
+	public void cache(File file, String entryName, PatentDocFormat format) {
+		if (format != PatentDocFormat.Unknown) {
+			FILE_CACHE.put(cacheKey(file, entryName), format);
+		}
+	}
+
+	private static String cacheKey(File file, String entryName) {
+		Preconditions.checkNotNull(file, "File can not be Null");
+		return file.getAbsolutePath() + '!' + (entryName != null ? entryName : "") + '@' + file.length() + ':'
+				+ file.lastModified();
+	}
+
+	public PatentDocFormat fromContent(String content) {
+		int length = Math.min(content.length(), DETECT_PREFIX_SIZE);
+		byte[] prefix = content.substring(0, length).getBytes(StandardCharsets.ISO_8859_1);
+		return log(fromBytes(prefix, 0, prefix.length));
 	}
 
 	public PatentDocFormat fromContent(BufferedReader br) throws IOException {
-	    PatentDocFormat foundMimeType = PatentDocFormat.Unknown;
-		br.mark(1000);
-		LINES: for (int i = 0; br.ready() && i < 150; i++) {
-			String line = br.readLine();
-			for (PatentDocFormat type : PatentDocFormat.values()) {
-				if (line.contains(type.getMatch())) {
-					foundMimeType = type;
-					break LINES;
-				}
-			}
+		br.mark(DETECT_PREFIX_SIZE);
+		try {
+			return fromContent(readPrefix(br));
+		} finally {
+			br.reset();
 		}
-		br.reset();
+	}
 
-		LOGGER.info("PatentType fromContent: {}", foundMimeType);
+	/**
+	 * Detect from the leading bytes, before the charset is known; the bytes are read as ISO-8859-1, the
+	 * format markers being ASCII. The stream is reset to where it was.
+	 * 
+	 * @param in stream supporting mark
+	 * @return
+	 * @throws IOException
+	 */
+	public PatentDocFormat fromContent(InputStream in) throws IOException {
+		Preconditions.checkArgument(in.markSupported(), "InputStream must support mark");
+		byte[] prefix = new byte[DETECT_PREFIX_SIZE];
+		in.mark(DETECT_PREFIX_SIZE);
+		int length;
+		try {
+			length = ByteStreams.read(in, prefix, 0, prefix.length);
+		} finally {
+			in.reset();
+		}
+		return log(fromBytes(prefix, 0, length));
+	}
 
-		return foundMimeType;
+	/**
+	 * Detect from the bytes between position and limit, the buffer position is not changed.
+	 */
+	public PatentDocFormat fromContent(ByteBuffer buffer) {
+		int start = buffer.position();
+		return log(scan(buffer, start, Math.min(buffer.limit(), start + DETECT_PREFIX_SIZE)));
 	}
 
 	public PatentDocFormat fromContent(Reader reader) throws IOException {
-	    PatentDocFormat foundMimeType = PatentDocFormat.Unknown;
 		try (BufferedReader br = new BufferedReader(reader)) {
 			// PAP-XML contains list of entities for each image embodiment first
 			// number of lines (seen 38+ lines in header).
-			LINES: for (int i = 0; br.ready() && i < 150; i++) {
-				String line = br.readLine();
-				if (line != null) {
-					for (PatentDocFormat type : PatentDocFormat.values()) {
-						if (line.contains(type.getMatch())) {
-							foundMimeType = type;
-							break LINES;
-						}
-					}
+			return fromContent(readPrefix(br));
+		}
+	}
+
+	private static String readPrefix(Reader reader) throws IOException {
+		char[] prefix = new char[DETECT_PREFIX_SIZE];
+		int length = 0;
+		int count;
+		while (length < prefix.length && (count = reader.read(prefix, length, prefix.length - length)) != -1) {
+			length += count;
+		}
+		return new String(prefix, 0, length);
+	}
+
+	private static PatentDocFormat fromBytes(byte[] bytes, int offset, int length) {
+		return scan(ByteBuffer.wrap(bytes), offset, offset + length);
+	}
+
+	/**
+	 * Single pass over the bytes from start to end, stopping at the end of the first line holding a match;
+	 * reads by index, the buffer position is not changed.
+	 */
+	private static PatentDocFormat scan(ByteBuffer buffer, int start, int end) {
+		int state = AhoCorasick.START;
+		int found = -1;
+		for (int i = start; i < end; i++) {
+			byte b = buffer.get(i);
+			if (b == '\n' || b == '\r') {
+				if (found != -1) {
+					break;
 				}
+				state = AhoCorasick.START;
+				continue;
 			}
+			state = MATCHER.next(state, b);
+			found = lowest(found, MATCHER.match(state));
 		}
+		return found == -1 ? PatentDocFormat.Unknown : FORMATS[found];
+	}
 
-		LOGGER.info("PatentType fromContent: {}", foundMimeType);
+	private static int lowest(int found, int match) {
+		if (match == -1) {
+			return found;
+		}
+		return found == -1 ? match : Math.min(found, match);
+	}
 
-		return foundMimeType;
+	private static PatentDocFormat log(PatentDocFormat format) {
+		LOGGER.info("PatentType fromContent: {}", format);
+		return format;
 	}
 
 	private PatentDocFormat fromContent(File file) throws IOException {
@@ -0,0 +1,12 @@
+package gov.uspto.patent;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * PatentDocReader which also reads records as bytes, decoding them itself, so a byte oriented
+ * DumpReader can hand over a record without first decoding it to a String.
+ */
+public interface PatentDocStreamReader<T> extends PatentDocReader<T> {
+    public T read(InputStream inputStream) throws PatentReaderException, IOException;
+}
@@ -1,20 +1,26 @@
 package gov.uspto.patent;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Set;
 
 import org.dom4j.Document;
 import org.dom4j.DocumentException;
-import org.dom4j.io.SAXReader;
-import org.xml.sax.SAXException;
+import org.xml.sax.InputSource;
 
 import com.google.common.base.Preconditions;
 
+import gov.uspto.parser.dom4j.Dom4JParser;
+import gov.uspto.parser.dom4j.XmlReaders;
 import gov.uspto.patent.doc.greenbook.Greenbook;
 import gov.uspto.patent.doc.pap.PatentAppPubParser;
 import gov.uspto.patent.doc.sgml.Sgml;
 import gov.uspto.patent.doc.xml.ApplicationParser;
 import gov.uspto.patent.doc.xml.GrantParser;
+import gov.uspto.patent.doc.xml.StaxGrantParser;
 import gov.uspto.patent.model.Patent;
 
 /**
@@ -23,9 +29,18 @@ import gov.uspto.patent.model.Patent;
  * @author Brian G. Feldman (brian.feldman@uspto.gov)
  *
  */
-public class PatentReader implements PatentDocReader<Patent> {
+public class PatentReader implements PatentDocStreamReader<Patent> {
+
+	/**
+	 * XML parsing engine; STAX currently only applies to RedbookGrant, other formats always use DOM4J.
+	 */
+	public enum Engine {
+		DOM4J, STAX
+	}
 
 	private PatentDocFormat patentDocFormat;
+	private Engine engine = Engine.DOM4J;
+	private Set<PatentSection> sections = PatentSection.ALL;
 
 	/**
 	 * Load Reader
@@ -38,6 +53,26 @@ public class PatentReader implements PatentDocReader<Patent> {
 		this.patentDocFormat = patentDocFormat;
 	}
 
+	public PatentReader(final PatentDocFormat patentDocFormat, final Engine engine) {
+		this(patentDocFormat);
+		Preconditions.checkNotNull(engine, "engine can not be Null");
+		this.engine = engine;
+	}
+
+	public Engine getEngine() {
+		return engine;
+	}
+
+	/**
+	 * Only read the given sections of the Patent, default all.
+	 * 
+	 * @param sections
+	 */
+	public void setSections(Set<PatentSection> sections) {
+		Preconditions.checkNotNull(sections, "sections can not be Null");
+		this.sections = sections;
+	}
+
 	/**
 	 * Parse Dom4j Document
 	 * 
@@ -64,20 +99,72 @@ public class PatentReader implements PatentDocReader<Patent> {
 
 		switch (patentDocFormat) {
 		case Greenbook:
-			return new Greenbook().parse(reader);
+			Greenbook greenbook = new Greenbook();
+			greenbook.setSections(sections);
+			return greenbook.parse(reader);
+		case RedbookGrant:
+			if (engine == Engine.STAX) {
+				return staxParser().parse(reader);
+			}
+			return parse(getJDOM(reader));
+		default:
+			return parse(getJDOM(reader));
+		}
+	}
+
+	/**
+	 * Parse Document from bytes and Return Patent Object; the bytes are decoded by the parser
+	 * using the charset of the PatentDocFormat.
+	 * 
+	 * @param inputStream
+	 * @return
+	 * @throws PatentReaderException
+	 * @throws IOException
+	 */
+	@Override
+	public Patent read(InputStream inputStream) throws PatentReaderException, IOException {
+		Preconditions.checkNotNull(inputStream, "inputStream can not be Null");
+
+		Charset charset = patentDocFormat.getCharset();
+		switch (patentDocFormat) {
+		case Greenbook:
+			return read(new InputStreamReader(inputStream, charset));
+		case RedbookGrant:
+			if (engine == Engine.STAX) {
+				return staxParser().parse(inputStream, charset);
+			}
+			return parse(getJDOM(inputStream, charset));
+		default:
+			return parse(getJDOM(inputStream, charset));
+		}
+	}
+
+	private Patent parse(Document document) throws PatentReaderException {
+		switch (patentDocFormat) {
 		case RedbookApplication:
-			return new ApplicationParser().parse(getJDOM(reader));
+			return parser(new ApplicationParser()).parse(document);
 		case RedbookGrant:
-			return new GrantParser().parse(getJDOM(reader));
+			return parser(new GrantParser()).parse(document);
 		case Sgml:
-			return new Sgml().parse(getJDOM(reader));
+			return parser(new Sgml()).parse(document);
 		case Pap:
-			return new PatentAppPubParser().parse(getJDOM(reader));
+			return parser(new PatentAppPubParser()).parse(document);
 		default:
 			throw new PatentReaderException("Invalid or Unknown Document Type");
 		}
 	}
 
+	private StaxGrantParser staxParser() {
+		StaxGrantParser staxParser = new StaxGrantParser();
+		staxParser.setSections(sections);
+		return staxParser;
+	}
+
+	private Dom4JParser parser(Dom4JParser parser) {
+		parser.setSections(sections);
+		return parser;
+	}
+
 	/**
 	 * Load XML Document
 	 * 
@@ -87,10 +174,26 @@ public class PatentReader implements PatentDocReader<Patent> {
 	 */
 	public static Document getJDOM(Reader reader) throws PatentReaderException {
 		try {
-			SAXReader sax = new SAXReader(false);
-			sax.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-			return sax.read(reader);
-		} catch (DocumentException | SAXException e) {
+			return XmlReaders.read(reader);
+		} catch (DocumentException e) {
+			throw new PatentReaderException("Failed to load XML", e);
+		}
+	}
+
+	/**
+	 * Load XML Document from bytes in the given charset.
+	 * 
+	 * @param inputStream
+	 * @param charset
+	 * @return
+	 * @throws PatentReaderException
+	 */
+	public static Document getJDOM(InputStream inputStream, Charset charset) throws PatentReaderException {
+		InputSource source = new InputSource(inputStream);
+		source.setEncoding(charset.name());
+		try {
+			return XmlReaders.read(source);
+		} catch (DocumentException e) {
 			throw new PatentReaderException("Failed to load XML", e);
 		}
 	}
@@ -0,0 +1,29 @@
+package gov.uspto.patent;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Sections of a Patent a parser can be limited to; document id, type and dates are always read.
+ *
+ *<pre>
+ * PatentReader patentReader = new PatentReader(PatentDocFormat.RedbookGrant);
+ * patentReader.setSections(EnumSet.of(PatentSection.CLASSIFICATIONS));
+ *</pre>
+ */
+public enum PatentSection {
+	TITLE,
+	RELATED_IDS,
+	PARTIES,
+	CITATIONS,
+	CLASSIFICATIONS,
+	ABSTRACT,
+	DESCRIPTION,
+	CLAIMS;
+
+	public static final Set<PatentSection> ALL = EnumSet.allOf(PatentSection.class);
+
+	public static final Set<PatentSection> BIBLIOGRAPHIC = EnumSet.of(TITLE, RELATED_IDS, PARTIES, CITATIONS, CLASSIFICATIONS);
+
+	public static final Set<PatentSection> TEXT = EnumSet.of(ABSTRACT, DESCRIPTION, CLAIMS);
+}
@@ -5,29 +5,39 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterators;
 
 import gov.uspto.common.file.FileIterator;
 import gov.uspto.common.filter.FileFilterChain;
 import gov.uspto.common.filter.SuffixFilter;
+import gov.uspto.patent.bulk.BulkArchive;
 import gov.uspto.patent.bulk.DumpFileAps;
-import gov.uspto.patent.bulk.DumpFileXml;
+import gov.uspto.patent.bulk.DumpFileXmlMapped;
 import gov.uspto.patent.bulk.DumpReader;
+import gov.uspto.patent.doc.cpc.masterfile.CpcMasterLookup;
 import gov.uspto.patent.model.Patent;
 import gov.uspto.patent.serialize.DocumentBuilder;
 import gov.uspto.patent.serialize.JsonMapper;
 import gov.uspto.patent.serialize.JsonMapperFlat;
+import gov.uspto.patent.thread.MultiThreadProcess;
+import gov.uspto.patent.thread.MultiThreadProcess.FileResult;
+import gov.uspto.patent.thread.MultiThreadProcess.OutputFactory;
+import gov.uspto.patent.thread.MultiThreadProcess.ReaderFactory;
+import gov.uspto.patent.thread.RecordPipeline;
 
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
@@ -61,7 +71,9 @@ public class TransformerCli {
     private long totalLimit = Long.MAX_VALUE;
     private long totalCount = 0;
     private Writer currentWriter;
-    private String currentFileName;
+    private int workers = 1;
+    private boolean ordered = true;
+    private CpcMasterLookup cpcLookup;
 
     public TransformerCli(DocumentBuilder<Patent> fileBuilder, Path outputDir, boolean outputBulkFile) {
         this.fileBuilder = fileBuilder;
@@ -75,6 +87,27 @@ public class TransformerCli {
         this.stdout = true;
     }
 
+    /**
+     * Number of parser threads per dump file.
+     */
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    /**
+     * Write records in the order of the dump file (default), else as they are parsed.
+     */
+    public void setOrdered(boolean ordered) {
+        this.ordered = ordered;
+    }
+
+    /**
+     * Replace the CPC classifications of each patent with its current ones from the CPC master lookup.
+     */
+    public void setCpcLookup(CpcMasterLookup cpcLookup) {
+        this.cpcLookup = cpcLookup;
+    }
+
     public void setup(Path intputPath, int limit) throws FileNotFoundException {
         if (limit > 0) {
             this.totalLimit = limit;
@@ -93,27 +126,21 @@ public class TransformerCli {
     }
 
     public void process() throws FileNotFoundException {
+        if (outputBulkFile && !stdout) {
+            processBulk();
+            return;
+        }
+
         for (int i = 1; fileIterator.hasNext() && totalCount < totalLimit; i++) {
             File file = fileIterator.next();
 
             MDC.put("DOCID", file.getName());
             LOGGER.info("Dump File[{}]: {}", i, file.getAbsoluteFile());
 
-            if (outputBulkFile) {
-                if (currentWriter != null) {
-                    try {
-                        currentWriter.close();
-                    } catch (IOException e) {
-                        // close quiet.
-                    }
-                }
-                currentWriter = null;
-                currentFileName = file.getName().replaceFirst(".zip$", ".bulk");
-            }
-
             try {
-                DumpReader dumpReader = read(file);
-                processDumpFile(dumpReader);
+                for (DumpReader dumpReader : read(file)) {
+                    processDumpFile(dumpReader);
+                }
             } catch (IOException e) {
                 LOGGER.error("Failed processing Dump file: {}", file.getAbsolutePath(), e);
             }
@@ -126,7 +153,58 @@ public class TransformerCli {
         }
     }
 
-    private DumpReader read(File file) {
+    /**
+     * One output bulk file per dump file; dump files are processed concurrently.
+     */
+    private void processBulk() {
+        MultiThreadProcess<Patent> process = new MultiThreadProcess<Patent>(new ReaderFactory<Patent>() {
+            @Override
+            public PatentDocReader<Patent> create(PatentDocFormat patentDocFormat) {
+                return new PatentReader(patentDocFormat);
+            }
+        }, outputBuilder(), new OutputFactory() {
+            @Override
+            public Writer create(DumpReader dumpReader) throws IOException {
+                String bulkFileName = dumpReader.getFile().getName().replaceFirst("\\.(zip|xml)$", ".bulk");
+                return new BufferedWriter(new FileWriter(outputDir.resolve(bulkFileName).toFile()));
+            }
+        }, workers);
+        process.setRecordSeparator("\n");
+        process.setLimit(totalLimit);
+
+        try {
+            for (int i = 1; fileIterator.hasNext(); i++) {
+                File file = fileIterator.next();
+                LOGGER.info("Dump File[{}]: {}", i, file.getAbsoluteFile());
+                for (DumpReader dumpReader : read(file)) {
+                    process.submit(dumpReader);
+                }
+            }
+
+            for (FileResult result : process.awaitCompletion()) {
+                totalCount += result.getRecords() + result.getFailedRecords();
+                if (!result.isSuccess()) {
+                    LOGGER.error("Failed processing Dump file: {}", result.getFile().getAbsolutePath(),
+                            result.getError());
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed reading Dump file", e);
+        } catch (InterruptedException e) {
+            LOGGER.error("Processing Interrupted", e);
+            Thread.currentThread().interrupt();
+        } finally {
+            process.close();
+        }
+
+        LOGGER.info("Process Complete, Total Records [{}]", totalCount);
+    }
+
+    /**
+     * DumpReaders for a dump file; a zip holding several xml bulk files gets a reader per entry,
+     * each with its own zip handle so the entries can be read concurrently.
+     */
+    private List<DumpReader> read(File file) throws IOException {
         PatentDocFormat patentDocFormat = new PatentDocFormatDetect().fromFileName(file);
 
         FileFilterChain filters = new FileFilterChain();
@@ -139,72 +217,95 @@ public class TransformerCli {
             //filters.addRule(new SuffixFilter("txt"));
             break;
         default:
-            dumpReader = new DumpFileXml(file);
             //filters.addRule(new PathFileFilter(""));
             filters.addRule(new SuffixFilter("xml"));
+
+            if (file.getName().endsWith("zip")) {
+                BulkArchive archive = new BulkArchive(file, filters);
+                List<DumpReader> entryReaders = new ArrayList<DumpReader>();
+                try {
+                    archive.open();
+                    Iterators.addAll(entryReaders, archive.entryReaders());
+                } finally {
+                    archive.close();
+                }
+                if (entryReaders.size() > 1) {
+                    LOGGER.info("Reading {} bulk files from: {}", entryReaders.size(), file);
+                    return entryReaders;
+                }
+            }
+
+            dumpReader = new DumpFileXmlMapped(file);
         }
         
         dumpReader.setFileFilter(filters);
         
-        return dumpReader;
+        return Collections.singletonList(dumpReader);
     }
 
-    private void processDumpFile(DumpReader dumpReader) throws IOException {
+    private void processDumpFile(final DumpReader dumpReader) throws IOException {
 
         try {
             dumpReader.open();
             PatentReader patentReader = new PatentReader(dumpReader.getPatentDocFormat());
+            final DocumentBuilder<Patent> builder = outputBuilder();
 
-            for (; dumpReader.hasNext() && totalCount < totalLimit; totalCount++) {
+            RecordPipeline<Patent> pipeline = new RecordPipeline<Patent>(patentReader, workers);
+            pipeline.setOrdered(ordered);
+            pipeline.setLimit(totalLimit - totalCount);
 
-                String xmlDocStr = dumpReader.next();
-                if (xmlDocStr == null) {
-                    currentWriter.close();
-                    break;
-                }
-
-                try (StringReader rawText = new StringReader(xmlDocStr)) {
-                    Patent patent = patentReader.read(rawText);
+            totalCount += pipeline.run(dumpReader, new RecordPipeline.RecordHandler<Patent>() {
+                @Override
+                public void handle(int recordNumber, Patent patent) throws IOException {
                     String patentId = patent.getDocumentId().toText();
                     MDC.put("DOCID", patentId);
 
-                    if (!stdout && !outputBulkFile || outputBulkFile && currentWriter == null) {
-                        if (!outputBulkFile) {
-                            currentFileName = patentId + ".json";
-                            if (currentWriter != null) {
-                                currentWriter.close();
-                            }
+                    if (!stdout) {
+                        String currentFileName = patentId + ".json";
+                        if (currentWriter != null) {
+                            currentWriter.close();
                         }
                         currentWriter = new BufferedWriter(new FileWriter(outputDir.resolve(currentFileName).toFile()));
                     } else {
-                        if (!outputBulkFile) {
-                            currentWriter = new StringWriter();
-                        }
+                        currentWriter = new StringWriter();
                     }
 
-                    LOGGER.info("Record: '{}' from {}:{}", patentId, dumpReader.getFile(),
-                            dumpReader.getCurrentRecCount());
+                    LOGGER.info("Record: '{}' from {}:{}", patentId, dumpReader.getFile(), recordNumber);
                     LOGGER.trace("Patent Object: " + patent.toString());
-                    write(patent, currentWriter);
+                    write(builder, patent, currentWriter);
                     currentWriter.flush();
                     MDC.put("DOCID", "");
-                } catch (PatentReaderException e1) {
-                    LOGGER.error("Patent Reader error: ", e1);
-                } catch (IOException e) {
-                    LOGGER.error("Writer error: ", e);
                 }
-            }
+            });
 
+            if (currentWriter != null) {
+                currentWriter.close();
+                currentWriter = null;
+            }
         } finally {
             dumpReader.close();
         }
     }
 
-    private void write(Patent patent, Writer writer) throws IOException {
-        fileBuilder.write(patent, writer);
-        if (outputBulkFile) {
-            writer.write("\n");
-        } else if (stdout) {
+    /**
+     * DocumentBuilder applying the CPC master lookup, if any, before writing.
+     */
+    private DocumentBuilder<Patent> outputBuilder() {
+        if (cpcLookup == null) {
+            return fileBuilder;
+        }
+        return new DocumentBuilder<Patent>() {
+            @Override
+            public void write(Patent patent, Writer writer) throws IOException {
+                cpcLookup.overlay(patent);
+                fileBuilder.write(patent, writer);
+            }
+        };
+    }
+
+    private void write(DocumentBuilder<Patent> builder, Patent patent, Writer writer) throws IOException {
+        builder.write(patent, writer);
+        if (stdout) {
             System.out.println("JSON: " + writer.toString());
         }
     }
@@ -230,6 +331,12 @@ public class TransformerCli {
                         .defaultsTo(true);
                 accepts("stdout").withOptionalArg().ofType(Boolean.class)
                         .describedAs("Output to Terminal instead of File").defaultsTo(false);
+                accepts("threads").withOptionalArg().ofType(Integer.class).describedAs("parser threads per dump file")
+                        .defaultsTo(Runtime.getRuntime().availableProcessors());
+                accepts("ordered").withOptionalArg().ofType(Boolean.class)
+                        .describedAs("Keep output in dump file record order").defaultsTo(true);
+                accepts("cpcLookup").withOptionalArg().ofType(String.class)
+                        .describedAs("CPC master lookup file, overlays current CPC classifications");
             }
         };
 
@@ -252,6 +359,8 @@ public class TransformerCli {
         boolean prettyPrint = (Boolean) options.valueOf("prettyPrint");
         boolean stdout = (Boolean) options.valueOf("stdout");
         boolean outBulk = (Boolean) options.valueOf("outBulk");
+        int threads = (Integer) options.valueOf("threads");
+        boolean ordered = (Boolean) options.valueOf("ordered");
         if (outBulk) {
             prettyPrint = false;
         }
@@ -272,9 +381,18 @@ public class TransformerCli {
             transform = new TransformerCli(fileBuilder, outDirPath, outBulk);
         }
 
+        transform.setWorkers(threads);
+        transform.setOrdered(ordered);
         transform.setup(inputPath, limit);
 
-        transform.process();
+        if (options.has("cpcLookup")) {
+            try (CpcMasterLookup cpcLookup = CpcMasterLookup.open(new File((String) options.valueOf("cpcLookup")))) {
+                transform.setCpcLookup(cpcLookup);
+                transform.process();
+            }
+        } else {
+            transform.process();
+        }
 
         LOGGER.info("--- Done ---");
     }
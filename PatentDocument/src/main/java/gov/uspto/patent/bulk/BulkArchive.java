@@ -1,10 +1,14 @@
 package gov.uspto.patent.bulk;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileFilter;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
@@ -22,17 +26,39 @@ import gov.uspto.patent.bulk.DumpFileXml;
  * 
  * Reading multiple large Bulk files contained within a single ZipFile.
  * 
+ * <p>
+ * {@link #next()} reads entries through the archive's single ZipFile handle, one at a time.
+ * {@link #entryReaders()} gives a reader per entry which opens its own ZipFile handle, for reading
+ * entries concurrently; concurrency is bounded by the consumer, such as MultiThreadProcess.
+ * {@link #openEntryStream(String)} likewise opens an entry through its own handle, for streaming parsers.
+ * </p>
+ * 
+ * <pre>
+ * BulkArchive archive = new BulkArchive(zipFile, new SuffixFilter("xml"));
+ * archive.open();
+ * Iterator&lt;DumpReader&gt; readers = archive.entryReaders();
+ * archive.close();
+ * while (readers.hasNext()) {
+ *     process.submit(readers.next());
+ * }
+ * </pre>
+ * 
  * @author Brian G. Feldman (brian.feldman@uspto.gov)
  *
  */
 public class BulkArchive implements Iterator<DumpFile>, AutoCloseable {
     private static final Logger LOGGER = LoggerFactory.getLogger(BulkArchive.class);
 
+    private final File file;
+    private final FileFilter fileFilter;
     private final ZipReader zipArchive;
+    private int position;
 
     public BulkArchive(File zipFile, FileFilter fileFilter) {
         Preconditions.checkArgument(zipFile.canRead(), "ZipFile not readble: " + zipFile.getAbsolutePath());
 
+        this.file = zipFile;
+        this.fileFilter = fileFilter;
         this.zipArchive = new ZipReader(zipFile, fileFilter);
     }
 
@@ -53,15 +79,73 @@ public class BulkArchive implements Iterator<DumpFile>, AutoCloseable {
     public void skip(int skip) {
         for (int i = 0; i < skip; i++) {
             zipArchive.nextEntry();
+            position++;
+        }
+    }
+
+    /**
+     * Readers for the remaining matching entries (after any skip or next), each opening its own ZipFile handle
+     * when opened; they do not depend on this archive staying open.
+     *
+     * @return unopened entry readers, in archive order
+     */
+    public Iterator<DumpReader> entryReaders() {
+        List<DumpReader> readers = new ArrayList<DumpReader>();
+        for (String entryName : entryNames()) {
+            readers.add(new DumpFileXmlMapped(file, entryName));
+        }
+        return readers.iterator();
+    }
+
+    /**
+     * Names of the remaining matching entries (after any skip or next), from the zip central directory;
+     * does not move the archive iterator.
+     *
+     * @return entry names, in archive order
+     */
+    public List<String> entryNames() {
+        List<String> names = zipArchive.entryNames();
+        return new ArrayList<String>(names.subList(Math.min(position, names.size()), names.size()));
+    }
+
+    /**
+     * Uncompressed bytes of an entry, read through its own ZipFile handle which is closed with the stream;
+     * it does not depend on this archive staying open.
+     *
+     * @param entryName
+     * @return entry stream
+     * @throws IOException
+     */
+    public InputStream openEntryStream(String entryName) throws IOException {
+        final ZipReader entryZip = new ZipReader(file, fileFilter);
+        entryZip.open();
+        try {
+            ZipArchiveEntry zipEntry = entryZip.getEntry(entryName);
+            if (zipEntry == null) {
+                throw new FileNotFoundException("Zip entry not found: " + file + "!" + entryName);
+            }
+            return new FilterInputStream(entryZip.readEntryStream(zipEntry)) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        entryZip.close();
+                    }
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            entryZip.close();
+            throw e;
         }
     }
 
     @Override
     public DumpFile next() {
         ZipArchiveEntry zipEntry = zipArchive.nextEntry();
+        position++;
         try {
-            BufferedReader reader = zipArchive.readEntry(zipEntry);
-            return new DumpFileXml(zipEntry.getName(), reader);
+            return new DumpFileXml(zipEntry.getName(), zipArchive.readEntryStream(zipEntry));
         } catch (IOException e) {
             LOGGER.error("Failed Reader DumpFile: {}", e);
         }
@@ -0,0 +1,96 @@
+package gov.uspto.patent.bulk;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the lines of a stream as bytes, without decoding them; lines end at '\n', '\r' or "\r\n"
+ * as with BufferedReader.readLine().
+ */
+class ByteLineReader implements Closeable {
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int pos;
+    private int limit;
+    private boolean skipLF;
+
+    private byte[] line = new byte[1024];
+    private int length;
+
+    ByteLineReader(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Read the next line, without its line terminator.
+     *
+     * @return false at the end of input
+     * @throws IOException
+     */
+    public boolean readLine() throws IOException {
+        length = 0;
+        boolean read = false;
+        while (true) {
+            if (pos >= limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                pos = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return read;
+                }
+            }
+
+            if (skipLF) {
+                skipLF = false;
+                if (buffer[pos] == '\n') {
+                    pos++;
+                    continue;
+                }
+            }
+
+            read = true;
+            int start = pos;
+            while (pos < limit) {
+                byte b = buffer[pos];
+                if (b == '\n' || b == '\r') {
+                    append(start, pos);
+                    pos++;
+                    skipLF = b == '\r';
+                    return true;
+                }
+                pos++;
+            }
+            append(start, pos);
+        }
+    }
+
+    /**
+     * Bytes of the current line, valid up to {@link #getLength()} until the next readLine().
+     */
+    public byte[] getLine() {
+        return line;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    private void append(int from, int to) {
+        int count = to - from;
+        if (length + count > line.length) {
+            byte[] grown = new byte[Math.max(line.length * 2, length + count)];
+            System.arraycopy(line, 0, grown, 0, length);
+            line = grown;
+        }
+        System.arraycopy(buffer, from, line, length, count);
+        length += count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
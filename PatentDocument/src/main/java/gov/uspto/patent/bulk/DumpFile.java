@@ -2,15 +2,18 @@ package gov.uspto.patent.bulk;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileFilter;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,14 +26,23 @@ import gov.uspto.patent.PatentDocFormatDetect;
 public abstract class DumpFile implements Iterator<String>, Closeable, DumpReader {
 	private static final Logger LOGGER = LoggerFactory.getLogger(DumpFile.class);
 
+	private static final int BUFFER_SIZE = 64 * 1024;
+
 	private final File file;
 	private PatentDocFormat patentDocFormat;
 
 	private ZipReader zipFile;
+	private String entryName;
+	private InputStream stream;
 	private BufferedReader reader;
+	private ByteLineReader lineReader;
 
 	private FileFilter fileFilter;
-	private String currentRawDoc = "";
+	private final RecordBuffer record = new RecordBuffer();
+	private boolean more = true;
+
+	private byte[] line;
+	private int lineLength;
 
 	public DumpFile(File file) {
 		Preconditions.checkNotNull(file, "File can not be Null");
@@ -40,6 +52,20 @@ public abstract class DumpFile implements Iterator<String>, Closeable, DumpReade
 	}
 
 	/**
+	 * Records are read as bytes from the stream, as from a file.
+	 * 
+	 * @param name
+	 *            - Name use for tracking purposes.
+	 * @param stream
+	 */
+	public DumpFile(String name, InputStream stream) {
+		this.file = new File(name);
+		this.stream = stream;
+	}
+
+	/**
+	 * Lines of the reader are already decoded, so are encoded again with the charset of the format.
+	 * 
 	 * @param name
 	 *            - Name use for tracking purposes.
 	 * @param reader
@@ -57,19 +83,51 @@ public abstract class DumpFile implements Iterator<String>, Closeable, DumpReade
 		this.fileFilter = filter;
 	}
 
+	/**
+	 * Open the file, detecting the PatentDocFormat from its leading bytes. The bytes read for
+	 * detection are pushed back, not read again; a file detected before, or given a PatentDocFormat,
+	 * is not detected again. Records are read as bytes, and decoded with the charset of the format
+	 * only when read as a String.
+	 * 
+	 * @throws IOException
+	 */
 	public void open() throws IOException {
-		currentRawDoc = "";
+		more = true;
 
+		PatentDocFormatDetect formatDetect = new PatentDocFormatDetect();
+
+		InputStream in;
 		if (file.getName().endsWith("zip")) {
 			zipFile = new ZipReader(file, fileFilter);
-			reader = zipFile.open().next();
+			zipFile.open();
+			ZipArchiveEntry entry = zipFile.nextEntry();
+			entryName = entry.getName();
+			in = zipFile.readEntryStream(entry);
 		} else if (reader != null) {
 			// use defined reader.
+			if (patentDocFormat == null) {
+				patentDocFormat = formatDetect.fromContent(reader);
+			}
+			return;
+		} else if (stream != null) {
+			// use defined stream.
+			if (patentDocFormat == null) {
+				PatentDocFormatDetect.DetectedStream detected = formatDetect.detect(stream);
+				patentDocFormat = detected.getPatentDocFormat();
+				stream = detected;
+			}
+			lineReader = new ByteLineReader(stream, BUFFER_SIZE);
+			return;
 		} else {
-			reader = new BufferedReader(new FileReader(file));
+			in = new FileInputStream(file);
 		}
 
-		patentDocFormat = new PatentDocFormatDetect().fromContent(reader);
+		if (patentDocFormat == null) {
+			PatentDocFormatDetect.DetectedStream detected = formatDetect.detect(file, entryName, in);
+			patentDocFormat = detected.getPatentDocFormat();
+			in = detected;
+		}
+		lineReader = new ByteLineReader(in, BUFFER_SIZE);
 	}
 
 	@Override
@@ -77,23 +135,42 @@ public abstract class DumpFile implements Iterator<String>, Closeable, DumpReade
 		if (zipFile != null) {
 			zipFile.close();
 		}
+		if (lineReader != null) {
+			lineReader.close();
+		}
 		if (reader != null) {
 			reader.close();
 		}
 	}
 
+	/**
+	 * Read the next record, appending its bytes to record.
+	 * 
+	 * @param record
+	 *            - empty record buffer
+	 * @return false at the end of input
+	 */
+	protected abstract boolean readRecord(ByteArrayOutputStream record);
+
+	private boolean nextRecord() {
+		record.reset();
+		more = readRecord(record);
+		return more;
+	}
+
+	@Override
+	public String read() {
+		return nextRecord() ? record.decode(getCharset()) : null;
+	}
+
 	@Override
 	public boolean hasNext() {
-		return currentRawDoc != null;
+		return more;
 	}
 
 	@Override
 	public String next() {
-		currentRawDoc = read();
-		if (currentRawDoc != null) {
-			return currentRawDoc.toString();
-		}
-		return null;
+		return read();
 	}
 
 	@Override
@@ -101,9 +178,96 @@ public abstract class DumpFile implements Iterator<String>, Closeable, DumpReade
 		throw new UnsupportedOperationException("Remove not supported");
 	}
 
+	/**
+	 * The record bytes as read from the file, without decoding them.
+	 */
 	@Override
 	public InputStream nextDocument() {
-		return new ByteArrayInputStream(next().getBytes(StandardCharsets.UTF_8));
+		return nextRecord() ? new ByteArrayInputStream(record.toByteArray()) : null;
+	}
+
+	/**
+	 * Read the next line, without its line terminator.
+	 * 
+	 * @return false at the end of input
+	 * @throws IOException
+	 */
+	protected boolean readLine() throws IOException {
+		if (lineReader != null) {
+			if (!lineReader.readLine()) {
+				return false;
+			}
+			line = lineReader.getLine();
+			lineLength = lineReader.getLength();
+			return true;
+		}
+
+		String text = reader.readLine();
+		if (text == null) {
+			return false;
+		}
+		line = text.getBytes(getCharset());
+		lineLength = line.length;
+		return true;
+	}
+
+	/**
+	 * Whether the current line starts with prefix.
+	 * 
+	 * @param prefix
+	 * @param skipWhitespace
+	 *            - ignore leading whitespace, as with String.trim()
+	 */
+	protected boolean lineStartsWith(byte[] prefix, boolean skipWhitespace) {
+		int from = 0;
+		if (skipWhitespace) {
+			while (from < lineLength && (line[from] & 0xFF) <= ' ') {
+				from++;
+			}
+		}
+		if (lineLength - from < prefix.length) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (line[from + i] != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Index of target in the current line.
+	 * 
+	 * @param target
+	 * @return index, or -1 when the line does not contain target
+	 */
+	protected int lineIndexOf(byte[] target) {
+		for (int i = 0; i <= lineLength - target.length; i++) {
+			int j = 0;
+			while (j < target.length && line[i + j] == target[j]) {
+				j++;
+			}
+			if (j == target.length) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Append the current line and a '\n' to record.
+	 */
+	protected void appendLine(ByteArrayOutputStream record) {
+		appendLine(record, lineLength);
+	}
+
+	/**
+	 * Append the first length bytes of the current line and a '\n' to record.
+	 */
+	protected void appendLine(ByteArrayOutputStream record, int length) {
+		record.write(line, 0, length);
+		record.write('\n');
 	}
 
 	@Override
@@ -111,8 +275,11 @@ public abstract class DumpFile implements Iterator<String>, Closeable, DumpReade
 		return patentDocFormat;
 	}
 
-	protected BufferedReader getReader() {
-		return reader;
+	/**
+	 * Charset the file is decoded with, given by its PatentDocFormat.
+	 */
+	public Charset getCharset() {
+		return patentDocFormat != null ? patentDocFormat.getCharset() : StandardCharsets.UTF_8;
 	}
 
 	@Override
@@ -120,4 +287,24 @@ public abstract class DumpFile implements Iterator<String>, Closeable, DumpReade
 		return file;
 	}
 
+	/**
+	 * @return name of the zip entry read, known once a zip file is opened; null for a plain file.
+	 */
+	@Override
+	public String getEntryName() {
+		return entryName;
+	}
+
+	/**
+	 * Record buffer decoded in place, without copying its bytes.
+	 */
+	private static class RecordBuffer extends ByteArrayOutputStream {
+		RecordBuffer() {
+			super(BUFFER_SIZE);
+		}
+
+		String decode(Charset charset) {
+			return new String(buf, 0, count, charset);
+		}
+	}
 }
@@ -1,8 +1,11 @@
 package gov.uspto.patent.bulk;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,6 +14,8 @@ public class DumpFileAps extends DumpFile {
 	private static final Logger LOGGER = LoggerFactory.getLogger(DumpFileAps.class);
 
 	private static final String startTag = "PATN";
+	private static final byte[] START_TAG = startTag.getBytes(StandardCharsets.ISO_8859_1);
+	private static final byte[] START_LINE = (startTag + "\n").getBytes(StandardCharsets.ISO_8859_1);
 
 	private boolean startTagSeen = false;
 	private int currentRecCount;
@@ -19,27 +24,30 @@ public class DumpFileAps extends DumpFile {
 		super(file);
 	}
 
+	public DumpFileAps(String name, InputStream stream) {
+		super(name, stream);
+	}
+
 	public DumpFileAps(String name, BufferedReader reader) {
 		super(name, reader);
 	}
 
 	@Override
-	public String read() {
-		StringBuilder content = new StringBuilder();
+	protected boolean readRecord(ByteArrayOutputStream record) {
+		record.write(START_LINE, 0, START_LINE.length);
 
 		try {
-			String line;
-			while (super.getReader().ready() && (line = super.getReader().readLine()) != null) {
+			while (readLine()) {
 				if (startTagSeen == false) {
-					if (line.startsWith(startTag)) {
+					if (lineStartsWith(START_TAG, false)) {
 						startTagSeen = true;
 					}
 				} else {
-					if (line.startsWith(startTag)) {
+					if (lineStartsWith(START_TAG, false)) {
 						currentRecCount++;
-						return startTag + "\n" + content.toString();
+						return true;
 					} else {
-						content.append(line).append('\n');
+						appendLine(record);
 					}
 				}
 			}
@@ -47,18 +55,15 @@ public class DumpFileAps extends DumpFile {
 			LOGGER.error("Error while reading file: {}:{}", super.getFile(), currentRecCount, e);
 		}
 
-		if (content.length() == 0) {
-			return null;
-		} else {
-			return startTag + "\n" + content.toString();
-		}
+		return record.size() > START_LINE.length;
 	}
 
 	@Override
 	public void skip(int skipCount) throws IOException {
-		for (int i = 1; i < skipCount; i++) {
-			super.next();
-			currentRecCount++;
+		for (int i = 0; i < skipCount; i++) {
+			if (super.next() == null) {
+				break;
+			}
 		}
 	}
 
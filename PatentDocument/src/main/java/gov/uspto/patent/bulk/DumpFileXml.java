@@ -1,9 +1,11 @@
 package gov.uspto.patent.bulk;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.util.NoSuchElementException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,18 +13,24 @@ import org.slf4j.LoggerFactory;
 public class DumpFileXml extends DumpFile {
     private static final Logger LOGGER = LoggerFactory.getLogger(DumpFileXml.class);
 
-    private String xmlStartTag;
-    private String xmlEndTag;
+    private static final byte[] XML_DECLARATION = "<?xml".getBytes(StandardCharsets.US_ASCII);
+
+    private byte[] xmlStartTag;
+    private byte[] xmlEndTag;
 
     private int currentRecCount;
 
     private static final String DEFAULT_HEADER = "";
-    private String header = "";
+    private byte[] header = new byte[0];
 
     public DumpFileXml(File file) {
         super(file);
     }
 
+    public DumpFileXml(String name, InputStream stream) {
+        super(name, stream);
+    }
+
     public DumpFileXml(String name, BufferedReader reader) {
         super(name, reader);
     }
@@ -31,49 +39,47 @@ public class DumpFileXml extends DumpFile {
     public void open() throws IOException {
         super.open();
         String xmlTag = super.getPatentDocFormat().getParentElement();
-        this.xmlStartTag = "<" + xmlTag;
-        this.xmlEndTag = "</" + xmlTag;
+        this.xmlStartTag = ("<" + xmlTag).getBytes(getCharset());
+        this.xmlEndTag = ("</" + xmlTag).getBytes(getCharset());
     }
 
     @Override
-    public String read() {
-        StringBuilder content = new StringBuilder();
-        content.append(header);
+    protected boolean readRecord(ByteArrayOutputStream record) {
+        record.write(header, 0, header.length);
 
         try {
-            String line;
-            while (super.getReader().ready() && (line = super.getReader().readLine()) != null) {
+            while (readLine()) {
 
-                if (isStartTag(line)) {
-                    content = new StringBuilder();
-                } else if (isEndTag(line)) {
+                if (lineStartsWith(xmlStartTag, true)) {
+                    record.reset();
+                } else if (lineStartsWith(xmlEndTag, true)) {
                     // Fix for Patent PAP with trailing XML tag.  '</patent-application-publication><?xml version="1.0" encoding="UTF-8"?>'
-                    if (line.contains("<?xml")) {
-                        String[] parts = line.split("<\\?xml");
-                        line = parts[0];
+                    int xmlDeclaration = lineIndexOf(XML_DECLARATION);
+                    if (xmlDeclaration != -1) {
+                        appendLine(record, xmlDeclaration);
+                    } else {
+                        appendLine(record);
                     }
-
-                    content.append(line).append('\n');
                     currentRecCount++;
 
-                    return content.toString();
+                    return true;
                 }
 
-                content.append(line).append('\n');
+                appendLine(record);
             }
         } catch (IOException e) {
             LOGGER.error("Error while reading file: {}; record: {}", super.getFile(), currentRecCount, e);
         }
 
-        return null;
-        //throw new NoSuchElementException();
+        return false;
     }
 
     @Override
     public void skip(int skipCount) throws IOException {
-        for (int i = 1; i < skipCount; i++) {
-            super.next();
-            currentRecCount++;
+        for (int i = 0; i < skipCount; i++) {
+            if (super.next() == null) {
+                break;
+            }
         }
     }
 
@@ -87,14 +93,6 @@ public class DumpFileXml extends DumpFile {
      * Fix for Patent PAP document formats (years 2001-2004).
      */
     public void addHTMLEntities() {
-        header = DEFAULT_HEADER + "\n<!DOCTYPE simple SYSTEM \"html-entities.dtd\">\n";
-    }
-
-    private boolean isStartTag(String line) {
-        return line.trim().startsWith(xmlStartTag);
-    }
-
-    private boolean isEndTag(String line) {
-        return line.trim().startsWith(xmlEndTag);
+        header = (DEFAULT_HEADER + "\n<!DOCTYPE simple SYSTEM \"html-entities.dtd\">\n").getBytes(StandardCharsets.US_ASCII);
     }
 }
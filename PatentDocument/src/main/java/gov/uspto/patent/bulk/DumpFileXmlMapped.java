@@ -0,0 +1,544 @@
+package gov.uspto.patent.bulk;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
+
+import gov.uspto.common.file.archive.ZipReader;
+import gov.uspto.common.filter.FileFilterChain;
+import gov.uspto.patent.PatentDocFormat;
+import gov.uspto.patent.PatentDocFormatDetect;
+
+/**
+ * Byte level XML bulk file reader; splits records on the raw UTF-8 bytes without decoding each line.
+ *
+ *<p>
+ * Plain files are memory mapped, in windows to support files larger than 2GB. Zip entries are
+ * streamed into a large direct buffer. Records are returned as {@link RecordSlice}, a view on the
+ * underlying bytes, the record String is only decoded when asked for.
+ *</p>
+ *
+ *<p>
+ * Record boundaries follow {@link DumpFileXml}: a record starts on the line beginning with the start tag
+ * and ends with the line beginning with the end tag. Line endings are kept as found in the file.
+ * There is no {@link DumpFileXml#addHTMLEntities()}: DumpFileXml starts each record over at its start tag
+ * line, dropping that header, so records are the same without it.
+ *</p>
+ *
+ *<p>
+ * A reader for a single named zip entry opens its own ZipFile handle, so several entries of one archive
+ * can be read concurrently, see {@link BulkArchive#entryReaders()}.
+ *</p>
+ *
+ *<p>
+ * With a {@link DumpIndex} set, {@link #seek(int)} and {@link #seek(String)} move directly to a record:
+ * plain files are mapped at the record offset, zip entries are re-streamed and the bytes in front
+ * of the record are skipped without being scanned for records.
+ *</p>
+ *
+ *<pre>
+ * DumpFileXmlMapped dumpFile = new DumpFileXmlMapped(new File("ipg150106.zip"));
+ * dumpFile.setFileFilter(new SuffixFilter("xml"));
+ * dumpFile.open();
+ * RecordSlice record;
+ * while ((record = dumpFile.nextRecord()) != null) {
+ *     InputStream xml = record.asInputStream();
+ * }
+ *</pre>
+ */
+public class DumpFileXmlMapped implements DumpReader {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DumpFileXmlMapped.class);
+
+    private static final int MAP_WINDOW_SIZE = 512 * 1024 * 1024;
+    private static final int STREAM_BUFFER_SIZE = 32 * 1024 * 1024;
+    private static final byte[] XML_DECLARATION = "<?xml".getBytes(StandardCharsets.US_ASCII);
+
+    private final File file;
+    private final String entryName;
+    private Charset charset;
+    private FileFilter fileFilter;
+    private PatentDocFormat patentDocFormat;
+
+    private byte[] startTag;
+    private byte[] endTag;
+
+    // memory mapped file.
+    private FileChannel fileChannel;
+    private long fileSize;
+    private long windowStart;
+    private int windowSize = MAP_WINDOW_SIZE;
+
+    // streamed zip entry.
+    private ZipReader zipFile;
+    private ZipArchiveEntry entry;
+    private ReadableByteChannel entryChannel;
+    private boolean entryEOF;
+    private long streamOffset;
+
+    private ByteBuffer buffer;
+    private boolean finished = false;
+    private int currentRecCount;
+    private long recordOffset = -1;
+    private DumpIndex index;
+
+    /**
+     * Records are decoded with the charset of the detected PatentDocFormat.
+     *
+     * @param file
+     */
+    public DumpFileXmlMapped(File file) {
+        this(file, null, null);
+    }
+
+    public DumpFileXmlMapped(File file, Charset charset) {
+        this(file, null, charset);
+    }
+
+    /**
+     * Reader for a single entry of a zip file.
+     *
+     * @param zipFile
+     * @param entryName name of the zip entry
+     */
+    public DumpFileXmlMapped(File zipFile, String entryName) {
+        this(zipFile, entryName, null);
+    }
+
+    /**
+     * @param file
+     * @param entryName name of the zip entry, or null
+     * @param charset charset of the records, or null to use the charset of the PatentDocFormat
+     */
+    public DumpFileXmlMapped(File file, String entryName, Charset charset) {
+        Preconditions.checkNotNull(file, "File can not be Null");
+        Preconditions.checkArgument(file.isFile(), "File not found:" + file.getAbsolutePath());
+        this.file = file;
+        this.entryName = entryName;
+        this.charset = charset;
+        if (entryName != null) {
+            this.fileFilter = new FileFilterChain();
+        }
+    }
+
+    @Override
+    public void setFileFilter(FileFilter filter) {
+        this.fileFilter = filter;
+    }
+
+    public void setPatentDocFormat(PatentDocFormat patentDocFormat) {
+        this.patentDocFormat = patentDocFormat;
+    }
+
+    /**
+     * Record offset index, used by seek and skip.
+     */
+    public void setIndex(DumpIndex index) {
+        this.index = index;
+    }
+
+    public DumpIndex getIndex() {
+        return index;
+    }
+
+    @Override
+    public void open() throws IOException {
+        finished = false;
+        currentRecCount = 0;
+        recordOffset = -1;
+
+        if (file.getName().endsWith("zip")) {
+            zipFile = new ZipReader(file, fileFilter);
+            zipFile.open();
+            if (entryName != null) {
+                entry = zipFile.getEntry(entryName);
+                if (entry == null) {
+                    throw new FileNotFoundException("Zip entry not found: " + file + "!" + entryName);
+                }
+            } else {
+                entry = zipFile.nextEntry();
+            }
+            buffer = ByteBuffer.allocateDirect(STREAM_BUFFER_SIZE);
+            streamFrom(0);
+        } else {
+            fileChannel = new RandomAccessFile(file, "r").getChannel();
+            fileSize = fileChannel.size();
+            windowStart = 0;
+            mapWindow();
+        }
+
+        if (patentDocFormat == null) {
+            patentDocFormat = detectFormat(entry != null ? entry.getName() : null);
+        }
+
+        if (index != null && !index.matches(file)) {
+            LOGGER.warn("Ignoring index, it does not match: {}", file);
+            index = null;
+        }
+
+        if (charset == null) {
+            charset = patentDocFormat.getCharset();
+        }
+
+        String xmlTag = patentDocFormat.getParentElement();
+        this.startTag = ("<" + xmlTag).getBytes(StandardCharsets.US_ASCII);
+        this.endTag = ("</" + xmlTag).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Format from the cache, else from the leading bytes already in the buffer.
+     */
+    private PatentDocFormat detectFormat(String entryName) {
+        PatentDocFormatDetect formatDetect = new PatentDocFormatDetect();
+        PatentDocFormat format = formatDetect.getCached(file, entryName);
+        if (format == null) {
+            format = formatDetect.fromContent(buffer);
+            formatDetect.cache(file, entryName, format);
+        }
+        return format;
+    }
+
+    /**
+     * Next record as a byte slice.
+     *
+     * @return record or null when no more records.
+     */
+    public RecordSlice nextRecord() {
+        if (finished) {
+            return null;
+        }
+
+        try {
+            RecordSlice record = scan();
+            if (record == null) {
+                finished = true;
+                recordOffset = -1;
+            } else {
+                currentRecCount++;
+            }
+            return record;
+        } catch (IOException e) {
+            LOGGER.error("Error while reading file: {}; record: {}", getFile(), currentRecCount, e);
+            finished = true;
+            return null;
+        }
+    }
+
+    /**
+     * Scan lines from the current buffer position for the next record, fetching more data as needed.
+     */
+    private RecordSlice scan() throws IOException {
+        while (true) {
+            int limit = buffer.limit();
+            int pos = buffer.position();
+            int recordStart = -1;
+
+            while (pos < limit) {
+                int lineEnd = indexOf(buffer, (byte) '\n', pos, limit);
+                if (lineEnd == -1 && !atEnd()) {
+                    break; // partial line.
+                }
+                int eol = lineEnd == -1 ? limit : lineEnd;
+                int next = lineEnd == -1 ? limit : lineEnd + 1;
+                int first = skipWhitespace(buffer, pos, eol);
+
+                if (startsWith(buffer, first, eol, startTag)) {
+                    recordStart = pos;
+                } else if (recordStart != -1 && startsWith(buffer, first, eol, endTag)) {
+                    int recordEnd = next;
+                    // Fix for Patent PAP with trailing XML tag.  '</patent-application-publication><?xml version="1.0" encoding="UTF-8"?>'
+                    int xmlDecl = indexOf(buffer, XML_DECLARATION, first + endTag.length, eol);
+                    if (xmlDecl != -1) {
+                        recordEnd = xmlDecl;
+                    }
+                    buffer.position(next);
+                    recordOffset = (fileChannel != null ? windowStart : streamOffset) + recordStart;
+                    return slice(recordStart, recordEnd);
+                }
+
+                pos = next;
+            }
+
+            if (atEnd()) {
+                buffer.position(limit);
+                return null;
+            }
+
+            int keepFrom = recordStart != -1 ? recordStart : pos;
+            if (fileChannel != null) {
+                windowStart += keepFrom;
+                if (keepFrom == 0) {
+                    growWindow();
+                }
+                mapWindow();
+            } else {
+                fillStream(keepFrom);
+            }
+        }
+    }
+
+    /**
+     * Byte offset of the last record returned, within the uncompressed file or zip entry.
+     *
+     * @return offset or -1 when no current record.
+     */
+    public long getRecordOffset() {
+        return recordOffset;
+    }
+
+    /**
+     * Move to a record using the index, the next record read is the requested record.
+     *
+     * @param recordNumber record number, starting at 1
+     * @return false when the record is not in the index.
+     * @throws IOException
+     */
+    public boolean seek(int recordNumber) throws IOException {
+        Preconditions.checkState(index != null, "Seek requires an index, see DumpIndex");
+        DumpIndex.Entry indexEntry = index.get(recordNumber);
+        if (indexEntry == null) {
+            return false;
+        }
+        seek(indexEntry);
+        return true;
+    }
+
+    /**
+     * Move to the record of a document id using the index, the next record read is the requested record.
+     *
+     * @param docId document id as given by {@code DocumentId.toText()}
+     * @return false when the document id is not in the index.
+     * @throws IOException
+     */
+    public boolean seek(String docId) throws IOException {
+        Preconditions.checkState(index != null, "Seek requires an index, see DumpIndex");
+        DumpIndex.Entry indexEntry = index.get(docId);
+        if (indexEntry == null) {
+            return false;
+        }
+        seek(indexEntry);
+        return true;
+    }
+
+    private void seek(DumpIndex.Entry indexEntry) throws IOException {
+        LOGGER.debug("Seek to record {} at offset {}", indexEntry.getRecordNumber(), indexEntry.getOffset());
+        if (fileChannel != null) {
+            windowStart = indexEntry.getOffset();
+            mapWindow();
+        } else {
+            entryChannel.close();
+            streamFrom(indexEntry.getOffset());
+        }
+        finished = false;
+        recordOffset = -1;
+        currentRecCount = indexEntry.getRecordNumber() - 1;
+    }
+
+    /**
+     * Stream the zip entry from offset into an empty buffer, the bytes before offset are decompressed and dropped.
+     */
+    private void streamFrom(long offset) throws IOException {
+        InputStream entryStream = zipFile.readEntryStream(entry);
+        ByteStreams.skipFully(entryStream, offset);
+        entryChannel = Channels.newChannel(entryStream);
+        entryEOF = false;
+        streamOffset = offset;
+        buffer.clear();
+        buffer.flip();
+        fillStream(0);
+    }
+
+    private RecordSlice slice(int start, int end) {
+        ByteBuffer recordBytes = buffer.duplicate();
+        recordBytes.limit(end);
+        recordBytes.position(start);
+        return new RecordSlice(recordBytes, charset);
+    }
+
+    private boolean atEnd() {
+        if (fileChannel != null) {
+            return windowStart + buffer.limit() >= fileSize;
+        } else {
+            return entryEOF;
+        }
+    }
+
+    private void mapWindow() throws IOException {
+        long size = Math.min(windowSize, fileSize - windowStart);
+        buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, windowStart, size);
+    }
+
+    private void growWindow() {
+        Preconditions.checkState(windowSize < Integer.MAX_VALUE, "Record larger than 2GB: " + file);
+        windowSize = (int) Math.min(Integer.MAX_VALUE, windowSize * 2L);
+        LOGGER.debug("Increased map window to {} bytes", windowSize);
+    }
+
+    /**
+     * Keep bytes from keepFrom, move them to the front of the buffer and fill the remaining space from the zip entry.
+     */
+    private void fillStream(int keepFrom) throws IOException {
+        buffer.position(keepFrom);
+        streamOffset += keepFrom;
+        if (keepFrom == 0 && buffer.limit() == buffer.capacity()) {
+            // record larger than buffer.
+            ByteBuffer larger = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+            larger.put(buffer);
+            buffer = larger;
+            LOGGER.debug("Increased stream buffer to {} bytes", buffer.capacity());
+        } else {
+            buffer.compact();
+        }
+
+        while (buffer.hasRemaining()) {
+            int read = entryChannel.read(buffer);
+            if (read == -1) {
+                entryEOF = true;
+                break;
+            }
+        }
+        buffer.flip();
+    }
+
+    private static int indexOf(ByteBuffer buf, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buf.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(ByteBuffer buf, byte[] pattern, int from, int to) {
+        for (int i = from; i <= to - pattern.length; i++) {
+            if (startsWith(buf, i, to, pattern)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(ByteBuffer buf, int from, int to) {
+        int i = from;
+        while (i < to && (buf.get(i) & 0xFF) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean startsWith(ByteBuffer buf, int from, int to, byte[] pattern) {
+        if (to - from < pattern.length) {
+            return false;
+        }
+        for (int i = 0; i < pattern.length; i++) {
+            if (buf.get(from + i) != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !finished;
+    }
+
+    @Override
+    public String next() {
+        return read();
+    }
+
+    @Override
+    public String read() {
+        RecordSlice record = nextRecord();
+        return record != null ? record.toString() : null;
+    }
+
+    @Override
+    public InputStream nextDocument() {
+        RecordSlice record = nextRecord();
+        return record != null ? record.asInputStream() : null;
+    }
+
+    /**
+     * Skip records, without decoding them; seeks when an index is set.
+     */
+    @Override
+    public void skip(int skipCount) throws IOException {
+        if (index != null && skipCount > 0) {
+            if (!seek(currentRecCount + skipCount + 1)) {
+                finished = true;
+            }
+            return;
+        }
+        for (int i = 0; i < skipCount; i++) {
+            if (nextRecord() == null) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Remove not supported");
+    }
+
+    @Override
+    public PatentDocFormat getPatentDocFormat() {
+        return patentDocFormat;
+    }
+
+    /**
+     * @return bulk file, or for a zip entry reader the entry path under the zip file.
+     */
+    @Override
+    public File getFile() {
+        return entryName != null ? new File(file, entryName) : file;
+    }
+
+    /**
+     * @return name of the zip entry, null unless a zip entry reader.
+     */
+    @Override
+    public String getEntryName() {
+        return entryName;
+    }
+
+    @Override
+    public int getCurrentRecCount() {
+        return currentRecCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (entryChannel != null) {
+            entryChannel.close();
+            entryChannel = null;
+        }
+        if (zipFile != null) {
+            zipFile.close();
+            zipFile = null;
+            entry = null;
+        }
+        if (fileChannel != null) {
+            fileChannel.close();
+            fileChannel = null;
+        }
+        buffer = null;
+    }
+}
@@ -0,0 +1,274 @@
+package gov.uspto.patent.bulk;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+import gov.uspto.patent.PatentReader;
+import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.PatentSection;
+import gov.uspto.patent.model.Patent;
+
+/**
+ * Record offset index of a bulk file, stored as a sidecar file next to it ("ipg150106.zip.idx").
+ *
+ *<p>
+ * For each record keeps the document id, record number, and the byte offset and length of the record
+ * within the uncompressed file or zip entry; used by {@link DumpFileXmlMapped#seek(String)} to go directly
+ * to a record instead of parsing every record in front of it.
+ *</p>
+ *
+ *<p>
+ * The index records the size and modified time of the bulk file, an index which no longer matches its
+ * bulk file is rebuilt by {@link #loadOrBuild(File, FileFilter)}.
+ *</p>
+ *
+ *<pre>
+ * DumpFileXmlMapped dumpFile = new DumpFileXmlMapped(file);
+ * dumpFile.setFileFilter(new SuffixFilter("xml"));
+ * dumpFile.setIndex(DumpIndex.loadOrBuild(file, new SuffixFilter("xml")));
+ * dumpFile.open();
+ * if (dumpFile.seek("US9226437B2")) {
+ *     String rawDoc = dumpFile.next();
+ * }
+ *</pre>
+ */
+public class DumpIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DumpIndex.class);
+
+    private static final int MAGIC = 0x50444958; // "PDIX"
+    private static final int VERSION = 1;
+    public static final String SUFFIX = ".idx";
+
+    public static class Entry {
+        private final String docId;
+        private final int recordNumber;
+        private final long offset;
+        private final int length;
+
+        public Entry(String docId, int recordNumber, long offset, int length) {
+            this.docId = docId;
+            this.recordNumber = recordNumber;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        public String getDocId() {
+            return docId;
+        }
+
+        public int getRecordNumber() {
+            return recordNumber;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry [docId=" + docId + ", recordNumber=" + recordNumber + ", offset=" + offset + ", length="
+                    + length + "]";
+        }
+    }
+
+    private final long fileSize;
+    private final long fileModified;
+    private final List<Entry> entries;
+    private Map<String, Entry> byDocId;
+
+    private DumpIndex(long fileSize, long fileModified, List<Entry> entries) {
+        this.fileSize = fileSize;
+        this.fileModified = fileModified;
+        this.entries = entries;
+    }
+
+    /**
+     * Index a bulk file, parsing only the bibliographic section of each record for its document id.
+     *
+     * @param dumpFile bulk file, zip or xml
+     * @param fileFilter selects the entry of a zip file
+     * @return index
+     * @throws IOException
+     */
+    public static DumpIndex build(File dumpFile, FileFilter fileFilter) throws IOException {
+        DumpFileXmlMapped dumpReader = new DumpFileXmlMapped(dumpFile);
+        dumpReader.setFileFilter(fileFilter);
+
+        List<Entry> entries = new ArrayList<Entry>();
+        try {
+            dumpReader.open();
+            PatentReader patentReader = new PatentReader(dumpReader.getPatentDocFormat());
+            patentReader.setSections(PatentSection.BIBLIOGRAPHIC);
+
+            RecordSlice record;
+            while ((record = dumpReader.nextRecord()) != null) {
+                int recordNumber = dumpReader.getCurrentRecCount();
+                entries.add(new Entry(docId(patentReader, record, recordNumber), recordNumber,
+                        dumpReader.getRecordOffset(), record.length()));
+            }
+        } finally {
+            dumpReader.close();
+        }
+
+        LOGGER.info("Indexed {} records: {}", entries.size(), dumpFile);
+        return new DumpIndex(dumpFile.length(), dumpFile.lastModified(), entries);
+    }
+
+    private static String docId(PatentReader patentReader, RecordSlice record, int recordNumber) {
+        try (StringReader rawText = new StringReader(record.toString())) {
+            Patent patent = patentReader.read(rawText);
+            if (patent != null && patent.getDocumentId() != null) {
+                return patent.getDocumentId().toText();
+            }
+        } catch (PatentReaderException | IOException | RuntimeException e) {
+            LOGGER.warn("Failed to read document id of record: {}", recordNumber, e);
+        }
+        return "";
+    }
+
+    /**
+     * Sidecar index file of a bulk file.
+     */
+    public static File indexFile(File dumpFile) {
+        return new File(dumpFile.getPath() + SUFFIX);
+    }
+
+    /**
+     * Load the sidecar index of a bulk file, building and writing it when missing or out of date.
+     *
+     * @param dumpFile
+     * @param fileFilter selects the entry of a zip file
+     * @return index
+     * @throws IOException
+     */
+    public static DumpIndex loadOrBuild(File dumpFile, FileFilter fileFilter) throws IOException {
+        File indexFile = indexFile(dumpFile);
+        if (indexFile.isFile()) {
+            try {
+                DumpIndex index = read(indexFile);
+                if (index.matches(dumpFile)) {
+                    return index;
+                }
+                LOGGER.info("Index out of date, rebuilding: {}", indexFile);
+            } catch (IOException e) {
+                LOGGER.warn("Failed to read index, rebuilding: {}", indexFile, e);
+            }
+        }
+
+        DumpIndex index = build(dumpFile, fileFilter);
+        try {
+            index.write(indexFile);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write index: {}", indexFile, e);
+        }
+        return index;
+    }
+
+    public static DumpIndex read(File indexFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a bulk file index: " + indexFile);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported index version " + version + ": " + indexFile);
+            }
+
+            long fileSize = in.readLong();
+            long fileModified = in.readLong();
+            int count = in.readInt();
+
+            List<Entry> entries = new ArrayList<Entry>(count);
+            for (int i = 1; i <= count; i++) {
+                String docId = in.readUTF();
+                long offset = in.readLong();
+                int length = in.readInt();
+                entries.add(new Entry(docId, i, offset, length));
+            }
+
+            return new DumpIndex(fileSize, fileModified, entries);
+        }
+    }
+
+    public void write(File indexFile) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(indexFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fileSize);
+            out.writeLong(fileModified);
+            out.writeInt(entries.size());
+            for (Entry entry : entries) {
+                out.writeUTF(entry.getDocId());
+                out.writeLong(entry.getOffset());
+                out.writeInt(entry.getLength());
+            }
+        }
+    }
+
+    /**
+     * Whether the index was built from this version of the bulk file.
+     */
+    public boolean matches(File dumpFile) {
+        return dumpFile.length() == fileSize && dumpFile.lastModified() == fileModified;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * @param recordNumber record number, starting at 1
+     * @return entry or null when out of range.
+     */
+    public Entry get(int recordNumber) {
+        if (recordNumber < 1 || recordNumber > entries.size()) {
+            return null;
+        }
+        return entries.get(recordNumber - 1);
+    }
+
+    /**
+     * @param docId document id as given by {@code DocumentId.toText()}
+     * @return entry or null when not found.
+     */
+    public Entry get(String docId) {
+        Preconditions.checkNotNull(docId, "docId can not be Null");
+        if (byDocId == null) {
+            Map<String, Entry> map = new HashMap<String, Entry>(entries.size() * 2);
+            for (Entry entry : entries) {
+                if (!map.containsKey(entry.getDocId())) {
+                    map.put(entry.getDocId(), entry);
+                }
+            }
+            byDocId = map;
+        }
+        return byDocId.get(docId);
+    }
+}
@@ -12,7 +12,7 @@ import gov.uspto.patent.PatentDocFormat;
 public interface DumpReader extends Iterator<String>, Closeable {
     /**
 	 * Get the next document
-	 * @return the input stream for the next document
+	 * @return the input stream for the next document, null at the end of input
 	 */
 	InputStream nextDocument();
 	
@@ -27,10 +27,18 @@ public interface DumpReader extends Iterator<String>, Closeable {
 	
 	void open() throws IOException;
 	
+	/**
+	 * Skip the next skipCount records; the next record read is record skipCount + 1.
+	 */
 	void skip(int skipCount) throws IOException;
 	
 	File getFile();
 
+	/**
+	 * @return name of the zip entry read, null when reading a plain file
+	 */
+	String getEntryName();
+
 	void setFileFilter(FileFilter filter);
 
 	int getCurrentRecCount();
@@ -0,0 +1,117 @@
+package gov.uspto.patent.bulk;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Single raw record as a view over the bytes of a bulk file, no bytes are copied and
+ * the String is only decoded when first asked for.
+ *
+ *<p>
+ * Slices over a memory mapped file remain valid for the life of the mapping, slices over a
+ * streamed buffer (zip entries) are only valid until the reader fetches its next record;
+ * use {@link #copy()} to keep a record around longer.
+ *</p>
+ */
+public class RecordSlice {
+
+    private final ByteBuffer bytes;
+    private final Charset charset;
+    private String text;
+
+    public RecordSlice(ByteBuffer bytes, Charset charset) {
+        Preconditions.checkNotNull(bytes, "bytes can not be Null");
+        Preconditions.checkNotNull(charset, "charset can not be Null");
+        this.bytes = bytes.slice().asReadOnlyBuffer();
+        this.charset = charset;
+    }
+
+    public int length() {
+        return bytes.remaining();
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Read-only view of the record bytes, positioned at the start of the record.
+     */
+    public ByteBuffer asByteBuffer() {
+        return bytes.duplicate();
+    }
+
+    public InputStream asInputStream() {
+        return new ByteBufferInputStream(bytes.duplicate());
+    }
+
+    public byte[] toByteArray() {
+        byte[] ret = new byte[bytes.remaining()];
+        bytes.duplicate().get(ret);
+        return ret;
+    }
+
+    /**
+     * Copy to heap, detaching the record from the reader's buffer.
+     */
+    public RecordSlice copy() {
+        RecordSlice copy = new RecordSlice(ByteBuffer.wrap(toByteArray()), charset);
+        copy.text = text;
+        return copy;
+    }
+
+    /**
+     * Decoded text of the record; decoded on first call then reused.
+     */
+    @Override
+    public String toString() {
+        if (text == null) {
+            text = charset.decode(bytes.duplicate()).toString();
+        }
+        return text;
+    }
+
+    /**
+     * InputStream over a ByteBuffer, reads directly from the buffer.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        public ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package gov.uspto.patent.doc.cpc.masterfile;
+
+import java.util.Collections;
+
+import com.google.common.base.Preconditions;
+
+import gov.uspto.patent.model.DocumentId;
+import gov.uspto.patent.model.classification.CpcClassification;
+
+/**
+ * Record added, changed or removed since the previous CPC Master Classification File.
+ *
+ *<p>
+ * A removed record holds only its grant id, it has no application id and no classifications.
+ *</p>
+ */
+public class CpcMasterChange {
+
+    public enum Type {
+        ADDED, CHANGED, REMOVED
+    }
+
+    private final Type type;
+    private final MasterClassificationRecord record;
+
+    public CpcMasterChange(Type type, MasterClassificationRecord record) {
+        Preconditions.checkNotNull(type, "Type can not be Null");
+        Preconditions.checkNotNull(record, "MasterClassificationRecord can not be Null");
+        this.type = type;
+        this.record = record;
+    }
+
+    public static CpcMasterChange removed(DocumentId grantId) {
+        return new CpcMasterChange(Type.REMOVED,
+                new MasterClassificationRecord(grantId, null, Collections.<CpcClassification> emptyList()));
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public MasterClassificationRecord getRecord() {
+        return record;
+    }
+
+    @Override
+    public String toString() {
+        return "CpcMasterChange [type=" + type + ", grantId=" + record.getGrantId() + "]";
+    }
+}
@@ -0,0 +1,268 @@
+package gov.uspto.patent.doc.cpc.masterfile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import gov.uspto.patent.model.DocumentId;
+import gov.uspto.patent.model.classification.CpcClassification;
+
+/**
+ * Fingerprints of the CPC classification bag of each grant in the previous CPC Master Classification File, used to
+ * find the records which changed in the next master file.
+ *
+ *<p>
+ * Each record of the next master file is compared against its stored fingerprint, and its new fingerprint is
+ * written to the next store as it goes. Once the whole master file is compared, {@link #removed()} gives the grants
+ * which were not seen again and {@link #commit()} replaces the store with the next one. If the master file is not
+ * fully read, close without commit, the store is left as it was.
+ *</p>
+ *
+ *<p>
+ * Only the 64 bit hash of a grant's key and its fingerprint are held in memory, in an open addressing table; about
+ * 270MB for the 9.5M grants of a full master file. The store file holds the grant ids, it is read again to list
+ * the removed grants.
+ *</p>
+ *
+ *<pre>
+ * CpcMasterFingerprints fingerprints = CpcMasterFingerprints.open(storeFile);
+ * for each record: CpcMasterChange.Type change = fingerprints.compare(record);
+ * List&lt;DocumentId&gt; removed = fingerprints.removed();
+ * fingerprints.commit();
+ *</pre>
+ */
+public class CpcMasterFingerprints implements Closeable {
+
+    private static final int MAGIC = 0x50435046; // "PCPF"
+    private static final int VERSION = 1;
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final File storeFile;
+    private final File nextStoreFile;
+    private final DataOutputStream nextStore;
+
+    private long[] keys = new long[1 << 16];
+    private long[] fingerprints = new long[1 << 16];
+    private BitSet seen = new BitSet();
+    private int storedCount = 0;
+    private int seenCount = 0;
+    private boolean committed = false;
+
+    private CpcMasterFingerprints(File storeFile) throws IOException {
+        this.storeFile = storeFile;
+        this.nextStoreFile = new File(storeFile.getPath() + ".next");
+        if (storeFile.exists()) {
+            load();
+        }
+        this.nextStore = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(nextStoreFile), 1 << 16));
+        nextStore.writeInt(MAGIC);
+        nextStore.writeInt(VERSION);
+    }
+
+    /**
+     * Open the store; when the store file does not exist yet, every record compares as added.
+     *
+     * @param storeFile
+     * @return fingerprints of the previous master file
+     * @throws IOException
+     */
+    public static CpcMasterFingerprints open(File storeFile) throws IOException {
+        Preconditions.checkNotNull(storeFile, "Store File can not be Null");
+        return new CpcMasterFingerprints(storeFile);
+    }
+
+    /**
+     * Fingerprint of a record's CPC classification bag; independent of the order of its further classifications.
+     *
+     * @param record
+     * @return fingerprint
+     */
+    public static long fingerprint(MasterClassificationRecord record) {
+        CpcClassification mainCpc = record.getMainCPC();
+        List<String> furtherCpc = new ArrayList<String>();
+        for (CpcClassification cpcClass : record.getFutherCPC()) {
+            furtherCpc.add(cpcClass.toText());
+        }
+        Collections.sort(furtherCpc);
+
+        Hasher hasher = HASH.newHasher();
+        hasher.putString(mainCpc != null ? mainCpc.toText() : "", StandardCharsets.UTF_8);
+        for (String cpcText : furtherCpc) {
+            hasher.putByte((byte) '\n').putString(cpcText, StandardCharsets.UTF_8);
+        }
+        return hasher.hash().asLong();
+    }
+
+    private static long keyHash(String key) {
+        long hash = HASH.hashString(key, StandardCharsets.UTF_8).asLong();
+        // zero marks an empty slot.
+        return hash != 0 ? hash : 1;
+    }
+
+    private void load() throws IOException {
+        try (DataInputStream in = openStore()) {
+            while (in.readBoolean()) {
+                String key = CpcMasterLookup.key(readGrantId(in));
+                put(keyHash(key), in.readLong());
+            }
+        }
+    }
+
+    private DataInputStream openStore() throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(storeFile), 1 << 16));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            in.close();
+            throw new IOException("Not a CPC master fingerprint file: " + storeFile);
+        }
+        return in;
+    }
+
+    private static DocumentId readGrantId(DataInputStream in) throws IOException {
+        String country = in.readUTF();
+        String docNumber = in.readUTF();
+        String kindCode = in.readUTF();
+        return CpcMasterReader.toDocumentId(country, docNumber, kindCode, "");
+    }
+
+    private int slot(long keyHash) {
+        int mask = keys.length - 1;
+        int slot = (int) (keyHash ^ (keyHash >>> 32)) & mask;
+        while (keys[slot] != 0 && keys[slot] != keyHash) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void put(long keyHash, long fingerprint) {
+        int slot = slot(keyHash);
+        if (keys[slot] == 0) {
+            if (++storedCount > keys.length / 4 * 3) {
+                grow();
+                slot = slot(keyHash);
+            }
+            keys[slot] = keyHash;
+        }
+        fingerprints[slot] = fingerprint;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldFingerprints = fingerprints;
+        keys = new long[oldKeys.length * 2];
+        fingerprints = new long[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                fingerprints[slot] = oldFingerprints[i];
+            }
+        }
+    }
+
+    /**
+     * Compare a record of the next master file against its stored fingerprint, and store its new fingerprint.
+     *
+     * @param record
+     * @return ADDED or CHANGED, null when unchanged or the record has no grant id.
+     * @throws IOException
+     */
+    public synchronized CpcMasterChange.Type compare(MasterClassificationRecord record) throws IOException {
+        Preconditions.checkState(!committed, "Fingerprints already committed");
+        DocumentId grantId = record.getGrantId();
+        if (grantId == null) {
+            return null;
+        }
+
+        long fingerprint = fingerprint(record);
+        nextStore.writeBoolean(true);
+        nextStore.writeUTF(String.valueOf(grantId.getCountryCode()));
+        nextStore.writeUTF(grantId.getDocNumber());
+        nextStore.writeUTF(grantId.getKindCode() != null ? grantId.getKindCode() : "");
+        nextStore.writeLong(fingerprint);
+
+        int slot = slot(keyHash(CpcMasterLookup.key(grantId)));
+        if (keys[slot] == 0) {
+            return CpcMasterChange.Type.ADDED;
+        }
+        if (!seen.get(slot)) {
+            seen.set(slot);
+            seenCount++;
+        }
+        return fingerprints[slot] != fingerprint ? CpcMasterChange.Type.CHANGED : null;
+    }
+
+    /**
+     * Grants in the store which have not been compared; call once the whole next master file is compared.
+     *
+     * @return grant ids of removed records
+     * @throws IOException
+     */
+    public synchronized List<DocumentId> removed() throws IOException {
+        List<DocumentId> removed = new ArrayList<DocumentId>();
+        if (seenCount == storedCount) {
+            return removed;
+        }
+        try (DataInputStream in = openStore()) {
+            while (in.readBoolean()) {
+                DocumentId grantId = readGrantId(in);
+                in.readLong();
+                int slot = slot(keyHash(CpcMasterLookup.key(grantId)));
+                if (!seen.get(slot)) {
+                    // listed once, even when stored twice.
+                    seen.set(slot);
+                    removed.add(grantId);
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * @return number of grants in the store.
+     */
+    public int getStoredCount() {
+        return storedCount;
+    }
+
+    /**
+     * Replace the store with the fingerprints of the compared records.
+     *
+     * @throws IOException
+     */
+    public synchronized void commit() throws IOException {
+        Preconditions.checkState(!committed, "Fingerprints already committed");
+        nextStore.writeBoolean(false);
+        nextStore.close();
+        Files.move(nextStoreFile.toPath(), storeFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        committed = true;
+    }
+
+    /**
+     * Close; without a commit the next store is discarded.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!committed) {
+            nextStore.close();
+            Files.deleteIfExists(nextStoreFile.toPath());
+        }
+    }
+}
@@ -0,0 +1,560 @@
+package gov.uspto.patent.doc.cpc.masterfile;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+import gov.uspto.common.filter.SuffixFilter;
+import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.bulk.BulkArchive;
+import gov.uspto.patent.model.DocumentId;
+import gov.uspto.patent.model.Patent;
+import gov.uspto.patent.model.classification.Classification;
+import gov.uspto.patent.model.classification.ClassificationType;
+import gov.uspto.patent.model.classification.CpcClassification;
+import gov.uspto.patent.model.classification.CpcSymbol;
+
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+
+/**
+ * Memory mapped lookup of the current CPC classifications of a patent, built from the CPC Master Classification
+ * File.
+ *
+ *<p>
+ * Classifications change monthly through the master file, the lookup overlays them onto patents parsed from older
+ * bulk files. Patents are keyed by country and document number without leading zeros, the kind code is ignored.
+ * CPC symbols are stored once in a dictionary, each record holds its symbols as varint dictionary ids, the main
+ * classification first.
+ *</p>
+ *
+ *<p>
+ * File layout: header, symbol dictionary, open addressing hash table of record offsets (load factor at most 0.5),
+ * records. The hash table and records are memory mapped, a lookup is a hash probe and the read of one record, O(1)
+ * and without loading the records onto the heap. Reads use absolute positions only, so one lookup can be shared
+ * by threads. Each mapped region is limited to 2GB.
+ *</p>
+ *
+ *<pre>
+ * CpcMasterLookup.Builder builder = new CpcMasterLookup.Builder(lookupFile);
+ * builder.add(masterClassificationRecord);
+ * builder.build();
+ *
+ * try (CpcMasterLookup lookup = CpcMasterLookup.open(lookupFile)) {
+ *     lookup.overlay(patent);
+ * }
+ *</pre>
+ */
+public class CpcMasterLookup implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CpcMasterLookup.class);
+
+    private static final int MAGIC = 0x50435043; // "PCPC"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 4 + 8 + 8 + 8;
+    private static final int SLOT_SIZE = 8;
+    private static final int MAX_KEY_LENGTH = 127;
+
+    private static final Pattern DOC_NUMBER = Pattern.compile("^([A-Z]*)0*(\\d+)$");
+
+    private final FileChannel channel;
+    private final CpcSymbol[] dictionary;
+    private final int recordCount;
+    private final int slotMask;
+    private final MappedByteBuffer slots;
+    private final MappedByteBuffer records;
+
+    private CpcMasterLookup(FileChannel channel, CpcSymbol[] dictionary, int recordCount, int slotCount,
+            MappedByteBuffer slots, MappedByteBuffer records) {
+        this.channel = channel;
+        this.dictionary = dictionary;
+        this.recordCount = recordCount;
+        this.slotMask = slotCount - 1;
+        this.slots = slots;
+        this.records = records;
+    }
+
+    public static CpcMasterLookup open(File lookupFile) throws IOException {
+        FileChannel channel = new RandomAccessFile(lookupFile, "r").getChannel();
+        try {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a CPC master lookup file: " + lookupFile);
+            }
+            ByteBuffer header = channel.map(MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a CPC master lookup file: " + lookupFile);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported CPC master lookup version " + version + ": " + lookupFile);
+            }
+            int recordCount = header.getInt();
+            int slotCount = header.getInt();
+            long slotOffset = header.getLong();
+            long recordOffset = header.getLong();
+            long recordLength = header.getLong();
+
+            CpcSymbol[] dictionary = readDictionary(
+                    channel.map(MapMode.READ_ONLY, HEADER_SIZE, slotOffset - HEADER_SIZE));
+            MappedByteBuffer slots = map(channel, slotOffset, slotCount * (long) SLOT_SIZE);
+            MappedByteBuffer records = map(channel, recordOffset, recordLength);
+
+            LOGGER.info("Opened CPC master lookup, records:[{}] symbols:[{}]: {}", recordCount, dictionary.length,
+                    lookupFile);
+            return new CpcMasterLookup(channel, dictionary, recordCount, slotCount, slots, records);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long offset, long length) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("CPC master lookup region larger than 2GB: " + length);
+        }
+        return channel.map(MapMode.READ_ONLY, offset, length);
+    }
+
+    private static CpcSymbol[] readDictionary(ByteBuffer buffer) {
+        CpcSymbol[] dictionary = new CpcSymbol[buffer.getInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+            String[] parts = new String[5];
+            for (int p = 0; p < parts.length; p++) {
+                byte[] bytes = new byte[buffer.get() & 0xFF];
+                buffer.get(bytes);
+                parts[p] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            dictionary[i] = CpcSymbol.of(parts[0], parts[1], parts[2], parts[3], parts[4]);
+        }
+        return dictionary;
+    }
+
+    /**
+     * Lookup key of a patent: country code and document number, without leading zeros and kind code.
+     *
+     * @param docId
+     * @return key, example "US9400000" or "USD712345"
+     */
+    public static String key(DocumentId docId) {
+        String docNumber = docId.getDocNumber().trim().toUpperCase();
+        Matcher matcher = DOC_NUMBER.matcher(docNumber);
+        if (matcher.matches()) {
+            docNumber = matcher.group(1) + matcher.group(2);
+        }
+        return String.valueOf(docId.getCountryCode()) + docNumber;
+    }
+
+    private static long hash(byte[] key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash ^ (hash >>> 32);
+    }
+
+    /**
+     * Current CPC classifications of a patent, the main classification first; new instances on each call.
+     *
+     * @param docId
+     * @return classifications, null when the patent is not in the master file.
+     */
+    public List<CpcClassification> lookup(DocumentId docId) {
+        if (docId == null) {
+            return null;
+        }
+        byte[] key = key(docId).getBytes(StandardCharsets.US_ASCII);
+        if (key.length > MAX_KEY_LENGTH) {
+            return null;
+        }
+
+        for (int slot = (int) hash(key) & slotMask;; slot = (slot + 1) & slotMask) {
+            long offset = slots.getLong(slot * SLOT_SIZE);
+            if (offset == 0) {
+                return null;
+            }
+            int position = (int) (offset - 1);
+            if (keyEquals(position, key)) {
+                return readRecord(position + 1 + key.length);
+            }
+        }
+    }
+
+    private boolean keyEquals(int position, byte[] key) {
+        if (records.get(position) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (records.get(position + 1 + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<CpcClassification> readRecord(int position) {
+        int[] cursor = new int[] { position };
+        int count = readVarint(records, cursor);
+        List<CpcClassification> cpcClasses = new ArrayList<CpcClassification>(count);
+        CpcClassification mainCpc = null;
+        for (int i = 0; i < count; i++) {
+            CpcClassification cpcClass = new CpcClassification("", dictionary[readVarint(records, cursor)]);
+            if (mainCpc == null) {
+                mainCpc = cpcClass;
+                mainCpc.setIsMainClassification(true);
+            } else {
+                cpcClass.setIsMainClassification(false);
+                mainCpc.addChild(cpcClass);
+            }
+            cpcClasses.add(cpcClass);
+        }
+        return cpcClasses;
+    }
+
+    private static int readVarint(ByteBuffer buffer, int[] cursor) {
+        int value = 0;
+        for (int shift = 0;; shift += 7) {
+            byte b = buffer.get(cursor[0]++);
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Replace the CPC classifications of a patent with its current ones from the master file; other
+     * classifications are kept. A patent not in the master file is left unchanged.
+     *
+     * @param patent
+     * @return true when the patent was found and its classifications replaced.
+     */
+    public boolean overlay(Patent patent) {
+        List<CpcClassification> current = lookup(patent.getDocumentId());
+        if (current == null) {
+            return false;
+        }
+
+        Iterator<Classification> classIt = patent.getClassification().iterator();
+        while (classIt.hasNext()) {
+            if (classIt.next().getType() == ClassificationType.CPC) {
+                classIt.remove();
+            }
+        }
+        for (CpcClassification cpcClass : current) {
+            patent.addClassification(cpcClass);
+        }
+        return true;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public int getSymbolCount() {
+        return dictionary.length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Builds a lookup file; records are spooled to a temporary file next to the lookup file, only the symbol
+     * dictionary and a hash and offset per record are kept on the heap. A later record for the same patent
+     * replaces the earlier one. Closing a builder which was not built removes the temporary file.
+     */
+    public static class Builder implements Closeable {
+        private final File lookupFile;
+        private final File recordFile;
+        private final DataOutputStream recordOut;
+        private final Map<String, Integer> symbolIds = new HashMap<String, Integer>();
+        private final List<String[]> symbols = new ArrayList<String[]>();
+        private long[] hashes = new long[1024];
+        private long[] offsets = new long[1024];
+        private int count = 0;
+        private int distinctCount = 0;
+        private long recordLength = 0;
+        private boolean built = false;
+
+        public Builder(File lookupFile) throws IOException {
+            this.lookupFile = lookupFile;
+            this.recordFile = new File(lookupFile.getPath() + ".records.tmp");
+            this.recordOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(recordFile)));
+        }
+
+        /**
+         * @param record
+         * @return true when added, false when the record has no grant id or no CPC classifications.
+         * @throws IOException
+         */
+        public boolean add(MasterClassificationRecord record) throws IOException {
+            CpcClassification mainCpc = record.getMainCPC();
+            if (record.getGrantId() == null || mainCpc == null) {
+                return false;
+            }
+
+            byte[] key = key(record.getGrantId()).getBytes(StandardCharsets.US_ASCII);
+            Preconditions.checkArgument(key.length <= MAX_KEY_LENGTH, "Document id too long: %s",
+                    record.getGrantId());
+
+            if (count == hashes.length) {
+                hashes = Arrays.copyOf(hashes, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            hashes[count] = hash(key);
+            offsets[count] = recordLength;
+            count++;
+
+            recordOut.writeByte(key.length);
+            recordOut.write(key);
+            recordLength += 1 + key.length;
+
+            List<CpcClassification> furtherCpc = record.getFutherCPC();
+            recordLength += writeVarint(1 + furtherCpc.size());
+            recordLength += writeVarint(symbolId(mainCpc));
+            for (CpcClassification cpcClass : furtherCpc) {
+                recordLength += writeVarint(symbolId(cpcClass));
+            }
+            return true;
+        }
+
+        private int symbolId(CpcClassification cpcClass) {
+            String[] parts = new String[] { cpcClass.getSection(), cpcClass.getMainClass(), cpcClass.getSubClass(),
+                    cpcClass.getMainGroup(), cpcClass.getSubGroup() };
+            String symbol = parts[0] + parts[1] + parts[2] + parts[3] + "/" + parts[4];
+            Integer id = symbolIds.get(symbol);
+            if (id == null) {
+                id = symbols.size();
+                symbolIds.put(symbol, id);
+                symbols.add(parts);
+            }
+            return id;
+        }
+
+        private int writeVarint(int value) throws IOException {
+            int length = 1;
+            while ((value & ~0x7F) != 0) {
+                recordOut.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+                length++;
+            }
+            recordOut.writeByte(value);
+            return length;
+        }
+
+        /**
+         * @return number of records added, before build; number of distinct patents, after build.
+         */
+        public int getRecordCount() {
+            return distinctCount > 0 ? distinctCount : count;
+        }
+
+        /**
+         * Write the lookup file and remove the temporary record file.
+         *
+         * @throws IOException
+         */
+        public void build() throws IOException {
+            Preconditions.checkState(!built, "Lookup already built");
+            built = true;
+            recordOut.close();
+            File tmpFile = new File(lookupFile.getPath() + ".tmp");
+            try {
+                int slotCount = Integer.highestOneBit(Math.max(count, 1) * 2 - 1) << 1;
+                Preconditions.checkState(slotCount > 0 && slotCount <= Integer.MAX_VALUE / SLOT_SIZE,
+                        "Too many records: %s", count);
+
+                byte[] dictionary = dictionaryBytes();
+                long slotOffset = HEADER_SIZE + dictionary.length;
+                long recordOffset = slotOffset + slotCount * (long) SLOT_SIZE;
+
+                try (RandomAccessFile out = new RandomAccessFile(tmpFile, "rw");
+                        FileChannel records = new RandomAccessFile(recordFile, "r").getChannel()) {
+                    out.setLength(0);
+                    FileChannel channel = out.getChannel();
+
+                    MappedByteBuffer recordBuffer = map(records, 0, recordLength);
+                    MappedByteBuffer slots = channel.map(MapMode.READ_WRITE, slotOffset,
+                            slotCount * (long) SLOT_SIZE);
+                    distinctCount = fillSlots(slots, slotCount - 1, recordBuffer);
+                    slots.force();
+
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                    header.putInt(MAGIC).putInt(VERSION).putInt(distinctCount).putInt(slotCount);
+                    header.putLong(slotOffset).putLong(recordOffset).putLong(recordLength);
+                    header.flip();
+                    channel.write(header, 0);
+                    channel.write(ByteBuffer.wrap(dictionary), HEADER_SIZE);
+
+                    long transferred = 0;
+                    while (transferred < recordLength) {
+                        transferred += records.transferTo(transferred, recordLength - transferred, channel
+                                .position(recordOffset + transferred));
+                    }
+                }
+                Files.move(tmpFile.toPath(), lookupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                recordFile.delete();
+                tmpFile.delete();
+            }
+
+            LOGGER.info("Built CPC master lookup, records:[{}] symbols:[{}]: {}", distinctCount, symbols.size(),
+                    lookupFile);
+        }
+
+        /**
+         * Abandon a builder which was not built, removing its temporary record file; no-op once built.
+         */
+        @Override
+        public void close() throws IOException {
+            if (built) {
+                return;
+            }
+            built = true;
+            try {
+                recordOut.close();
+            } finally {
+                recordFile.delete();
+            }
+        }
+
+        /**
+         * @return number of distinct patents
+         */
+        private int fillSlots(MappedByteBuffer slots, int slotMask, ByteBuffer recordBuffer) {
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                int position = (int) offsets[i];
+                int keyLength = recordBuffer.get(position);
+                for (int slot = (int) hashes[i] & slotMask;; slot = (slot + 1) & slotMask) {
+                    long offset = slots.getLong(slot * SLOT_SIZE);
+                    if (offset == 0 || sameKey(recordBuffer, (int) (offset - 1), position, keyLength)) {
+                        if (offset == 0) {
+                            distinct++;
+                        }
+                        slots.putLong(slot * SLOT_SIZE, position + 1L);
+                        break;
+                    }
+                }
+            }
+            return distinct;
+        }
+
+        private static boolean sameKey(ByteBuffer recordBuffer, int position, int otherPosition, int keyLength) {
+            if (recordBuffer.get(position) != keyLength) {
+                return false;
+            }
+            for (int i = 1; i <= keyLength; i++) {
+                if (recordBuffer.get(position + i) != recordBuffer.get(otherPosition + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private byte[] dictionaryBytes() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(symbols.size());
+            for (String[] parts : symbols) {
+                for (String part : parts) {
+                    byte[] partBytes = part.getBytes(StandardCharsets.UTF_8);
+                    Preconditions.checkArgument(partBytes.length <= 255, "CPC symbol part too long: %s", part);
+                    out.writeByte(partBytes.length);
+                    out.write(partBytes);
+                }
+            }
+            out.flush();
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * Build a lookup file from every master file within the CPC Master Classification zip.
+     *
+     * @param masterZipFile
+     * @param lookupFile
+     * @return records added
+     * @throws IOException
+     */
+    public static int build(File masterZipFile, File lookupFile) throws IOException {
+        try (Builder builder = new Builder(lookupFile);
+                BulkArchive archive = new BulkArchive(masterZipFile, new SuffixFilter("xml"))) {
+            archive.open();
+            for (String entryName : archive.entryNames()) {
+                LOGGER.info("Reading CPC master file: {}", entryName);
+                try (InputStream inputStream = archive.openEntryStream(entryName);
+                        CpcMasterStaxReader reader = new CpcMasterStaxReader(inputStream)) {
+                    while (true) {
+                        MasterClassificationRecord record;
+                        try {
+                            record = reader.next();
+                        } catch (PatentReaderException e) {
+                            LOGGER.error("Reader Failed on: {}:{}", entryName, reader.getRecordCount(), e);
+                            continue;
+                        }
+                        if (record == null) {
+                            break;
+                        }
+                        builder.add(record);
+                    }
+                } catch (PatentReaderException e) {
+                    throw new IOException(e);
+                }
+            }
+            builder.build();
+            return builder.getRecordCount();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        OptionParser parser = new OptionParser() {
+            {
+                accepts("input").withRequiredArg().ofType(String.class).describedAs("Input Master CPC Zip File")
+                        .required();
+                accepts("output").withRequiredArg().ofType(String.class).describedAs("Lookup file to write")
+                        .required();
+            }
+        };
+
+        OptionSet options = parser.parse(args);
+        if (!options.hasOptions()) {
+            parser.printHelpOn(System.out);
+            System.exit(1);
+        }
+
+        File masterZipFile = new File((String) options.valueOf("input"));
+        File lookupFile = new File((String) options.valueOf("output"));
+
+        LOGGER.info("--- START ---");
+        int records = build(masterZipFile, lookupFile);
+        LOGGER.info("--- DONE --- records:[{}]", records);
+    }
+}
@@ -1,23 +1,33 @@
 package gov.uspto.patent.doc.cpc.masterfile;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileFilter;
+import java.io.FileWriter;
+import java.io.FilterWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.concurrent.LinkedTransferQueue;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TransferQueue;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import gov.uspto.common.filter.SuffixFilter;
+import gov.uspto.patent.PatentReaderException;
 import gov.uspto.patent.bulk.BulkArchive;
-import gov.uspto.patent.bulk.DumpFile;
+import gov.uspto.patent.bulk.DumpReader;
+import gov.uspto.patent.model.DocumentId;
 import gov.uspto.patent.serialize.DocumentBuilder;
-import gov.uspto.patent.thread.DumpFileProcessThread;
+import gov.uspto.patent.thread.MultiThreadProcess;
+import gov.uspto.patent.thread.MultiThreadProcess.FileResult;
+import gov.uspto.patent.thread.MultiThreadProcess.OutputFactory;
+import gov.uspto.patent.thread.MultiThreadProcess.RecordSource;
+import gov.uspto.patent.thread.MultiThreadProcess.SourceFactory;
 
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
@@ -30,6 +40,11 @@ import joptsimple.OptionSet;
  * CSV fields: grantIdFull,grantCC,grantId,grantKind,appIdFull,appCC,appId,appKind,cpcLevel,cpcClass
  * </p>
  * 
+ * <p>
+ * With a fingerprint file, only the records added, changed or removed since the previous master file are written,
+ * to a single delta CSV or Json file; see {@link CpcMasterFingerprints}.
+ * </p>
+ * 
  * <pre>
  * Time to process US_Grant_CPC_MCF 
  *    (95 xml files, about 98,000 to 100,150 records per file)
@@ -49,7 +64,12 @@ public class CpcMasterParser extends BulkArchive {
     private DocumentBuilder<MasterClassificationRecord> docBuilder;
     private Path outputDir;
 
-    private TransferQueue<Runnable> recordQueue;
+    private CpcMasterFingerprints fingerprints;
+    private DocumentBuilder<CpcMasterChange> deltaBuilder;
+    private File deltaFile;
+    private final AtomicInteger added = new AtomicInteger();
+    private final AtomicInteger changed = new AtomicInteger();
+    private int skipped;
 
     public CpcMasterParser(File file, DocumentBuilder<MasterClassificationRecord> docBuilder, Path outputDir) {
         super(file, fileFilter);
@@ -59,42 +79,169 @@ public class CpcMasterParser extends BulkArchive {
 
     public void skipMasterDoc(int skip) {
         skip(skip);
+        skipped += skip;
     }
 
-    public void process(int maxThreads) {
-        recordQueue = new LinkedTransferQueue<Runnable>();
+    /**
+     * Compare against the fingerprints of the previous master file, writing only the added, changed and removed
+     * records to the delta file instead of a CSV file for each master file.
+     *
+     * <p>
+     * The fingerprints are committed only when every master file has been read; after a failure the delta file is
+     * incomplete and the next run compares against the same previous master file again. The same holds when master
+     * files were skipped, their records would otherwise be reported as removed.
+     * </p>
+     *
+     * @param fingerprints of the previous master file
+     * @param deltaBuilder
+     * @param deltaFile
+     */
+    public void setDelta(CpcMasterFingerprints fingerprints, DocumentBuilder<CpcMasterChange> deltaBuilder,
+            File deltaFile) {
+        this.fingerprints = fingerprints;
+        this.deltaBuilder = deltaBuilder;
+        this.deltaFile = deltaFile;
+    }
 
-        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 1, TimeUnit.MINUTES, recordQueue,
-                new ThreadPoolExecutor.CallerRunsPolicy());
-        executor.prestartAllCoreThreads();
+    /**
+     * Stream each master file through its own CpcMasterStaxReader, files are processed concurrently by a
+     * MultiThreadProcess.
+     *
+     * @param maxThreads number of threads
+     * @throws IOException
+     */
+    public void process(int maxThreads) throws IOException {
+        if (fingerprints == null) {
+            processEntries(maxThreads, docBuilder, new OutputFactory() {
+                @Override
+                public Writer create(DumpReader dumpReader) throws IOException {
+                    File outputFile = outputDir.resolve("cpc_master_" + dumpReader.getFile().getName() + ".csv")
+                            .toFile();
+                    return new BufferedWriter(new FileWriter(outputFile));
+                }
+            }, 1);
+            return;
+        }
 
-        CpcMasterReader reader = new CpcMasterReader();
+        try (final Writer deltaWriter = new BufferedWriter(new FileWriter(deltaFile))) {
+            /*
+             * Changes of all files go to the one delta file, a failed file can not be taken back out of it;
+             * it is not retried, the fingerprints are left uncommitted.
+             */
+            boolean complete = processEntries(maxThreads, new DocumentBuilder<MasterClassificationRecord>() {
+                @Override
+                public void write(MasterClassificationRecord record, Writer writer) throws IOException {
+                    writeChange(record, deltaWriter);
+                }
+            }, new OutputFactory() {
+                @Override
+                public Writer create(DumpReader dumpReader) {
+                    return new FilterWriter(deltaWriter) {
+                        @Override
+                        public void close() throws IOException {
+                            flush();
+                        }
+                    };
+                }
+            }, 0);
 
-        while (hasNext()) {
-                DumpFile dumpFile = next();
-                File outputFile = outputDir.resolve("cpc_master_" + dumpFile.getFile().getName() + ".csv").toFile();
+            if (!complete) {
+                LOGGER.error("CPC Master not fully read, fingerprints not updated; delta is incomplete: {}", deltaFile);
+                return;
+            }
 
-                DumpFileProcessThread workThread = new DumpFileProcessThread(dumpFile, reader, docBuilder, outputFile);
+            if (skipped > 0) {
+                LOGGER.warn("Skipped {} CPC Master files, fingerprints not updated; delta has no removed records: {}",
+                        skipped, deltaFile);
+                return;
+            }
 
-                if (recordQueue.size() < maxThreads * 3) {
-                    recordQueue.add(workThread);
-                } else {
-                    try {
-                        recordQueue.transfer(workThread);
-                    } catch (InterruptedException e) {
-                        LOGGER.error("LinkedTransferQueue Interrupted", e);
+            List<DocumentId> removed = fingerprints.removed();
+            for (DocumentId grantId : removed) {
+                deltaBuilder.write(CpcMasterChange.removed(grantId), deltaWriter);
+            }
+            deltaWriter.flush();
+            fingerprints.commit();
+
+            LOGGER.info("CPC Master delta, added:[{}] changed:[{}] removed:[{}]", added.get(), changed.get(),
+                    removed.size());
+        }
+    }
+
+    /**
+     * @return true when every master file was read
+     */
+    private boolean processEntries(int maxThreads, DocumentBuilder<MasterClassificationRecord> builder,
+            OutputFactory outputFactory, int maxRetries) {
+        MultiThreadProcess<MasterClassificationRecord> process = new MultiThreadProcess<MasterClassificationRecord>(
+                new SourceFactory<MasterClassificationRecord>() {
+                    @Override
+                    public RecordSource<MasterClassificationRecord> open(DumpReader dumpReader) throws IOException {
+                        return openSource(dumpReader.getEntryName());
                     }
+                }, builder, outputFactory, maxThreads);
+        process.setMaxRetries(maxRetries);
+
+        boolean complete = true;
+        try {
+            // each entry is inflated through its own zip handle.
+            Iterator<DumpReader> readers = entryReaders();
+            while (readers.hasNext()) {
+                process.submit(readers.next());
+            }
+
+            for (FileResult result : process.awaitCompletion()) {
+                if (!result.isSuccess()) {
+                    LOGGER.error("Failed CPC Master file: {}", result.getFile(), result.getError());
+                    complete = false;
                 }
+            }
+        } catch (InterruptedException e) {
+            LOGGER.error("CPC Master processing Interrupted", e);
+            Thread.currentThread().interrupt();
+            complete = false;
+        } finally {
+            process.close();
         }
+        return complete;
+    }
 
-        executor.shutdown();
+    private RecordSource<MasterClassificationRecord> openSource(String entryName) throws IOException {
+        final InputStream inputStream = openEntryStream(entryName);
+        try {
+            final CpcMasterStaxReader reader = new CpcMasterStaxReader(inputStream);
+            return new RecordSource<MasterClassificationRecord>() {
+                @Override
+                public MasterClassificationRecord next() throws PatentReaderException, IOException {
+                    return reader.next();
+                }
 
-        while (!executor.isTerminated()) {
-            try {
-                Thread.sleep(10);
-            } catch (InterruptedException e) {
-                LOGGER.error("ThreadPoolExecutor Interrupted", e);
-            }
+                @Override
+                public void close() throws IOException {
+                    try {
+                        reader.close();
+                    } finally {
+                        inputStream.close();
+                    }
+                }
+            };
+        } catch (PatentReaderException e) {
+            inputStream.close();
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Write a changed record to the shared delta writer.
+     */
+    private void writeChange(MasterClassificationRecord record, Writer deltaWriter) throws IOException {
+        CpcMasterChange.Type type = fingerprints.compare(record);
+        if (type == null) {
+            return;
+        }
+        (type == CpcMasterChange.Type.ADDED ? added : changed).incrementAndGet();
+        synchronized (deltaWriter) {
+            deltaBuilder.write(new CpcMasterChange(type, record), deltaWriter);
         }
     }
 
@@ -112,6 +259,10 @@ public class CpcMasterParser extends BulkArchive {
                         .defaultsTo(0);
                 accepts("threads").withOptionalArg().ofType(Integer.class).describedAs("Threads to spawn").defaultsTo(5);
                 accepts("outdir").withOptionalArg().ofType(String.class).describedAs("directory").defaultsTo("output");
+                accepts("fingerprints").withRequiredArg().ofType(String.class)
+                        .describedAs("Fingerprint file of the previous master, write only the delta against it");
+                accepts("deltaFormat").withRequiredArg().ofType(String.class).describedAs("csv or json")
+                        .defaultsTo("csv");
             }
         };
 
@@ -144,11 +295,31 @@ public class CpcMasterParser extends BulkArchive {
         CpcMasterParser cpcMaster = new CpcMasterParser(zipFile, docBuilder, outputPath);
         cpcMaster.open();
 
+        if (skip > 0 && options.has("fingerprints")) {
+            LOGGER.error("--skip can not be used with --fingerprints, records of skipped files would be removed");
+            System.exit(1);
+        }
+
         if (skip > 0) {
             cpcMaster.skipMasterDoc(skip);
         }
 
-        cpcMaster.process(threads);
+        if (options.has("fingerprints")) {
+            String deltaFormat = ((String) options.valueOf("deltaFormat")).toLowerCase();
+            DocumentBuilder<CpcMasterChange> deltaBuilder = "json".equals(deltaFormat)
+                    ? new MasterCpcDeltaJsonBuilder() : new MasterCpcDeltaCsvBuilder();
+            File deltaFile = outputPath.resolve("cpc_master_delta." + ("json".equals(deltaFormat) ? "json" : "csv"))
+                    .toFile();
+
+            try (CpcMasterFingerprints fingerprints = CpcMasterFingerprints
+                    .open(new File((String) options.valueOf("fingerprints")))) {
+                LOGGER.info("Comparing against fingerprints of {} records", fingerprints.getStoredCount());
+                cpcMaster.setDelta(fingerprints, deltaBuilder, deltaFile);
+                cpcMaster.process(threads);
+            }
+        } else {
+            cpcMaster.process(threads);
+        }
 
         cpcMaster.close();
 
@@ -11,11 +11,10 @@ import java.util.List;
 import org.dom4j.Document;
 import org.dom4j.DocumentException;
 import org.dom4j.Node;
-import org.dom4j.io.SAXReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.xml.sax.SAXException;
 
+import gov.uspto.parser.dom4j.XmlReaders;
 import gov.uspto.patent.InvalidDataException;
 import gov.uspto.patent.PatentDocReader;
 import gov.uspto.patent.PatentReaderException;
@@ -59,12 +58,8 @@ public class CpcMasterReader implements PatentDocReader<MasterClassificationReco
         Reader reader2 = wrap(reader);
 
         try {
-            SAXReader sax = new SAXReader(false);
-            sax.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-            Document document = sax.read(reader2);
+            Document document = XmlReaders.read(reader2);
             return parse(document);
-        } catch (SAXException e) {
-            throw new PatentReaderException(e);
         } catch (DocumentException e) {
             throw new PatentReaderException(e);
         }
@@ -100,9 +95,9 @@ public class CpcMasterReader implements PatentDocReader<MasterClassificationReco
         cpcClasses.add(mainCpc);
 
         @SuppressWarnings("unchecked")
-        List<Node> furtherCpcN = node.selectNodes("pat:FurtherCPC");
+        List<Node> furtherCpcN = node.selectNodes("pat:FurtherCPC/pat:CPCClassification");
         for (Node futherN : furtherCpcN) {
-            CpcClassification cpcClass = readClass(futherN);
+            CpcClassification cpcClass = readClassification(futherN);
             if (cpcClass != null) {
                 cpcClass.setIsMainClassification(false);
                 mainCpc.addChild(cpcClass);
@@ -119,26 +114,28 @@ public class CpcMasterReader implements PatentDocReader<MasterClassificationReco
         if (classN == null) {
             return null;
         }
+        return readClassification(classN);
+    }
 
-        Node dateVersionN = classN.selectSingleNode("pat:ClassificationVersionDate");
+    private CpcClassification readClassification(Node classN) {
         Node cpcSectionN = classN.selectSingleNode("pat:CPCSection");
         Node cpcClassN = classN.selectSingleNode("pat:Class");
         Node cpcSubClassN = classN.selectSingleNode("pat:Subclass");
         Node cpcMainGroupN = classN.selectSingleNode("pat:MainGroup");
         Node cpcSubGroupN = classN.selectSingleNode("pat:Subgroup");
 
-        CpcClassification cpcClass = new CpcClassification("");
-        cpcClass.setSection(cpcSectionN.getText());
-        cpcClass.setMainClass(cpcClassN.getText());
-        cpcClass.setSubClass(cpcSubClassN.getText());
-        cpcClass.setMainGroup(cpcMainGroupN.getText());
-        cpcClass.setSubGroup(cpcSubGroupN.getText());
-        return cpcClass;
+        return toCpcClassification(cpcSectionN.getText(), cpcClassN.getText(), cpcSubClassN.getText(),
+                cpcMainGroupN.getText(), cpcSubGroupN.getText());
+    }
+
+    static CpcClassification toCpcClassification(String section, String mainClass, String subClass, String mainGroup,
+            String subGroup) {
+        return CpcClassification.fromParts("", section, mainClass, subClass, mainGroup, subGroup);
     }
 
     public DocumentId readDocumentId(Node node) {
         Node countryN = node.selectSingleNode("com:IPOfficeCode");
-        Node idN = node.selectSingleNode("pat:PatentNumber|ApplicationNumber/ApplicationNumberText");
+        Node idN = node.selectSingleNode("pat:PatentNumber|com:ApplicationNumber/com:ApplicationNumberText");
         Node kindN = node.selectSingleNode("com:PatentDocumentKindCode");
         Node dateN = node.selectSingleNode("pat:GrantDate");
 
@@ -146,6 +143,10 @@ public class CpcMasterReader implements PatentDocReader<MasterClassificationReco
         String idTxt = idN != null ? idN.getText() : "";
         String kindTxt = kindN != null ? kindN.getText() : "";
         String dateTxt = dateN != null ? dateN.getText() : "";
+        return toDocumentId(countryTxt, idTxt, kindTxt, dateTxt);
+    }
+
+    static DocumentId toDocumentId(String countryTxt, String idTxt, String kindTxt, String dateTxt) {
         dateTxt = dateTxt.replaceAll("-", "");
 
         DocumentDate docDate = null;
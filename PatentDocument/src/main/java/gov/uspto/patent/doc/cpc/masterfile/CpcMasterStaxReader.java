@@ -0,0 +1,281 @@
+package gov.uspto.patent.doc.cpc.masterfile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.google.common.base.Preconditions;
+
+import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.model.DocumentId;
+import gov.uspto.patent.model.classification.CpcClassification;
+
+/**
+ * Streaming (StAX) CPC Master Classification File reader
+ *
+ *<p>
+ * Reads MasterClassificationRecords straight from a whole master file, with one parser for the file. Namespaces are
+ * declared once on the file's root element and resolved by the parser, elements are matched by namespace URI and
+ * local name; records are never copied into a String or built as a tree. Gives the same records as
+ * {@link CpcMasterReader} gives for each record.
+ *</p>
+ *
+ *<pre>
+ * try (CpcMasterStaxReader reader = new CpcMasterStaxReader(zipEntryInputStream)) {
+ *     MasterClassificationRecord record;
+ *     while ((record = reader.next()) != null) {
+ *         ...
+ *     }
+ * }
+ *</pre>
+ */
+public class CpcMasterStaxReader implements Closeable {
+
+    private static final String USPAT_NS = "patent:uspto:doc:us:gov";
+    private static final String COM_NS = "http://www.wipo.int/standards/XMLSchema/ST96/Common";
+    private static final String PAT_NS = "http://www.wipo.int/standards/XMLSchema/ST96/Patent";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    private final XMLStreamReader reader;
+    private int recordCount = 0;
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * @param inputStream master file, the caller closes the stream.
+     * @throws PatentReaderException
+     */
+    public CpcMasterStaxReader(InputStream inputStream) throws PatentReaderException {
+        Preconditions.checkNotNull(inputStream, "InputStream can not be Null");
+        try {
+            this.reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+        } catch (XMLStreamException e) {
+            throw new PatentReaderException(e);
+        }
+    }
+
+    /**
+     * Read the next record.
+     *
+     * @return next record, null at the end of the file.
+     * @throws PatentReaderException on an incomplete record, reading can continue with the following record.
+     * @throws IOException on malformed XML, the rest of the file can not be read.
+     */
+    public MasterClassificationRecord next() throws PatentReaderException, IOException {
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT
+                        && is(USPAT_NS, "CPCMasterClassificationRecord")) {
+                    recordCount++;
+                    return readRecord();
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed XML in record " + recordCount, e);
+        }
+    }
+
+    /**
+     * @return number of records started, including records which failed.
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    private MasterClassificationRecord readRecord() throws XMLStreamException, PatentReaderException {
+        DocumentId appId = null;
+        DocumentId grantId = null;
+        List<CpcClassification> cpcClasses = null;
+
+        while (nextChild()) {
+            if (appId == null && is(PAT_NS, "ApplicationIdentification")) {
+                appId = readDocumentId();
+            } else if (grantId == null && is(PAT_NS, "PatentGrantIdentification")) {
+                grantId = readDocumentId();
+            } else if (cpcClasses == null && is(PAT_NS, "CPCClassificationBag")) {
+                cpcClasses = readCPC();
+            } else {
+                skipElement();
+            }
+        }
+
+        if (cpcClasses == null) {
+            throw new PatentReaderException("Missing CPCClassificationBag in record " + recordCount);
+        }
+
+        return new MasterClassificationRecord(grantId, appId, cpcClasses);
+    }
+
+    private List<CpcClassification> readCPC() throws XMLStreamException, PatentReaderException {
+        CpcClassification mainCpc = null;
+        boolean mainRead = false;
+        List<CpcClassification> furtherCpc = new ArrayList<CpcClassification>();
+
+        while (nextChild()) {
+            if (!mainRead && is(PAT_NS, "MainCPC")) {
+                mainRead = true;
+                while (nextChild()) {
+                    if (mainCpc == null && is(PAT_NS, "CPCClassification")) {
+                        mainCpc = readClassification();
+                    } else {
+                        skipElement();
+                    }
+                }
+            } else if (is(PAT_NS, "FurtherCPC")) {
+                while (nextChild()) {
+                    if (is(PAT_NS, "CPCClassification")) {
+                        furtherCpc.add(readClassification());
+                    } else {
+                        skipElement();
+                    }
+                }
+            } else {
+                skipElement();
+            }
+        }
+
+        List<CpcClassification> cpcClasses = new ArrayList<CpcClassification>(furtherCpc.size() + 1);
+        if (mainCpc == null) {
+            return cpcClasses;
+        }
+
+        mainCpc.setIsMainClassification(true);
+        cpcClasses.add(mainCpc);
+
+        for (CpcClassification cpcClass : furtherCpc) {
+            cpcClass.setIsMainClassification(false);
+            mainCpc.addChild(cpcClass);
+            cpcClasses.add(cpcClass);
+        }
+
+        return cpcClasses;
+    }
+
+    private CpcClassification readClassification() throws XMLStreamException, PatentReaderException {
+        String section = null;
+        String mainClass = null;
+        String subClass = null;
+        String mainGroup = null;
+        String subGroup = null;
+
+        while (nextChild()) {
+            if (section == null && is(PAT_NS, "CPCSection")) {
+                section = reader.getElementText();
+            } else if (mainClass == null && is(PAT_NS, "Class")) {
+                mainClass = reader.getElementText();
+            } else if (subClass == null && is(PAT_NS, "Subclass")) {
+                subClass = reader.getElementText();
+            } else if (mainGroup == null && is(PAT_NS, "MainGroup")) {
+                mainGroup = reader.getElementText();
+            } else if (subGroup == null && is(PAT_NS, "Subgroup")) {
+                subGroup = reader.getElementText();
+            } else {
+                skipElement();
+            }
+        }
+
+        if (section == null || mainClass == null || subClass == null || mainGroup == null || subGroup == null) {
+            throw new PatentReaderException("Incomplete CPCClassification in record " + recordCount);
+        }
+
+        return CpcMasterReader.toCpcClassification(section, mainClass, subClass, mainGroup, subGroup);
+    }
+
+    private DocumentId readDocumentId() throws XMLStreamException {
+        String countryTxt = null;
+        String idTxt = null;
+        String kindTxt = null;
+        String dateTxt = null;
+
+        while (nextChild()) {
+            if (countryTxt == null && is(COM_NS, "IPOfficeCode")) {
+                countryTxt = reader.getElementText();
+            } else if (idTxt == null && is(PAT_NS, "PatentNumber")) {
+                idTxt = reader.getElementText();
+            } else if (idTxt == null && is(COM_NS, "ApplicationNumber")) {
+                while (nextChild()) {
+                    if (idTxt == null && is(COM_NS, "ApplicationNumberText")) {
+                        idTxt = reader.getElementText();
+                    } else {
+                        skipElement();
+                    }
+                }
+            } else if (kindTxt == null && is(COM_NS, "PatentDocumentKindCode")) {
+                kindTxt = reader.getElementText();
+            } else if (dateTxt == null && is(PAT_NS, "GrantDate")) {
+                dateTxt = reader.getElementText();
+            } else {
+                skipElement();
+            }
+        }
+
+        return CpcMasterReader.toDocumentId(nullToEmpty(countryTxt), nullToEmpty(idTxt), nullToEmpty(kindTxt),
+                nullToEmpty(dateTxt));
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    /**
+     * Move to the next child element of the current element; each child must be fully read, up to its end element,
+     * before the next call.
+     *
+     * @return true on the start of a child element, false on the end of the current element.
+     * @throws XMLStreamException
+     */
+    private boolean nextChild() throws XMLStreamException {
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Skip the current element and its children, up to its end element.
+     */
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private boolean is(String namespaceURI, String localName) {
+        return localName.equals(reader.getLocalName()) && namespaceURI.equals(reader.getNamespaceURI());
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package gov.uspto.patent.doc.cpc.masterfile;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.google.common.base.Strings;
+
+import gov.uspto.patent.model.DocumentId;
+import gov.uspto.patent.serialize.DocumentBuilder;
+
+/**
+ * CSV rows of an added, changed or removed CPC master record.
+ *
+ * <p>
+ * CSV fields: change,grantIdFull,grantCC,grantId,grantKind,appIdFull,appCC,appId,appKind,cpcLevel,cpcClass
+ * </p>
+ *
+ * <p>
+ * Added and changed records give the rows of {@link MasterCpcCsvBuilder}, all of the record's current
+ * classifications; a removed record gives a single row with only its grant id.
+ * </p>
+ */
+public class MasterCpcDeltaCsvBuilder implements DocumentBuilder<CpcMasterChange> {
+
+    private final MasterCpcCsvBuilder csvBuilder = new MasterCpcCsvBuilder();
+
+    @Override
+    public void write(CpcMasterChange change, Writer writer) throws IOException {
+        String changeTxt = change.getType().name().toLowerCase();
+        if (change.getType() == CpcMasterChange.Type.REMOVED) {
+            DocumentId grantId = change.getRecord().getGrantId();
+            writer.write(changeTxt + "," + grantId.toText(7) + "," + grantId.getCountryCode() + ","
+                    + grantId.getDocNumber() + "," + Strings.nullToEmpty(grantId.getKindCode()) + ",,,,,,\n");
+            return;
+        }
+
+        for (String row : csvBuilder.build(change.getRecord())) {
+            writer.write(changeTxt);
+            writer.write(",");
+            writer.write(row);
+        }
+    }
+}
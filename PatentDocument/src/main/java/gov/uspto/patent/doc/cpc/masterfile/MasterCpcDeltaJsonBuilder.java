@@ -0,0 +1,53 @@
+package gov.uspto.patent.doc.cpc.masterfile;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObjectBuilder;
+
+import gov.uspto.patent.model.DocumentId;
+import gov.uspto.patent.model.classification.CpcClassification;
+import gov.uspto.patent.serialize.DocumentBuilder;
+
+/**
+ * Json of an added, changed or removed CPC master record, one object per line.
+ *
+ * <pre>
+ * {"change":"changed","grantId":"US9400000B2","appId":"US13897484","mainCpc":"F04D 29/703","furtherCpc":[...]}
+ * {"change":"removed","grantId":"US9400001B2"}
+ * </pre>
+ */
+public class MasterCpcDeltaJsonBuilder implements DocumentBuilder<CpcMasterChange> {
+
+    @Override
+    public void write(CpcMasterChange change, Writer writer) throws IOException {
+        MasterClassificationRecord record = change.getRecord();
+
+        JsonObjectBuilder builder = Json.createObjectBuilder();
+        builder.add("change", change.getType().name().toLowerCase());
+        builder.add("grantId", record.getGrantId().toText());
+
+        if (change.getType() != CpcMasterChange.Type.REMOVED) {
+            DocumentId appId = record.getAppId();
+            if (appId != null && !appId.getDocNumber().isEmpty()) {
+                builder.add("appId", appId.toText());
+            }
+
+            CpcClassification mainCpc = record.getMainCPC();
+            if (mainCpc != null) {
+                builder.add("mainCpc", mainCpc.toText());
+            }
+
+            JsonArrayBuilder furtherCpc = Json.createArrayBuilder();
+            for (CpcClassification cpcClass : record.getFutherCPC()) {
+                furtherCpc.add(cpcClass.toText());
+            }
+            builder.add("furtherCpc", furtherCpc);
+        }
+
+        writer.write(builder.build().toString());
+        writer.write("\n");
+    }
+}
@@ -1,12 +1,9 @@
 package gov.uspto.patent.doc.cpc.scheme;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Iterator;
-import java.util.List;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.util.NoSuchElementException;
 
 /**
  * ClassificationItem Tree Iterator
@@ -17,66 +14,55 @@ import org.slf4j.LoggerFactory;
  *</p>
  *
  *<p>
- * An iterator chain is used, upon retrieving each ClassificaitonItem its subitem iterator is added to the chain of iterators.
- * Each iterator is exhausted before moving onto the next.
+ * A queue of iterators is used, upon retrieving each ClassificaitonItem its subitem iterator is added to the end of
+ * the queue. Each iterator is exhausted, and dropped from the queue, before moving onto the next.
  *</p>
  *
  * @author Brian G. Feldman (brian.feldman@uspto.gov)
  *
  */
 public class ClassificationItemIterator implements Iterator<ClassificationItem> {
-	private static final Logger LOGGER = LoggerFactory.getLogger(ClassificationItemIterator.class);
 
-	private List<Iterator<ClassificationItem>> iteratorChain = new ArrayList<Iterator<ClassificationItem>>();
-	private Iterator<ClassificationItem> currentIterator;
+	private final Deque<Iterator<ClassificationItem>> iteratorQueue = new ArrayDeque<Iterator<ClassificationItem>>();
 	private Iterator<ClassificationItem> lastUsedIterator;
-	private int currentIteratorIndex = 0;
 
 	public ClassificationItemIterator(ClassificationItem item) {
-		iteratorChain.add(item.getSubClassiticationItems().iterator());
+		iteratorQueue.add(item.getSubClassiticationItems().iterator());
 	}
 
 	/**
-	 * Updates the current iterator field to ensure that the current Iterator is not exhausted
+	 * Drops exhausted iterators from the head of the queue.
 	 */
-	protected void updateCurrentIterator() {		
-		if (currentIterator == null) {
-			if (iteratorChain.isEmpty()) {
-				currentIterator = Collections.emptyIterator();
-			} else {
-				currentIterator = (Iterator<ClassificationItem>) iteratorChain.get(0);
-			}
-
-			lastUsedIterator = currentIterator;
-		}
-
-		while (currentIterator.hasNext() == false && currentIteratorIndex < iteratorChain.size() - 1) {
-			currentIteratorIndex++;
-			currentIterator = (Iterator<ClassificationItem>) iteratorChain.get(currentIteratorIndex);
+	protected void updateCurrentIterator() {
+		while (!iteratorQueue.isEmpty() && !iteratorQueue.peek().hasNext()) {
+			iteratorQueue.poll();
 		}
 	}
 
 	@Override
 	public boolean hasNext() {
 		updateCurrentIterator();
-		lastUsedIterator = currentIterator;
-
-		return currentIterator.hasNext();
+		return !iteratorQueue.isEmpty();
 	}
 
 	@Override
 	public ClassificationItem next() {
 		updateCurrentIterator();
-		lastUsedIterator = currentIterator;
+		if (iteratorQueue.isEmpty()) {
+			throw new NoSuchElementException();
+		}
 
-		ClassificationItem item = currentIterator.next();
-		iteratorChain.add(item.getSubClassiticationItems().iterator());
+		lastUsedIterator = iteratorQueue.peek();
+		ClassificationItem item = lastUsedIterator.next();
+		iteratorQueue.add(item.getSubClassiticationItems().iterator());
 		return item;
 	}
 
 	@Override
 	public void remove() {
-		updateCurrentIterator();
+		if (lastUsedIterator == null) {
+			throw new IllegalStateException();
+		}
 		lastUsedIterator.remove();
 	}
 }
@@ -0,0 +1,217 @@
+package gov.uspto.patent.doc.cpc.scheme;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Joiner;
+
+/**
+ * Streaming (StAX) parse of one CPC scheme file into a flat fragment, the classification items in document
+ * (pre)order.
+ *
+ *<p>
+ * Titles are read as by {@link CpcXmlParser}: for each title-part, the text of its "text" and
+ * "CPC-specific-text/text" elements, without the text of their child elements; parts are joined with "/".
+ *</p>
+ */
+class CpcSchemeStaxParser {
+	private static final Logger LOGGER = LoggerFactory.getLogger(CpcSchemeStaxParser.class);
+
+	private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+	private static XMLInputFactory createInputFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+		return factory;
+	}
+
+	/**
+	 * Classification items of one scheme file, in preorder.
+	 */
+	static class Fragment {
+		final List<String> symbols = new ArrayList<String>();
+		final List<String> titles = new ArrayList<String>();
+		int[] parents = new int[64];
+		int[] subtreeEnds = new int[64];
+
+		int size() {
+			return symbols.size();
+		}
+
+		private int add(int parent) {
+			int node = symbols.size();
+			if (node == parents.length) {
+				parents = Arrays.copyOf(parents, node * 2);
+				subtreeEnds = Arrays.copyOf(subtreeEnds, node * 2);
+			}
+			symbols.add(null);
+			titles.add("");
+			parents[node] = parent;
+			return node;
+		}
+	}
+
+	private final XMLStreamReader reader;
+	private final Fragment fragment = new Fragment();
+
+	private CpcSchemeStaxParser(InputStream inputStream) throws XMLStreamException {
+		this.reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+	}
+
+	/**
+	 * @param inputStream scheme file, the caller closes the stream.
+	 * @return items of the scheme file
+	 * @throws IOException on malformed XML
+	 */
+	static Fragment parse(InputStream inputStream) throws IOException {
+		try {
+			CpcSchemeStaxParser parser = new CpcSchemeStaxParser(inputStream);
+			try {
+				parser.readDocument();
+			} finally {
+				parser.reader.close();
+			}
+			return parser.fragment;
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private void readDocument() throws XMLStreamException {
+		while (reader.hasNext()) {
+			if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+				// class-scheme root element.
+				while (nextChild()) {
+					if (is("classification-item")) {
+						readItem(-1);
+					} else {
+						skipElement();
+					}
+				}
+				return;
+			}
+		}
+	}
+
+	private void readItem(int parent) throws XMLStreamException {
+		int node = fragment.add(parent);
+		List<String> titleParts = new ArrayList<String>();
+
+		while (nextChild()) {
+			if (is("classification-symbol")) {
+				fragment.symbols.set(node, reader.getElementText().trim());
+			} else if (is("class-title")) {
+				while (nextChild()) {
+					if (is("title-part")) {
+						readTitlePart(node, titleParts);
+					} else {
+						skipElement();
+					}
+				}
+			} else if (is("classification-item")) {
+				readItem(node);
+			} else {
+				skipElement();
+			}
+		}
+
+		fragment.titles.set(node, Joiner.on("/").join(titleParts));
+		fragment.subtreeEnds[node] = fragment.size();
+	}
+
+	private void readTitlePart(int node, List<String> titleParts) throws XMLStreamException {
+		String text = null;
+		String specificText = null;
+		while (nextChild()) {
+			if (text == null && is("text")) {
+				text = directText();
+			} else if (specificText == null && is("CPC-specific-text")) {
+				while (nextChild()) {
+					if (specificText == null && is("text")) {
+						specificText = directText();
+					} else {
+						skipElement();
+					}
+				}
+			} else {
+				skipElement();
+			}
+		}
+
+		if (text != null) {
+			titleParts.add(text);
+		}
+		if (specificText != null) {
+			titleParts.add(specificText);
+		}
+		if (text == null && specificText == null) {
+			LOGGER.error("Symbol '{}' does not have text", fragment.symbols.get(node));
+		}
+	}
+
+	/**
+	 * Text of the current element, without the text of its child elements.
+	 */
+	private String directText() throws XMLStreamException {
+		StringBuilder text = new StringBuilder();
+		while (true) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+					|| event == XMLStreamConstants.SPACE) {
+				text.append(reader.getText());
+			} else if (event == XMLStreamConstants.START_ELEMENT) {
+				skipElement();
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				return text.toString();
+			}
+		}
+	}
+
+	/**
+	 * Move to the next child element of the current element.
+	 *
+	 * @return true on the start of a child element, false on the end of the current element.
+	 */
+	private boolean nextChild() throws XMLStreamException {
+		while (true) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				return true;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Skip the current element and its children, up to its end element.
+	 */
+	private void skipElement() throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	private boolean is(String localName) {
+		return localName.equals(reader.getLocalName());
+	}
+}
@@ -0,0 +1,516 @@
+package gov.uspto.patent.doc.cpc.scheme;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import gov.uspto.patent.doc.cpc.scheme.CpcSchemeStaxParser.Fragment;
+import gov.uspto.patent.model.classification.CpcClassification;
+
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+
+/**
+ * CPC Scheme as a flat, array backed tree, with a symbol index; to look up titles of CPC symbols.
+ *
+ *<p>
+ * Nodes are numbered in preorder, each node has its symbol, title, parent and the end of its subtree (the node
+ * after its last descendant); children of a node are the nodes from node + 1 up to its subtree end, skipping from
+ * each child to its subtree end. An open addressing hash table maps symbols to nodes, a symbol lookup is O(1), the
+ * title path of a symbol is O(depth).
+ *</p>
+ *
+ *<p>
+ * A symbol may be both an untitled grouping item and its titled item below it (such as "A01L1/00"), the index points
+ * to the first titled node of a symbol.
+ *</p>
+ *
+ *<p>
+ * {@link #load(File, int)} parses all cpc-scheme-*.xml files of a directory in parallel; a file which fails to
+ * parse is logged and left out of the tree. A scheme file of a subclass is placed under the item of the same
+ * symbol, without children, of its section's scheme file. The tree
+ * can be saved to a compact snapshot, {@link #writeSnapshot(File)}, and read back with {@link #readSnapshot(File)}
+ * without parsing the scheme again.
+ *</p>
+ *
+ *<pre>
+ * {@code
+ * CpcSchemeTree scheme = CpcSchemeTree.load(new File("CPCSchemeXML"), 8);
+ * List<String> titles = scheme.getTitlePath("A01L1/02");
+ * }
+ *</pre>
+ */
+public class CpcSchemeTree {
+	private static final Logger LOGGER = LoggerFactory.getLogger(CpcSchemeTree.class);
+
+	private static final int MAGIC = 0x43505354; // "CPST"
+	private static final int VERSION = 1;
+
+	private static final FilenameFilter SCHEME_FILES = new FilenameFilter() {
+		@Override
+		public boolean accept(File dir, String name) {
+			return name.startsWith("cpc-scheme-") && name.endsWith(".xml");
+		}
+	};
+
+	private final String[] symbols;
+	private final String[] titles;
+	private final int[] parents;
+	private final int[] subtreeEnds;
+	private final int[] slots;
+
+	private CpcSchemeTree(String[] symbols, String[] titles, int[] parents) {
+		this.symbols = symbols;
+		this.titles = titles;
+		this.parents = parents;
+		this.subtreeEnds = subtreeEnds(parents);
+		this.slots = index(symbols, titles);
+	}
+
+	/**
+	 * Subtree ends from the parents of nodes in preorder.
+	 */
+	private static int[] subtreeEnds(int[] parents) {
+		int[] subtreeEnds = new int[parents.length];
+		for (int node = parents.length - 1; node >= 0; node--) {
+			subtreeEnds[node] = Math.max(subtreeEnds[node], node + 1);
+			int parent = parents[node];
+			if (parent >= 0) {
+				subtreeEnds[parent] = Math.max(subtreeEnds[parent], subtreeEnds[node]);
+			}
+		}
+		return subtreeEnds;
+	}
+
+	private static int[] index(String[] symbols, String[] titles) {
+		int[] slots = new int[Integer.highestOneBit(Math.max(symbols.length, 1) * 2) * 2];
+		for (int node = 0; node < symbols.length; node++) {
+			if (symbols[node] == null) {
+				continue;
+			}
+			int slot = slot(slots, symbols, symbols[node]);
+			int existing = slots[slot] - 1;
+			if (existing < 0) {
+				slots[slot] = node + 1;
+			} else if (titles[existing].isEmpty() && !titles[node].isEmpty()) {
+				slots[slot] = node + 1;
+			}
+		}
+		return slots;
+	}
+
+	private static int slot(int[] slots, String[] symbols, String symbol) {
+		int mask = slots.length - 1;
+		int hash = symbol.hashCode();
+		int slot = (hash ^ (hash >>> 16)) & mask;
+		while (slots[slot] != 0 && !symbols[slots[slot] - 1].equals(symbol)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Node of a symbol.
+	 *
+	 * @param symbol as in the scheme, "A01L1/02"; spaces are ignored.
+	 * @return node, -1 when not in the scheme.
+	 */
+	public int indexOf(String symbol) {
+		if (symbol.indexOf(' ') >= 0) {
+			symbol = symbol.replace(" ", "");
+		}
+		return slots[slot(slots, symbols, symbol)] - 1;
+	}
+
+	/**
+	 * Node of a classification; a main group without subgroup is its "/00" node.
+	 *
+	 * @param cpc
+	 * @return node, -1 when not in the scheme.
+	 */
+	public int indexOf(CpcClassification cpc) {
+		StringBuilder symbol = new StringBuilder().append(cpc.getSection());
+		if (cpc.getMainClass() != null) {
+			symbol.append(cpc.getMainClass());
+			if (cpc.getSubClass() != null) {
+				symbol.append(cpc.getSubClass());
+				if (cpc.getMainGroup() != null) {
+					symbol.append(cpc.getMainGroup()).append('/')
+							.append(cpc.getSubGroup() != null ? cpc.getSubGroup() : "00");
+				}
+			}
+		}
+		return indexOf(symbol.toString());
+	}
+
+	public int size() {
+		return symbols.length;
+	}
+
+	public String getSymbol(int node) {
+		return symbols[node];
+	}
+
+	/**
+	 * @return title, empty when the node has none.
+	 */
+	public String getTitle(int node) {
+		return titles[node];
+	}
+
+	/**
+	 * @return parent node, -1 for a top node.
+	 */
+	public int getParent(int node) {
+		return parents[node];
+	}
+
+	/**
+	 * @return child nodes
+	 */
+	public int[] getChildren(int node) {
+		int count = 0;
+		for (int child = node + 1; child < subtreeEnds[node]; child = subtreeEnds[child]) {
+			count++;
+		}
+		int[] children = new int[count];
+		int i = 0;
+		for (int child = node + 1; child < subtreeEnds[node]; child = subtreeEnds[child]) {
+			children[i++] = child;
+		}
+		return children;
+	}
+
+	/**
+	 * @return the node and its ancestors, from the top node down to the node.
+	 */
+	public int[] getPath(int node) {
+		int depth = 0;
+		for (int n = node; n >= 0; n = parents[n]) {
+			depth++;
+		}
+		int[] path = new int[depth];
+		for (int n = node; n >= 0; n = parents[n]) {
+			path[--depth] = n;
+		}
+		return path;
+	}
+
+	/**
+	 * @param symbol
+	 * @return title, null when the symbol is not in the scheme.
+	 */
+	public String getTitle(String symbol) {
+		int node = indexOf(symbol);
+		return node >= 0 ? titles[node] : null;
+	}
+
+	/**
+	 * Titles of a symbol and its ancestors, from the top down; untitled nodes are left out.
+	 *
+	 * @param symbol
+	 * @return titles, empty when the symbol is not in the scheme.
+	 */
+	public List<String> getTitlePath(String symbol) {
+		int node = indexOf(symbol);
+		if (node < 0) {
+			return Collections.emptyList();
+		}
+		List<String> titlePath = new ArrayList<String>();
+		for (int n : getPath(node)) {
+			if (!titles[n].isEmpty()) {
+				titlePath.add(titles[n]);
+			}
+		}
+		return titlePath;
+	}
+
+	/**
+	 * Parse all cpc-scheme-*.xml files of a directory, in parallel; files which fail are logged and skipped.
+	 *
+	 * @param schemeDir
+	 * @param threads
+	 * @return scheme tree
+	 * @throws IOException
+	 */
+	public static CpcSchemeTree load(File schemeDir, int threads) throws IOException {
+		File[] files = schemeDir.listFiles(SCHEME_FILES);
+		if (files == null) {
+			throw new IOException("Not a directory: " + schemeDir);
+		}
+		Arrays.sort(files);
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads),
+				new ThreadFactoryBuilder().setNameFormat("cpc-scheme-%d").build());
+		try {
+			Map<File, Future<Fragment>> results = new LinkedHashMap<File, Future<Fragment>>();
+			for (final File file : files) {
+				results.put(file, executor.submit(new Callable<Fragment>() {
+					@Override
+					public Fragment call() throws IOException {
+						try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+							return CpcSchemeStaxParser.parse(inputStream);
+						}
+					}
+				}));
+			}
+
+			List<Fragment> fragments = new ArrayList<Fragment>(files.length);
+			int failed = 0;
+			for (Entry<File, Future<Fragment>> result : results.entrySet()) {
+				try {
+					fragments.add(result.getValue().get());
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof Error) {
+						throw (Error) e.getCause();
+					}
+					failed++;
+					LOGGER.error("Skipped failed CPC scheme file: {}", result.getKey(), e.getCause());
+				}
+			}
+
+			CpcSchemeTree tree = assemble(fragments);
+			LOGGER.info("Loaded CPC scheme, files:[{}] failed:[{}] nodes:[{}]", files.length, failed, tree.size());
+			return tree;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("CPC scheme load Interrupted", e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Join scheme file fragments into one tree, in fragment order.
+	 */
+	static CpcSchemeTree assemble(List<Fragment> fragments) {
+		Assembler assembler = new Assembler(fragments);
+		return assembler.assemble();
+	}
+
+	/**
+	 * Places each fragment's top items under the childless item of the same symbol in another fragment; top items
+	 * not placed become top nodes.
+	 */
+	private static class Assembler {
+		private final List<Fragment> fragments;
+		private final Map<String, int[]> tops = new HashMap<String, int[]>();
+		private final Set<String> placed = new HashSet<String>();
+
+		private final List<String> symbols = new ArrayList<String>();
+		private final List<String> titles = new ArrayList<String>();
+		private int[] parents = new int[1024];
+
+		public Assembler(List<Fragment> fragments) {
+			this.fragments = fragments;
+			for (int f = 0; f < fragments.size(); f++) {
+				Fragment fragment = fragments.get(f);
+				for (int node = 0; node < fragment.size(); node = fragment.subtreeEnds[node]) {
+					String symbol = fragment.symbols.get(node);
+					if (symbol != null && !tops.containsKey(symbol)) {
+						tops.put(symbol, new int[] { f, node });
+					}
+				}
+			}
+		}
+
+		public CpcSchemeTree assemble() {
+			Set<String> referenced = new HashSet<String>();
+			for (int f = 0; f < fragments.size(); f++) {
+				Fragment fragment = fragments.get(f);
+				for (int node = 0; node < fragment.size(); node++) {
+					if (graft(f, node) != null) {
+						referenced.add(fragment.symbols.get(node));
+					}
+				}
+			}
+
+			for (int f = 0; f < fragments.size(); f++) {
+				Fragment fragment = fragments.get(f);
+				for (int node = 0; node < fragment.size(); node = fragment.subtreeEnds[node]) {
+					String symbol = fragment.symbols.get(node);
+					if (symbol == null || !referenced.contains(symbol) || tops.get(symbol)[0] != f) {
+						emit(f, node, -1);
+					}
+				}
+			}
+
+			// top items whose place was not reached.
+			for (String symbol : referenced) {
+				if (!placed.contains(symbol)) {
+					int[] top = tops.get(symbol);
+					emit(top[0], top[1], -1);
+				}
+			}
+
+			return new CpcSchemeTree(symbols.toArray(new String[symbols.size()]),
+					titles.toArray(new String[titles.size()]), Arrays.copyOf(parents, symbols.size()));
+		}
+
+		/**
+		 * Top item of another fragment to place at a childless, not top, item.
+		 */
+		private int[] graft(int f, int node) {
+			Fragment fragment = fragments.get(f);
+			if (fragment.parents[node] < 0 || fragment.subtreeEnds[node] != node + 1) {
+				return null;
+			}
+			int[] top = tops.get(fragment.symbols.get(node));
+			return top != null && top[0] != f ? top : null;
+		}
+
+		private void emit(int f, int node, int parent) {
+			Fragment fragment = fragments.get(f);
+			String title = fragment.titles.get(node);
+
+			int[] top = graft(f, node);
+			if (top != null && placed.add(fragment.symbols.get(node))) {
+				f = top[0];
+				node = top[1];
+				fragment = fragments.get(f);
+				if (!fragment.titles.get(node).isEmpty()) {
+					title = fragment.titles.get(node);
+				}
+			}
+
+			int index = symbols.size();
+			if (index == parents.length) {
+				parents = Arrays.copyOf(parents, index * 2);
+			}
+			symbols.add(fragment.symbols.get(node));
+			titles.add(title);
+			parents[index] = parent;
+
+			for (int child = node + 1; child < fragment.subtreeEnds[node]; child = fragment.subtreeEnds[child]) {
+				emit(f, child, index);
+			}
+		}
+	}
+
+	/**
+	 * Write the tree to a compact (gzip) snapshot.
+	 *
+	 * @param snapshotFile
+	 * @throws IOException
+	 */
+	public void writeSnapshot(File snapshotFile) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(snapshotFile), 1 << 16)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(symbols.length);
+			for (int node = 0; node < symbols.length; node++) {
+				out.writeInt(parents[node]);
+				writeString(out, symbols[node]);
+				writeString(out, titles[node]);
+			}
+		}
+	}
+
+	/**
+	 * Read a tree from a snapshot written by {@link #writeSnapshot(File)}.
+	 *
+	 * @param snapshotFile
+	 * @return scheme tree
+	 * @throws IOException
+	 */
+	public static CpcSchemeTree readSnapshot(File snapshotFile) throws IOException {
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new GZIPInputStream(new FileInputStream(snapshotFile), 1 << 16)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("Not a CPC scheme snapshot: " + snapshotFile);
+			}
+			int size = in.readInt();
+			String[] symbols = new String[size];
+			String[] titles = new String[size];
+			int[] parents = new int[size];
+			for (int node = 0; node < size; node++) {
+				parents[node] = in.readInt();
+				if (parents[node] >= node) {
+					throw new IOException("Corrupt CPC scheme snapshot: " + snapshotFile);
+				}
+				symbols[node] = readString(in);
+				titles[node] = readString(in);
+			}
+			return new CpcSchemeTree(symbols, titles, parents);
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	public static void main(String[] args) throws IOException {
+		OptionParser parser = new OptionParser() {
+			{
+				accepts("input").withRequiredArg().ofType(String.class).describedAs("CPC Scheme XML directory")
+						.required();
+				accepts("output").withRequiredArg().ofType(String.class).describedAs("Snapshot file to write")
+						.required();
+				accepts("threads").withOptionalArg().ofType(Integer.class).describedAs("Threads to spawn")
+						.defaultsTo(Runtime.getRuntime().availableProcessors());
+			}
+		};
+
+		OptionSet options = parser.parse(args);
+		if (!options.hasOptions()) {
+			parser.printHelpOn(System.out);
+			System.exit(1);
+		}
+
+		File schemeDir = new File((String) options.valueOf("input"));
+		File snapshotFile = new File((String) options.valueOf("output"));
+		int threads = (Integer) options.valueOf("threads");
+
+		LOGGER.info("--- START ---");
+		CpcSchemeTree tree = load(schemeDir, threads);
+		tree.writeSnapshot(snapshotFile);
+		LOGGER.info("--- DONE --- nodes:[{}]", tree.size());
+	}
+}
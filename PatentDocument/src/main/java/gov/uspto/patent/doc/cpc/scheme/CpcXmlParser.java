@@ -11,11 +11,10 @@ import java.util.List;
 import org.dom4j.Document;
 import org.dom4j.DocumentException;
 import org.dom4j.Node;
-import org.dom4j.io.SAXReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.xml.sax.SAXException;
 
+import gov.uspto.parser.dom4j.XmlReaders;
 import gov.uspto.patent.PatentReaderException;
 
 public class CpcXmlParser {
@@ -42,12 +41,8 @@ public class CpcXmlParser {
 
 	public ClassificationItem parse(Reader reader) throws PatentReaderException {
 		try {
-			SAXReader sax = new SAXReader(false);
-			sax.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-			Document document = sax.read(reader);
+			Document document = XmlReaders.read(reader);
 			return parse(document);
-		} catch (SAXException e) {
-			throw new PatentReaderException(e);
 		} catch (DocumentException e) {
 			throw new PatentReaderException(e);
 		}
@@ -4,6 +4,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -15,6 +16,7 @@ import org.slf4j.MDC;
 
 import gov.uspto.parser.dom4j.keyvalue.KvParser;
 import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.PatentSection;
 import gov.uspto.patent.doc.greenbook.fragments.AbstractTextNode;
 import gov.uspto.patent.doc.greenbook.fragments.AgentNode;
 import gov.uspto.patent.doc.greenbook.fragments.ApplicationIdNode;
@@ -101,29 +103,29 @@ public class Greenbook extends KvParser {
 
         DocumentId applicationId = new ApplicationIdNode(document).read();
 
-        Node titleN = document.selectSingleNode("/DOCUMENT/PATN/TTL");
+        Node titleN = wanted(PatentSection.TITLE) ? document.selectSingleNode("/DOCUMENT/PATN/TTL") : null;
         String title = titleN != null ? titleN.getText() : null;
 
-        List<Examiner> examiners = new ExaminerNode(document).read();
-        List<Inventor> inventors = new InventorNode(document).read();
-        List<Assignee> assignees = new AssigneeNode(document).read();
-        List<Agent> agents = new AgentNode(document).read();
+        List<Examiner> examiners = wanted(PatentSection.PARTIES) ? new ExaminerNode(document).read() : new ArrayList<Examiner>();
+        List<Inventor> inventors = wanted(PatentSection.PARTIES) ? new InventorNode(document).read() : new ArrayList<Inventor>();
+        List<Assignee> assignees = wanted(PatentSection.PARTIES) ? new AssigneeNode(document).read() : new ArrayList<Assignee>();
+        List<Agent> agents = wanted(PatentSection.PARTIES) ? new AgentNode(document).read() : new ArrayList<Agent>();
 
-        Set<Classification> classifications = new ClassificationNode(document).read();
+        Set<Classification> classifications = wanted(PatentSection.CLASSIFICATIONS) ? new ClassificationNode(document).read() : new HashSet<Classification>();
 
-        List<DocumentId> priorityIds = new PriorityClaimNode(document).read();
-        List<DocumentId> relatedIds = new RelatedIdNode(document).read();
-        List<Citation> citations = new CitationNode(document).read();
+        List<DocumentId> priorityIds = wanted(PatentSection.RELATED_IDS) ? new PriorityClaimNode(document).read() : new ArrayList<DocumentId>();
+        List<DocumentId> relatedIds = wanted(PatentSection.RELATED_IDS) ? new RelatedIdNode(document).read() : new ArrayList<DocumentId>();
+        List<Citation> citations = wanted(PatentSection.CITATIONS) ? new CitationNode(document).read() : new ArrayList<Citation>();
 
-        List<DocumentId> pctRegionalIds = new PctRegionalIdNode(document).read();
+        List<DocumentId> pctRegionalIds = wanted(PatentSection.RELATED_IDS) ? new PctRegionalIdNode(document).read() : new ArrayList<DocumentId>();
 
         /*
          * Formatted Text.
          */
         FormattedText textProcessor = new FormattedText();
-        Abstract abstractText = new AbstractTextNode(document, textProcessor).read();
-        Description description = new DescriptionNode(document, textProcessor).read();
-        List<Claim> claims = new ClaimNode(document, textProcessor).read();
+        Abstract abstractText = wanted(PatentSection.ABSTRACT) ? new AbstractTextNode(document, textProcessor).read() : new Abstract("", textProcessor);
+        Description description = wanted(PatentSection.DESCRIPTION) ? new DescriptionNode(document, textProcessor).read() : null;
+        List<Claim> claims = wanted(PatentSection.CLAIMS) ? new ClaimNode(document, textProcessor).read() : new ArrayList<Claim>();
 
         new ClaimTreeBuilder(claims).build();
 
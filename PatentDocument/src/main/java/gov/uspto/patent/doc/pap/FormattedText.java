@@ -15,7 +15,7 @@ import org.jsoup.safety.Whitelist;
 
 import com.google.common.base.Charsets;
 
-import gov.uspto.patent.TextProcessor;
+import gov.uspto.patent.HtmlTextProcessor;
 import gov.uspto.patent.doc.simplehtml.FreetextConfig;
 import gov.uspto.patent.doc.simplehtml.HtmlToPlainText;
 import gov.uspto.patent.mathml.MathmlEscaper;
@@ -26,7 +26,7 @@ import gov.uspto.patent.mathml.MathmlEscaper;
  * @author Brian G. Feldman (brian.feldman@uspto.gov)
  *
  */
-public class FormattedText implements TextProcessor {
+public class FormattedText implements HtmlTextProcessor {
 
     private static final String[] HTML_WHITELIST_TAGS = new String[] { "bold", "h1", "h2", "h3", "h4", "h5", "h6", "p",
             "table", "tr", "td", "ul", "ol", "li", "dl", "dt", "dd", "a", "span" };
@@ -35,7 +35,11 @@ public class FormattedText implements TextProcessor {
 
 	@Override
 	public String getPlainText(String rawText, FreetextConfig textConfig) {
-		String simpleHtml = getSimpleHtml(rawText);
+		return getPlainTextFromHtml(getSimpleHtml(rawText), textConfig);
+	}
+
+	@Override
+	public String getPlainTextFromHtml(String simpleHtml, FreetextConfig textConfig) {
 		Document simpleDoc = Jsoup.parse(simpleHtml, "", Parser.xmlParser());
 
 		HtmlToPlainText htmlConvert = new HtmlToPlainText(textConfig);
@@ -2,6 +2,8 @@ package gov.uspto.patent.doc.pap;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -14,6 +16,7 @@ import gov.uspto.parser.dom4j.Dom4JParser;
 import gov.uspto.parser.dom4j.Dom4jUtil;
 import gov.uspto.patent.InvalidDataException;
 import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.PatentSection;
 import gov.uspto.patent.doc.pap.fragments.AbstractTextNode;
 import gov.uspto.patent.doc.pap.fragments.AgentNode;
 import gov.uspto.patent.doc.pap.fragments.ApplicantNode;
@@ -60,8 +63,8 @@ public class PatentAppPubParser extends Dom4JParser {
 
     @Override
     public Patent parse(Document document) {
-        String title = Dom4jUtil.getTextOrNull(document,
-                XML_ROOT + "/subdoc-bibliographic-information/technical-information/title-of-invention");
+        String title = wanted(PatentSection.TITLE) ? Dom4jUtil.getTextOrNull(document,
+                XML_ROOT + "/subdoc-bibliographic-information/technical-information/title-of-invention") : null;
 
         String dateProduced = Dom4jUtil.getTextOrNull(document,
                 XML_ROOT + "/subdoc-bibliographic-information/domestic-filing-data/filing-date");
@@ -88,24 +91,24 @@ public class PatentAppPubParser extends Dom4JParser {
             patentType = UsKindCode2PatentType.getInstance().lookupPatentType(publicationId.getKindCode());
         }
 
-        List<DocumentId> priorityIds = new PriorityClaimNode(document).read();
-        List<DocumentId> relatedIds = new RelatedIdNode(document).read();
+        List<DocumentId> priorityIds = wanted(PatentSection.RELATED_IDS) ? new PriorityClaimNode(document).read() : new ArrayList<DocumentId>();
+        List<DocumentId> relatedIds = wanted(PatentSection.RELATED_IDS) ? new RelatedIdNode(document).read() : new ArrayList<DocumentId>();
 
-        List<Inventor> inventors = new InventorNode(document).read();
-        List<Applicant> applicants = new ApplicantNode(document).read();
-        List<Agent> agents = new AgentNode(document).read();
+        List<Inventor> inventors = wanted(PatentSection.PARTIES) ? new InventorNode(document).read() : new ArrayList<Inventor>();
+        List<Applicant> applicants = wanted(PatentSection.PARTIES) ? new ApplicantNode(document).read() : new ArrayList<Applicant>();
+        List<Agent> agents = wanted(PatentSection.PARTIES) ? new AgentNode(document).read() : new ArrayList<Agent>();
 
-        List<Assignee> assignees = new AssigneeNode(document).read();
+        List<Assignee> assignees = wanted(PatentSection.PARTIES) ? new AssigneeNode(document).read() : new ArrayList<Assignee>();
 
-        Set<Classification> classifications = new ClassificationNode(document).read();
+        Set<Classification> classifications = wanted(PatentSection.CLASSIFICATIONS) ? new ClassificationNode(document).read() : new HashSet<Classification>();
 
         /*
          * Formated Text
          */
         FormattedText textProcessor = new FormattedText();
-        Abstract abstractText = new AbstractTextNode(document, textProcessor).read();
-        Description description = new DescriptionNode(document, textProcessor).read();
-        List<Claim> claims = new ClaimNode(document, textProcessor).read();
+        Abstract abstractText = wanted(PatentSection.ABSTRACT) ? new AbstractTextNode(document, textProcessor).read() : new Abstract("", textProcessor);
+        Description description = wanted(PatentSection.DESCRIPTION) ? new DescriptionNode(document, textProcessor).read() : null;
+        List<Claim> claims = wanted(PatentSection.CLAIMS) ? new ClaimNode(document, textProcessor).read() : new ArrayList<Claim>();
         new ClaimTreeBuilder(claims).build();
 
         /*
@@ -12,7 +12,7 @@ import gov.uspto.patent.model.Abstract;
 public class AbstractTextNode extends DOMFragmentReader<Abstract> {
 	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractTextNode.class);
 
-	private static final String FRAGMENT_PATH = "//subdoc-abstract";
+	private static final String FRAGMENT_PATH = "/*/subdoc-abstract";
 
 	public AbstractTextNode(Document document, TextProcessor textProcessor) {
 		super(document, textProcessor);
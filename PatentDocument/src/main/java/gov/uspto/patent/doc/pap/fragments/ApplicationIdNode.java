@@ -15,8 +15,8 @@ import gov.uspto.patent.model.DocumentIdType;
 public class ApplicationIdNode extends DOMFragmentReader<DocumentId> {
     private static final Logger LOGGER = LoggerFactory.getLogger(ApplicationIdNode.class);
 
-    private static final String FRAGMENT_DOCNUM = "//domestic-filing-data/application-number/doc-number";
-    private static final String FRAGMENT_DATE = "//domestic-filing-data/filing-date";
+    private static final String FRAGMENT_DOCNUM = "/*/subdoc-bibliographic-information/domestic-filing-data/application-number/doc-number";
+    private static final String FRAGMENT_DATE = "/*/subdoc-bibliographic-information/domestic-filing-data/filing-date";
 
     private static final CountryCode DEFAULT_COUNTRYCODE = CountryCode.US;
 
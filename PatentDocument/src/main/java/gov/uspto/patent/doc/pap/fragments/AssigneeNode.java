@@ -20,7 +20,7 @@ import gov.uspto.patent.model.entity.Name;
 public class AssigneeNode extends DOMFragmentReader<List<Assignee>> {
 	private static final Logger LOGGER = LoggerFactory.getLogger(AssigneeNode.class);
 
-	private static final String FRAGMENT_PATH = "//assignee";
+	private static final String FRAGMENT_PATH = "/*/subdoc-bibliographic-information/assignee";
 	//private static final String ADDRESS_PATH = "//correspondence-address";
 
 	public AssigneeNode(Document document) {
@@ -42,7 +42,8 @@ public class AssigneeNode extends DOMFragmentReader<List<Assignee>> {
 	}
 
 	public Assignee readAssignee(Node assigneeNode) {
-		Name name = new NameNode(assigneeNode).read();
+		// assignee holds organization-name or the person name fields, it has no name element.
+		Name name = new NameNode(assigneeNode, "assignee").read();
 		Address address = new AddressNode(assigneeNode).read();
 
 		//Node residenceN = assigneeNode.selectSingleNode(ADDRESS_PATH);
@@ -19,8 +19,8 @@ import gov.uspto.patent.model.entity.Name;
 public class InventorNode extends DOMFragmentReader<List<Inventor>> {
 	private static final Logger LOGGER = LoggerFactory.getLogger(InventorNode.class);
 
-	private static final String FRAGMENT_PATH = "//inventors/inventor";
-	private static final String FRAGMENT_PATH1 = "//inventors/first-named-inventor";
+	private static final String FRAGMENT_PATH = "/*/subdoc-bibliographic-information/inventors/inventor";
+	private static final String FRAGMENT_PATH1 = "/*/subdoc-bibliographic-information/inventors/first-named-inventor";
 
 	private List<Inventor> inventorList;
 
@@ -53,7 +53,9 @@ public class InventorNode extends DOMFragmentReader<List<Inventor>> {
 
 			Address residenceAddress = new ResidenceNode(inventorNode).read();
 
-			Address address = new AddressNode(inventorNode).read();
+			// inventors usually have only a residence, use it when there is no address element.
+			AddressNode addressNode = new AddressNode(inventorNode);
+			Address address = addressNode.isFound() ? addressNode.read() : null;
 			if (address == null && residenceAddress != null) {
 				address = residenceAddress;
 			}
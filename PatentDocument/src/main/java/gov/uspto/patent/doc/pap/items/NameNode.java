@@ -31,6 +31,16 @@ public class NameNode extends ItemReader<gov.uspto.patent.model.entity.Name> {
 		super(itemNode, ITEM_NODE_NAME);
 	}
 
+	/**
+	 * Read the name fields from an element other than name, such as assignee.
+	 * 
+	 * @param itemNode
+	 * @param itemNodeName name of the element holding the name fields
+	 */
+	public NameNode(Node itemNode, String itemNodeName) {
+		super(itemNode, itemNodeName);
+	}
+
 	@Override
 	public Name read() {
 
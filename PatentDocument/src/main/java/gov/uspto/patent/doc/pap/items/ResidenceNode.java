@@ -72,7 +72,7 @@ public class ResidenceNode extends ItemReader<Address> {
 		String state = stateN != null ? stateN.getText() : null;
 
 		CountryCode countryCode = null;
-		if (residence.getParent().matches("//residence-non-us")) {
+		if (NONUS_RESIDENT.equals(residence.getName())) {
 			Node countryN = residence.selectSingleNode("country-code");
 			String country = countryN != null ? countryN.getText() : null;
 
@@ -3,6 +3,7 @@ package gov.uspto.patent.doc.sgml;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -14,6 +15,7 @@ import org.slf4j.MDC;
 
 import gov.uspto.parser.dom4j.Dom4JParser;
 import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.PatentSection;
 import gov.uspto.patent.doc.sgml.fragments.AbstractTextNode;
 import gov.uspto.patent.doc.sgml.fragments.AgentNode;
 import gov.uspto.patent.doc.sgml.fragments.ApplicationIdNode;
@@ -68,30 +70,30 @@ public class Sgml extends Dom4JParser {
 		
 		DocumentId applicationId = new ApplicationIdNode(document).read();
 
-	    List<DocumentId> priorityIds = new PriorityClaimsNode(document).read();
-	    List<DocumentId> pctRegionalIds = new PctRegionalIdNode(document).read();
-        List<DocumentId> relatedIds = new RelatedIdNode(document).read();
+	    List<DocumentId> priorityIds = wanted(PatentSection.RELATED_IDS) ? new PriorityClaimsNode(document).read() : new ArrayList<DocumentId>();
+	    List<DocumentId> pctRegionalIds = wanted(PatentSection.RELATED_IDS) ? new PctRegionalIdNode(document).read() : new ArrayList<DocumentId>();
+        List<DocumentId> relatedIds = wanted(PatentSection.RELATED_IDS) ? new RelatedIdNode(document).read() : new ArrayList<DocumentId>();
 
-		Node titleN = document.selectSingleNode("/PATDOC/SDOBI/B500/B540/STEXT/PDAT");
+		Node titleN = wanted(PatentSection.TITLE) ? document.selectSingleNode("/PATDOC/SDOBI/B500/B540/STEXT/PDAT") : null;
 		String title = null;
 		if (titleN != null) {
 			title = titleN.getText();
 		}
 
-		Set<Classification> classifications = new ClassificationNode(document).read();
-		List<Inventor> inventors = new InventorNode(document).read();
-		List<Assignee> assignees = new AssigneeNode(document).read();
-		List<Agent> agents = new AgentNode(document).read();
-		List<Examiner> examiners = new ExaminerNode(document).read();
-		List<Citation> citations = new CitationNode(document).read();
+		Set<Classification> classifications = wanted(PatentSection.CLASSIFICATIONS) ? new ClassificationNode(document).read() : new HashSet<Classification>();
+		List<Inventor> inventors = wanted(PatentSection.PARTIES) ? new InventorNode(document).read() : new ArrayList<Inventor>();
+		List<Assignee> assignees = wanted(PatentSection.PARTIES) ? new AssigneeNode(document).read() : new ArrayList<Assignee>();
+		List<Agent> agents = wanted(PatentSection.PARTIES) ? new AgentNode(document).read() : new ArrayList<Agent>();
+		List<Examiner> examiners = wanted(PatentSection.PARTIES) ? new ExaminerNode(document).read() : new ArrayList<Examiner>();
+		List<Citation> citations = wanted(PatentSection.CITATIONS) ? new CitationNode(document).read() : new ArrayList<Citation>();
 
 		/*
 		 * Read Formatted Text Fields
 		 */
 		FormattedText textProcessor = new FormattedText();
-		Abstract abstractText = new AbstractTextNode(document, textProcessor).read();
-		Description description = new DescriptionNode(document, textProcessor).read();
-        List<Claim> claims = new ClaimNode(document, textProcessor).read();
+		Abstract abstractText = wanted(PatentSection.ABSTRACT) ? new AbstractTextNode(document, textProcessor).read() : new Abstract("", textProcessor);
+		Description description = wanted(PatentSection.DESCRIPTION) ? new DescriptionNode(document, textProcessor).read() : null;
+        List<Claim> claims = wanted(PatentSection.CLAIMS) ? new ClaimNode(document, textProcessor).read() : new ArrayList<Claim>();
         new ClaimTreeBuilder(claims).build();
 
 		/*
@@ -21,7 +21,7 @@ import org.jsoup.safety.Whitelist;
 import com.google.common.base.Charsets;
 import com.google.common.collect.ImmutableSet;
 
-import gov.uspto.patent.TextProcessor;
+import gov.uspto.patent.HtmlTextProcessor;
 import gov.uspto.patent.doc.simplehtml.FreetextConfig;
 import gov.uspto.patent.doc.simplehtml.HtmlToPlainText;
 import gov.uspto.patent.mathml.MathmlEscaper;
@@ -33,7 +33,7 @@ import gov.uspto.patent.mathml.MathmlEscaper;
  * @author Brian G. Feldman (brian.feldman@uspto.gov)
  *
  */
-public class FormattedText implements TextProcessor {
+public class FormattedText implements HtmlTextProcessor {
 
     private static final String[] HTML_WHITELIST_TAGS = new String[] { "bold", "h1", "h2", "h3", "h4", "h5", "h6", "p",
             "table", "tr", "td", "ul", "ol", "li", "dl", "dt", "dd", "a", "span" };
@@ -45,9 +45,16 @@ public class FormattedText implements TextProcessor {
     public static final ImmutableSet<String> TABLE_ELEMENTS = ImmutableSet.of("tr", "entry", "row", "table");
     public static final ImmutableSet<String> LIST_ELEMENTS = ImmutableSet.of("ul", "ol", "li", "dl", "dt", "dd");
 
+    private static final Whitelist WHITELIST = Whitelist.none().addTags(HTML_WHITELIST_TAGS)
+            .addAttributes(":all", HTML_WHITELIST_ATTRIB);
+
 	@Override
 	public String getPlainText(String rawText, FreetextConfig textConfig) {
-		String simpleHtml = getSimpleHtml(rawText);
+		return getPlainTextFromHtml(getSimpleHtml(rawText), textConfig);
+	}
+
+	@Override
+	public String getPlainTextFromHtml(String simpleHtml, FreetextConfig textConfig) {
 		Document simpleDoc = Jsoup.parse(simpleHtml, "", Parser.xmlParser());
 
 		HtmlToPlainText htmlConvert = new HtmlToPlainText(textConfig);
@@ -60,110 +67,11 @@ public class FormattedText implements TextProcessor {
         // this.document = Jsoup.parse(xml, "", Parser.xmlParser());
         // this.document = Jsoup.parse(xml);
 
-        String[] unwantedSections = new String[] { "cross-reference-to-related-applications" };
-        for (String removeSection : unwantedSections) {
-            for (Element element : document.getElementsByTag(removeSection)) {
-                // System.out.println("Removing ["+ removeSection + "] : " +
-                // element.html());
-                element.remove();
-            }
-        }
-
-        /*
-         * HEADING tags
-         */
-        document.select("heading").tagName("h2");
-        // Header Paragraphs which have an id starting with "h-".
-        document.select("p[id^=h-]").tagName("h4");
-
-        // Remove paragraph in drawing description which do not describe a figref.
-        for (Element element : document.select("description-of-drawings > p")) {
-            if (element.select(":has(figref)").isEmpty()) {
-                element.remove();
-            }
-        }
-
-        /*
-         * Patent Drawing FIGREF tags not needed in index.
-         */
-        for (Element element : document.select("figref")) {
-            element.tagName("a");
-            element.addClass("figref");
-        }
-
-        /*
-         * Patent Claim Reference
-         * 
-         * <claim-ref idref="CLM-00001">claim 1</claim-ref>
-         * 
-         * <a idref="CLM-00001" class="claim">Patent-Claim</a>
-         */
-        for (Element element : document.select("claim-ref")) {
-            element.tagName("a");
-            element.addClass("claim");
-        }
-
-        /*
-         * Patent Citation Reference tags not needed in the index.
-         */
-        for (Element element : document.select("patcit")) {
-            element.tagName("a");
-            element.addClass("patcite");
-        }
-
-        /*
-         * Patent Citation Reference tags not needed in the index.
-         */
-        for (Element element : document.select("nplcit")) {
-            element.tagName("a");
-            element.addClass("nplcite");
-        }
-
-        /*
-         * crossref tags are internal links to another section.
-         */
-        for (Element element : document.select("crossref")) {
-            element.tagName("a");
-            element.addClass("crossref");
-        }
-
-        /*
-         * Escape MathML math elements, to maintain all xml elements after sending through Cleaner.
-         */
-        boolean mathFound = false;
-        for (Element element : document.select("math")) {
-            mathFound = true;
-
-            String mathml = MathmlEscaper.escape(element.html());
-
-            Element newEl = new Element(Tag.valueOf("span"), "");
-            newEl.addClass("math");
-            newEl.attr("format", "mathml");
-            newEl.appendChild(new TextNode(mathml, null));
-            element.replaceWith(newEl);
-        }
-
-        document.select("br").append("\\n");
-        document.select("tbody").append("\\n");
-
-        document.select("sub").prepend("_");
-        document.select("sub2").prepend("_");
-        document.select("sup").prepend("^");
-        document.select("sup2").prepend("^");
-
-        document.select("ol").tagName("ul");
-
-        document.select("row").tagName("tr");
-        document.select("entry").tagName("td");
+        boolean mathFound = normalize(document.body(), false);
 
         //document.select("p:matchesOwn((?is) +?)").remove(); // remove paragraphs which contain only spaces.
 
-        String docStr = document.html().replaceAll("\\s{2,}", " ");
-        docStr = docStr.replaceAll("\\\\n", "\n");
-
-        Whitelist whitelist = Whitelist.none();
-        whitelist.addTags(HTML_WHITELIST_TAGS);
-        whitelist.addAttributes(":all", HTML_WHITELIST_ATTRIB);
+        String docStr = collapseWhitespace(document.html());
 
         OutputSettings outSettings = new Document.OutputSettings();
         outSettings.charset(Charsets.UTF_8);
@@ -172,7 +80,7 @@ public class FormattedText implements TextProcessor {
         outSettings.prettyPrint(false);
         outSettings.escapeMode(EscapeMode.extended);
 
-        docStr = Jsoup.clean(docStr, "", whitelist, outSettings);
+        docStr = Jsoup.clean(docStr, "", WHITELIST, outSettings);
 
         if (mathFound) {
             docStr = MathmlEscaper.unescape(docStr);
@@ -181,6 +89,178 @@ public class FormattedText implements TextProcessor {
         return docStr;
     }
 
+    /**
+     * Normalize the children of an element in a single walk over the tree, in document order.
+     *
+     *<p>
+     * A parent is visited before its children, so checks on a parent see the original tag names of its children.
+     * Within math only the structural changes are made, before it is escaped into a span.
+     *</p>
+     *
+     * @param parent
+     * @param inMath
+     * @return true when a math element was found.
+     */
+    private boolean normalize(Element parent, boolean inMath) {
+        boolean mathFound = false;
+        for (Element element : new ArrayList<Element>(parent.children())) {
+            switch (element.tagName()) {
+            case "cross-reference-to-related-applications":
+                element.remove();
+                continue;
+            case "heading":
+                element.tagName("h2");
+                break;
+            case "p":
+                if (element.attr("id").toLowerCase().startsWith("h-")) {
+                    // Header Paragraphs which have an id starting with "h-".
+                    element.tagName("h4");
+                } else if ("description-of-drawings".equals(parent.tagName()) && !hasFigref(element)) {
+                    // Remove paragraph in drawing description which do not describe a figref.
+                    element.remove();
+                    continue;
+                }
+                break;
+            case "figref":
+                /*
+                 * Patent Drawing FIGREF tags not needed in index.
+                 */
+                element.tagName("a");
+                element.addClass("figref");
+                break;
+            case "claim-ref":
+                /*
+                 * Patent Claim Reference
+                 * 
+                 * <claim-ref idref="CLM-00001">claim 1</claim-ref>
+                 * 
+                 * <a idref="CLM-00001" class="claim">Patent-Claim</a>
+                 */
+                element.tagName("a");
+                element.addClass("claim");
+                break;
+            case "patcit":
+                element.tagName("a");
+                element.addClass("patcite");
+                break;
+            case "nplcit":
+                element.tagName("a");
+                element.addClass("nplcite");
+                break;
+            case "crossref":
+                /*
+                 * crossref tags are internal links to another section.
+                 */
+                element.tagName("a");
+                element.addClass("crossref");
+                break;
+            case "math":
+                if (!inMath) {
+                    /*
+                     * Escape MathML math elements, to maintain all xml elements after sending through Cleaner.
+                     */
+                    normalize(element, true);
+                    String mathml = MathmlEscaper.escape(element.html());
+
+                    Element newEl = new Element(Tag.valueOf("span"), "");
+                    newEl.addClass("math");
+                    newEl.attr("format", "mathml");
+                    newEl.appendChild(new TextNode(mathml, null));
+                    element.replaceWith(newEl);
+                    mathFound = true;
+                    continue;
+                }
+                break;
+            default:
+                break;
+            }
+
+            if (!inMath) {
+                normalizeLayout(element);
+            }
+
+            mathFound |= normalize(element, inMath);
+        }
+        return mathFound;
+    }
+
+    private void normalizeLayout(Element element) {
+        switch (element.tagName()) {
+        case "br":
+        case "tbody":
+            element.append("\\n");
+            break;
+        case "sub":
+        case "sub2":
+            element.prepend("_");
+            break;
+        case "sup":
+        case "sup2":
+            element.prepend("^");
+            break;
+        case "ol":
+            element.tagName("ul");
+            break;
+        case "row":
+            element.tagName("tr");
+            break;
+        case "entry":
+            element.tagName("td");
+            break;
+        default:
+            break;
+        }
+    }
+
+    /**
+     * Has a figref descendant, outside of sections which are removed.
+     */
+    private boolean hasFigref(Element element) {
+        for (Element child : element.children()) {
+            if ("figref".equals(child.tagName())
+                    || (!"cross-reference-to-related-applications".equals(child.tagName()) && hasFigref(child))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collapse runs of whitespace to a single space and replace escaped "\\n" with a newline, in one pass.
+     */
+    private static String collapseWhitespace(String html) {
+        StringBuilder stb = new StringBuilder(html.length());
+        int length = html.length();
+        for (int i = 0; i < length; i++) {
+            char ch = html.charAt(i);
+            if (isWhitespace(ch)) {
+                int end = i + 1;
+                while (end < length && isWhitespace(html.charAt(end))) {
+                    end++;
+                }
+                if (end - i > 1) {
+                    stb.append(' ');
+                    i = end - 1;
+                } else {
+                    stb.append(ch);
+                }
+            } else if (ch == '\\' && i + 1 < length && html.charAt(i + 1) == 'n') {
+                stb.append('\n');
+                i++;
+            } else {
+                stb.append(ch);
+            }
+        }
+        return stb.toString();
+    }
+
+    /**
+     * Whitespace as matched by regex \\s.
+     */
+    private static boolean isWhitespace(char ch) {
+        return ch == ' ' || ch == '\t' || ch == '\n' || ch == '\u000B' || ch == '\f' || ch == '\r';
+    }
+
     @Override
     public List<String> getParagraphText(String rawText) {
         String textWithPMarks = getSimpleHtml(rawText);
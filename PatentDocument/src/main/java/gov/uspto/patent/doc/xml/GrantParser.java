@@ -3,6 +3,8 @@
  */
 package gov.uspto.patent.doc.xml;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -15,6 +17,7 @@ import gov.uspto.common.text.StringCaseUtil;
 import gov.uspto.parser.dom4j.Dom4JParser;
 import gov.uspto.parser.dom4j.Dom4jUtil;
 import gov.uspto.patent.InvalidDataException;
+import gov.uspto.patent.PatentSection;
 import gov.uspto.patent.doc.xml.fragments.AbstractTextNode;
 import gov.uspto.patent.doc.xml.fragments.AgentNode;
 import gov.uspto.patent.doc.xml.fragments.ApplicantNode;
@@ -57,9 +60,32 @@ public class GrantParser extends Dom4JParser {
 
     @Override
     public Patent parse(Document document) {
+        /*
+         * Formated Text
+         */
+        FormattedText textProcessor = new FormattedText();
+        Abstract abstractText = wanted(PatentSection.ABSTRACT) ? new AbstractTextNode(document, textProcessor).read() : new Abstract("", textProcessor);
+        Description description = wanted(PatentSection.DESCRIPTION) ? new DescriptionNode(document, textProcessor).read() : null;
+        List<Claim> claims = wanted(PatentSection.CLAIMS) ? new ClaimNode(document, textProcessor).read() : new ArrayList<Claim>();
 
-        String title = Dom4jUtil.getTextOrNull(document, XML_ROOT + "/us-bibliographic-data-grant/invention-title");
-        title = StringCaseUtil.toTitleCase(title);
+        return build(document, abstractText, description, claims);
+    }
+
+    /**
+     * Build Patent from the bibliographic data of the document and the already read formatted text fields.
+     *
+     * @param document - document containing at least the root element and us-bibliographic-data-grant
+     * @param abstractText
+     * @param description
+     * @param claims
+     * @return
+     */
+    Patent build(Document document, Abstract abstractText, Description description, List<Claim> claims) {
+        String title = null;
+        if (wanted(PatentSection.TITLE)) {
+            title = Dom4jUtil.getTextOrNull(document, XML_ROOT + "/us-bibliographic-data-grant/invention-title");
+            title = StringCaseUtil.toTitleCase(title);
+        }
 
         String dateProduced = Dom4jUtil.getTextOrNull(document, XML_ROOT + "/@date-produced");
         String datePublished = Dom4jUtil.getTextOrNull(document, XML_ROOT + "/@date-publ");
@@ -79,28 +105,21 @@ public class GrantParser extends Dom4JParser {
   
         DocumentId applicationId = new ApplicationIdNode(document).read();
 
-        List<DocumentId> priorityIds = new PriorityClaims(document).read();
-        List<DocumentId> pctRegionalIds = new PctRegionalIdNode(document).read();
-        DocumentId relatedId = new RelatedIdNode(document).read();
-        List<DocumentId> relationIds = new Relations(document).read();
+        List<DocumentId> priorityIds = wanted(PatentSection.RELATED_IDS) ? new PriorityClaims(document).read() : new ArrayList<DocumentId>();
+        List<DocumentId> pctRegionalIds = wanted(PatentSection.RELATED_IDS) ? new PctRegionalIdNode(document).read() : new ArrayList<DocumentId>();
+        DocumentId relatedId = wanted(PatentSection.RELATED_IDS) ? new RelatedIdNode(document).read() : null;
+        List<DocumentId> relationIds = wanted(PatentSection.RELATED_IDS) ? new Relations(document).read() : new ArrayList<DocumentId>();
 
-        List<Inventor> inventors = new InventorNode(document).read();
-        List<Applicant> applicants = new ApplicantNode(document).read();
-        List<Agent> agents = new AgentNode(document).read();
-        List<Examiner> examiners = new ExaminerNode(document).read();
-        List<Assignee> assignees = new AssigneeNode(document).read();
+        List<Inventor> inventors = wanted(PatentSection.PARTIES) ? new InventorNode(document).read() : new ArrayList<Inventor>();
+        List<Applicant> applicants = wanted(PatentSection.PARTIES) ? new ApplicantNode(document).read() : new ArrayList<Applicant>();
+        List<Agent> agents = wanted(PatentSection.PARTIES) ? new AgentNode(document).read() : new ArrayList<Agent>();
+        List<Examiner> examiners = wanted(PatentSection.PARTIES) ? new ExaminerNode(document).read() : new ArrayList<Examiner>();
+        List<Assignee> assignees = wanted(PatentSection.PARTIES) ? new AssigneeNode(document).read() : new ArrayList<Assignee>();
 
-        List<Citation> citations = new CitationNode(document).read();
-        Set<Classification> classifications = new ClassificationNode(document).read();
+        List<Citation> citations = wanted(PatentSection.CITATIONS) ? new CitationNode(document).read() : new ArrayList<Citation>();
+        Set<Classification> classifications = wanted(PatentSection.CLASSIFICATIONS) ? new ClassificationNode(document).read() : new HashSet<Classification>();
         //Set<Classification> searchClassifications = new ClassificationSearchNode(document).read(); // TODO integrate search classifications.
 
-        /*
-         * Formated Text
-         */
-        FormattedText textProcessor = new FormattedText();
-        Abstract abstractText = new AbstractTextNode(document, textProcessor).read();
-        Description description = new DescriptionNode(document, textProcessor).read();
-        List<Claim> claims = new ClaimNode(document, textProcessor).read();
         new ClaimTreeBuilder(claims).build();
 
         /*
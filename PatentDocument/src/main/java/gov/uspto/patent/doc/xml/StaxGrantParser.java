@@ -0,0 +1,551 @@
+package gov.uspto.patent.doc.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.dom4j.Document;
+import org.dom4j.DocumentException;
+import org.dom4j.DocumentFactory;
+import org.dom4j.Element;
+import org.dom4j.QName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+import gov.uspto.parser.dom4j.XmlReaders;
+import gov.uspto.patent.PatentDocReader;
+import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.PatentSection;
+import gov.uspto.patent.TextProcessor;
+import gov.uspto.patent.doc.xml.items.DescriptionFigures;
+import gov.uspto.patent.model.Abstract;
+import gov.uspto.patent.model.Claim;
+import gov.uspto.patent.model.ClaimType;
+import gov.uspto.patent.model.DescSection;
+import gov.uspto.patent.model.Description;
+import gov.uspto.patent.model.DescriptionSection;
+import gov.uspto.patent.model.Figure;
+import gov.uspto.patent.model.Patent;
+
+/**
+ * Streaming (StAX) Patent Grant Parser
+ *
+ *<p>
+ * Reads the record in a single forward pass. Only us-bibliographic-data-grant is built as a (small) dom4j tree,
+ * read by the same fragment readers as {@link GrantParser}; abstract, description sections and claims are
+ * captured directly as raw XML strings, the same strings the dom4j path produces, without ever building a tree
+ * for them. All other sections are skipped.
+ *</p>
+ */
+public class StaxGrantParser implements PatentDocReader<Patent> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StaxGrantParser.class);
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+    private static final DocumentFactory DOCUMENT_FACTORY = XmlReaders.documentFactory();
+
+    private static final String BIBLIOGRAPHIC = "us-bibliographic-data-grant";
+
+    private static final String[] REL_APP = new String[] { "cross-reference-to-related-applications", "RELAPP" };
+    private static final String[] BRIEF_SUMMARY = new String[] { "summary-of-invention", "BRFSUM" };
+    private static final String[] DRAWING_DESC = new String[] { "brief-description-of-drawings" };
+    private static final String[] DETAILED_DESC = new String[] { "detailed-description", "DETDESC" };
+
+    private Set<PatentSection> sections = PatentSection.ALL;
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * Only read the given sections; parsing stops once the bibliographic data and the wanted text sections
+     * have been read, the rest of the record is never tokenized.
+     *
+     * @param sections
+     */
+    public void setSections(Set<PatentSection> sections) {
+        Preconditions.checkNotNull(sections, "sections can not be Null");
+        this.sections = sections;
+    }
+
+    @Override
+    public Patent read(Reader reader) throws PatentReaderException, IOException {
+        return parse(reader);
+    }
+
+    public Patent parse(Reader reader) throws PatentReaderException {
+        Preconditions.checkNotNull(reader, "reader can not be Null");
+        try {
+            return parse(XML_INPUT_FACTORY.createXMLStreamReader(reader));
+        } catch (XMLStreamException e) {
+            throw new PatentReaderException("Failed to load XML", e);
+        }
+    }
+
+    /**
+     * Parse from bytes, decoded by the xml parser using the given charset.
+     *
+     * @param inputStream
+     * @param charset
+     * @return
+     * @throws PatentReaderException
+     */
+    public Patent parse(InputStream inputStream, Charset charset) throws PatentReaderException {
+        Preconditions.checkNotNull(inputStream, "inputStream can not be Null");
+        Preconditions.checkNotNull(charset, "charset can not be Null");
+        try {
+            return parse(XML_INPUT_FACTORY.createXMLStreamReader(inputStream, charset.name()));
+        } catch (XMLStreamException e) {
+            throw new PatentReaderException("Failed to load XML", e);
+        }
+    }
+
+    private Patent parse(XMLStreamReader xml) throws PatentReaderException {
+        try {
+            FormattedText textProcessor = new FormattedText();
+            Document bibDocument = DOCUMENT_FACTORY.createDocument();
+            Abstract abstractText = null;
+            Description description = null;
+            List<Claim> claims = new ArrayList<Claim>();
+
+            while (xml.hasNext() && xml.next() != XMLStreamConstants.START_ELEMENT) {
+                // move to root element.
+            }
+            if (!xml.isStartElement()) {
+                throw new PatentReaderException("Failed to load XML, missing root element");
+            }
+            Element root = createElement(xml);
+            bibDocument.setRootElement(root);
+
+            boolean wantAbstract = sections.contains(PatentSection.ABSTRACT);
+            boolean wantDescription = sections.contains(PatentSection.DESCRIPTION);
+            boolean wantClaims = sections.contains(PatentSection.CLAIMS);
+            boolean bibliographicRead = false;
+            boolean claimsRead = false;
+
+            while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                String name = xml.getLocalName();
+                if (BIBLIOGRAPHIC.equals(name)) {
+                    root.add(readElement(xml));
+                    bibliographicRead = true;
+                } else if (wantAbstract && "abstract".equals(name) && abstractText == null) {
+                    StringBuilder rawAbstract = new StringBuilder();
+                    writeElement(xml, rawAbstract, null);
+                    abstractText = new Abstract(rawAbstract.toString(), textProcessor);
+                } else if (wantDescription && "description".equals(name) && description == null) {
+                    description = readDescription(xml, textProcessor);
+                } else if (wantClaims && "claims".equals(name)) {
+                    readClaims(xml, textProcessor, claims);
+                    claimsRead = true;
+                } else {
+                    skipElement(xml);
+                }
+
+                if (bibliographicRead && (!wantAbstract || abstractText != null)
+                        && (!wantDescription || description != null) && (!wantClaims || claimsRead)) {
+                    break;
+                }
+            }
+
+            if (abstractText == null) {
+                if (wantAbstract) {
+                    LOGGER.debug("Patent does not have an Abstract.");
+                }
+                abstractText = new Abstract("", textProcessor);
+            }
+
+            if (wantDescription && description == null) {
+                LOGGER.warn("Patent does not have a Description.");
+            }
+
+            GrantParser grantParser = new GrantParser();
+            grantParser.setSections(sections);
+            return grantParser.build(bibDocument, abstractText, description, claims);
+        } catch (XMLStreamException e) {
+            throw new PatentReaderException("Failed to load XML", e);
+        } finally {
+            try {
+                xml.close();
+            } catch (XMLStreamException e) {
+                // close quietly.
+            }
+        }
+    }
+
+    private Description readDescription(XMLStreamReader xml, TextProcessor textProcessor)
+            throws XMLStreamException, PatentReaderException {
+        Map<String, Section> descSections = readSections(xml);
+
+        Description desc = new Description();
+
+        String relAppDesc = getSectionText(descSections, REL_APP);
+        if (relAppDesc != null && relAppDesc.length() > 20) {
+            desc.addSection(new DescriptionSection(DescSection.REL_APP_DESC, relAppDesc, textProcessor));
+        } else {
+            LOGGER.debug("Patent Description, missing RELAPP subsection.");
+        }
+
+        String briefSummary = getSectionText(descSections, BRIEF_SUMMARY);
+        if (briefSummary != null && briefSummary.length() > 20) {
+            desc.addSection(new DescriptionSection(DescSection.BRIEF_SUMMARY, briefSummary, textProcessor));
+        } else {
+            LOGGER.debug("Patent Description, missing BRFSUM subsection.");
+        }
+
+        String drawingDesc = getSectionText(descSections, DRAWING_DESC);
+        if (drawingDesc != null) {
+            desc.addSection(new DescriptionSection(DescSection.DRAWING_DESC, drawingDesc, textProcessor));
+            desc.addFigures(readFigures(drawingDesc));
+        } else {
+            LOGGER.debug("Patent Description, missing DRAWING_DESC subsection.");
+        }
+
+        String detailedDesc = getSectionText(descSections, DETAILED_DESC);
+        if (detailedDesc != null) {
+            desc.addSection(new DescriptionSection(DescSection.DETAILED_DESC, detailedDesc, textProcessor));
+        } else {
+            LOGGER.debug("Patent Description, missing DETDESC subsection.");
+        }
+
+        return desc;
+    }
+
+    /**
+     * Child nodes of the description between a pair of lead and tail processing instructions, matching
+     * {@link gov.uspto.patent.doc.xml.fragments.DescriptionNode#getSections(org.dom4j.Node)}: nodes only belong to a
+     * section when the processing instruction before them is its lead and the one after them is its tail.
+     */
+    private Map<String, Section> readSections(XMLStreamReader xml) throws XMLStreamException {
+        Map<String, Section> sections = new LinkedHashMap<String, Section>();
+        String openSection = null;
+        Section pending = null;
+
+        while (xml.hasNext()) {
+            int event = xml.next();
+            switch (event) {
+            case XMLStreamConstants.END_ELEMENT:
+                return sections;
+            case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                String target = xml.getPITarget();
+                String data = xml.getPIData() != null ? xml.getPIData() : "";
+                if (pending != null && target.equals(openSection) && data.contains("end=\"tail\"")) {
+                    Section section = sections.get(target);
+                    if (section == null) {
+                        sections.put(target, pending);
+                    } else {
+                        section.append(pending);
+                    }
+                }
+                pending = null;
+                openSection = null;
+                if (data.contains("end=\"lead\"")) {
+                    openSection = target;
+                    pending = new Section();
+                }
+                break;
+            case XMLStreamConstants.START_ELEMENT:
+                if (pending != null) {
+                    writeElement(xml, pending.text, null);
+                    pending.nodeCount++;
+                } else {
+                    skipElement(xml);
+                }
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.SPACE:
+            case XMLStreamConstants.CDATA:
+                if (pending != null) {
+                    pending.text.append(xml.getText());
+                    pending.nodeCount++;
+                }
+                break;
+            case XMLStreamConstants.COMMENT:
+                if (pending != null) {
+                    pending.text.append("<!--").append(xml.getText()).append("-->");
+                    pending.nodeCount++;
+                }
+                break;
+            default:
+                break;
+            }
+        }
+        return sections;
+    }
+
+    /**
+     * Same selection as {@link gov.uspto.patent.doc.xml.fragments.DescriptionNode#getSectionText}: the first name
+     * having more than one node, else the last name tried.
+     */
+    private String getSectionText(Map<String, Section> sections, String[] names) {
+        Section section = null;
+        for (String name : names) {
+            section = sections.get(name);
+            if (section != null && section.nodeCount > 1) {
+                break;
+            }
+        }
+        return section != null ? section.text.toString() : "";
+    }
+
+    /**
+     * Figures are read by {@link DescriptionFigures} from a small tree of only the drawing description section.
+     */
+    private List<Figure> readFigures(String drawingDesc) throws PatentReaderException {
+        String name = DRAWING_DESC[0];
+        StringBuilder stb = new StringBuilder();
+        stb.append("<description><?").append(name).append(" end=\"lead\"?>");
+        stb.append(drawingDesc);
+        stb.append("<?").append(name).append(" end=\"tail\"?></description>");
+        try {
+            Document document = XmlReaders.read(new StringReader(stb.toString()));
+            return new DescriptionFigures(document.getRootElement()).read();
+        } catch (DocumentException e) {
+            throw new PatentReaderException("Failed to read figures", e);
+        }
+    }
+
+    private void readClaims(XMLStreamReader xml, TextProcessor textProcessor, List<Claim> claims)
+            throws XMLStreamException {
+        while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if (!"claim".equals(xml.getLocalName())) {
+                skipElement(xml);
+                continue;
+            }
+
+            String id = xml.getAttributeValue(null, "id");
+            Set<String> dependentIds = new HashSet<String>();
+            StringBuilder rawClaim = new StringBuilder();
+            writeElement(xml, rawClaim, dependentIds);
+
+            Claim claim;
+            if (!dependentIds.isEmpty()) {
+                claim = new Claim(id, rawClaim.toString(), ClaimType.DEPENDENT, textProcessor);
+                claim.setDependentIds(dependentIds);
+            } else {
+                claim = new Claim(id, rawClaim.toString(), ClaimType.INDEPENDENT, textProcessor);
+            }
+            claims.add(claim);
+        }
+    }
+
+    /**
+     * Build dom4j Element of the current element and its children.
+     */
+    private Element readElement(XMLStreamReader xml) throws XMLStreamException {
+        Element element = createElement(xml);
+        Element current = element;
+        int depth = 1;
+        while (depth > 0) {
+            switch (xml.next()) {
+            case XMLStreamConstants.START_ELEMENT:
+                Element child = createElement(xml);
+                current.add(child);
+                current = child;
+                depth++;
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                current = current.getParent();
+                depth--;
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.SPACE:
+            case XMLStreamConstants.CDATA:
+                current.addText(xml.getText());
+                break;
+            case XMLStreamConstants.COMMENT:
+                current.addComment(xml.getText());
+                break;
+            case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                current.addProcessingInstruction(xml.getPITarget(), xml.getPIData());
+                break;
+            default:
+                break;
+            }
+        }
+        return element;
+    }
+
+    private Element createElement(XMLStreamReader xml) {
+        Element element = DOCUMENT_FACTORY.createElement(qname(xml.getPrefix(), xml.getLocalName(), xml.getNamespaceURI()));
+        for (int i = 0; i < xml.getNamespaceCount(); i++) {
+            String prefix = xml.getNamespacePrefix(i);
+            element.addNamespace(prefix != null ? prefix : "", xml.getNamespaceURI(i));
+        }
+        for (int i = 0; i < xml.getAttributeCount(); i++) {
+            element.addAttribute(qname(xml.getAttributePrefix(i), xml.getAttributeLocalName(i),
+                    xml.getAttributeNamespace(i)), xml.getAttributeValue(i));
+        }
+        return element;
+    }
+
+    private QName qname(String prefix, String localName, String namespaceURI) {
+        if (namespaceURI == null || namespaceURI.isEmpty()) {
+            return DOCUMENT_FACTORY.createQName(localName);
+        }
+        return DOCUMENT_FACTORY.createQName(localName, prefix != null ? prefix : "", namespaceURI);
+    }
+
+    /**
+     * Write current element and its children as XML, serialized as dom4j asXML() does.
+     *
+     * @param xml - positioned on START_ELEMENT, left on its END_ELEMENT
+     * @param out
+     * @param claimRefs - when not null collects the idref of claim-ref grandchild elements.
+     */
+    private void writeElement(XMLStreamReader xml, StringBuilder out, Set<String> claimRefs)
+            throws XMLStreamException {
+        int depth = 0;
+        boolean startTagOpen = false;
+        do {
+            int event = depth == 0 ? XMLStreamConstants.START_ELEMENT : xml.next();
+
+            if (startTagOpen && event != XMLStreamConstants.END_ELEMENT) {
+                out.append('>');
+                startTagOpen = false;
+            }
+
+            switch (event) {
+            case XMLStreamConstants.START_ELEMENT:
+                if (claimRefs != null && depth == 2 && "claim-ref".equals(xml.getLocalName())) {
+                    String idref = xml.getAttributeValue(null, "idref");
+                    if (idref != null) {
+                        claimRefs.add(idref);
+                    }
+                }
+                writeStartTag(xml, out);
+                startTagOpen = true;
+                depth++;
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                if (startTagOpen) {
+                    out.append("/>");
+                    startTagOpen = false;
+                } else {
+                    out.append("</").append(qualifiedName(xml.getPrefix(), xml.getLocalName())).append('>');
+                }
+                depth--;
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.SPACE:
+            case XMLStreamConstants.CDATA:
+                escapeText(xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength(), out);
+                break;
+            case XMLStreamConstants.COMMENT:
+                out.append("<!--").append(xml.getText()).append("-->");
+                break;
+            case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                out.append("<?").append(xml.getPITarget());
+                if (xml.getPIData() != null && !xml.getPIData().isEmpty()) {
+                    out.append(' ').append(xml.getPIData());
+                }
+                out.append("?>");
+                break;
+            default:
+                break;
+            }
+        } while (depth > 0);
+    }
+
+    private void writeStartTag(XMLStreamReader xml, StringBuilder out) {
+        out.append('<').append(qualifiedName(xml.getPrefix(), xml.getLocalName()));
+        for (int i = 0; i < xml.getNamespaceCount(); i++) {
+            String prefix = xml.getNamespacePrefix(i);
+            out.append(prefix == null || prefix.isEmpty() ? " xmlns" : " xmlns:" + prefix);
+            out.append("=\"").append(xml.getNamespaceURI(i)).append('"');
+        }
+        for (int i = 0; i < xml.getAttributeCount(); i++) {
+            out.append(' ').append(qualifiedName(xml.getAttributePrefix(i), xml.getAttributeLocalName(i)));
+            out.append("=\"");
+            escapeAttribute(xml.getAttributeValue(i), out);
+            out.append('"');
+        }
+    }
+
+    private static String qualifiedName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    private static void escapeText(char[] text, int start, int length, StringBuilder out) {
+        for (int i = start; i < start + length; i++) {
+            char c = text[i];
+            switch (c) {
+            case '<':
+                out.append("&lt;");
+                break;
+            case '>':
+                out.append("&gt;");
+                break;
+            case '&':
+                out.append("&amp;");
+                break;
+            default:
+                out.append(c);
+            }
+        }
+    }
+
+    private static void escapeAttribute(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '<':
+                out.append("&lt;");
+                break;
+            case '>':
+                out.append("&gt;");
+                break;
+            case '&':
+                out.append("&amp;");
+                break;
+            case '"':
+                out.append("&quot;");
+                break;
+            default:
+                out.append(c);
+            }
+        }
+    }
+
+    /**
+     * Skip current element and its children.
+     */
+    private void skipElement(XMLStreamReader xml) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static class Section {
+        private final StringBuilder text = new StringBuilder();
+        private int nodeCount;
+
+        public void append(Section other) {
+            text.append(other.text);
+            nodeCount += other.nodeCount;
+        }
+    }
+}
@@ -25,9 +25,9 @@ import gov.uspto.patent.model.entity.RelationshipType;
 public class AgentNode extends DOMFragmentReader<List<Agent>> {
     private static final Logger LOGGER = LoggerFactory.getLogger(AgentNode.class);
 
-    private static final String FRAGMENT_PATH = "//us-parties/agents/agent";
+    private static final String FRAGMENT_PATH = "/*/*/us-parties/agents/agent";
 
-    private static final String FRAGMENT_PATH2 = "//correspondence-address";
+    private static final String FRAGMENT_PATH2 = "/*/*/parties/correspondence-address";
 
     public AgentNode(Document document) {
         super(document);
@@ -52,7 +52,14 @@ public class AgentNode extends DOMFragmentReader<List<Agent>> {
             AgentRepType agentRepType = AgentRepType.valueOf(repType.trim().toUpperCase());
 
             try {
-                Agent agent = new Agent(addressBook.getPersonName(), addressBook.getAddress(), agentRepType);
+                Name name;
+                if (addressBook.getPersonName() != null) {
+                    name = addressBook.getPersonName();
+                } else {
+                    name = addressBook.getOrgName();
+                }
+
+                Agent agent = new Agent(name, addressBook.getAddress(), agentRepType);
                 agent.setSequence(sequence);
 
                 if (addressBook.getOrgName() != null) {
@@ -17,9 +17,9 @@ import gov.uspto.patent.model.entity.Name;
 public class ApplicantNode extends DOMFragmentReader<List<Applicant>>{
 	private static final Logger LOGGER = LoggerFactory.getLogger(ApplicantNode.class);
 
-	private static final String FRAGMENT_PATH = "//us-parties/us-applicants/us-applicant"; // current.
+	private static final String FRAGMENT_PATH = "/*/*/us-parties/us-applicants/us-applicant"; // current.
 	
-	private static final String FRAGMENT_PATH2 = "//parties/applicants/applicant"; // pre 2012.
+	private static final String FRAGMENT_PATH2 = "/*/*/parties/applicants/applicant"; // pre 2012.
 
 	private List<Applicant> applicantList;
 	
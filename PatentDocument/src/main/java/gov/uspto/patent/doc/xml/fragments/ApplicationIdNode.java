@@ -13,7 +13,7 @@ import gov.uspto.patent.model.DocumentIdType;
 public class ApplicationIdNode extends DOMFragmentReader<DocumentId> {
 	private static final Logger LOGGER = LoggerFactory.getLogger(ApplicationIdNode.class);
 
-	private static final String FRAGMENT_PATH = "//application-reference/document-id";
+	private static final String FRAGMENT_PATH = "/*/*/application-reference/document-id";
 
 	public ApplicationIdNode(Document document) {
 		super(document);
@@ -27,7 +27,7 @@ import gov.uspto.patent.model.classification.Classification;
  */
 public class CitationNode extends DOMFragmentReader<List<Citation>> {
 
-	private static final String FRAGMENT_PATH = "//us-references-cited|//references-cited"; // current us-patent-grants. 
+	private static final String FRAGMENT_PATH = "/*/*/us-references-cited|/*/*/references-cited"; // current us-patent-grants. 
 
 	private Node citationNode;
 
@@ -13,7 +13,7 @@ import gov.uspto.patent.doc.xml.items.ClassificationNationalNode;
 import gov.uspto.patent.model.classification.Classification;
 
 public class ClassificationSearchNode extends DOMFragmentReader<Set<Classification>> {
-		private static final String FRAGMENT_PATH = "//us-field-of-classification-search"; // Only PGPub.
+		private static final String FRAGMENT_PATH = "/*/*/us-field-of-classification-search"; // Only PGPub.
 
 		private Node parentPath;
 
@@ -1,9 +1,15 @@
 package gov.uspto.patent.doc.xml.fragments;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.dom4j.Branch;
 import org.dom4j.Document;
 import org.dom4j.Node;
+import org.dom4j.ProcessingInstruction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,7 +33,7 @@ import gov.uspto.patent.model.Figure;
 public class DescriptionNode extends DOMFragmentReader<Description> {
 	private static final Logger LOGGER = LoggerFactory.getLogger(DescriptionNode.class);
 
-	private static final String FRAGMENT_PATH = "//description";
+	private static final String FRAGMENT_PATH = "/*/description";
 
 	public DescriptionNode(Document document, TextProcessor textProcessor) {
 		super(document, textProcessor);
@@ -43,21 +49,23 @@ public class DescriptionNode extends DOMFragmentReader<Description> {
 
 		Description desc = new Description();
 
-		String relAppDesc = getSectionText(descN, new String[]{"cross-reference-to-related-applications", "RELAPP"});
+		Map<String, List<Node>> sections = getSections(descN);
+
+		String relAppDesc = getSectionText(sections, new String[]{"cross-reference-to-related-applications", "RELAPP"});
 		if (relAppDesc != null && relAppDesc.length() > 20) {
 			desc.addSection(new DescriptionSection(DescSection.REL_APP_DESC, relAppDesc, textProcessor));
 		} else {
 			LOGGER.debug("Patent Description, missing RELAPP subsection."); // if no related apps this section may not exist.
 		}
 
-		String briefSummary = getSectionText(descN, new String[]{"summary-of-invention", "BRFSUM"});
+		String briefSummary = getSectionText(sections, new String[]{"summary-of-invention", "BRFSUM"});
 		if (briefSummary != null && briefSummary.length() > 20) {
 			desc.addSection(new DescriptionSection(DescSection.BRIEF_SUMMARY, briefSummary, textProcessor));
 		} else {
 			LOGGER.debug("Patent Description, missing BRFSUM subsection.");
 		}
 
-		String drawingDesc = getSectionText(descN, new String[]{"brief-description-of-drawings"});
+		String drawingDesc = getSectionText(sections, new String[]{"brief-description-of-drawings"});
 		if (drawingDesc != null) {
 			desc.addSection(new DescriptionSection(DescSection.DRAWING_DESC, drawingDesc, textProcessor));
 
@@ -67,7 +75,7 @@ public class DescriptionNode extends DOMFragmentReader<Description> {
 			LOGGER.debug("Patent Description, missing DRAWING_DESC subsection.");
 		}
 
-		String detailedDesc = getSectionText(descN, new String[]{"detailed-description", "DETDESC"});
+		String detailedDesc = getSectionText(sections, new String[]{"detailed-description", "DETDESC"});
 		if (detailedDesc != null) {
 			desc.addSection(new DescriptionSection(DescSection.DETAILED_DESC, detailedDesc, textProcessor));
 		} else {
@@ -88,60 +96,82 @@ public class DescriptionNode extends DOMFragmentReader<Description> {
 	 *}
 	 *</pre></p> 
 	 * @param parentNode
-	 * @param name
+	 * @param names section names to try, the first having more than one node is used, else the last name tried
 	 * @return
 	 */
 	public static String getSectionText(Node parentNode, String[] names) {
+		return getSectionText(getSections(parentNode), names);
+	}
+
+	private static String getSectionText(Map<String, List<Node>> sections, String[] names) {
 		List<Node> nodeLst = null;
-		for (String name: names){
-			nodeLst = getSectionNodes(parentNode, name);
-			if (nodeLst != null && nodeLst.size() > 1){
+		for (String name : names) {
+			nodeLst = sections.get(name);
+			if (nodeLst != null && nodeLst.size() > 1) {
 				break;
 			}
 		}
 
+		StringBuilder stb = new StringBuilder();
 		if (nodeLst != null) {
-			StringBuilder stb = new StringBuilder();
 			for (Node node : nodeLst) {
 				stb.append(node.asXML());
 			}
-			return stb.toString();
 		}
-
-		return null;
+		return stb.toString();
 	}
 
-	@SuppressWarnings("unchecked")
-	public static List<Node> getSectionNodes(Node parentNode, String name){
-		return parentNode.selectNodes(getXPATHStatement(name));
+	public static List<Node> getSectionNodes(Node parentNode, String name) {
+		List<Node> nodeLst = getSections(parentNode).get(name);
+		return nodeLst != null ? nodeLst : Collections.<Node> emptyList();
 	}
 
 	/**
-	 * XPATH to select all nodes between two processing-instructions.
+	 * Child nodes of each section, in a single pass over the children of the parent node.
 	 *
-	 *<p><pre>
-	 *{@code
-	 * //node()[
-	 *   preceding-sibling::processing-instruction()[1][
-	 *      self::processing-instruction('RELAPP')
-	 *      and contains(., 'contains="lead"')
-	 *   ]
-	 *      and following-sibling::processing-instruction()[1][
-	 *      self::processing-instruction('RELAPP')
-	 *      and contains(., 'contains="tail"')
-	 *   ]
-	 * ]
-	 *}
-	 *</pre></p> 
-	 * 
-	 * @param name
-	 * @return
+	 *<p>
+	 * A node belongs to a section when the processing instruction before it is the section's lead
+	 * and the processing instruction after it is the section's tail; nodes after an unmatched lead are dropped.
+	 *</p>
+	 *
+	 * @param parentNode
+	 * @return section name to its nodes, in document order
 	 */
-	public static String getXPATHStatement(String name) {
-		String xpath = "node()[ preceding-sibling::processing-instruction()[1][self::processing-instruction('" + name
-				+ "') and contains(., 'end=\"lead\"') ] and following-sibling::processing-instruction()[1][ self::processing-instruction('"
-				+ name + "') and contains(., 'end=\"tail\"') ]]";
-		return xpath;
+	public static Map<String, List<Node>> getSections(Node parentNode) {
+		Map<String, List<Node>> sections = new LinkedHashMap<String, List<Node>>();
+		if (!(parentNode instanceof Branch)) {
+			return sections;
+		}
+
+		String openSection = null;
+		List<Node> pending = null;
+
+		for (int i = 0, count = ((Branch) parentNode).nodeCount(); i < count; i++) {
+			Node node = ((Branch) parentNode).node(i);
+			if (node.getNodeType() == Node.PROCESSING_INSTRUCTION_NODE) {
+				ProcessingInstruction pi = (ProcessingInstruction) node;
+				String target = pi.getTarget();
+				String data = pi.getText() != null ? pi.getText() : "";
+				if (pending != null && target.equals(openSection) && data.contains("end=\"tail\"")) {
+					List<Node> section = sections.get(target);
+					if (section == null) {
+						sections.put(target, pending);
+					} else {
+						section.addAll(pending);
+					}
+				}
+				pending = null;
+				openSection = null;
+				if (data.contains("end=\"lead\"")) {
+					openSection = target;
+					pending = new ArrayList<Node>();
+				}
+			} else if (pending != null) {
+				pending.add(node);
+			}
+		}
+
+		return sections;
 	}
 
 }
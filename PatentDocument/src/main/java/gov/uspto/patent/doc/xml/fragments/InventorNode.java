@@ -19,13 +19,13 @@ import gov.uspto.patent.model.entity.RelationshipType;
 public class InventorNode extends DOMFragmentReader<List<Inventor>> {
     private static final Logger LOGGER = LoggerFactory.getLogger(InventorNode.class);
 
-    private static final String FRAGMENT_PATH = "//us-parties/inventors/inventor"; // current.
+    private static final String FRAGMENT_PATH = "/*/*/us-parties/inventors/inventor"; // current.
 
-    private static final String FRAGMENT_PATH2 = "//parties/inventors/inventor"; // pre-2012.
+    private static final String FRAGMENT_PATH2 = "/*/*/parties/inventors/inventor"; // pre-2012.
 
-    private static final String FRAGMENT_PATH_APPLICANT = "//us-parties/us-applicants/us-applicant"; // current.
+    private static final String FRAGMENT_PATH_APPLICANT = "/*/*/us-parties/us-applicants/us-applicant"; // current.
 
-    private static final String FRAGMENT_PATH_APPLICANT2 = "//parties/applicants/applicant"; // pre-2012.
+    private static final String FRAGMENT_PATH_APPLICANT2 = "/*/*/parties/applicants/applicant"; // pre-2012.
 
     public InventorNode(Document document) {
         super(document);
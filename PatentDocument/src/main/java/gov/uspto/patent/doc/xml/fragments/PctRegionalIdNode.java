@@ -12,8 +12,8 @@ import gov.uspto.patent.model.DocumentId;
 import gov.uspto.patent.model.DocumentIdType;
 
 public class PctRegionalIdNode extends DOMFragmentReader<List<DocumentId>> {
-    private static final String FRAGMENT_PATH = "//pct-or-regional-filing-data/document-id";
-    private static final String FRAGMENT_PATH2 = "//pct-or-regional-publishing-data/document-id";
+    private static final String FRAGMENT_PATH = "/*/*/pct-or-regional-filing-data/document-id";
+    private static final String FRAGMENT_PATH2 = "/*/*/pct-or-regional-publishing-data/document-id";
 
     public PctRegionalIdNode(Document document) {
         super(document);
@@ -8,6 +8,7 @@ import org.dom4j.Node;
 
 import gov.uspto.parser.dom4j.DOMFragmentReader;
 import gov.uspto.patent.doc.xml.items.DocumentIdNode;
+import gov.uspto.patent.model.CountryCode;
 import gov.uspto.patent.model.DocumentId;
 import gov.uspto.patent.model.DocumentIdType;
 
@@ -22,7 +23,7 @@ import gov.uspto.patent.model.DocumentIdType;
  *
  */
 public class PriorityClaims extends DOMFragmentReader<List<DocumentId>> {
-    private static final String FRAGMENT_PATH = "//priority-claims/priority-claim";
+    private static final String FRAGMENT_PATH = "/*/*/priority-claims/priority-claim";
 
     public PriorityClaims(Document document) {
         super(document);
@@ -35,10 +36,13 @@ public class PriorityClaims extends DOMFragmentReader<List<DocumentId>> {
         List<Node> fragmentNodes = document.selectNodes(FRAGMENT_PATH);
         for (Node fragNode : fragmentNodes) {
             if (fragNode != null) {
-                DocumentId documentId = new DocumentIdNode(fragNode).read();
-                // attribute "kind" (national | regional | international )
-                documentId.setType(DocumentIdType.REGIONAL_FILING);
-                priorityDocIds.add(documentId);
+                // priority-claim holds the document id fields, it has no document-id element.
+                DocumentId documentId = new DocumentIdNode(fragNode, "priority-claim", CountryCode.US).read();
+                if (documentId != null) {
+                    // attribute "kind" (national | regional | international )
+                    documentId.setType(DocumentIdType.REGIONAL_FILING);
+                    priorityDocIds.add(documentId);
+                }
             }
         }
         
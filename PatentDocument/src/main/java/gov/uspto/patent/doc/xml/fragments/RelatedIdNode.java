@@ -9,7 +9,7 @@ import gov.uspto.patent.model.DocumentId;
 import gov.uspto.patent.model.DocumentIdType;
 
 public class RelatedIdNode extends DOMFragmentReader<DocumentId> {
-	private static final String FRAGMENT_PATH = "//related-publication/document-id";
+	private static final String FRAGMENT_PATH = "/*/*/us-related-documents/related-publication/document-id";
 
 	public RelatedIdNode(Document document) {
 		super(document);
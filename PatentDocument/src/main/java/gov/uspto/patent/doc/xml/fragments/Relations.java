@@ -21,17 +21,17 @@ import gov.uspto.patent.model.DocumentIdType;
 public class Relations extends DOMFragmentReader<List<DocumentId>> {
 	// us-divisional-reissue/us-relation
 
-	private static final String ADDITION = "//addition/relation";
-	private static final String CONTINUATION = "//continuation/relation";
-	private static final String CONTINUATION_IN_PART = "//continuation-in-part/relation";
-	private static final String CONTINUATION_REISSUE = "//continuing-reissue/relation";
-	private static final String DIVISION = "//division/relation";
+	private static final String ADDITION = "/*/*/us-related-documents/addition/relation";
+	private static final String CONTINUATION = "/*/*/us-related-documents/continuation/relation";
+	private static final String CONTINUATION_IN_PART = "/*/*/us-related-documents/continuation-in-part/relation";
+	private static final String CONTINUATION_REISSUE = "/*/*/us-related-documents/continuing-reissue/relation";
+	private static final String DIVISION = "/*/*/us-related-documents/division/relation";
 	
-	private static final String REEXAMINATION = "//reexamination/relation";
-	private static final String REISSUE = "//reissue/relation";
-	private static final String SUBSITUTION = "//substitution/relation";
-	private static final String USREEX = "//us-reexamination-reissue-merger/relation";
-	private static final String UTILITY_MODEL = "//utility-model-basis/relation";
+	private static final String REEXAMINATION = "/*/*/us-related-documents/reexamination/relation";
+	private static final String REISSUE = "/*/*/us-related-documents/reissue/relation";
+	private static final String SUBSITUTION = "/*/*/us-related-documents/substitution/relation";
+	private static final String USREEX = "/*/*/us-related-documents/us-reexamination-reissue-merger/relation";
+	private static final String UTILITY_MODEL = "/*/*/us-related-documents/utility-model-basis/relation";
 
 	private List<DocumentId> docIds;
 	
@@ -57,12 +57,8 @@ public class ClassificationCpcNode extends ItemReader<Classification> {
 			String mainGroup = cpcN.selectSingleNode("main-group").getText();
 			String subgroup = cpcN.selectSingleNode("subgroup").getText();
 
-			CpcClassification cpcClass = new CpcClassification(null);
-			cpcClass.setSection(section);
-			cpcClass.setMainClass(mainClass);
-			cpcClass.setSubClass(subclass);
-			cpcClass.setMainGroup(mainGroup);
-			cpcClass.setSubGroup(subgroup);
+			CpcClassification cpcClass = CpcClassification.fromParts(null, section, mainClass, subclass, mainGroup,
+					subgroup);
 
 			LOGGER.trace("{}", cpcClass);
 			
@@ -24,7 +24,18 @@ public class DocumentIdNode extends ItemReader<DocumentId> {
 	}
 
 	public DocumentIdNode(Node itemNode, CountryCode fallbackCountryCode) {
-		super(itemNode, ITEM_NODE_NAME);
+		this(itemNode, ITEM_NODE_NAME, fallbackCountryCode);
+	}
+
+	/**
+	 * Read the document id fields from an element other than document-id, such as priority-claim.
+	 * 
+	 * @param itemNode
+	 * @param itemNodeName name of the element holding doc-number, country, kind and date
+	 * @param fallbackCountryCode
+	 */
+	public DocumentIdNode(Node itemNode, String itemNodeName, CountryCode fallbackCountryCode) {
+		super(itemNode, itemNodeName);
 		this.fallbackCountryCode = fallbackCountryCode;
 	}
 
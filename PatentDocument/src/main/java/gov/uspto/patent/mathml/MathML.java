@@ -13,11 +13,11 @@ import org.dom4j.Document;
 import org.dom4j.DocumentException;
 import org.dom4j.Element;
 import org.dom4j.Node;
-import org.dom4j.io.SAXReader;
 import org.xml.sax.SAXException;
 
 import com.google.common.base.Joiner;
 
+import gov.uspto.parser.dom4j.XmlReaders;
 import gov.uspto.patent.PatentReaderException;
 
 /**
@@ -210,9 +210,7 @@ public class MathML {
     }
 
     public static MathML read(Reader reader) throws SAXException, DocumentException{        
-        SAXReader sax = new SAXReader(false);
-        sax.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-        Document document = sax.read(reader);
+        Document document = XmlReaders.read(reader);
 
         return new MathML(document.getRootElement());
     }
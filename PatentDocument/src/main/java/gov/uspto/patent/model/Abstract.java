@@ -15,6 +15,7 @@ public class Abstract extends FreetextField {
 	@Override
 	public void setRawText(String fieldRawText) {
 		this.rawText = fieldRawText;
+		invalidate();
 	}
 	
 	public String getRawText() {
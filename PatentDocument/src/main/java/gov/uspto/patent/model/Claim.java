@@ -90,6 +90,7 @@ public class Claim extends FreetextField {
     @Override
     public void setRawText(String fieldRawText) {
         this.rawText = fieldRawText;
+        invalidate();
     }
 
     @Override
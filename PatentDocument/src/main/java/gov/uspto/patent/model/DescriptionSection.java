@@ -21,6 +21,7 @@ public class DescriptionSection extends FreetextField {
 	@Override
 	public void setRawText(String fieldRawText) {
 		this.rawText = fieldRawText;
+		invalidate();
 	}
 
 	@Override
@@ -157,7 +157,7 @@ public abstract class Classification implements Comparable<Classification> {
 	}
 
 	public static List<? extends Classification> getByType(Collection<? extends Classification> classes, ClassificationType type) {
-		List<Classification> retClasses = new LinkedList<Classification>();
+		List<Classification> retClasses = new ArrayList<Classification>();
 
 		for (Classification pclass : classes) {
 			if (pclass != null && pclass.getType() == type) {
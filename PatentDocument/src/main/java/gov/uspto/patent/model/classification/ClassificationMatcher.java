@@ -0,0 +1,234 @@
+package gov.uspto.patent.model.classification;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Prefix trie over wanted classification symbols, matches a classification at or below any wanted classification.
+ *
+ *<p>
+ * CPC and IPC symbols are indexed by their parts (section, class, subclass, main group, subgroup), USPC by main class
+ * and subclass; each type has its own trie. A lookup walks the parts of the classification once, so its cost
+ * depends on the depth of the classification and not on the number of wanted classifications.
+ *</p>
+ *
+ *<p>
+ * A wanted CPC or IPC main group, subgroup "00", matches all subgroups of the main group.
+ *</p>
+ *
+ *<pre>
+ * {@code
+ * ClassificationMatcher matcher = new ClassificationMatcher();
+ * matcher.add(CpcClassification.fromText("H04N21/00"));
+ * matcher.add(UspcClassification.fromText("725/38"));
+ * Classification wanted = matcher.match(patent.getClassification());
+ * }
+ *</pre>
+ */
+public class ClassificationMatcher {
+
+	public static final int DEPTH_SECTION = 1;
+	public static final int DEPTH_CLASS = 2;
+	public static final int DEPTH_SUBCLASS = 3;
+	public static final int DEPTH_MAINGROUP = 4;
+	public static final int DEPTH_SUBGROUP = 5;
+
+	private static class Node {
+		private Map<String, Node> children;
+		private Classification wanted;
+
+		public Node child(String part) {
+			return children != null ? children.get(part) : null;
+		}
+
+		public Node addChild(String part) {
+			if (children == null) {
+				children = new HashMap<String, Node>();
+			}
+			Node child = children.get(part);
+			if (child == null) {
+				child = new Node();
+				children.put(part, child);
+			}
+			return child;
+		}
+	}
+
+	private final Map<ClassificationType, Node> roots = new EnumMap<ClassificationType, Node>(ClassificationType.class);
+	private int size;
+
+	/**
+	 * Add a wanted classification, matching itself and all classifications below it.
+	 *
+	 * @param wanted CPC, IPC or USPC classification
+	 * @return
+	 */
+	public ClassificationMatcher add(Classification wanted) {
+		return add(wanted, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Add a wanted classification, only using its parts up to the given depth; a USPC classification
+	 * has main class depth 1 and subclass depth 2.
+	 *
+	 * @param wanted CPC, IPC or USPC classification
+	 * @param depth depth, for CPC and IPC 1 (section) to 5 (subgroup)
+	 * @return
+	 */
+	public ClassificationMatcher add(Classification wanted, int depth) {
+		Preconditions.checkNotNull(wanted, "Classification can not be Null");
+		Preconditions.checkArgument(depth > 0, "depth must be greater than 0");
+
+		Node root = roots.get(wanted.getType());
+		if (root == null) {
+			root = new Node();
+			roots.put(wanted.getType(), root);
+		}
+
+		switch (wanted.getType()) {
+		case CPC:
+			CpcClassification cpc = (CpcClassification) wanted;
+			addPath(root, wanted, depth, cpc.getSection(), cpc.getMainClass(), cpc.getSubClass(), cpc.getMainGroup(),
+					groupPart(cpc.getSubGroup()));
+			break;
+		case IPC:
+			IpcClassification ipc = (IpcClassification) wanted;
+			addPath(root, wanted, depth, ipc.getSection(), ipc.getMainClass(), ipc.getSubClass(), ipc.getMainGroup(),
+					groupPart(ipc.getSubGroup()));
+			break;
+		case USPC:
+			UspcClassification uspc = (UspcClassification) wanted;
+			if (depth == 1 || uspc.getSubClass().isEmpty()) {
+				addPath(root, wanted, depth, uspc.getMainClass());
+			} else {
+				for (String subClass : uspc.getSubClass()) {
+					addPath(root, wanted, depth, uspc.getMainClass(), subClass);
+				}
+			}
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported ClassificationType: " + wanted.getType());
+		}
+
+		return this;
+	}
+
+	/**
+	 * Subgroup "00" denotes the main group itself.
+	 */
+	private static String groupPart(String subGroup) {
+		if (subGroup != null && subGroup.matches("0+")) {
+			return null;
+		}
+		return subGroup;
+	}
+
+	private void addPath(Node root, Classification wanted, int depth, String... parts) {
+		Node node = root;
+		for (int i = 0; i < parts.length && i < depth; i++) {
+			if (parts[i] == null || parts[i].isEmpty()) {
+				break;
+			}
+			node = node.addChild(parts[i]);
+		}
+		Preconditions.checkArgument(node != root, "Classification has no parts: " + wanted.getText());
+		if (node.wanted == null) {
+			node.wanted = wanted;
+			size++;
+		}
+	}
+
+	/**
+	 * @param candidate
+	 * @return the wanted classification at or above the candidate, null when none.
+	 */
+	public Classification match(Classification candidate) {
+		if (candidate == null) {
+			return null;
+		}
+
+		Node root = roots.get(candidate.getType());
+		if (root == null) {
+			return null;
+		}
+
+		switch (candidate.getType()) {
+		case CPC:
+			CpcClassification cpc = (CpcClassification) candidate;
+			return matchPath(root, cpc.getSection(), cpc.getMainClass(), cpc.getSubClass(), cpc.getMainGroup(),
+					cpc.getSubGroup());
+		case IPC:
+			IpcClassification ipc = (IpcClassification) candidate;
+			return matchPath(root, ipc.getSection(), ipc.getMainClass(), ipc.getSubClass(), ipc.getMainGroup(),
+					ipc.getSubGroup());
+		case USPC:
+			UspcClassification uspc = (UspcClassification) candidate;
+			Node mainClassNode = root.child(uspc.getMainClass());
+			if (mainClassNode == null) {
+				return null;
+			}
+			if (mainClassNode.wanted != null) {
+				return mainClassNode.wanted;
+			}
+			for (String subClass : uspc.getSubClass()) {
+				Node subClassNode = mainClassNode.child(subClass);
+				if (subClassNode != null && subClassNode.wanted != null) {
+					return subClassNode.wanted;
+				}
+			}
+			return null;
+		default:
+			return null;
+		}
+	}
+
+	private Classification matchPath(Node root, String... parts) {
+		Node node = root;
+		for (String part : parts) {
+			if (part == null) {
+				return null;
+			}
+			node = node.child(part);
+			if (node == null) {
+				return null;
+			}
+			if (node.wanted != null) {
+				return node.wanted;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param candidates
+	 * @return the wanted classification matched by the first matching candidate, null when none.
+	 */
+	public Classification match(Collection<? extends Classification> candidates) {
+		for (Classification candidate : candidates) {
+			Classification wanted = match(candidate);
+			if (wanted != null) {
+				return wanted;
+			}
+		}
+		return null;
+	}
+
+	public boolean matches(Collection<? extends Classification> candidates) {
+		return match(candidates) != null;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return number of distinct wanted classifications
+	 */
+	public int size() {
+		return size;
+	}
+}
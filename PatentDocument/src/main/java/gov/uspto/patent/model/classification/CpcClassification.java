@@ -2,7 +2,6 @@ package gov.uspto.patent.model.classification;
 
 import java.text.ParseException;
 import java.util.ArrayList;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.regex.Matcher;
@@ -52,17 +51,18 @@ import java.util.regex.Pattern;
  *<h3>Create Classification by its individual parts:</h3>
  *<pre>
  * {@code
- * CpcClassification cpc = new CpcClassification(originalText);
- * cpc.setSection(section);
- * cpc.setMainClass(mainClass);
- * cpc.setSubClass(subClass);
- * cpc.setMainGroup(mainGroup);
- * cpc.setSubGroup(subGroup);
+ * CpcClassification cpc = CpcClassification.fromParts(originalText, section, mainClass, subClass, mainGroup, subGroup);
  * cpc.setIsMainClassification(true);
  * }
  *</pre>
  *</p> 
  *
+ *<p>
+ * The symbol parts and the strings derived from them are held by a {@link CpcSymbol}, canonical and shared by all
+ * classifications of the same symbol when built by fromText or fromParts; each classification only holds its
+ * original text, main flag and children.
+ *</p>
+ *
  * @author Brian G. Feldman (brian.feldman@uspto.gov)
  *
  * @see http://www.cooperativepatentclassification.org/index.html
@@ -75,89 +75,91 @@ public class CpcClassification extends Classification {
 
 	private final static Pattern REGEX_LEN4 = Pattern.compile("^([A-HY])(\\d\\d)([A-Z])$");
 
-	private String section;
-	private String mainClass;
-	private String subClass;
-	private String mainGroup;
-	private String subGroup;
+	private CpcSymbol symbol = CpcSymbol.EMPTY;
 	private Boolean isMainClassification = false;
 
 	public CpcClassification(String originalText) {
 		super(ClassificationType.CPC, originalText);
 	}
 
+	public CpcClassification(String originalText, CpcSymbol symbol) {
+		super(ClassificationType.CPC, originalText);
+		this.symbol = symbol;
+	}
+
+	/**
+	 * Create Classification from its individual parts, sharing the canonical {@link CpcSymbol} of the parts.
+	 */
+	public static CpcClassification fromParts(String originalText, String section, String mainClass, String subClass,
+			String mainGroup, String subGroup) {
+		return new CpcClassification(originalText, CpcSymbol.of(section, mainClass, subClass, mainGroup, subGroup));
+	}
+
+	/**
+	 * Symbol of the classification; canonical unless changed by the setters or without a code.
+	 */
+	public CpcSymbol getSymbol() {
+		return symbol;
+	}
+
 	public String getSection() {
-		return section;
+		return symbol.getSection();
 	}
 
 	public void setSection(String section) {
-		this.section = section;
+		this.symbol = symbol.withSection(section);
 	}
 
 	public String getMainClass() {
-		return mainClass;
+		return symbol.getMainClass();
 	}
 
 	public void setMainClass(String mainClass) {
-		this.mainClass = mainClass;
+		this.symbol = symbol.withMainClass(mainClass);
 	}
 
 	public String getSubClass() {
-		return subClass;
+		return symbol.getSubClass();
 	}
 
 	public void setSubClass(String subClass) {
-		this.subClass = subClass;
+		this.symbol = symbol.withSubClass(subClass);
 	}
 
 	public String getMainGroup() {
-		return mainGroup;
+		return symbol.getMainGroup();
 	}
 
 	public void setMainGroup(String mainGroup) {
-		this.mainGroup = mainGroup;
+		this.symbol = symbol.withMainGroup(mainGroup);
 	}
 
 	public String getSubGroup() {
-		return subGroup;
+		return symbol.getSubGroup();
 	}
 
 	public void setSubGroup(String subGroup) {
-		this.subGroup = subGroup;
+		this.symbol = symbol.withSubGroup(subGroup);
 	}
 
 	/**
-	 * Facets used for Search
+	 * Facets used for Search; unmodifiable, built once for each symbol.
 	 * 
 	 * D07B2201/2051 => [0/D, 1/D/D07, 2/D/D07/D07B, 3/D/D07/D07B/D07B2201, 4/D/D07/D07B/D07B2201/D07B22012051]
 	 * 
 	 */
 	public List<String> toFacet() {
-		return Classification.partsToFacet(section, mainClass, subClass, mainGroup, subGroup);
+		return symbol.toFacet();
 	}
 
 	/**
-	 * Classification Tree, permutation of all classification parts.
+	 * Classification Tree, permutation of all classification parts; unmodifiable, built once for each symbol.
 	 * 
 	 * D07B2201/2051 => ["D", "D07", "D07B", "D07B2201/00", "D07B2201/2051"] 
 	 * 
 	 */
 	public Set<String> getClassTree() {
-		Set<String> cpcClasses = new LinkedHashSet<String>();
-		cpcClasses.add(section);
-		cpcClasses.add(section + mainClass);
-		cpcClasses.add(section + mainClass + subClass);
-
-		if (mainGroup != null) {
-			//cpcClasses.add(section + mainClass + subClass + mainGroup);
-			cpcClasses.add(section + mainClass + subClass + mainGroup + "/00");
-
-			if (subGroup != null) {
-				cpcClasses.add(section + mainClass + subClass + mainGroup + "/" + subGroup);
-			}
-		}
-
-		return cpcClasses;
+		return symbol.getClassTree();
 	}
 
 	/**
@@ -167,21 +169,7 @@ public class CpcClassification extends Classification {
 	 * 
 	 */
 	public String toTextNormalized() {
-		StringBuilder sb = new StringBuilder().append(section).append(mainClass);
-
-		if (subClass != null) {
-			sb.append(subClass);
-
-			if (mainGroup != null) {
-				sb.append(" ").append(mainGroup);
-
-				if (subGroup != null) {
-					sb.append("/").append(subGroup);
-				}
-			}
-		}
-
-		return sb.toString();
+		return symbol.toTextNormalized();
 	}
 
 	/**
@@ -191,19 +179,7 @@ public class CpcClassification extends Classification {
 	 * 
 	 */
 	public String standardize() {
-
-		StringBuilder sb = new StringBuilder().append(section).append(mainClass).append(subClass).append("0");
-
-		if (Integer.valueOf(mainGroup) < 10) {
-			sb.append("0");
-		}
-
-		sb.append(mainGroup).append(subGroup);
-
-		String changed = sb.toString();
-		changed = String.format("%1$-9s", changed);
-
-		return changed;
+		return symbol.standardize();
 	}
 
 	/**
@@ -228,6 +204,11 @@ public class CpcClassification extends Classification {
 	 * 
 	 */
 	public int getDepth(){
+		String section = getSection();
+		String mainClass = getMainClass();
+		String subClass = getSubClass();
+		String mainGroup = getMainGroup();
+		String subGroup = getSubGroup();
 		int classDepth = 0;
 		if (subGroup != null && !subGroup.isEmpty()){
 			classDepth = 5;
@@ -251,6 +232,11 @@ public class CpcClassification extends Classification {
 		if (cpc == null) {
 			return false;
 		}
+		String section = getSection();
+		String mainClass = getMainClass();
+		String subClass = getSubClass();
+		String mainGroup = getMainGroup();
+		String subGroup = getSubGroup();
 		int depth = getDepth();
 		if (depth == 5){
 			if (section.equals(cpc.getSection()) 
@@ -309,9 +295,9 @@ public class CpcClassification extends Classification {
 
 	@Override
 	public String toString() {
-		return "CpcClassification [section=" + section + ", mainClass=" + mainClass + ", subClass=" + subClass
-				+ ", mainGroup=" + mainGroup + ", subGroup=" + subGroup + ", isMainClassification="
-				+ isMainClassification + ", toTextNormalized()=" + toTextNormalized() + ", standardize()="
+		return "CpcClassification [section=" + getSection() + ", mainClass=" + getMainClass() + ", subClass="
+				+ getSubClass() + ", mainGroup=" + getMainGroup() + ", subGroup=" + getSubGroup()
+				+ ", isMainClassification=" + isMainClassification + ", toTextNormalized()=" + toTextNormalized() + ", standardize()="
 				+ standardize() + ", toText()=" + toText() + ", originalText()=" + super.getText() + "]";
 	}
 
@@ -375,24 +361,13 @@ public class CpcClassification extends Classification {
 			String mainGroup = matcher.group(4);
 			String subGroup = matcher.group(5);
 
-			CpcClassification classification = new CpcClassification(classificationStr);
-			classification.setSection(section);
-			classification.setMainClass(mainClass);
-			classification.setSubClass(subClass);
-			classification.setMainGroup(mainGroup);
-			classification.setSubGroup(subGroup);
-
-			return classification;
+			return fromParts(classificationStr, section, mainClass, subClass, mainGroup, subGroup);
 		} else if (classificationStr.length() == 3) {
 			Matcher matchL3 = REGEX_LEN3.matcher(classificationStr);
 			if (matchL3.matches()) {
 				String section = matchL3.group(1);
 				String mainClass = matchL3.group(2);
-				CpcClassification classification = new CpcClassification(classificationStr);
-				classification.setSection(section);
-				classification.setMainClass(mainClass);
-
-				return classification;
+				return fromParts(classificationStr, section, mainClass, null, null, null);
 			}
 		} else if (classificationStr.length() == 4) {
 			Matcher matchL4 = REGEX_LEN4.matcher(classificationStr);
@@ -401,12 +376,7 @@ public class CpcClassification extends Classification {
 				String mainClass = matchL4.group(2);
 				String subClass = matchL4.group(3);
 
-				CpcClassification classification = new CpcClassification(classificationStr);
-				classification.setSection(section);
-				classification.setMainClass(mainClass);
-				classification.setSubClass(subClass);
-
-				return classification;
+				return fromParts(classificationStr, section, mainClass, subClass, null, null);
 			}
 		}
 
@@ -0,0 +1,370 @@
+package gov.uspto.patent.model.classification;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Immutable CPC symbol, canonical for symbols with a code.
+ *
+ *<p>
+ * Holds the parts of a symbol (section, class, subclass, main group, subgroup) and the strings derived from them,
+ * built once for each symbol on first use and shared by every {@link CpcClassification} of the symbol. Symbols
+ * with a code, from {@link #of} and {@link #fromCode}, are interned for the life of the JVM, one for each distinct
+ * code seen. Symbols without a code and symbols changed through the with methods are not interned; they are
+ * equal to the canonical symbol of their parts, and the same instance only when that one is already interned.
+ *</p>
+ *
+ *<p>
+ * Symbols of the usual form are packed into a long code: section (4 bits), class (7 bits), subclass (5 bits),
+ * main group digits and their count (17 bits), subgroup digits and their count (23 bits); a missing part is zero.
+ * Symbols which do not fit have no code, {@link #NO_CODE}.
+ *</p>
+ *
+ *<pre>
+ * {@code
+ * CpcSymbol symbol = CpcSymbol.of("D", "07", "B", "2201", "2051");
+ * symbol == CpcSymbol.fromCode(symbol.getCode());
+ * }
+ *</pre>
+ */
+public final class CpcSymbol {
+
+	public static final long NO_CODE = -1;
+
+	private static final String SECTIONS = "ABCDEFGHY";
+
+	private static final ConcurrentMap<Long, CpcSymbol> BY_CODE = new ConcurrentHashMap<Long, CpcSymbol>(1 << 16);
+
+	public static final CpcSymbol EMPTY = of(null, null, null, null, null);
+
+	private final String section;
+	private final String mainClass;
+	private final String subClass;
+	private final String mainGroup;
+	private final String subGroup;
+	private final long code;
+
+	private volatile List<String> facets;
+	private volatile Set<String> classTree;
+	private volatile String normalized;
+	private volatile String standardized;
+
+	private CpcSymbol(String section, String mainClass, String subClass, String mainGroup, String subGroup,
+			long code) {
+		this.section = section;
+		this.mainClass = mainClass;
+		this.subClass = subClass;
+		this.mainGroup = mainGroup;
+		this.subGroup = subGroup;
+		this.code = code;
+	}
+
+	/**
+	 * Canonical symbol of the parts, or a new uninterned symbol when the parts have no code; parts may be null.
+	 */
+	public static CpcSymbol of(String section, String mainClass, String subClass, String mainGroup,
+			String subGroup) {
+		long code = pack(section, mainClass, subClass, mainGroup, subGroup);
+		if (code != NO_CODE) {
+			CpcSymbol symbol = BY_CODE.get(code);
+			if (symbol == null) {
+				symbol = new CpcSymbol(section, mainClass, subClass, mainGroup, subGroup, code);
+				CpcSymbol existing = BY_CODE.putIfAbsent(code, symbol);
+				if (existing != null) {
+					symbol = existing;
+				}
+			}
+			return symbol;
+		}
+		return new CpcSymbol(section, mainClass, subClass, mainGroup, subGroup, NO_CODE);
+	}
+
+	/**
+	 * Symbol of the parts, not interned; for symbols changed a part at a time.
+	 */
+	private static CpcSymbol create(String section, String mainClass, String subClass, String mainGroup,
+			String subGroup) {
+		long code = pack(section, mainClass, subClass, mainGroup, subGroup);
+		if (code != NO_CODE) {
+			CpcSymbol symbol = BY_CODE.get(code);
+			if (symbol != null) {
+				return symbol;
+			}
+		}
+		return new CpcSymbol(section, mainClass, subClass, mainGroup, subGroup, code);
+	}
+
+	/**
+	 * Symbol of a code from {@link #getCode()}.
+	 *
+	 * @param code
+	 * @return symbol, null when the code is not valid.
+	 */
+	public static CpcSymbol fromCode(long code) {
+		CpcSymbol symbol = BY_CODE.get(code);
+		if (symbol != null || code < 0) {
+			return symbol;
+		}
+
+		int sectionIdx = (int) (code >>> 52) & 0xF;
+		int mainClassVal = (int) (code >>> 45) & 0x7F;
+		int subClassVal = (int) (code >>> 40) & 0x1F;
+		int mainGroupLen = (int) (code >>> 37) & 0x7;
+		int mainGroupVal = (int) (code >>> 23) & 0x3FFF;
+		int subGroupLen = (int) (code >>> 20) & 0x7;
+		int subGroupVal = (int) code & 0xFFFFF;
+		if (sectionIdx > SECTIONS.length() || mainClassVal > 100 || subClassVal > 26) {
+			return null;
+		}
+
+		String section = sectionIdx == 0 ? null : String.valueOf(SECTIONS.charAt(sectionIdx - 1));
+		String mainClass = mainClassVal == 0 ? null : digits(mainClassVal - 1, 2);
+		String subClass = subClassVal == 0 ? null : String.valueOf((char) ('A' + subClassVal - 1));
+		String mainGroup = mainGroupLen == 0 ? null : digits(mainGroupVal, mainGroupLen);
+		String subGroup = subGroupLen == 0 ? null : digits(subGroupVal, subGroupLen);
+		if (mainGroup == null && mainGroupVal != 0 || subGroup == null && subGroupVal != 0) {
+			return null;
+		}
+
+		CpcSymbol decoded = of(section, mainClass, subClass, mainGroup, subGroup);
+		return decoded.code == code ? decoded : null;
+	}
+
+	private static String digits(int value, int length) {
+		StringBuilder sb = new StringBuilder(length).append(value);
+		while (sb.length() < length) {
+			sb.insert(0, '0');
+		}
+		return sb.toString();
+	}
+
+	private static long pack(String section, String mainClass, String subClass, String mainGroup, String subGroup) {
+		long code = 0;
+
+		if (section != null) {
+			int idx = section.length() == 1 ? SECTIONS.indexOf(section.charAt(0)) : -1;
+			if (idx < 0) {
+				return NO_CODE;
+			}
+			code |= (long) (idx + 1) << 52;
+		}
+
+		if (mainClass != null) {
+			int value = mainClass.length() == 2 ? digitsValue(mainClass) : -1;
+			if (value < 0) {
+				return NO_CODE;
+			}
+			code |= (long) (value + 1) << 45;
+		}
+
+		if (subClass != null) {
+			char letter = subClass.length() == 1 ? subClass.charAt(0) : 0;
+			if (letter < 'A' || letter > 'Z') {
+				return NO_CODE;
+			}
+			code |= (long) (letter - 'A' + 1) << 40;
+		}
+
+		if (mainGroup != null) {
+			int value = mainGroup.length() >= 1 && mainGroup.length() <= 4 ? digitsValue(mainGroup) : -1;
+			if (value < 0) {
+				return NO_CODE;
+			}
+			code |= (long) mainGroup.length() << 37 | (long) value << 23;
+		}
+
+		if (subGroup != null) {
+			int value = subGroup.length() >= 1 && subGroup.length() <= 6 ? digitsValue(subGroup) : -1;
+			if (value < 0) {
+				return NO_CODE;
+			}
+			code |= (long) subGroup.length() << 20 | value;
+		}
+
+		return code;
+	}
+
+	private static int digitsValue(String digits) {
+		int value = 0;
+		for (int i = 0; i < digits.length(); i++) {
+			char c = digits.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+
+	public String getSection() {
+		return section;
+	}
+
+	public String getMainClass() {
+		return mainClass;
+	}
+
+	public String getSubClass() {
+		return subClass;
+	}
+
+	public String getMainGroup() {
+		return mainGroup;
+	}
+
+	public String getSubGroup() {
+		return subGroup;
+	}
+
+	/**
+	 * @return packed code, or NO_CODE
+	 */
+	public long getCode() {
+		return code;
+	}
+
+	public CpcSymbol withSection(String section) {
+		return create(section, mainClass, subClass, mainGroup, subGroup);
+	}
+
+	public CpcSymbol withMainClass(String mainClass) {
+		return create(section, mainClass, subClass, mainGroup, subGroup);
+	}
+
+	public CpcSymbol withSubClass(String subClass) {
+		return create(section, mainClass, subClass, mainGroup, subGroup);
+	}
+
+	public CpcSymbol withMainGroup(String mainGroup) {
+		return create(section, mainClass, subClass, mainGroup, subGroup);
+	}
+
+	public CpcSymbol withSubGroup(String subGroup) {
+		return create(section, mainClass, subClass, mainGroup, subGroup);
+	}
+
+	/**
+	 * Facets, unmodifiable.
+	 *
+	 * D07B2201/2051 => [0/D, 1/D/D07, 2/D/D07/D07B, 3/D/D07/D07B/D07B2201, 4/D/D07/D07B/D07B2201/D07B22012051]
+	 */
+	public List<String> toFacet() {
+		List<String> result = facets;
+		if (result == null) {
+			result = Collections.unmodifiableList(
+					Classification.partsToFacet(section, mainClass, subClass, mainGroup, subGroup));
+			facets = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Classification Tree, unmodifiable.
+	 *
+	 * D07B2201/2051 => ["D", "D07", "D07B", "D07B2201/00", "D07B2201/2051"]
+	 */
+	public Set<String> getClassTree() {
+		Set<String> result = classTree;
+		if (result == null) {
+			Set<String> cpcClasses = new LinkedHashSet<String>();
+			cpcClasses.add(section);
+			cpcClasses.add(section + mainClass);
+			cpcClasses.add(section + mainClass + subClass);
+
+			if (mainGroup != null) {
+				cpcClasses.add(section + mainClass + subClass + mainGroup + "/00");
+
+				if (subGroup != null) {
+					cpcClasses.add(section + mainClass + subClass + mainGroup + "/" + subGroup);
+				}
+			}
+
+			result = Collections.unmodifiableSet(cpcClasses);
+			classTree = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Text Representation normalized.
+	 *
+	 * "D07B2201/2051" => "D07B 2201/2051"
+	 */
+	public String toTextNormalized() {
+		String result = normalized;
+		if (result == null) {
+			StringBuilder sb = new StringBuilder().append(section).append(mainClass);
+
+			if (subClass != null) {
+				sb.append(subClass);
+
+				if (mainGroup != null) {
+					sb.append(" ").append(mainGroup);
+
+					if (subGroup != null) {
+						sb.append("/").append(subGroup);
+					}
+				}
+			}
+
+			result = sb.toString();
+			normalized = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Text Representation Standardized; padded with zeros.
+	 *
+	 * "D07B2201/2051" => "D07B022012051"
+	 */
+	public String standardize() {
+		String result = standardized;
+		if (result == null) {
+			StringBuilder sb = new StringBuilder().append(section).append(mainClass).append(subClass).append("0");
+
+			if (Integer.valueOf(mainGroup) < 10) {
+				sb.append("0");
+			}
+
+			sb.append(mainGroup).append(subGroup);
+
+			while (sb.length() < 9) {
+				sb.append(' ');
+			}
+
+			result = sb.toString();
+			standardized = result;
+		}
+		return result;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(section, mainClass, subClass, mainGroup, subGroup);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CpcSymbol)) {
+			return false;
+		}
+		CpcSymbol other = (CpcSymbol) obj;
+		return code == other.code && Objects.equals(section, other.section)
+				&& Objects.equals(mainClass, other.mainClass) && Objects.equals(subClass, other.subClass)
+				&& Objects.equals(mainGroup, other.mainGroup) && Objects.equals(subGroup, other.subGroup);
+	}
+
+	@Override
+	public String toString() {
+		return "CpcSymbol [" + toTextNormalized() + ", code=" + code + "]";
+	}
+}
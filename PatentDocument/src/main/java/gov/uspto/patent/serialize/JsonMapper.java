@@ -1,22 +1,16 @@
 package gov.uspto.patent.serialize;
 
 import java.io.IOException;
+import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import javax.json.Json;
-import javax.json.JsonArray;
-import javax.json.JsonArrayBuilder;
 import javax.json.JsonObject;
-import javax.json.JsonObjectBuilder;
+import javax.json.JsonReader;
 import javax.json.JsonWriter;
-import javax.json.JsonWriterFactory;
 import javax.json.stream.JsonGenerator;
 
 import gov.uspto.patent.DateTextType;
@@ -63,66 +57,69 @@ public class JsonMapper implements DocumentBuilder<Patent> {
         this.base64 = base64;
     }
 
+    /**
+     * Stream the Patent as Json to the writer, without building a JsonObject first.
+     */
     @Override
     public void write(Patent patent, Writer writer) throws IOException {
-        JsonObject json = buildJson(patent);
-        if (pretty) {
-            writer.write(getPrettyPrint(json));
-        } else if (base64) {
-            writer.write(base64(json.toString()));
-        } else {
-            writer.write(json.toString());
-        }
+        JsonGenerator generator = JsonOutput.createGenerator(writer, pretty, base64);
+        generator.writeStartObject();
+        writeFields(patent, generator);
+        generator.writeEnd();
+        generator.close();
     }
 
     public JsonObject buildJson(Patent patent) {
-        JsonObjectBuilder builder = Json.createObjectBuilder();
+        StringWriter writer = new StringWriter();
+        JsonGenerator generator = JsonOutput.createGenerator(writer, false, false);
+        generator.writeStartObject();
+        writeFields(patent, generator);
+        generator.writeEnd();
+        generator.close();
+
+        try (JsonReader reader = Json.createReader(new StringReader(writer.toString()))) {
+            return reader.readObject();
+        }
+    }
 
-        builder.add("patentCorpus", patent.getPatentCorpus().toString());
-        builder.add("patentType", patent.getPatentType().toString());
+    private void writeFields(Patent patent, JsonGenerator generator) {
+        generator.write("patentCorpus", patent.getPatentCorpus().toString());
+        generator.write("patentType", patent.getPatentType().toString());
 
-        builder.add("productionDate", mapDate(patent.getDateProduced()));
-        builder.add("publishedDate", mapDate(patent.getDatePublished()));
+        writeDate("productionDate", patent.getDateProduced(), generator);
+        writeDate("publishedDate", patent.getDatePublished(), generator);
 
-        builder.add("documentId", patent.getDocumentId().toText()); // Patent ID or Public Application ID.
-        builder.add("documentDate", mapDate(patent.getDocumentDate()));
+        generator.write("documentId", patent.getDocumentId().toText()); // Patent ID or Public Application ID.
+        writeDate("documentDate", patent.getDocumentDate(), generator);
 
-        builder.add("applicationId", patent.getApplicationId() != null ? patent.getApplicationId().toText() : "");
-        builder.add("applicationDate", mapDate(patent.getApplicationDate()));
+        generator.write("applicationId", patent.getApplicationId() != null ? patent.getApplicationId().toText() : "");
+        writeDate("applicationDate", patent.getApplicationDate(), generator);
 
-        builder.add("relatedIds", mapDocIds(patent.getRelationIds()));
+        writeDocIds("relatedIds", patent.getRelationIds(), generator);
 
         // OtherIds contain [documentId, applicationId, relatedIds]
-        builder.add("otherIds", mapDocIds(patent.getOtherIds()));
-
-        builder.add("agent", mapAgent(patent.getAgent()));
-        builder.add("applicant", mapApplicant(patent.getApplicants()));
-        builder.add("inventors", mapInventors(patent.getInventors()));
-        builder.add("assignees", mapAssignees(patent.getAssignee()));
-        builder.add("examiners", mapExaminers(patent.getExaminers()));
+        writeDocIds("otherIds", patent.getOtherIds(), generator);
 
-        builder.add("title", valueOrEmpty(patent.getTitle()));
+        writeAgent(patent.getAgent(), generator);
+        writeApplicant(patent.getApplicants(), generator);
+        writeInventors(patent.getInventors(), generator);
+        writeAssignees(patent.getAssignee(), generator);
+        writeExaminers(patent.getExaminers(), generator);
 
-        builder.add("abstract", mapAbstract(patent.getAbstract()));
+        generator.write("title", valueOrEmpty(patent.getTitle()));
 
-        builder.add("description", mapDescription(patent.getDescription()));
-        builder.add("claims", mapClaims(patent.getClaims()));
-        builder.add("citations", mapCitations(patent.getCitations()));
+        writeAbstract(patent.getAbstract(), generator);
 
-        builder.add("classification", mapClassifications(patent.getClassification()));
+        writeDescription(patent.getDescription(), generator);
+        writeClaims(patent.getClaims(), generator);
+        writeCitations(patent.getCitations(), generator);
 
-        return builder.build();
+        writeClassifications(patent.getClassification(), generator);
     }
 
-    
     public String getPrettyPrint(JsonObject jsonObject) throws IOException {
-        Map<String, Boolean> config = new HashMap<String, Boolean>();
-        config.put(JsonGenerator.PRETTY_PRINTING, true);
-
-        JsonWriterFactory writerFactory = Json.createWriterFactory(config);
-
         String output = null;
-        try (StringWriter sw = new StringWriter(); JsonWriter jsonWriter = writerFactory.createWriter(sw)) {
+        try (StringWriter sw = new StringWriter(); JsonWriter jsonWriter = JsonOutput.PRETTY_WRITER_FACTORY.createWriter(sw)) {
             jsonWriter.writeObject(jsonObject);
             output = sw.toString();
         }
@@ -130,86 +127,90 @@ public class JsonMapper implements DocumentBuilder<Patent> {
         return output;
     }
 
-    private JsonObject mapClassifications(Collection<? extends Classification> classes) {
-        JsonObjectBuilder builder = Json.createObjectBuilder();
+    private void writeClassifications(Collection<? extends Classification> classes, JsonGenerator generator) {
+        generator.writeStartObject("classification");
 
         @SuppressWarnings("unchecked")
         List<IpcClassification> ipcClasses = (List<IpcClassification>) Classification.getByType(classes,
                 ClassificationType.IPC);
-        JsonArrayBuilder ipcAr = Json.createArrayBuilder();
+        generator.writeStartArray("ipc");
         for (IpcClassification claz : ipcClasses) {
-            JsonObjectBuilder ipcObj = Json.createObjectBuilder();
-            ipcObj.add("type", "main");
-            ipcObj.add("raw", claz.toText());
-            ipcObj.add("normalized", claz.toTextNormalized());
-            ipcObj.add("facets", toJsonArray(claz.toFacet()));
-            ipcAr.add(ipcObj.build());
-
-            JsonObjectBuilder ipcObj2 = Json.createObjectBuilder();
-            for (Classification furtherClassification : claz.getChildren()) {
-                IpcClassification furtherIpc = (IpcClassification) furtherClassification;
-                ipcObj2.add("type", "further");
-                ipcObj2.add("raw", furtherIpc.toText());
-                ipcObj2.add("normalized", furtherIpc.toTextNormalized());
-                ipcObj2.add("facets", toJsonArray(furtherIpc.toFacet()));
+            generator.writeStartObject();
+            writeClassification("main", claz.toText(), claz.toTextNormalized(), claz.toFacet(), generator);
+            generator.writeEnd();
+
+            generator.writeStartObject();
+            IpcClassification furtherIpc = (IpcClassification) lastFurther(claz);
+            if (furtherIpc != null) {
+                writeClassification("further", furtherIpc.toText(), furtherIpc.toTextNormalized(),
+                        furtherIpc.toFacet(), generator);
             }
-            ipcAr.add(ipcObj2.build());
+            generator.writeEnd();
         }
-        builder.add("ipc", ipcAr.build());
+        generator.writeEnd();
 
         @SuppressWarnings("unchecked")
         List<UspcClassification> uspcClasses = (List<UspcClassification>) Classification.getByType(classes,
                 ClassificationType.USPC);
-        JsonArrayBuilder uspcAr = Json.createArrayBuilder();
+        generator.writeStartArray("uspc");
         for (UspcClassification claz : uspcClasses) {
-            JsonObjectBuilder uspcObj = Json.createObjectBuilder();
-            uspcObj.add("type", "main");
-            uspcObj.add("raw", claz.toText());
-            uspcObj.add("normalized", claz.toTextNormalized());
-            uspcObj.add("facets", toJsonArray(claz.toFacet()));
-            uspcAr.add(uspcObj.build());
-
-            JsonObjectBuilder uspcObj2 = Json.createObjectBuilder();
-            for (Classification furtherClassification : claz.getChildren()) {
-                UspcClassification furtherIpc = (UspcClassification) furtherClassification;
-                uspcObj2.add("type", "further");
-                uspcObj2.add("raw", furtherIpc.toText());
-                uspcObj2.add("normalized", furtherIpc.toTextNormalized());
-                uspcObj2.add("facets", toJsonArray(furtherIpc.toFacet()));
+            generator.writeStartObject();
+            writeClassification("main", claz.toText(), claz.toTextNormalized(), claz.toFacet(), generator);
+            generator.writeEnd();
+
+            generator.writeStartObject();
+            UspcClassification furtherUspc = (UspcClassification) lastFurther(claz);
+            if (furtherUspc != null) {
+                writeClassification("further", furtherUspc.toText(), furtherUspc.toTextNormalized(),
+                        furtherUspc.toFacet(), generator);
             }
-            uspcAr.add(uspcObj2.build());
+            generator.writeEnd();
         }
-        builder.add("uspc", uspcAr.build());
+        generator.writeEnd();
 
         @SuppressWarnings("unchecked")
         List<CpcClassification> cpcClasses = (List<CpcClassification>) Classification.getByType(classes,
                 ClassificationType.CPC);
-        JsonArrayBuilder cpcAr = Json.createArrayBuilder();
+        generator.writeStartArray("cpc");
         for (CpcClassification claz : cpcClasses) {
-            JsonObjectBuilder cpcObj = Json.createObjectBuilder();
-            cpcObj.add("type", "main");
-            cpcObj.add("raw", claz.toText());
-            cpcObj.add("normalized", claz.toTextNormalized());
-            cpcObj.add("facets", toJsonArray(claz.toFacet()));
-            cpcAr.add(cpcObj.build());
-
-            JsonObjectBuilder cpcObj2 = Json.createObjectBuilder();
-            for (Classification furtherClassification : claz.getChildren()) {
-                CpcClassification furtherIpc = (CpcClassification) furtherClassification;
-                cpcObj2.add("type", "further");
-                cpcObj2.add("raw", furtherIpc.toText());
-                cpcObj2.add("normalized", furtherIpc.toTextNormalized());
-                cpcObj2.add("facets", toJsonArray(furtherIpc.toFacet()));
+            generator.writeStartObject();
+            writeClassification("main", claz.toText(), claz.toTextNormalized(), claz.toFacet(), generator);
+            generator.writeEnd();
+
+            generator.writeStartObject();
+            CpcClassification furtherCpc = (CpcClassification) lastFurther(claz);
+            if (furtherCpc != null) {
+                writeClassification("further", furtherCpc.toText(), furtherCpc.toTextNormalized(),
+                        furtherCpc.toFacet(), generator);
             }
-            cpcAr.add(cpcObj2.build());
+            generator.writeEnd();
         }
-        builder.add("cpc", cpcAr.build());
+        generator.writeEnd();
+
+        generator.writeEnd();
+    }
+
+    private void writeClassification(String type, String raw, String normalized, Collection<String> facets,
+            JsonGenerator generator) {
+        generator.write("type", type);
+        generator.write("raw", raw);
+        generator.write("normalized", normalized);
+        writeArray("facets", facets, generator);
+    }
 
-        return builder.build();
+    /**
+     * The further classification object holds a single classification, the last one.
+     */
+    private Classification lastFurther(Classification classification) {
+        Classification further = null;
+        for (Classification furtherClassification : classification.getChildren()) {
+            further = furtherClassification;
+        }
+        return further;
     }
 
     /**
-     * JsonObjects can not set a null value so return empty string.
+     * Json can not set a null value so return empty string.
      * 
      * @param value
      * @return
@@ -230,266 +231,234 @@ public class JsonMapper implements DocumentBuilder<Patent> {
         }
     }
 
-    private JsonObject mapDate(DocumentDate date) {
-        JsonObjectBuilder builder = Json.createObjectBuilder();
+    private void writeDate(String fieldName, DocumentDate date, JsonGenerator generator) {
+        generator.writeStartObject(fieldName);
         if (date != null) {
-            builder.add("raw", date.getDateText(DateTextType.RAW));
-            builder.add("iso", date.getDateText(DateTextType.ISO));
+            generator.write("raw", date.getDateText(DateTextType.RAW));
+            generator.write("iso", date.getDateText(DateTextType.ISO));
         } else {
-            builder.add("raw", "");
-            builder.add("iso", "");
+            generator.write("raw", "");
+            generator.write("iso", "");
         }
-        return builder.build();
+        generator.writeEnd();
     }
 
-    private JsonObject mapAbstract(Abstract abstractObj) {
-        JsonObjectBuilder jsonObj = Json.createObjectBuilder();
-        
-        if (abstractObj != null){
-            jsonObj.add("raw", abstractObj.getRawText());
-            jsonObj.add("normalized", abstractObj.getSimpleHtml());
-            jsonObj.add("plain", abstractObj.getPlainText());
+    private void writeAbstract(Abstract abstractObj, JsonGenerator generator) {
+        generator.writeStartObject("abstract");
+        if (abstractObj != null) {
+            generator.write("raw", abstractObj.getRawText());
+            generator.write("normalized", abstractObj.getSimpleHtml());
+            generator.write("plain", abstractObj.getPlainText());
+        } else {
+            generator.write("raw", "");
+            generator.write("normalized", "");
+            generator.write("plain", "");
         }
-        else {
-            jsonObj.add("raw", "");
-            jsonObj.add("normalized", "");
-            jsonObj.add("plain", "");            
+        generator.writeEnd();
+    }
+
+    private void writeDescription(Description patentDescription, JsonGenerator generator) {
+        generator.writeStartObject("description");
+        if (patentDescription == null) {
+            // not read, such as when excluded by the PatentSection projection.
+            patentDescription = new Description();
         }
+        generator.write("full_raw", patentDescription.getAllRawText());
 
-        return jsonObj.build();
-    }
-    
-    private JsonObject mapDescription(Description patentDescription) {
-        JsonObjectBuilder jsonObj = Json.createObjectBuilder();
-        jsonObj.add("full_raw", patentDescription.getAllRawText());
-
-        jsonObj.add(DescSection.REL_APP_DESC.toString(),
-                mapDescriptionSection(patentDescription.getSection(DescSection.REL_APP_DESC)));
-        jsonObj.add(DescSection.DRAWING_DESC.toString(),
-                mapDescriptionSection(patentDescription.getSection(DescSection.DRAWING_DESC)));
-        jsonObj.add(DescSection.BRIEF_SUMMARY.toString(),
-                mapDescriptionSection(patentDescription.getSection(DescSection.BRIEF_SUMMARY)));
-        jsonObj.add(DescSection.DETAILED_DESC.toString(),
-                mapDescriptionSection(patentDescription.getSection(DescSection.DETAILED_DESC)));
-
-        return jsonObj.build();
+        writeDescriptionSection(DescSection.REL_APP_DESC, patentDescription, generator);
+        writeDescriptionSection(DescSection.DRAWING_DESC, patentDescription, generator);
+        writeDescriptionSection(DescSection.BRIEF_SUMMARY, patentDescription, generator);
+        writeDescriptionSection(DescSection.DETAILED_DESC, patentDescription, generator);
+
+        generator.writeEnd();
     }
 
-    private JsonObject mapDescriptionSection(DescriptionSection section) {
-        JsonObjectBuilder jsonObj = Json.createObjectBuilder();
+    private void writeDescriptionSection(DescSection descSection, Description patentDescription,
+            JsonGenerator generator) {
+        DescriptionSection section = patentDescription.getSection(descSection);
+        generator.writeStartObject(descSection.toString());
         if (section != null) {
-            jsonObj.add("raw", section.getRawText());
-            jsonObj.add("normalized", section.getSimpleHtml());
-            jsonObj.add("plain", section.getPlainText());
+            generator.write("raw", section.getRawText());
+            generator.write("normalized", section.getSimpleHtml());
+            generator.write("plain", section.getPlainText());
         }
-        return jsonObj.build();
+        generator.writeEnd();
     }
 
-    private JsonArray mapAgent(Collection<Agent> agents) {
-        JsonArrayBuilder arBldr = Json.createArrayBuilder();
-
+    private void writeAgent(Collection<Agent> agents, JsonGenerator generator) {
+        generator.writeStartArray("agent");
         for (Agent agent : agents) {
-            JsonObjectBuilder jsonObj = Json.createObjectBuilder();
-            jsonObj.add("name", mapName(agent.getName()));
-            jsonObj.add("address", mapAddress(agent.getAddress()));
-            arBldr.add(jsonObj);
+            generator.writeStartObject();
+            writeName(agent.getName(), generator);
+            writeAddress(agent.getAddress(), generator);
+            generator.writeEnd();
         }
-
-        return arBldr.build();
+        generator.writeEnd();
     }
 
-    private JsonArray mapApplicant(Collection<Applicant> applicants) {
-        JsonArrayBuilder arBldr = Json.createArrayBuilder();
-
+    private void writeApplicant(Collection<Applicant> applicants, JsonGenerator generator) {
+        generator.writeStartArray("applicant");
         for (Applicant applicant : applicants) {
-            JsonObjectBuilder jsonObj = Json.createObjectBuilder();
-            jsonObj.add("name", mapName(applicant.getName()));
-            jsonObj.add("address", mapAddress(applicant.getAddress()));
-            arBldr.add(jsonObj);
+            generator.writeStartObject();
+            writeName(applicant.getName(), generator);
+            writeAddress(applicant.getAddress(), generator);
+            generator.writeEnd();
         }
-
-        return arBldr.build();
+        generator.writeEnd();
     }
 
-    private JsonArray mapAssignees(Collection<Assignee> assignees) {
-        JsonArrayBuilder arBldr = Json.createArrayBuilder();
-
+    private void writeAssignees(Collection<Assignee> assignees, JsonGenerator generator) {
+        generator.writeStartArray("assignees");
         for (Assignee assignee : assignees) {
-            JsonObjectBuilder jsonObj = Json.createObjectBuilder();
-            jsonObj.add("name", mapName(assignee.getName()));
-            jsonObj.add("address", mapAddress(assignee.getAddress()));
-            jsonObj.add("role", valueOrEmpty(assignee.getRole()));
-            jsonObj.add("roleDefinition", valueOrEmpty(assignee.getRoleDesc()));
-            arBldr.add(jsonObj);
+            generator.writeStartObject();
+            writeName(assignee.getName(), generator);
+            writeAddress(assignee.getAddress(), generator);
+            generator.write("role", valueOrEmpty(assignee.getRole()));
+            generator.write("roleDefinition", valueOrEmpty(assignee.getRoleDesc()));
+            generator.writeEnd();
         }
-
-        return arBldr.build();
+        generator.writeEnd();
     }
 
-    private JsonArray mapInventors(Collection<Inventor> inventors) {
-        JsonArrayBuilder arBldr = Json.createArrayBuilder();
-
+    private void writeInventors(Collection<Inventor> inventors, JsonGenerator generator) {
+        generator.writeStartArray("inventors");
         for (Inventor inventor : inventors) {
-            JsonObjectBuilder jsonObj = Json.createObjectBuilder();
-            jsonObj.add("sequence", valueOrEmpty(inventor.getSequence()));
-            jsonObj.add("name", mapName(inventor.getName()));
-            jsonObj.add("address", mapAddress(inventor.getAddress()));
-            jsonObj.add("residency", valueOrEmpty(inventor.getResidency()));
-            jsonObj.add("nationality", valueOrEmpty(inventor.getNationality()));
-            arBldr.add(jsonObj);
+            generator.writeStartObject();
+            generator.write("sequence", valueOrEmpty(inventor.getSequence()));
+            writeName(inventor.getName(), generator);
+            writeAddress(inventor.getAddress(), generator);
+            generator.write("residency", valueOrEmpty(inventor.getResidency()));
+            generator.write("nationality", valueOrEmpty(inventor.getNationality()));
+            generator.writeEnd();
         }
-
-        return arBldr.build();
+        generator.writeEnd();
     }
 
-    private JsonArray mapExaminers(Collection<Examiner> examiners) {
-        JsonArrayBuilder arBldr = Json.createArrayBuilder();
-
+    private void writeExaminers(Collection<Examiner> examiners, JsonGenerator generator) {
+        generator.writeStartArray("examiners");
         for (Examiner examiner : examiners) {
-            JsonObjectBuilder jsonObj = Json.createObjectBuilder();
-            jsonObj.add("name", valueOrEmpty(examiner.getName().getName()));
-            jsonObj.add("type", valueOrEmpty(examiner.getExaminerType().toString()));
-            jsonObj.add("department", valueOrEmpty(examiner.getDepartment()));
-            arBldr.add(jsonObj);
+            generator.writeStartObject();
+            generator.write("name", valueOrEmpty(examiner.getName().getName()));
+            generator.write("type", valueOrEmpty(examiner.getExaminerType().toString()));
+            generator.write("department", valueOrEmpty(examiner.getDepartment()));
+            generator.writeEnd();
         }
-
-        return arBldr.build();
+        generator.writeEnd();
     }
 
-    private JsonObject mapName(Name name) {
-        JsonObjectBuilder jsonObj = Json.createObjectBuilder();
+    private void writeName(Name name, JsonGenerator generator) {
+        generator.writeStartObject("name");
         if (name instanceof NamePerson) {
             NamePerson perName = (NamePerson) name;
-            jsonObj.add("type", "person");
-            jsonObj.add("raw", valueOrEmpty(name.getName()));
-            jsonObj.add("prefix", valueOrEmpty(perName.getPrefix()));
-            jsonObj.add("firstName", valueOrEmpty(perName.getFirstName()));
-            jsonObj.add("middleName", valueOrEmpty(perName.getMiddleName()));
-            jsonObj.add("lastName", valueOrEmpty(perName.getLastName()));
-            jsonObj.add("suffix", valueOrEmpty(perName.getPrefix()));
-            jsonObj.add("abbreviated", valueOrEmpty(perName.getAbbreviatedName()));
-            jsonObj.add("synonyms", toJsonArray(perName.getSynonyms()));
+            generator.write("type", "person");
+            generator.write("raw", valueOrEmpty(name.getName()));
+            generator.write("prefix", valueOrEmpty(perName.getPrefix()));
+            generator.write("firstName", valueOrEmpty(perName.getFirstName()));
+            generator.write("middleName", valueOrEmpty(perName.getMiddleName()));
+            generator.write("lastName", valueOrEmpty(perName.getLastName()));
+            generator.write("suffix", valueOrEmpty(perName.getPrefix()));
+            generator.write("abbreviated", valueOrEmpty(perName.getAbbreviatedName()));
+            writeArray("synonyms", perName.getSynonyms(), generator);
         } else {
             NameOrg orgName = (NameOrg) name;
-            jsonObj.add("type", "org");
-            jsonObj.add("raw", valueOrEmpty(name.getName()));
-            jsonObj.add("suffix", valueOrEmpty(orgName.getSuffix()));
-            jsonObj.add("synonyms", toJsonArray(orgName.getSynonyms()));
+            generator.write("type", "org");
+            generator.write("raw", valueOrEmpty(name.getName()));
+            generator.write("suffix", valueOrEmpty(orgName.getSuffix()));
+            writeArray("synonyms", orgName.getSynonyms(), generator);
         }
-        return jsonObj.build();
+        generator.writeEnd();
     }
 
-    private JsonObject mapAddress(Address address) {
-        JsonObjectBuilder jsonObj = Json.createObjectBuilder();
+    private void writeAddress(Address address, JsonGenerator generator) {
+        generator.writeStartObject("address");
         if (address != null) {
-            jsonObj.add("street", valueOrEmpty(address.getStreet()));
-            jsonObj.add("city", valueOrEmpty(address.getCity()));
-            jsonObj.add("state", valueOrEmpty(address.getState()));
-            jsonObj.add("zipCode", valueOrEmpty(address.getZipCode()));
-            jsonObj.add("country", valueOrEmpty(address.getCountry()));
-            jsonObj.add("email", valueOrEmpty(address.getEmail()));
-            jsonObj.add("fax", valueOrEmpty(address.getFaxNumber()));
-            jsonObj.add("phone", valueOrEmpty(address.getPhoneNumber()));
-            //jsonObj.add("tokens", mapStringCollection(address.getTokenSet()));
-        }
-        return jsonObj.build();
-    }
-
-    private JsonArray toJsonArray(Collection<String> strings) {
-        JsonArrayBuilder arBldr = Json.createArrayBuilder();
-        if (strings != null) {
-            for (String tok : strings) {
-                arBldr.add(tok);
-            }
-        }
-        return arBldr.build();
-    }
-
-    private JsonArray toJsonArray(Collection<String> strings, JsonArray jsonArray) {
-        JsonArrayBuilder arBldr = Json.createArrayBuilder();
-        for (int i = 0; i > jsonArray.size(); i++) {
-            arBldr.add(jsonArray.get(i));
+            generator.write("street", valueOrEmpty(address.getStreet()));
+            generator.write("city", valueOrEmpty(address.getCity()));
+            generator.write("state", valueOrEmpty(address.getState()));
+            generator.write("zipCode", valueOrEmpty(address.getZipCode()));
+            generator.write("country", valueOrEmpty(address.getCountry()));
+            generator.write("email", valueOrEmpty(address.getEmail()));
+            generator.write("fax", valueOrEmpty(address.getFaxNumber()));
+            generator.write("phone", valueOrEmpty(address.getPhoneNumber()));
+            //generator.write("tokens", mapStringCollection(address.getTokenSet()));
         }
-        if (strings != null) {
-            for (String tok : strings) {
-                arBldr.add(tok);
-            }
-        }
-        return arBldr.build();
+        generator.writeEnd();
     }
 
-    private JsonArray toJsonArray(String... strings) {
-        JsonArrayBuilder arBldr = Json.createArrayBuilder();
+    private void writeArray(String fieldName, Collection<String> strings, JsonGenerator generator) {
+        generator.writeStartArray(fieldName);
         if (strings != null) {
             for (String tok : strings) {
-                arBldr.add(tok);
+                generator.write(tok);
             }
         }
-        return arBldr.build();
+        generator.writeEnd();
     }
 
-    private JsonArray mapDocIds(Collection<DocumentId> docIds) {
-        JsonArrayBuilder arBldr = Json.createArrayBuilder();
+    private void writeDocIds(String fieldName, Collection<DocumentId> docIds, JsonGenerator generator) {
+        generator.writeStartArray(fieldName);
         if (docIds != null) {
             for (DocumentId docId : docIds) {
                 if (docId != null) {
-                    arBldr.add(docId.toText());
+                    generator.write(docId.toText());
                 }
             }
         }
-        return arBldr.build();
+        generator.writeEnd();
     }
 
-    private JsonArray mapClaims(Collection<Claim> claimList) {
-        JsonArrayBuilder arBldr = Json.createArrayBuilder();
-
+    private void writeClaims(Collection<Claim> claimList, JsonGenerator generator) {
+        generator.writeStartArray("claims");
         for (Claim claim : claimList) {
-
-            JsonArrayBuilder childArBldr = Json.createArrayBuilder();
+            generator.writeStartObject();
+            generator.write("id", claim.getId());
+            generator.write("type", claim.getClaimType().toString());
+            generator.write("raw", claim.getRawText());
+            generator.write("normalized", claim.getSimpleHtml());
+            generator.write("plain", claim.getPlainText());
+
+            generator.writeStartObject("claimTree");
+            writeArray("parentIds", claim.getDependentIds(), generator);
+            generator.write("parentCount", claim.getDependentIds() != null ? claim.getDependentIds().size() : 0);
+            generator.writeStartArray("childIds");
             for (Claim childClaim : claim.getChildClaims()) {
-                childArBldr.add(childClaim.getId());
+                generator.write(childClaim.getId());
             }
-            JsonArray childClaimJsonAr = childArBldr.build();
-
-            JsonObjectBuilder claimTreeJson = Json.createObjectBuilder()
-                    .add("parentIds", toJsonArray(claim.getDependentIds()))
-                    .add("parentCount", claim.getDependentIds() != null ? claim.getDependentIds().size() : 0)
-                    .add("childIds", childClaimJsonAr)
-                    .add("childCount", claim.getChildClaims() != null ? claim.getChildClaims().size() : 0)
-                    .add("claimTreelevel", claim.getClaimTreeLevel());
-
-            arBldr.add(Json.createObjectBuilder().add("id", claim.getId()).add("type", claim.getClaimType().toString())
-                    .add("raw", claim.getRawText()).add("normalized", claim.getSimpleHtml())
-                    .add("plain", claim.getPlainText()).add("claimTree", claimTreeJson));
-        }
+            generator.writeEnd();
+            generator.write("childCount", claim.getChildClaims() != null ? claim.getChildClaims().size() : 0);
+            generator.write("claimTreelevel", claim.getClaimTreeLevel());
+            generator.writeEnd();
 
-        return arBldr.build();
+            generator.writeEnd();
+        }
+        generator.writeEnd();
     }
 
-    private JsonArray mapCitations(Collection<Citation> CitationList) {
-        JsonArrayBuilder arBldr = Json.createArrayBuilder();
-
+    private void writeCitations(Collection<Citation> CitationList, JsonGenerator generator) {
+        generator.writeStartArray("citations");
         for (Citation cite : CitationList) {
-
             if (cite.getCitType() == CitationType.NPLCIT) {
                 NplCitation nplCite = (NplCitation) cite;
-
-                arBldr.add(Json.createObjectBuilder().add("num", nplCite.getNum()).add("type", "NPL")
-                        .add("citedBy", nplCite.getCitType().toString()).add("examinerCited", nplCite.isExaminerCited())
-                        .add("text", nplCite.getCiteText()).add("quotedText", nplCite.getQuotedText()));
+                generator.writeStartObject();
+                generator.write("num", nplCite.getNum());
+                generator.write("type", "NPL");
+                generator.write("citedBy", nplCite.getCitType().toString());
+                generator.write("examinerCited", nplCite.isExaminerCited());
+                generator.write("text", nplCite.getCiteText());
+                generator.write("quotedText", nplCite.getQuotedText());
+                generator.writeEnd();
             } else if (cite.getCitType() == CitationType.PATCIT) {
                 PatCitation patCite = (PatCitation) cite;
-                arBldr.add(Json.createObjectBuilder().add("num", patCite.getNum()).add("type", "PATENT")
-                        .add("citedBy", patCite.getCitType().toString()).add("examinerCited", patCite.isExaminerCited())
-                        .add("text", patCite.getDocumentId().toText()));
+                generator.writeStartObject();
+                generator.write("num", patCite.getNum());
+                generator.write("type", "PATENT");
+                generator.write("citedBy", patCite.getCitType().toString());
+                generator.write("examinerCited", patCite.isExaminerCited());
+                generator.write("text", patCite.getDocumentId().toText());
+                generator.writeEnd();
             }
         }
-
-        return arBldr.build();
-    }
-
-    private String base64(String string) {
-        return Base64.getEncoder().encodeToString(string.getBytes(StandardCharsets.UTF_8));
+        generator.writeEnd();
     }
 
     /**
@@ -1,26 +1,21 @@
 package gov.uspto.patent.serialize;
 
 import java.io.IOException;
+import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
 import javax.json.Json;
-import javax.json.JsonArray;
-import javax.json.JsonArrayBuilder;
 import javax.json.JsonObject;
-import javax.json.JsonObjectBuilder;
+import javax.json.JsonReader;
 import javax.json.JsonWriter;
-import javax.json.JsonWriterFactory;
 import javax.json.stream.JsonGenerator;
 
 import org.apache.commons.lang3.text.WordUtils;
@@ -32,6 +27,7 @@ import gov.uspto.patent.model.Citation;
 import gov.uspto.patent.model.CitationType;
 import gov.uspto.patent.model.Claim;
 import gov.uspto.patent.model.DescSection;
+import gov.uspto.patent.model.Description;
 import gov.uspto.patent.model.DescriptionSection;
 import gov.uspto.patent.model.DocumentDate;
 import gov.uspto.patent.model.DocumentId;
@@ -68,129 +64,126 @@ public class JsonMapperFlat implements DocumentBuilder<Patent> {
         this.base64 = base64;
     }
 
+    /**
+     * Stream the Patent as Json to the writer, without building a JsonObject first.
+     */
     @Override
     public void write(Patent patent, Writer writer) throws IOException {
-        JsonObject json = buildJson(patent);
-        if (pretty) {
-            writer.write(getPrettyPrint(json));
-        } else if (base64) {
-            writer.write(base64(json.toString()));
-        } else {
-            writer.write(json.toString());
-        }
+        JsonGenerator generator = JsonOutput.createGenerator(writer, pretty, base64);
+        generator.writeStartObject();
+        writeFields(patent, generator);
+        generator.writeEnd();
+        generator.close();
     }
 
     public JsonObject buildJson(Patent patent) {
-        JsonObjectBuilder builder = Json.createObjectBuilder();
-
-        builder.add("patentCorpus", patent.getPatentCorpus().toString());
-        builder.add("patentType", patent.getPatentType().toString());
-
-        if (patent.getDateProduced() != null) {
-            builder.add("productionDateRaw", patent.getDateProduced().getDateText(DateTextType.RAW));
-            builder.add("productionDateIso", patent.getDateProduced().getDateText(DateTextType.ISO));
+        StringWriter writer = new StringWriter();
+        JsonGenerator generator = JsonOutput.createGenerator(writer, false, false);
+        generator.writeStartObject();
+        writeFields(patent, generator);
+        generator.writeEnd();
+        generator.close();
+
+        try (JsonReader reader = Json.createReader(new StringReader(writer.toString()))) {
+            return reader.readObject();
         }
+    }
 
-        if (patent.getDatePublished() != null) {
-            builder.add("publishedDateRaw", patent.getDatePublished().getDateText(DateTextType.RAW));
-            builder.add("publishedDateIso", patent.getDatePublished().getDateText(DateTextType.ISO));
-        }
+    private void writeFields(Patent patent, JsonGenerator generator) {
+        generator.write("patentCorpus", patent.getPatentCorpus().toString());
+        generator.write("patentType", patent.getPatentType().toString());
 
-        builder.add("documentId", patent.getDocumentId().toText()); // Patent ID or Public Application ID.
-        if (patent.getDocumentDate() != null) {
-            builder.add("documentDateRaw", patent.getDocumentDate().getDateText(DateTextType.RAW));
-            builder.add("documentDateIso", patent.getDocumentDate().getDateText(DateTextType.ISO));
-        }
+        writeDate("productionDate", patent.getDateProduced(), generator);
+        writeDate("publishedDate", patent.getDatePublished(), generator);
 
-        builder.add("applicationId", patent.getApplicationId() != null ? patent.getApplicationId().toText() : "");
-        if (patent.getApplicationDate() != null) {
-            builder.add("applicationDateRaw", patent.getApplicationDate().getDateText(DateTextType.RAW));
-            builder.add("applicationDateIso", patent.getApplicationDate().getDateText(DateTextType.ISO));
-        }
+        generator.write("documentId", patent.getDocumentId().toText()); // Patent ID or Public Application ID.
+        writeDate("documentDate", patent.getDocumentDate(), generator);
 
-        builder.add("relatedIds", mapDocIds(patent.getRelationIds()));
+        generator.write("applicationId", patent.getApplicationId() != null ? patent.getApplicationId().toText() : "");
+        writeDate("applicationDate", patent.getApplicationDate(), generator);
+
+        writeDocIds("relatedIds", patent.getRelationIds(), generator);
 
         // OtherIds contain [documentId, applicationId, relatedIds]
-        builder.add("otherIds", mapDocIds(patent.getOtherIds()));
-
-        builder.add("agent", mapEntity(patent.getAgent(), EntityField.NAME));
-        builder.add("agentLastName", mapEntity(patent.getAgent(), EntityField.FIRSTNAME));
-        builder.add("agentFirstName", mapEntity(patent.getAgent(), EntityField.LASTNAME));
-        builder.add("agentAddress", mapEntity(patent.getAgent(), EntityField.ADDRESS));
-        builder.add("agentRepType", mapAgentRep(patent.getAgent()));
-
-        builder.add("applicant", mapEntity(patent.getApplicants(), EntityField.NAME));
-        builder.add("applicantLastName", mapEntity(patent.getApplicants(), EntityField.FIRSTNAME));
-        builder.add("applicantFirstName", mapEntity(patent.getApplicants(), EntityField.LASTNAME));
-        builder.add("applicantAddress", mapEntity(patent.getApplicants(), EntityField.ADDRESS));
-        builder.add("applicantCity", mapEntity(patent.getApplicants(), EntityField.CITY));
-        builder.add("applicantCountry", mapEntity(patent.getApplicants(), EntityField.COUNTRY));
-
-        builder.add("inventor", mapEntity(patent.getInventors(), EntityField.NAME));
-        builder.add("inventorLastName", mapEntity(patent.getInventors(), EntityField.FIRSTNAME));
-        builder.add("inventorFirstName", mapEntity(patent.getInventors(), EntityField.LASTNAME));
-        builder.add("inventorAddress", mapEntity(patent.getInventors(), EntityField.ADDRESS));
-        builder.add("inventorCity", mapEntity(patent.getInventors(), EntityField.CITY));
-        builder.add("inventorCountry", mapEntity(patent.getInventors(), EntityField.COUNTRY));
-        builder.add("inventorNationality", mapInventor(patent.getInventors(), InventorField.NATIONALITY));
-        builder.add("inventorResidency", mapInventor(patent.getInventors(), InventorField.RESIDENCE));
-
-        builder.add("assignee", mapEntity(patent.getAssignee(), EntityField.NAME));
-        builder.add("assigneeRoles", mapAssigneeRoles(patent.getAssignee()));
-        builder.add("assigneeAddress", mapEntity(patent.getAssignee(), EntityField.ADDRESS));
-        builder.add("assigneeCity", mapEntity(patent.getAssignee(), EntityField.CITY));
-        builder.add("assigneeCountry", mapEntity(patent.getAssignee(), EntityField.COUNTRY));
-
-        builder.add("examiner", mapEntity(patent.getExaminers(), EntityField.NAME));
-        builder.add("examinerDepartment", mapExaminerDepartment(patent.getExaminers()));
-
-        builder.add("title", valueOrEmpty(patent.getTitle()));
-
-        mapFreetextField(patent.getAbstract(), "abstract", builder);
-
-        builder.add("descFullRaw", patent.getDescription().getAllRawText());
-
-        DescriptionSection descSection = patent.getDescription().getSection(DescSection.REL_APP_DESC);
-        if (descSection != null) {
-            mapFreetextField(descSection, "descRelApp", builder);
-        }
+        writeDocIds("otherIds", patent.getOtherIds(), generator);
+
+        writeEntity("agent", patent.getAgent(), EntityField.NAME, generator);
+        writeEntity("agentLastName", patent.getAgent(), EntityField.FIRSTNAME, generator);
+        writeEntity("agentFirstName", patent.getAgent(), EntityField.LASTNAME, generator);
+        writeEntity("agentAddress", patent.getAgent(), EntityField.ADDRESS, generator);
+        writeAgentRep("agentRepType", patent.getAgent(), generator);
+
+        writeEntity("applicant", patent.getApplicants(), EntityField.NAME, generator);
+        writeEntity("applicantLastName", patent.getApplicants(), EntityField.FIRSTNAME, generator);
+        writeEntity("applicantFirstName", patent.getApplicants(), EntityField.LASTNAME, generator);
+        writeEntity("applicantAddress", patent.getApplicants(), EntityField.ADDRESS, generator);
+        writeEntity("applicantCity", patent.getApplicants(), EntityField.CITY, generator);
+        writeEntity("applicantCountry", patent.getApplicants(), EntityField.COUNTRY, generator);
+
+        writeEntity("inventor", patent.getInventors(), EntityField.NAME, generator);
+        writeEntity("inventorLastName", patent.getInventors(), EntityField.FIRSTNAME, generator);
+        writeEntity("inventorFirstName", patent.getInventors(), EntityField.LASTNAME, generator);
+        writeEntity("inventorAddress", patent.getInventors(), EntityField.ADDRESS, generator);
+        writeEntity("inventorCity", patent.getInventors(), EntityField.CITY, generator);
+        writeEntity("inventorCountry", patent.getInventors(), EntityField.COUNTRY, generator);
+        writeInventor("inventorNationality", patent.getInventors(), InventorField.NATIONALITY, generator);
+        writeInventor("inventorResidency", patent.getInventors(), InventorField.RESIDENCE, generator);
+
+        writeEntity("assignee", patent.getAssignee(), EntityField.NAME, generator);
+        writeAssigneeRoles("assigneeRoles", patent.getAssignee(), generator);
+        writeEntity("assigneeAddress", patent.getAssignee(), EntityField.ADDRESS, generator);
+        writeEntity("assigneeCity", patent.getAssignee(), EntityField.CITY, generator);
+        writeEntity("assigneeCountry", patent.getAssignee(), EntityField.COUNTRY, generator);
+
+        writeEntity("examiner", patent.getExaminers(), EntityField.NAME, generator);
+        writeExaminerDepartment("examinerDepartment", patent.getExaminers(), generator);
+
+        generator.write("title", valueOrEmpty(patent.getTitle()));
+
+        writeFreetextField(patent.getAbstract(), "abstract", generator);
+
+        // description is null when not read, such as when excluded by the PatentSection projection.
+        Description description = patent.getDescription();
+        if (description != null) {
+            generator.write("descFullRaw", description.getAllRawText());
+
+            DescriptionSection descSection = description.getSection(DescSection.REL_APP_DESC);
+            if (descSection != null) {
+                writeFreetextField(descSection, "descRelApp", generator);
+            }
 
-        descSection = patent.getDescription().getSection(DescSection.DRAWING_DESC);
-        if (descSection != null) {
-            mapFreetextField(descSection, "descDraw", builder);
-        }
+            descSection = description.getSection(DescSection.DRAWING_DESC);
+            if (descSection != null) {
+                writeFreetextField(descSection, "descDraw", generator);
+            }
 
-        descSection = patent.getDescription().getSection(DescSection.BRIEF_SUMMARY);
-        if (descSection != null) {
-            mapFreetextField(descSection, "descBrief", builder);
-        }
+            descSection = description.getSection(DescSection.BRIEF_SUMMARY);
+            if (descSection != null) {
+                writeFreetextField(descSection, "descBrief", generator);
+            }
 
-        descSection = patent.getDescription().getSection(DescSection.DETAILED_DESC);
-        if (descSection != null) {
-            mapFreetextField(descSection, "descDetailed", builder);
+            descSection = description.getSection(DescSection.DETAILED_DESC);
+            if (descSection != null) {
+                writeFreetextField(descSection, "descDetailed", generator);
+            }
+        } else {
+            generator.write("descFullRaw", "");
         }
 
-        mapClaimText(patent.getClaims(), builder);
-
-        builder.add("citationsExaminerNpl", mapCitations(patent.getCitations(), true, CitationType.NPLCIT));
-        builder.add("citationsExaminerPat", mapCitations(patent.getCitations(), true, CitationType.PATCIT));
+        writeClaimText(patent.getClaims(), generator);
 
-        builder.add("citationsApplicantNpl", mapCitations(patent.getCitations(), false, CitationType.NPLCIT));
-        builder.add("citationsApplicantClientPat", mapCitations(patent.getCitations(), false, CitationType.PATCIT));
+        writeCitations("citationsExaminerNpl", patent.getCitations(), true, CitationType.NPLCIT, generator);
+        writeCitations("citationsExaminerPat", patent.getCitations(), true, CitationType.PATCIT, generator);
 
-        mapClassifications(patent.getClassification(), builder);
+        writeCitations("citationsApplicantNpl", patent.getCitations(), false, CitationType.NPLCIT, generator);
+        writeCitations("citationsApplicantClientPat", patent.getCitations(), false, CitationType.PATCIT, generator);
 
-        return builder.build();
+        writeClassifications(patent.getClassification(), generator);
     }
 
     public String getPrettyPrint(JsonObject jsonObject) throws IOException {
-        Map<String, Boolean> config = new HashMap<String, Boolean>();
-        config.put(JsonGenerator.PRETTY_PRINTING, true);
-
-        JsonWriterFactory writerFactory = Json.createWriterFactory(config);
-
         String output = null;
-        try (StringWriter sw = new StringWriter(); JsonWriter jsonWriter = writerFactory.createWriter(sw)) {
+        try (StringWriter sw = new StringWriter(); JsonWriter jsonWriter = JsonOutput.PRETTY_WRITER_FACTORY.createWriter(sw)) {
             jsonWriter.writeObject(jsonObject);
             output = sw.toString();
         }
@@ -198,143 +191,156 @@ public class JsonMapperFlat implements DocumentBuilder<Patent> {
         return output;
     }
 
-    private void mapClassifications(Collection<? extends Classification> classes, JsonObjectBuilder builder) {
+    /**
+     * Single valued classification fields hold the last classification of each type. The further CPC
+     * classifications are written to the ClassificationIpcFurther fields, replacing the further IPC.
+     */
+    private void writeClassifications(Collection<? extends Classification> classes, JsonGenerator generator) {
 
         @SuppressWarnings("unchecked")
         List<IpcClassification> ipcClasses = (List<IpcClassification>) Classification.getByType(classes,
                 ClassificationType.IPC);
-        for (IpcClassification claz : ipcClasses) {
-            builder.add("ClassificationIpcMainRaw", claz.toText());
-            builder.add("ClassificationIpcMainNormalized", claz.toTextNormalized());
-            builder.add("ClassificationIpcMainFacets", toJsonArray(claz.toFacet()));
-
-            JsonArrayBuilder futherRawAr = Json.createArrayBuilder();
-            JsonArrayBuilder futherNormAr = Json.createArrayBuilder();
-            SortedSet<String> futherFacets = new TreeSet<String>();
-
-            for (Classification furtherClassification : claz.getChildren()) {
-                IpcClassification furtherClass = (IpcClassification) furtherClassification;
-                futherRawAr.add(furtherClass.toText());
-                futherNormAr.add(furtherClass.toTextNormalized());
-                futherFacets.addAll(furtherClass.toFacet());
-            }
-            builder.add("ClassificationIpcFurtherRaw", futherRawAr.build());
-            builder.add("ClassificationIpcFurtherNormalized", futherNormAr.build());
-            builder.add("ClassificationIpcFurtherFacets", toJsonArray(futherFacets));
-        }
 
         @SuppressWarnings("unchecked")
         List<UspcClassification> uspcClasses = (List<UspcClassification>) Classification.getByType(classes,
                 ClassificationType.USPC);
-        for (UspcClassification claz : uspcClasses) {
-            builder.add("ClassificationUspcMainRaw", claz.toText());
-            builder.add("ClassificationUspcMainNormalized", claz.toTextNormalized());
-            builder.add("ClassificationUspcMainFacets", toJsonArray(claz.toFacet()));
-
-            JsonArrayBuilder futherRawAr = Json.createArrayBuilder();
-            JsonArrayBuilder futherNormAr = Json.createArrayBuilder();
-            SortedSet<String> futherFacets = new TreeSet<String>();
-
-            for (Classification furtherClassification : claz.getChildren()) {
-                UspcClassification furtherClass = (UspcClassification) furtherClassification;
-                futherRawAr.add(furtherClass.toText());
-                futherNormAr.add(furtherClass.toTextNormalized());
-                futherFacets.addAll(furtherClass.toFacet());
-            }
-            builder.add("ClassificationUspcFurtherRaw", futherRawAr.build());
-            builder.add("ClassificationUspcFurtherNormalized", futherNormAr.build());
-            builder.add("ClassificationUspcFurtherFacets", toJsonArray(futherFacets));
-        }
 
         @SuppressWarnings("unchecked")
         List<CpcClassification> cpcClasses = (List<CpcClassification>) Classification.getByType(classes,
                 ClassificationType.CPC);
-        for (CpcClassification claz : cpcClasses) {
-            builder.add("ClassificationCpcMainRaw", claz.toText());
-            builder.add("ClassificationCpcMainNormalized", claz.toTextNormalized());
-            builder.add("ClassificationCpcMainFacets", toJsonArray(claz.toFacet()));
 
-            JsonArrayBuilder futherRawAr = Json.createArrayBuilder();
-            JsonArrayBuilder futherNormAr = Json.createArrayBuilder();
-            SortedSet<String> futherFacets = new TreeSet<String>();
+        IpcClassification ipcClass = last(ipcClasses);
+        UspcClassification uspcClass = last(uspcClasses);
+        CpcClassification cpcClass = last(cpcClasses);
+
+        if (ipcClass != null) {
+            generator.write("ClassificationIpcMainRaw", ipcClass.toText());
+            generator.write("ClassificationIpcMainNormalized", ipcClass.toTextNormalized());
+            writeArray("ClassificationIpcMainFacets", ipcClass.toFacet(), generator);
+
+            writeFurther("ClassificationIpcFurther", cpcClass != null ? cpcClass : ipcClass, generator);
+        }
+
+        if (uspcClass != null) {
+            generator.write("ClassificationUspcMainRaw", uspcClass.toText());
+            generator.write("ClassificationUspcMainNormalized", uspcClass.toTextNormalized());
+            writeArray("ClassificationUspcMainFacets", uspcClass.toFacet(), generator);
+
+            writeFurther("ClassificationUspcFurther", uspcClass, generator);
+        }
+
+        if (cpcClass != null) {
+            generator.write("ClassificationCpcMainRaw", cpcClass.toText());
+            generator.write("ClassificationCpcMainNormalized", cpcClass.toTextNormalized());
+            writeArray("ClassificationCpcMainFacets", cpcClass.toFacet(), generator);
 
-            for (Classification furtherClassification : claz.getChildren()) {
+            if (ipcClass == null) {
+                writeFurther("ClassificationIpcFurther", cpcClass, generator);
+            }
+        }
+    }
+
+    private void writeFurther(String fieldPrefix, Classification classification, JsonGenerator generator) {
+        List<String> furtherRaw = new ArrayList<String>();
+        List<String> furtherNorm = new ArrayList<String>();
+        SortedSet<String> futherFacets = new TreeSet<String>();
+
+        for (Classification furtherClassification : classification.getChildren()) {
+            if (furtherClassification instanceof IpcClassification) {
+                IpcClassification furtherClass = (IpcClassification) furtherClassification;
+                furtherRaw.add(furtherClass.toText());
+                furtherNorm.add(furtherClass.toTextNormalized());
+                futherFacets.addAll(furtherClass.toFacet());
+            } else if (furtherClassification instanceof UspcClassification) {
+                UspcClassification furtherClass = (UspcClassification) furtherClassification;
+                furtherRaw.add(furtherClass.toText());
+                furtherNorm.add(furtherClass.toTextNormalized());
+                futherFacets.addAll(furtherClass.toFacet());
+            } else {
                 CpcClassification furtherClass = (CpcClassification) furtherClassification;
-                futherRawAr.add(furtherClass.toText());
-                futherNormAr.add(furtherClass.toTextNormalized());
+                furtherRaw.add(furtherClass.toText());
+                furtherNorm.add(furtherClass.toTextNormalized());
                 futherFacets.addAll(furtherClass.toFacet());
             }
-            builder.add("ClassificationIpcFurtherRaw", futherRawAr.build());
-            builder.add("ClassificationIpcFurtherNormalized", futherNormAr.build());
-            builder.add("ClassificationIpcFurtherFacets", toJsonArray(futherFacets));
         }
+
+        writeArray(fieldPrefix + "Raw", furtherRaw, generator);
+        writeArray(fieldPrefix + "Normalized", furtherNorm, generator);
+        writeArray(fieldPrefix + "Facets", futherFacets, generator);
+    }
+
+    private <T> T last(List<T> list) {
+        return list.isEmpty() ? null : list.get(list.size() - 1);
     }
 
-    private JsonArray mapExaminerDepartment(Collection<Examiner> examiners) {
+    private void writeExaminerDepartment(String fieldName, Collection<Examiner> examiners, JsonGenerator generator) {
 
         Set<String> depts = new HashSet<String>();
         for (Examiner examiner : examiners) {
-            depts.add(examiner.getDepartment());
+            if (examiner.getDepartment() != null) {
+                depts.add(examiner.getDepartment());
+            }
         }
 
-        return toJsonArray(depts);
+        writeArray(fieldName, depts, generator);
     }
 
-    private JsonArray mapAgentRep(Collection<Agent> agents) {
-        JsonArrayBuilder arBldr = Json.createArrayBuilder();
+    private void writeAgentRep(String fieldName, Collection<Agent> agents, JsonGenerator generator) {
+        generator.writeStartArray(fieldName);
         for (Agent agent : agents) {
-            arBldr.add(agent.getRepType().toString());
+            generator.write(agent.getRepType().toString());
         }
-        return arBldr.build();
+        generator.writeEnd();
     }
 
-    private JsonArray mapInventor(Collection<Inventor> inventors, InventorField inventorField) {
-        JsonArrayBuilder arBldr = Json.createArrayBuilder();
+    private void writeInventor(String fieldName, Collection<Inventor> inventors, InventorField inventorField,
+            JsonGenerator generator) {
+        generator.writeStartArray(fieldName);
 
         for (Inventor inventor : inventors) {
             switch (inventorField) {
             case NATIONALITY:
                 if (inventor.getNationality() != null) {
-                    arBldr.add(inventor.getNationality().toString());
+                    generator.write(inventor.getNationality().toString());
                 }
                 break;
             case RESIDENCE:
                 if (inventor.getResidency() != null) {
-                    arBldr.add(valueOrEmpty(inventor.getResidency()));
+                    generator.write(valueOrEmpty(inventor.getResidency()));
                 }
                 break;
             }
         }
 
-        return arBldr.build();
+        generator.writeEnd();
     }
 
-    private JsonArray mapAssigneeRoles(Collection<Assignee> assignees) {
-        JsonArrayBuilder arBldr = Json.createArrayBuilder();
+    private void writeAssigneeRoles(String fieldName, Collection<Assignee> assignees, JsonGenerator generator) {
+        generator.writeStartArray(fieldName);
 
         for (Assignee assignee : assignees) {
-            arBldr.add(valueOrEmpty(assignee.getRole()));
-            //arBldr.add(valueOrEmpty(assignee.getRoleDesc())); // "roleDefinition", 
+            generator.write(valueOrEmpty(assignee.getRole()));
+            //generator.write(valueOrEmpty(assignee.getRoleDesc())); // "roleDefinition", 
         }
 
-        return arBldr.build();
+        generator.writeEnd();
     }
 
-    private void mapFreetextField(FreetextField field, String fieldName, JsonObjectBuilder builder) {
+    private void writeFreetextField(FreetextField field, String fieldName, JsonGenerator generator) {
         for (TextType textType : TextType.values()) {
-            builder.add(fieldName + "" + WordUtils.capitalize(textType.name().toLowerCase()), field.getText(textType));
+            generator.write(fieldName + "" + WordUtils.capitalize(textType.name().toLowerCase()), field.getText(textType));
         }
     }
 
-    private void mapClaimText(Collection<Claim> claimList, JsonObjectBuilder builder) {
+    private void writeClaimText(Collection<Claim> claimList, JsonGenerator generator) {
         for (TextType textType : TextType.values()) {
-            JsonArrayBuilder arBldr = Json.createArrayBuilder();
+            generator.writeStartArray("claim" + WordUtils.capitalize(textType.name().toLowerCase()));
             for (Claim claim : claimList) {
                 if (claim != null) {
-                    arBldr.add(claim.getText(textType));
+                    generator.write(claim.getText(textType));
                 }
             }
-            builder.add("claim" + WordUtils.capitalize(textType.name().toLowerCase()), arBldr.build());
+            generator.writeEnd();
         }
     }
 
@@ -354,32 +360,35 @@ public class JsonMapperFlat implements DocumentBuilder<Patent> {
         }
     }
 
-    private JsonArray mapDate(DocumentDate date, DateTextType dateType) {
-        JsonArrayBuilder arBldr = Json.createArrayBuilder();
+    /**
+     * Raw and ISO date fields, left out when there is no date.
+     */
+    private void writeDate(String fieldPrefix, DocumentDate date, JsonGenerator generator) {
         if (date != null) {
-            arBldr.add(date.getDateText(dateType));
+            generator.write(fieldPrefix + "Raw", date.getDateText(DateTextType.RAW));
+            generator.write(fieldPrefix + "Iso", date.getDateText(DateTextType.ISO));
         }
-        return arBldr.build();
     }
 
-    private JsonArray mapEntity(Collection<? extends Entity> entities, EntityField entityField) {
-        JsonArrayBuilder arBldr = Json.createArrayBuilder();
+    private void writeEntity(String fieldName, Collection<? extends Entity> entities, EntityField entityField,
+            JsonGenerator generator) {
+        generator.writeStartArray(fieldName);
 
         for (Entity entity : entities) {
             switch (entityField) {
             case NAME:
                 Name name = entity.getName();
                 if (name instanceof NamePerson) {
-                    arBldr.add(((NamePerson) name).getName());
+                    generator.write(((NamePerson) name).getName());
                 } else {
-                    arBldr.add(((NameOrg) name).getName());
+                    generator.write(((NameOrg) name).getName());
                 }
                 break;
             case FIRSTNAME:
                 if (entity.getName() instanceof NamePerson) {
                     NamePerson name2 = (NamePerson) entity.getName();
                     if (name2.getFirstName() != null) {
-                        arBldr.add(name2.getFirstName());
+                        generator.write(name2.getFirstName());
                     }
                 }
                 break;
@@ -387,79 +396,70 @@ public class JsonMapperFlat implements DocumentBuilder<Patent> {
                 if (entity.getName() instanceof NamePerson) {
                     NamePerson name3 = (NamePerson) entity.getName();
                     if (name3.getLastName() != null) {
-                        arBldr.add(name3.getLastName());
+                        generator.write(name3.getLastName());
                     }
                 }
                 break;
             case ADDRESS:
                 if (entity.getAddress() != null) {
-                    arBldr.add(entity.getAddress().toText());
+                    generator.write(entity.getAddress().toText());
                 }
                 break;
             case COUNTRY:
                 if (entity.getAddress() != null) {
-                    arBldr.add(entity.getAddress().getCountry().toString());
+                    generator.write(entity.getAddress().getCountry().toString());
                 }
                 break;
             case CITY:
                 if (entity.getAddress() != null && entity.getAddress().getCity() != null) {
-                    arBldr.add(entity.getAddress().getCity());
+                    generator.write(entity.getAddress().getCity());
                 }
                 break;
             }
         }
 
-        return arBldr.build();
+        generator.writeEnd();
     }
 
-    private JsonArray toJsonArray(Collection<String> strings) {
-        JsonArrayBuilder arBldr = Json.createArrayBuilder();
+    private void writeArray(String fieldName, Collection<String> strings, JsonGenerator generator) {
+        generator.writeStartArray(fieldName);
         if (strings != null) {
             for (String tok : strings) {
-                arBldr.add(tok);
+                generator.write(tok);
             }
         }
-        return arBldr.build();
+        generator.writeEnd();
     }
 
-    private JsonArray toJsonArray(String... strings) {
-        JsonArrayBuilder arBldr = Json.createArrayBuilder();
-        if (strings != null) {
-            for (String tok : strings) {
-                arBldr.add(tok);
-            }
-        }
-        return arBldr.build();
-    }
-
-    private JsonArray mapDocIds(Collection<DocumentId> docIds) {
-        JsonArrayBuilder arBldr = Json.createArrayBuilder();
+    private void writeDocIds(String fieldName, Collection<DocumentId> docIds, JsonGenerator generator) {
+        generator.writeStartArray(fieldName);
         if (docIds != null) {
             for (DocumentId docId : docIds) {
                 if (docId != null) {
-                    arBldr.add(docId.toText());
+                    generator.write(docId.toText());
                 }
             }
         }
-        return arBldr.build();
+        generator.writeEnd();
     }
 
-    private JsonArray mapCitations(Collection<Citation> CitationList, boolean examinerCited, CitationType citeType) {
-        JsonArrayBuilder arBldr = Json.createArrayBuilder();
+    private void writeCitations(String fieldName, Collection<Citation> CitationList, boolean examinerCited,
+            CitationType citeType, JsonGenerator generator) {
+        generator.writeStartArray(fieldName);
 
         for (Citation cite : CitationList) {
             if (cite.isExaminerCited() == examinerCited) {
                 if (citeType == CitationType.NPLCIT && cite.getCitType() == CitationType.NPLCIT) {
                     NplCitation nplCite = (NplCitation) cite;
-                    arBldr.add(nplCite.getCiteText());
+                    generator.write(nplCite.getCiteText());
                 } else if (citeType == CitationType.PATCIT && cite.getCitType() == CitationType.PATCIT) {
                     PatCitation patCite = (PatCitation) cite;
-                    arBldr.add(patCite.getDocumentId().toText());
+                    generator.write(patCite.getDocumentId().toText());
                 }
             }
         }
 
-        return arBldr.build();
+        generator.writeEnd();
     }
 
     private enum EntityField {
@@ -469,9 +469,4 @@ public class JsonMapperFlat implements DocumentBuilder<Patent> {
     private enum InventorField {
         NATIONALITY, RESIDENCE
     }
-
-    private String base64(String string) {
-        return Base64.getEncoder().encodeToString(string.getBytes(StandardCharsets.UTF_8));
-    }
-
 }
@@ -0,0 +1,101 @@
+package gov.uspto.patent.serialize;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.json.Json;
+import javax.json.JsonWriterFactory;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+
+/**
+ * Shared JsonGenerator factories, created once; the factories are thread safe.
+ *
+ *<p>
+ * Generators write straight to the caller's Writer, which is flushed but left open. Base64 output is
+ * encoded as it is written.
+ *</p>
+ */
+final class JsonOutput {
+
+    private static final Map<String, ?> PRETTY_CONFIG = Collections.singletonMap(JsonGenerator.PRETTY_PRINTING,
+            true);
+
+    private static final JsonGeneratorFactory COMPACT_FACTORY = Json.createGeneratorFactory(null);
+    private static final JsonGeneratorFactory PRETTY_FACTORY = Json.createGeneratorFactory(PRETTY_CONFIG);
+    static final JsonWriterFactory PRETTY_WRITER_FACTORY = Json.createWriterFactory(PRETTY_CONFIG);
+
+    private JsonOutput() {
+        // static only.
+    }
+
+    /**
+     * JsonGenerator on the writer; pretty takes precedence over base64.
+     *
+     * Close the generator once the document is written, the writer is flushed but not closed.
+     */
+    static JsonGenerator createGenerator(Writer writer, boolean pretty, boolean base64) {
+        Writer out = new NonClosingWriter(writer);
+        if (pretty) {
+            return PRETTY_FACTORY.createGenerator(out);
+        } else if (base64) {
+            OutputStream base64Out = Base64.getEncoder().wrap(new AsciiOutputStream(out));
+            return COMPACT_FACTORY.createGenerator(new OutputStreamWriter(base64Out, StandardCharsets.UTF_8));
+        } else {
+            return COMPACT_FACTORY.createGenerator(out);
+        }
+    }
+
+    private static class NonClosingWriter extends FilterWriter {
+        public NonClosingWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    /**
+     * Base64 encoded bytes written as chars.
+     */
+    private static class AsciiOutputStream extends OutputStream {
+        private final Writer writer;
+
+        public AsciiOutputStream(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            writer.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int off, int len) throws IOException {
+            char[] chars = new char[len];
+            for (int i = 0; i < len; i++) {
+                chars[i] = (char) bytes[off + i];
+            }
+            writer.write(chars);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
@@ -4,7 +4,6 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.StringReader;
 import java.io.Writer;
 
 import org.slf4j.Logger;
@@ -12,7 +11,6 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
 import gov.uspto.patent.PatentDocReader;
-import gov.uspto.patent.PatentReaderException;
 import gov.uspto.patent.bulk.DumpFile;
 import gov.uspto.patent.serialize.DocumentBuilder;
 
@@ -23,6 +21,7 @@ public class DumpFileProcessThread<T> implements Runnable {
     private PatentDocReader<T> reader;
     private DocumentBuilder<T> docBuilder;
     private File outputFile;
+    private int workers = 1;
 
     public DumpFileProcessThread(DumpFile dumpFile, PatentDocReader<T> reader, DocumentBuilder<T> docBuilder,
             File outputFile) {
@@ -32,6 +31,13 @@ public class DumpFileProcessThread<T> implements Runnable {
         this.outputFile = outputFile;
     }
 
+    /**
+     * Number of parser threads for the records of this DumpFile, default 1.
+     */
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
     @Override
     public void run() {
         MDC.put("DOCID", dumpFile.getFile().getName());
@@ -41,34 +47,19 @@ public class DumpFileProcessThread<T> implements Runnable {
         } catch (IOException e2) {
             LOGGER.error("Error opening dump file: '{}'", dumpFile.getFile(), e2);
         }
-        
-        int recordNumber = 1;
-        
-        try (Writer writer = new BufferedWriter(new FileWriter(outputFile))) {
-            for(; dumpFile.hasNext(); recordNumber++){
-            //while (dumpFile.hasNext()) {
-                String rawDocText = dumpFile.next();
-                //InputStream rawDocText = dumpFile.nextDocument();
-                if (rawDocText == null) {
-                    break;
-                }
 
-                //InputStreamReader rawDocReader  = new InputStreamReader(dumpFile.nextDocument());
-                StringReader rawDocReader = new StringReader(rawDocText);
+        int recordCount = 0;
 
-                T obj = null;
-                try {
-                    obj = reader.read(rawDocReader);
-                } catch (PatentReaderException | IOException e) {
-                    LOGGER.error("Reader Failed on: {}:{}", dumpFile.getFile().getName(), recordNumber, e);
-                }
-
-                if (obj != null) {
+        try (final Writer writer = new BufferedWriter(new FileWriter(outputFile))) {
+            RecordPipeline<T> pipeline = new RecordPipeline<T>(reader, workers);
+            recordCount = pipeline.run(dumpFile, new RecordPipeline.RecordHandler<T>() {
+                @Override
+                public void handle(int recordNumber, T obj) throws IOException {
                     docBuilder.write(obj, writer);
                 }
-            }
+            });
         } catch (IOException e1) {
-            LOGGER.error("DumpFile Failure: '{}:{}'", dumpFile.getFile().getName(), recordNumber, e1);
+            LOGGER.error("DumpFile Failure: '{}:{}'", dumpFile.getFile().getName(), dumpFile.getCurrentRecCount(), e1);
         } finally {
             try {
                 dumpFile.close();
@@ -77,6 +68,6 @@ public class DumpFileProcessThread<T> implements Runnable {
             }
         }
 
-        LOGGER.info("Completed {}, records:[{}]", dumpFile.getFile().getName(), recordNumber);
+        LOGGER.info("Completed {}, records:[{}]", dumpFile.getFile().getName(), recordCount);
     }
 }
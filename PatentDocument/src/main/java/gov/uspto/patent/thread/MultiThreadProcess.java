@@ -1,19 +1,429 @@
 package gov.uspto.patent.thread;
 
+import java.io.Closeable;
 import java.io.File;
-import java.nio.file.Path;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-import gov.uspto.patent.doc.cpc.masterfile.MasterClassificationRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import com.google.common.base.Preconditions;
+
+import gov.uspto.patent.PatentDocFormat;
+import gov.uspto.patent.PatentDocReader;
+import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.bulk.DumpReader;
 import gov.uspto.patent.serialize.DocumentBuilder;
 
-public class MultiThreadProcess {
+/**
+ * Process many DumpReaders concurrently, one output Writer per DumpReader.
+ *
+ *<p>
+ * Runs on a work stealing ForkJoinPool. Each file task reads its records in order and forks a parse task
+ * per record, keeping a bounded window of records in flight; records are written in file order. Threads
+ * which finish a small file steal parse tasks from the larger files still running.
+ *</p>
+ *
+ *<p>
+ * Files fail independently: a file which fails to read or write is retried (reopened, output recreated)
+ * up to maxRetries, then reported as failed in its {@link FileResult}, other files carry on. Records
+ * which fail to parse are logged and counted, not retried.
+ *</p>
+ *
+ *<p>
+ * Streaming readers which read a whole file in one pass, such as a StAX reader, plug in through a
+ * {@link SourceFactory} instead of a ReaderFactory; records are then read and written in turn on the file task.
+ *</p>
+ *
+ *<p>
+ * Output is one Writer per file, recreated on retry. Where all files go to one output in file order, such as
+ * the corpus builder, use a {@link RecordPipeline} on one file at a time instead.
+ *</p>
+ *
+ *<pre>
+ * MultiThreadProcess<Patent> process = new MultiThreadProcess<Patent>(readerFactory, docBuilder, outputFactory, 8);
+ * while (bulkArchive.hasNext()) {
+ *     process.submit(bulkArchive.next());
+ * }
+ * List<FileResult> results = process.awaitCompletion();
+ * process.close();
+ *</pre>
+ *
+ * @param <T> parsed record type
+ */
+public class MultiThreadProcess<T> implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultiThreadProcess.class);
+
+    /**
+     * PatentDocReader for the format detected when the DumpReader is opened.
+     */
+    public interface ReaderFactory<T> {
+        public PatentDocReader<T> create(PatentDocFormat patentDocFormat);
+    }
+
+    /**
+     * Records of a DumpReader read in one pass, in place of splitting it into raw records for a PatentDocReader.
+     */
+    public interface RecordSource<T> extends Closeable {
+        /**
+         * @return next record, null at the end of the file.
+         * @throws PatentReaderException on a record which failed to read, reading continues with the next record.
+         * @throws IOException
+         */
+        public T next() throws PatentReaderException, IOException;
+    }
+
+    /**
+     * RecordSource for a DumpReader, which is not opened; the source reads the file itself. Called again when a
+     * file is retried.
+     */
+    public interface SourceFactory<T> {
+        public RecordSource<T> open(DumpReader dumpReader) throws IOException;
+    }
+
+    /**
+     * Output Writer for a DumpReader; called again when a file is retried.
+     */
+    public interface OutputFactory {
+        public Writer create(DumpReader dumpReader) throws IOException;
+    }
+
+    public static class FileResult {
+        private final File file;
+        private int records;
+        private int failedRecords;
+        private int attempts;
+        private Throwable error;
+
+        public FileResult(File file) {
+            this.file = file;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * @return records written, excludes records which failed to parse.
+         */
+        public int getRecords() {
+            return records;
+        }
+
+        public int getFailedRecords() {
+            return failedRecords;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        @Override
+        public String toString() {
+            return "FileResult [file=" + file + ", records=" + records + ", failedRecords=" + failedRecords
+                    + ", attempts=" + attempts + ", error=" + error + "]";
+        }
+    }
+
+    private final ReaderFactory<T> readerFactory;
+    private final SourceFactory<T> sourceFactory;
+    private final DocumentBuilder<T> docBuilder;
+    private final OutputFactory outputFactory;
+    private final ForkJoinPool pool;
+    private final Semaphore pendingFiles;
+    private final int recordWindow;
+    private final List<ForkJoinTask<FileResult>> submitted = new ArrayList<ForkJoinTask<FileResult>>();
+    private final AtomicLong remaining = new AtomicLong(Long.MAX_VALUE);
+
+    private int maxRetries = 1;
+    private String recordSeparator = "";
+
+    public MultiThreadProcess(ReaderFactory<T> readerFactory, DocumentBuilder<T> docBuilder,
+            OutputFactory outputFactory, int maxThreads) {
+        this(Preconditions.checkNotNull(readerFactory, "ReaderFactory can not be Null"), null, docBuilder,
+                outputFactory, maxThreads);
+    }
+
+    public MultiThreadProcess(SourceFactory<T> sourceFactory, DocumentBuilder<T> docBuilder,
+            OutputFactory outputFactory, int maxThreads) {
+        this(null, Preconditions.checkNotNull(sourceFactory, "SourceFactory can not be Null"), docBuilder,
+                outputFactory, maxThreads);
+    }
+
+    private MultiThreadProcess(ReaderFactory<T> readerFactory, SourceFactory<T> sourceFactory,
+            DocumentBuilder<T> docBuilder, OutputFactory outputFactory, int maxThreads) {
+        Preconditions.checkNotNull(docBuilder, "DocumentBuilder can not be Null");
+        Preconditions.checkNotNull(outputFactory, "OutputFactory can not be Null");
+        Preconditions.checkArgument(maxThreads > 0, "maxThreads must be greater than 0");
+        this.readerFactory = readerFactory;
+        this.sourceFactory = sourceFactory;
+        this.docBuilder = docBuilder;
+        this.outputFactory = outputFactory;
+        this.pool = new ForkJoinPool(maxThreads, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, false);
+        this.pendingFiles = new Semaphore(maxThreads * 2);
+        this.recordWindow = maxThreads * 4;
+    }
+
+    /**
+     * ReaderFactory which always returns the same thread safe PatentDocReader.
+     */
+    public static <T> ReaderFactory<T> fixedReader(final PatentDocReader<T> reader) {
+        return new ReaderFactory<T>() {
+            @Override
+            public PatentDocReader<T> create(PatentDocFormat patentDocFormat) {
+                return reader;
+            }
+        };
+    }
+
+    /**
+     * Number of times a failed file is reopened and reprocessed, default 1.
+     */
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Written after each record, for builders which do not end their own records.
+     */
+    public void setRecordSeparator(String recordSeparator) {
+        this.recordSeparator = recordSeparator;
+    }
+
+    /**
+     * Maximum number of records to read across all files.
+     */
+    public void setLimit(long limit) {
+        remaining.set(limit);
+    }
+
+    /**
+     * Queue a DumpReader, which does not need to be opened yet.
+     *
+     * Blocks while twice maxThreads files are already waiting or running.
+     *
+     * @param dumpReader
+     * @return completion of the file
+     * @throws InterruptedException
+     */
+    public Future<FileResult> submit(DumpReader dumpReader) throws InterruptedException {
+        Preconditions.checkNotNull(dumpReader, "DumpReader can not be Null");
+        pendingFiles.acquire();
+        ForkJoinTask<FileResult> task = pool.submit(new FileTask(dumpReader));
+        submitted.add(task);
+        return task;
+    }
+
+    /**
+     * Wait for all submitted files to complete.
+     *
+     * @return result for each file, in order submitted.
+     * @throws InterruptedException
+     */
+    public List<FileResult> awaitCompletion() throws InterruptedException {
+        List<FileResult> results = new ArrayList<FileResult>(submitted.size());
+        for (ForkJoinTask<FileResult> task : submitted) {
+            try {
+                results.add(task.get());
+            } catch (ExecutionException e) {
+                // FileTask reports its own errors, only an Error would get here.
+                throw new IllegalStateException("File task failed", e.getCause());
+            }
+        }
+        submitted.clear();
+        return results;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+        try {
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private class FileTask extends RecursiveTask<FileResult> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient DumpReader dumpReader;
+        private int attemptRead;
+
+        public FileTask(DumpReader dumpReader) {
+            this.dumpReader = dumpReader;
+        }
 
-    public MultiThreadProcess(File file, DocumentBuilder<MasterClassificationRecord> docBuilder, Path outputDir){
-        
+        @Override
+        protected FileResult compute() {
+            String fileName = dumpReader.getFile().getName();
+            MDC.put("DOCID", fileName);
+
+            FileResult result = new FileResult(dumpReader.getFile());
+            try {
+                for (int attempt = 1;; attempt++) {
+                    result.attempts = attempt;
+                    try {
+                        if (sourceFactory != null) {
+                            processSource(result);
+                        } else {
+                            processFile(result);
+                        }
+                        LOGGER.info("Completed {}, records:[{}] failed:[{}]", fileName, result.records,
+                                result.failedRecords);
+                        return result;
+                    } catch (IOException | RuntimeException e) {
+                        // give back the records of the failed attempt.
+                        remaining.addAndGet(attemptRead);
+                        if (attempt > maxRetries) {
+                            LOGGER.error("DumpFile Failure: '{}', after {} attempts", fileName, attempt, e);
+                            result.error = e;
+                            return result;
+                        }
+                        LOGGER.warn("DumpFile Failure: '{}', retrying", fileName, e);
+                    } finally {
+                        try {
+                            dumpReader.close();
+                        } catch (IOException e) {
+                            // close quietly.
+                        }
+                    }
+                }
+            } finally {
+                MDC.remove("DOCID");
+                pendingFiles.release();
+            }
+        }
+
+        private void processFile(FileResult result) throws IOException {
+            result.records = 0;
+            result.failedRecords = 0;
+            attemptRead = 0;
+
+            dumpReader.open();
+            PatentDocReader<T> reader = readerFactory.create(dumpReader.getPatentDocFormat());
+            String fileName = dumpReader.getFile().getName();
+
+            int recordNumber = 0;
+            Deque<ParseTask> window = new ArrayDeque<ParseTask>(recordWindow);
+            try (Writer writer = outputFactory.create(dumpReader)) {
+                while (dumpReader.hasNext() && remaining.getAndDecrement() > 0) {
+                    RawRecord rawDoc = RawRecord.next(dumpReader, reader);
+                    if (rawDoc == null) {
+                        remaining.incrementAndGet();
+                        break;
+                    }
+                    recordNumber++;
+                    attemptRead++;
+
+                    ParseTask task = new ParseTask(reader, rawDoc, fileName, recordNumber);
+                    task.fork();
+                    window.add(task);
+
+                    if (window.size() >= recordWindow) {
+                        write(window.poll(), writer, result);
+                    }
+                }
+
+                while (!window.isEmpty()) {
+                    write(window.poll(), writer, result);
+                }
+            } finally {
+                for (ParseTask task : window) {
+                    task.cancel(false);
+                }
+            }
+        }
+
+        private void processSource(FileResult result) throws IOException {
+            result.records = 0;
+            result.failedRecords = 0;
+            attemptRead = 0;
+
+            String fileName = dumpReader.getFile().getName();
+            try (RecordSource<T> source = sourceFactory.open(dumpReader);
+                    Writer writer = outputFactory.create(dumpReader)) {
+                while (remaining.getAndDecrement() > 0) {
+                    T obj;
+                    try {
+                        obj = source.next();
+                    } catch (PatentReaderException e) {
+                        attemptRead++;
+                        LOGGER.error("Reader Failed on: {}:{}", fileName, attemptRead, e);
+                        result.failedRecords++;
+                        continue;
+                    }
+                    if (obj == null) {
+                        remaining.incrementAndGet();
+                        break;
+                    }
+                    attemptRead++;
+                    write(obj, writer, result);
+                }
+            }
+        }
+
+        private void write(ParseTask task, Writer writer, FileResult result) throws IOException {
+            T obj = task.join();
+            if (obj == null) {
+                result.failedRecords++;
+                return;
+            }
+            write(obj, writer, result);
+        }
+
+        private void write(T obj, Writer writer, FileResult result) throws IOException {
+            docBuilder.write(obj, writer);
+            writer.write(recordSeparator);
+            result.records++;
+        }
     }
-    
-    public void init(int maxThreads){
-        
+
+    private class ParseTask extends RecursiveTask<T> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient PatentDocReader<T> reader;
+        private final transient RawRecord rawDoc;
+        private final String fileName;
+        private final int recordNumber;
+
+        public ParseTask(PatentDocReader<T> reader, RawRecord rawDoc, String fileName, int recordNumber) {
+            this.reader = reader;
+            this.rawDoc = rawDoc;
+            this.fileName = fileName;
+            this.recordNumber = recordNumber;
+        }
+
+        @Override
+        protected T compute() {
+            try {
+                return rawDoc.parse(reader);
+            } catch (PatentReaderException | IOException | RuntimeException e) {
+                LOGGER.error("Reader Failed on: {}:{}", fileName, recordNumber, e);
+                return null;
+            }
+        }
     }
-    
 }
@@ -0,0 +1,65 @@
+package gov.uspto.patent.thread;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+
+import gov.uspto.patent.PatentDocReader;
+import gov.uspto.patent.PatentDocStreamReader;
+import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.bulk.DumpFileXmlMapped;
+import gov.uspto.patent.bulk.DumpReader;
+import gov.uspto.patent.bulk.RecordSlice;
+
+/**
+ * Raw record handed from the thread reading a DumpReader to a parsing thread.
+ *
+ *<p>
+ * Records of a byte oriented DumpReader are kept as bytes and given to a PatentDocStreamReader as an
+ * InputStream, so the record is decoded once, by the parser; otherwise the record is the String from
+ * the DumpReader.
+ *</p>
+ */
+final class RawRecord {
+    private final String text;
+    private final RecordSlice bytes;
+
+    private RawRecord(String text, RecordSlice bytes) {
+        this.text = text;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Read next record.
+     *
+     * @param dumpReader
+     * @param reader parser the record is for
+     * @return record or null when no more records.
+     */
+    public static RawRecord next(DumpReader dumpReader, PatentDocReader<?> reader) {
+        if (reader instanceof PatentDocStreamReader && dumpReader instanceof DumpFileXmlMapped) {
+            RecordSlice record = ((DumpFileXmlMapped) dumpReader).nextRecord();
+            // copy, the slice of a streamed zip entry is reused by the next record.
+            return record != null ? new RawRecord(null, record.copy()) : null;
+        }
+        String rawDoc = dumpReader.next();
+        return rawDoc != null ? new RawRecord(rawDoc, null) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T parse(PatentDocReader<T> reader) throws PatentReaderException, IOException {
+        if (bytes != null && reader instanceof PatentDocStreamReader) {
+            try (InputStream rawDocStream = bytes.asInputStream()) {
+                return ((PatentDocStreamReader<T>) reader).read(rawDocStream);
+            }
+        }
+        try (StringReader rawDocReader = new StringReader(toString())) {
+            return reader.read(rawDocReader);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return text != null ? text : bytes.toString();
+    }
+}
@@ -0,0 +1,253 @@
+package gov.uspto.patent.thread;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import gov.uspto.patent.PatentDocReader;
+import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.bulk.DumpReader;
+
+/**
+ * Pipelined record processing for a single DumpReader.
+ *
+ *<p>
+ * One splitter thread reads raw records from the DumpReader onto a bounded queue, N worker threads
+ * parse them with the PatentDocReader, and the calling thread hands the parsed records to the
+ * RecordHandler; in record order when ordered (default), else as they complete.
+ *</p>
+ *
+ *<p>
+ * Backpressure: at most queueSize records are in flight between the splitter and the handler,
+ * including records parsed out of order waiting for their turn. The splitter blocks until the
+ * handler catches up.
+ *</p>
+ *
+ *<pre>
+ * RecordPipeline<Patent> pipeline = new RecordPipeline<Patent>(new PatentReader(format), 4);
+ * pipeline.run(dumpReader, new RecordHandler<Patent>() {
+ *     public void handle(int recordNumber, Patent patent) throws IOException {
+ *         docBuilder.write(patent, writer);
+ *     }
+ * });
+ *</pre>
+ *
+ * @param <T> parsed record type
+ */
+public class RecordPipeline<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RecordPipeline.class);
+
+    /**
+     * Receives parsed records, always called from the thread calling run().
+     */
+    public interface RecordHandler<T> {
+        public void handle(int recordNumber, T record) throws IOException;
+    }
+
+    private static final Item<?> END = new Item<Object>(-1, null);
+
+    private final PatentDocReader<T> reader;
+    private final int workers;
+    private final int queueSize;
+    private boolean ordered = true;
+    private long limit = Long.MAX_VALUE;
+
+    public RecordPipeline(PatentDocReader<T> reader, int workers) {
+        this(reader, workers, workers * 4);
+    }
+
+    public RecordPipeline(PatentDocReader<T> reader, int workers, int queueSize) {
+        Preconditions.checkNotNull(reader, "PatentDocReader can not be Null");
+        Preconditions.checkArgument(workers > 0, "workers must be greater than 0");
+        Preconditions.checkArgument(queueSize >= workers, "queueSize must be at least the number of workers");
+        this.reader = reader;
+        this.workers = workers;
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * Handle records in the order read from the DumpReader (default), else in order parsed.
+     */
+    public void setOrdered(boolean ordered) {
+        this.ordered = ordered;
+    }
+
+    /**
+     * Maximum number of records to read.
+     */
+    public void setLimit(long limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Process all records of an opened DumpReader.
+     *
+     * Records which fail to parse are logged and skipped. An IOException from the handler stops the pipeline, as
+     * does an Error in a splitter or worker thread, which is rethrown here.
+     *
+     * @param dumpReader
+     * @param handler
+     * @return number of records read, including records which failed to parse.
+     * @throws IOException
+     */
+    public int run(final DumpReader dumpReader, final RecordHandler<T> handler) throws IOException {
+        final BlockingQueue<Item<T>> rawQueue = new ArrayBlockingQueue<Item<T>>(queueSize);
+        final BlockingQueue<Item<T>> parsedQueue = new LinkedBlockingQueue<Item<T>>();
+        final Semaphore inFlight = new Semaphore(queueSize);
+        final AtomicInteger readCount = new AtomicInteger();
+        final AtomicReference<Throwable> splitterError = new AtomicReference<Throwable>();
+        final AtomicReference<Throwable> workerError = new AtomicReference<Throwable>();
+        final String fileName = dumpReader.getFile() != null ? dumpReader.getFile().getName() : "";
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers + 1,
+                new ThreadFactoryBuilder().setNameFormat("record-pipeline-%d").setDaemon(true).build());
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    MDC.put("DOCID", fileName);
+                    try {
+                        for (int recordNumber = 1; recordNumber <= limit && dumpReader.hasNext(); recordNumber++) {
+                            inFlight.acquire();
+                            RawRecord rawDoc = RawRecord.next(dumpReader, reader);
+                            if (rawDoc == null) {
+                                inFlight.release();
+                                break;
+                            }
+                            readCount.incrementAndGet();
+                            rawQueue.put(new Item<T>(recordNumber, rawDoc));
+                        }
+                    } catch (InterruptedException e) {
+                        return;
+                    } catch (Throwable e) {
+                        splitterError.set(e);
+                    }
+
+                    try {
+                        for (int i = 0; i < workers; i++) {
+                            rawQueue.put(RecordPipeline.<T>end());
+                        }
+                    } catch (InterruptedException e) {
+                        // pipeline cancelled.
+                    }
+                }
+            });
+
+            for (int i = 0; i < workers; i++) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        MDC.put("DOCID", fileName);
+                        try {
+                            Item<T> item;
+                            while ((item = rawQueue.take()) != END) {
+                                item.parsed = parse(item, fileName);
+                                item.raw = null;
+                                parsedQueue.put(item);
+                            }
+                        } catch (InterruptedException e) {
+                            // pipeline cancelled.
+                        } catch (Throwable e) {
+                            workerError.compareAndSet(null, e);
+                        } finally {
+                            // never blocks, parsedQueue is unbounded.
+                            parsedQueue.offer(RecordPipeline.<T>end());
+                        }
+                    }
+                });
+            }
+
+            Map<Integer, Item<T>> pending = new HashMap<Integer, Item<T>>();
+            int nextRecord = 1;
+            int finishedWorkers = 0;
+            while (finishedWorkers < workers) {
+                Item<T> item = parsedQueue.take();
+                if (item == END) {
+                    finishedWorkers++;
+                    if (workerError.get() != null) {
+                        // the record held by the failed worker is lost, stop rather than wait on it.
+                        rethrow(workerError.get());
+                    }
+                } else if (!ordered) {
+                    emit(item, handler, inFlight);
+                } else {
+                    pending.put(item.recordNumber, item);
+                    while ((item = pending.remove(nextRecord)) != null) {
+                        emit(item, handler, inFlight);
+                        nextRecord++;
+                    }
+                }
+            }
+
+            if (splitterError.get() != null) {
+                rethrow(splitterError.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Record pipeline interrupted");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return readCount.get();
+    }
+
+    private static void rethrow(Throwable e) throws IOException {
+        if (e instanceof IOException) {
+            throw (IOException) e;
+        } else if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        } else if (e instanceof Error) {
+            throw (Error) e;
+        }
+        throw new IOException(e);
+    }
+
+    private T parse(Item<T> item, String fileName) {
+        try {
+            return item.raw.parse(reader);
+        } catch (PatentReaderException | IOException | RuntimeException e) {
+            LOGGER.error("Reader Failed on: {}:{}", fileName, item.recordNumber, e);
+            return null;
+        }
+    }
+
+    private void emit(Item<T> item, RecordHandler<T> handler, Semaphore inFlight) throws IOException {
+        inFlight.release();
+        if (item.parsed != null) {
+            handler.handle(item.recordNumber, item.parsed);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Item<T> end() {
+        return (Item<T>) END;
+    }
+
+    private static class Item<T> {
+        private final int recordNumber;
+        private RawRecord raw;
+        private T parsed;
+
+        public Item(int recordNumber, RawRecord raw) {
+            this.recordNumber = recordNumber;
+            this.raw = raw;
+        }
+    }
+}
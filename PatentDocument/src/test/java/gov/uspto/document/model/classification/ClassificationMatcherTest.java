@@ -0,0 +1,79 @@
+package gov.uspto.document.model.classification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.text.ParseException;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import gov.uspto.patent.model.classification.Classification;
+import gov.uspto.patent.model.classification.ClassificationMatcher;
+import gov.uspto.patent.model.classification.CpcClassification;
+import gov.uspto.patent.model.classification.IpcClassification;
+import gov.uspto.patent.model.classification.UspcClassification;
+
+public class ClassificationMatcherTest {
+
+	@Test
+	public void cpcAtOrBelow() throws ParseException {
+		CpcClassification wanted = CpcClassification.fromText("H04N21/00");
+		ClassificationMatcher matcher = new ClassificationMatcher().add(wanted);
+
+		assertEquals(wanted, matcher.match(CpcClassification.fromText("H04N21/00")));
+		assertEquals(wanted, matcher.match(CpcClassification.fromText("H04N21/4394")));
+		assertNull(matcher.match(CpcClassification.fromText("H04N5/00")));
+		assertNull(matcher.match(CpcClassification.fromText("H04L21/4394")));
+		assertNull(matcher.match(CpcClassification.fromText("H04N")));
+	}
+
+	@Test
+	public void cpcSubgroup() throws ParseException {
+		ClassificationMatcher matcher = new ClassificationMatcher().add(CpcClassification.fromText("H04N21/4394"));
+
+		assertTrue(matcher.matches(Arrays.asList(CpcClassification.fromText("H04N21/4394"))));
+		assertFalse(matcher.matches(Arrays.asList(CpcClassification.fromText("H04N21/439"))));
+		assertFalse(matcher.matches(Arrays.asList(CpcClassification.fromText("H04N21/00"))));
+	}
+
+	@Test
+	public void cpcDepth() throws ParseException {
+		ClassificationMatcher matcher = new ClassificationMatcher().add(CpcClassification.fromText("H04N21/4394"),
+				ClassificationMatcher.DEPTH_SUBCLASS);
+
+		assertTrue(matcher.matches(Arrays.asList(CpcClassification.fromText("H04N5/00"))));
+		assertFalse(matcher.matches(Arrays.asList(CpcClassification.fromText("H04L5/00"))));
+	}
+
+	@Test
+	public void typesKeptApart() throws ParseException {
+		ClassificationMatcher matcher = new ClassificationMatcher().add(CpcClassification.fromText("H04N21/00"));
+		assertNull(matcher.match(IpcClassification.fromText("H04N21/00")));
+	}
+
+	@Test
+	public void uspc() throws ParseException {
+		UspcClassification wantedSub = UspcClassification.fromText("725/38");
+		ClassificationMatcher matcher = new ClassificationMatcher().add(wantedSub);
+		assertEquals(wantedSub, matcher.match(UspcClassification.fromText("725/38")));
+		assertNull(matcher.match(UspcClassification.fromText("725/39")));
+
+		UspcClassification wantedMain = UspcClassification.fromText("333/1");
+		matcher.add(wantedMain, 1);
+		assertEquals(wantedMain, matcher.match(UspcClassification.fromText("333101")));
+		assertEquals(2, matcher.size());
+	}
+
+	@Test
+	public void firstMatching() throws ParseException {
+		ClassificationMatcher matcher = new ClassificationMatcher().add(CpcClassification.fromText("H04N21/00"))
+				.add(UspcClassification.fromText("725/38"));
+
+		Classification wanted = matcher.match(Arrays.asList(CpcClassification.fromText("G06F3/00"),
+				UspcClassification.fromText("725/38")));
+		assertEquals("725/38", wanted.getText());
+	}
+}
@@ -0,0 +1,74 @@
+package gov.uspto.document.model.classification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.text.ParseException;
+
+import org.junit.Test;
+
+import gov.uspto.patent.model.classification.CpcClassification;
+import gov.uspto.patent.model.classification.CpcSymbol;
+
+public class CpcSymbolTest {
+
+	@Test
+	public void sharedSymbol() throws ParseException {
+		CpcClassification cpc1 = CpcClassification.fromText("D07B2201/2051");
+		CpcClassification cpc2 = CpcClassification.fromText("D07B 2201/2051");
+		CpcClassification cpc3 = CpcClassification.fromParts("", "D", "07", "B", "2201", "2051");
+
+		assertNotSame(cpc1, cpc2);
+		assertSame(cpc1.getSymbol(), cpc2.getSymbol());
+		assertSame(cpc1.getSymbol(), cpc3.getSymbol());
+		assertSame(cpc1.toFacet(), cpc3.toFacet());
+		assertSame(cpc1.getClassTree(), cpc3.getClassTree());
+		assertEquals("D07B2201/2051", cpc1.toText());
+		assertEquals("D07B 2201/2051", cpc3.toText());
+	}
+
+	@Test
+	public void settersDoNotIntern() throws ParseException {
+		CpcClassification cpc = new CpcClassification("H04N21/4395");
+		cpc.setSection("H");
+		cpc.setMainClass("04");
+		cpc.setSubClass("N");
+		cpc.setMainGroup("21");
+		cpc.setSubGroup("4395");
+
+		CpcSymbol canonical = CpcClassification.fromText("H04N21/4395").getSymbol();
+		assertNotSame(canonical, cpc.getSymbol());
+		assertEquals(canonical, cpc.getSymbol());
+		assertSame(canonical, CpcSymbol.fromCode(cpc.getSymbol().getCode()));
+	}
+
+	@Test
+	public void codeRoundTrip() {
+		String[][] symbols = new String[][] { { "D", "07", "B", "2201", "2051" }, { "Y", "10", "S", "901", "00" },
+				{ "A", "01", "B", "0033", "000123" }, { "H", "04", null, null, null }, { null, null, null, null, null } };
+		for (String[] parts : symbols) {
+			CpcSymbol symbol = CpcSymbol.of(parts[0], parts[1], parts[2], parts[3], parts[4]);
+			assertTrue(symbol.getCode() != CpcSymbol.NO_CODE);
+			assertSame(symbol, CpcSymbol.fromCode(symbol.getCode()));
+		}
+		assertNotSame(CpcSymbol.of("A", "01", "B", "33", "00"), CpcSymbol.of("A", "01", "B", "033", "00"));
+	}
+
+	@Test
+	public void unpackedSymbol() {
+		CpcSymbol symbol = CpcSymbol.of("D", "07", "B", "2201", "20513456");
+		assertEquals(CpcSymbol.NO_CODE, symbol.getCode());
+		assertNotSame(symbol, CpcSymbol.of("D", "07", "B", "2201", "20513456"));
+		assertEquals(symbol, CpcSymbol.of("D", "07", "B", "2201", "20513456"));
+		assertEquals("D07B 2201/20513456", symbol.toTextNormalized());
+		assertNull(CpcSymbol.fromCode(CpcSymbol.NO_CODE));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void facetsUnmodifiable() throws ParseException {
+		CpcClassification.fromText("D07B2201/2051").toFacet().clear();
+	}
+}
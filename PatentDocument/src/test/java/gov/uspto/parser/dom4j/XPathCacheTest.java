@@ -0,0 +1,71 @@
+package gov.uspto.parser.dom4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.Map;
+
+import org.dom4j.Document;
+import org.dom4j.DocumentException;
+import org.dom4j.Node;
+import org.junit.Test;
+
+import gov.uspto.patent.doc.xml.items.DocumentIdNode;
+import gov.uspto.patent.model.DocumentId;
+
+public class XPathCacheTest {
+
+    private static final String XML = "<us-patent-grant><us-bibliographic-data-grant>"
+            + "<publication-reference><document-id><country>US</country><doc-number>8927118</doc-number>"
+            + "<kind>B2</kind></document-id></publication-reference>"
+            + "<priority-claims><priority-claim><country>JP</country><doc-number>2008-148514</doc-number>"
+            + "<date>20080605</date></priority-claim></priority-claims>"
+            + "</us-bibliographic-data-grant></us-patent-grant>";
+
+    private Document read(String xml) throws DocumentException {
+        return XmlReaders.read(new StringReader(xml));
+    }
+
+    @Test
+    public void compiledOnce() throws DocumentException {
+        Document document = read(XML);
+        assertSame(XPathCache.get("/*/*/publication-reference/document-id"),
+                document.createXPath("/*/*/publication-reference/document-id"));
+        assertEquals("8927118", document.selectSingleNode("/*/*/publication-reference/document-id/doc-number").getText());
+    }
+
+    @Test
+    public void keyedByNamespaces() throws DocumentException {
+        Map<String, String> namespaces = Collections.singletonMap("pat", "urn:pat");
+        assertSame(XPathCache.get("pat:doc", namespaces), XPathCache.get("pat:doc", namespaces));
+        assertNotSame(XPathCache.get("pat:doc", namespaces),
+                XPathCache.get("pat:doc", Collections.singletonMap("pat", "urn:other")));
+
+        Document document = read("<root xmlns:pat=\"urn:pat\"><pat:doc>1</pat:doc></root>");
+        assertEquals("1", XPathCache.get("/root/pat:doc", namespaces).selectSingleNode(document).getText());
+    }
+
+    @Test
+    public void prefixResolvedFromContextNode() throws DocumentException {
+        Document document = read("<root xmlns:pat=\"urn:pat\"><pat:doc>1</pat:doc></root>");
+        assertEquals("1", document.selectSingleNode("/root/pat:doc").getText());
+
+        Document other = read("<root xmlns:pat=\"urn:other\"><pat:doc>2</pat:doc></root>");
+        assertEquals("2", other.selectSingleNode("/root/pat:doc").getText());
+    }
+
+    @Test
+    public void itemNotTakenFromOutsideParent() throws DocumentException {
+        Document document = read(XML);
+        Node priorityClaim = document.selectSingleNode("/*/*/priority-claims/priority-claim");
+
+        // priority-claim has no document-id, the publication document-id elsewhere in the document is not used.
+        assertEquals(null, new DocumentIdNode(priorityClaim).read());
+
+        DocumentId priorityId = new DocumentIdNode(priorityClaim, "priority-claim", null).read();
+        assertEquals("JP2008-148514", priorityId.toText());
+    }
+}
@@ -0,0 +1,88 @@
+package gov.uspto.parser.dom4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.xml.parsers.DocumentBuilder;
+
+import org.dom4j.DocumentException;
+import org.dom4j.io.SAXReader;
+import org.junit.Test;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+public class XmlReadersTest {
+
+    private static final String XML = "<doc><doc-number>8927118</doc-number></doc>";
+
+    @Test
+    public void readerPerThread() throws InterruptedException {
+        final AtomicReference<SAXReader> otherSax = new AtomicReference<SAXReader>();
+        final AtomicReference<DocumentBuilder> otherBuilder = new AtomicReference<DocumentBuilder>();
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                otherSax.set(XmlReaders.saxReader());
+                otherBuilder.set(XmlReaders.documentBuilder());
+            }
+        };
+        thread.start();
+        thread.join();
+
+        assertSame(XmlReaders.saxReader(), XmlReaders.saxReader());
+        assertSame(XmlReaders.documentBuilder(), XmlReaders.documentBuilder());
+        assertNotSame(otherSax.get(), XmlReaders.saxReader());
+        assertNotSame(otherBuilder.get(), XmlReaders.documentBuilder());
+    }
+
+    @Test
+    public void saxReaderAfterFailedDocument() throws DocumentException {
+        try {
+            XmlReaders.read(new StringReader("<doc><doc-number>"));
+            fail("malformed document read");
+        } catch (DocumentException e) {
+            // expected.
+        }
+        assertEquals("8927118", XmlReaders.read(new StringReader(XML)).valueOf("/doc/doc-number"));
+    }
+
+    @Test
+    public void documentBuilderReset() throws SAXException, IOException {
+        DocumentBuilder builder = XmlReaders.documentBuilder();
+        builder.setErrorHandler(new ErrorHandler() {
+            @Override
+            public void warning(SAXParseException exception) {
+                throw new IllegalStateException("handler of the previous document");
+            }
+
+            @Override
+            public void error(SAXParseException exception) {
+                throw new IllegalStateException("handler of the previous document");
+            }
+
+            @Override
+            public void fatalError(SAXParseException exception) {
+                throw new IllegalStateException("handler of the previous document");
+            }
+        });
+
+        // the next caller gets the builder without the handler set above.
+        builder = XmlReaders.documentBuilder();
+        try {
+            builder.parse(new InputSource(new StringReader("<doc><doc-number>")));
+            fail("malformed document parsed");
+        } catch (SAXException e) {
+            // expected.
+        }
+        assertEquals("8927118",
+                builder.parse(new InputSource(new StringReader(XML))).getDocumentElement().getTextContent());
+    }
+}
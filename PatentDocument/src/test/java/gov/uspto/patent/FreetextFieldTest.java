@@ -0,0 +1,115 @@
+package gov.uspto.patent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import gov.uspto.patent.doc.simplehtml.FreetextConfig;
+import gov.uspto.patent.model.Abstract;
+import gov.uspto.patent.model.Claim;
+import gov.uspto.patent.model.ClaimType;
+
+public class FreetextFieldTest {
+
+    private static class CountingText implements TextProcessor {
+        private int plainCalls;
+        private int htmlCalls;
+
+        @Override
+        public String getPlainText(String xmlRawText, FreetextConfig textConfig) {
+            plainCalls++;
+            return "plain:" + xmlRawText;
+        }
+
+        @Override
+        public String getSimpleHtml(String xmlRawText) {
+            htmlCalls++;
+            return "html:" + xmlRawText;
+        }
+
+        @Override
+        public List<String> getParagraphText(String xmlRawText) {
+            return Collections.emptyList();
+        }
+    }
+
+    @Test
+    public void renderedOnce() {
+        CountingText textProcessor = new CountingText();
+        Abstract abstractText = new Abstract("<p>text</p>", textProcessor);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("plain:<p>text</p>", abstractText.getPlainText());
+            assertEquals("html:<p>text</p>", abstractText.getSimpleHtml());
+        }
+        assertEquals(1, textProcessor.plainCalls);
+        assertEquals(1, textProcessor.htmlCalls);
+    }
+
+    @Test
+    public void invalidateOnSetRawText() {
+        CountingText textProcessor = new CountingText();
+        Abstract abstractText = new Abstract("<p>text</p>", textProcessor);
+        abstractText.getPlainText();
+
+        abstractText.setRawText("<p>changed</p>");
+        assertEquals("plain:<p>changed</p>", abstractText.getPlainText());
+        assertEquals(2, textProcessor.plainCalls);
+    }
+
+    @Test
+    public void renderReleaseRawText() {
+        CountingText textProcessor = new CountingText();
+        Abstract abstractText = new Abstract("<p>text</p>", textProcessor);
+        abstractText.render(true);
+
+        assertNull(abstractText.getRawText());
+        assertEquals("plain:<p>text</p>", abstractText.getPlainText());
+        assertEquals("html:<p>text</p>", abstractText.getSimpleHtml());
+        assertEquals(1, textProcessor.plainCalls);
+        assertEquals(1, textProcessor.htmlCalls);
+    }
+
+    private static class CountingHtmlText extends CountingText implements HtmlTextProcessor {
+        @Override
+        public String getPlainTextFromHtml(String simpleHtml, FreetextConfig textConfig) {
+            return "plain:" + simpleHtml;
+        }
+    }
+
+    @Test
+    public void plainTextFromCachedHtml() {
+        CountingText textProcessor = new CountingHtmlText();
+        Abstract abstractText = new Abstract("<p>text</p>", textProcessor);
+        abstractText.render(true);
+
+        assertEquals("plain:html:<p>text</p>", abstractText.getPlainText());
+        assertEquals("plain:html:<p>text</p>", abstractText.getPlainText(FreetextConfig.getDefault()));
+        assertEquals(0, textProcessor.plainCalls);
+        assertEquals(1, textProcessor.htmlCalls);
+    }
+
+    @Test
+    public void claimPlainTextWithoutHtmlDecoration() {
+        Claim claim = new Claim("CLM-00001", "A widget comprising a gear", ClaimType.INDEPENDENT,
+                new CountingHtmlText());
+        assertEquals("<p class=\"claim\" id=\"CLM-00001\">html:A widget comprising a gear.\n</p>",
+                claim.getSimpleHtml());
+        assertEquals("plain:html:A widget comprising a gear", claim.getPlainText());
+    }
+
+    @Test
+    public void claimHtmlAfterRender() {
+        Claim claim = new Claim("CLM-00001", "A widget comprising a gear", ClaimType.INDEPENDENT,
+                new CountingHtmlText());
+        String html = claim.getSimpleHtml();
+        claim.render(true);
+
+        assertEquals(html, claim.getSimpleHtml());
+        assertEquals("plain:html:A widget comprising a gear", claim.getPlainText());
+    }
+}
@@ -0,0 +1,72 @@
+package gov.uspto.patent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+public class PatentDocFormatDetectTest {
+
+    private final PatentDocFormatDetect formatDetect = new PatentDocFormatDetect();
+
+    @Test
+    public void longPapHeader() throws IOException {
+        File file = new File("resources/samples/pap").listFiles()[0];
+        byte[] content = Files.readAllBytes(file.toPath());
+
+        // entity header is longer than the old 1000 char mark.
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8))) {
+            assertEquals(PatentDocFormat.Pap, formatDetect.fromContent(reader));
+            assertEquals(content[0], (byte) reader.read());
+        }
+    }
+
+    @Test
+    public void detectedStreamNotConsumed() throws IOException {
+        File file = new File("resources/samples/xml2014").listFiles()[0];
+        byte[] content = Files.readAllBytes(file.toPath());
+
+        PatentDocFormatDetect.DetectedStream in = formatDetect.detect(new ByteArrayInputStream(content));
+        assertEquals(PatentDocFormat.RedbookGrant, in.getPatentDocFormat());
+
+        byte[] read = new byte[content.length];
+        int length = 0;
+        int count;
+        while ((count = in.read(read, length, read.length - length)) > 0) {
+            length += count;
+        }
+        assertEquals(content.length, length);
+        assertEquals(new String(content, StandardCharsets.UTF_8), new String(read, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void cachedPerFile() throws IOException {
+        File file = new File("resources/samples/sgml").listFiles()[0];
+        try (FileInputStream in = new FileInputStream(file)) {
+            assertEquals(PatentDocFormat.Sgml, formatDetect.detect(file, null, in).getPatentDocFormat());
+        }
+        assertNotNull(formatDetect.getCached(file, null));
+
+        // cached, the stream is not read.
+        PatentDocFormatDetect.DetectedStream in = formatDetect.detect(file, null, new ByteArrayInputStream(new byte[0]));
+        assertEquals(PatentDocFormat.Sgml, in.getPatentDocFormat());
+    }
+
+    @Test
+    public void firstMatchingLine() {
+        assertEquals(PatentDocFormat.Greenbook, formatDetect.fromContent("HHHHHT\nPATN\nWKU  039327093\n"));
+        assertEquals(PatentDocFormat.RedbookGrant,
+                formatDetect.fromContent("<?xml version=\"1.0\"?>\r\n<us-patent-grant lang=\"EN\">"));
+        assertEquals(PatentDocFormat.Unknown, formatDetect.fromContent("<other/>"));
+    }
+}
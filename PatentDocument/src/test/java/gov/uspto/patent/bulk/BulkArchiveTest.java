@@ -0,0 +1,134 @@
+package gov.uspto.patent.bulk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static gov.uspto.patent.bulk.SampleBulkFiles.samples;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import gov.uspto.common.filter.SuffixFilter;
+
+public class BulkArchiveTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Zip with an xml bulk file per sample directory, and a non xml entry.
+     */
+    private File writeArchive(String... sampleDirs) throws IOException {
+        File zipFile = tempFolder.newFile("archive.zip");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zipFile))) {
+            for (String sampleDir : sampleDirs) {
+                out.putNextEntry(new ZipEntry("bulk/" + sampleDir + ".xml"));
+                out.write(samples(sampleDir, 1));
+                out.closeEntry();
+            }
+            out.putNextEntry(new ZipEntry("README.txt"));
+            out.write("readme".getBytes("UTF-8"));
+            out.closeEntry();
+        }
+        return zipFile;
+    }
+
+    private List<String> readSequential(File zipFile) throws IOException {
+        List<String> records = new ArrayList<String>();
+        BulkArchive archive = new BulkArchive(zipFile, new SuffixFilter("xml"));
+        archive.open();
+        try {
+            for (int i = 0; i < 2; i++) {
+                DumpFile dumpFile = archive.next();
+                dumpFile.open();
+                String record;
+                while ((record = dumpFile.read()) != null) {
+                    records.add(record);
+                }
+            }
+        } finally {
+            archive.close();
+        }
+        return records;
+    }
+
+    @Test
+    public void entryReadersConcurrent() throws IOException {
+        File zipFile = writeArchive("xml2014", "xmlApp2004");
+
+        BulkArchive archive = new BulkArchive(zipFile, new SuffixFilter("xml"));
+        archive.open();
+        Iterator<DumpReader> readers = archive.entryReaders();
+        archive.close();
+
+        DumpReader grants = readers.next();
+        DumpReader apps = readers.next();
+        assertEquals(false, readers.hasNext());
+        assertEquals("xml2014.xml", grants.getFile().getName());
+
+        // both entries open at once, records read interleaved.
+        grants.open();
+        apps.open();
+        List<String> grantRecords = new ArrayList<String>();
+        List<String> appRecords = new ArrayList<String>();
+        try {
+            String grant = grants.read();
+            String app = apps.read();
+            while (grant != null || app != null) {
+                if (grant != null) {
+                    grantRecords.add(grant);
+                    grant = grants.read();
+                }
+                if (app != null) {
+                    appRecords.add(app);
+                    app = apps.read();
+                }
+            }
+            assertNull(grants.read());
+        } finally {
+            grants.close();
+            apps.close();
+        }
+
+        List<String> expected = readSequential(zipFile);
+        List<String> actual = new ArrayList<String>(grantRecords);
+        actual.addAll(appRecords);
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void entryNamesDoesNotConsumeEntries() throws IOException {
+        File zipFile = writeArchive("xml2014", "xmlApp2004");
+
+        BulkArchive archive = new BulkArchive(zipFile, new SuffixFilter("xml"));
+        archive.open();
+        try {
+            assertEquals(Arrays.asList("bulk/xml2014.xml", "bulk/xmlApp2004.xml"), archive.entryNames());
+            assertEquals(archive.entryNames(), archive.entryNames());
+
+            Iterator<DumpReader> readers = archive.entryReaders();
+            assertEquals("bulk/xml2014.xml", readers.next().getEntryName());
+            assertEquals("bulk/xmlApp2004.xml", readers.next().getEntryName());
+
+            assertTrue(archive.hasNext());
+            archive.skip(1);
+            assertEquals(Arrays.asList("bulk/xmlApp2004.xml"), archive.entryNames());
+            assertEquals("bulk/xmlApp2004.xml", archive.next().getFile().getPath());
+            assertEquals(0, archive.entryNames().size());
+        } finally {
+            archive.close();
+        }
+    }
+}
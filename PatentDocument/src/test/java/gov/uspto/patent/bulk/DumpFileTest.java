@@ -0,0 +1,97 @@
+package gov.uspto.patent.bulk;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import gov.uspto.patent.PatentDocFormat;
+
+public class DumpFileTest {
+
+    private static final String GRANT_1 = "<us-patent-grant lang=\"EN\">\n<invention-title>Caf\u00e9 m\u00e9lange</invention-title>\n</us-patent-grant>\n";
+    private static final String GRANT_2 = "<us-patent-grant lang=\"EN\">\n<invention-title>Gear</invention-title>\n</us-patent-grant>\n";
+
+    private static final String APS_1 = "PATN\nWKU  D0123456\nTTL  Caf\u00e9 table\n";
+    private static final String APS_2 = "PATN\nWKU  D0123457\nTTL  Chair\n";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File write(String name, String content, Charset charset) throws IOException {
+        File file = tempFolder.newFile(name);
+        Files.write(file.toPath(), content.getBytes(charset));
+        return file;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void xmlRecordBytes() throws IOException {
+        String content = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n" + GRANT_1.replace("\n", "\r\n")
+                + "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r" + GRANT_2.replace("\n", "\r");
+        DumpFileXml dumpFile = new DumpFileXml(write("ipg140101.xml", content, StandardCharsets.UTF_8));
+        dumpFile.setPatentDocFormat(PatentDocFormat.RedbookGrant);
+        try {
+            dumpFile.open();
+            assertArrayEquals(GRANT_1.getBytes(StandardCharsets.UTF_8), readAll(dumpFile.nextDocument()));
+            assertEquals(GRANT_2, dumpFile.read());
+            assertNull(dumpFile.nextDocument());
+            assertFalse(dumpFile.hasNext());
+            assertEquals(2, dumpFile.getCurrentRecCount());
+        } finally {
+            dumpFile.close();
+        }
+    }
+
+    @Test
+    public void xmlStream() throws IOException {
+        byte[] content = (GRANT_1 + GRANT_2).getBytes(StandardCharsets.UTF_8);
+        DumpFileXml dumpFile = new DumpFileXml("ipg140101.xml", new ByteArrayInputStream(content));
+        try {
+            dumpFile.open();
+            assertEquals(PatentDocFormat.RedbookGrant, dumpFile.getPatentDocFormat());
+            assertEquals(GRANT_1, dumpFile.read());
+            assertArrayEquals(GRANT_2.getBytes(StandardCharsets.UTF_8), readAll(dumpFile.nextDocument()));
+            assertNull(dumpFile.read());
+        } finally {
+            dumpFile.close();
+        }
+    }
+
+    @Test
+    public void apsRecordBytes() throws IOException {
+        DumpFileAps dumpFile = new DumpFileAps(write("pftaps19760106.txt", "HHHHHT APS1\n" + APS_1 + APS_2,
+                StandardCharsets.ISO_8859_1));
+        dumpFile.setPatentDocFormat(PatentDocFormat.Greenbook);
+        try {
+            dumpFile.open();
+            assertArrayEquals(APS_1.getBytes(StandardCharsets.ISO_8859_1), readAll(dumpFile.nextDocument()));
+            assertEquals(APS_2, dumpFile.read());
+            assertNull(dumpFile.nextDocument());
+        } finally {
+            dumpFile.close();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package gov.uspto.patent.bulk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static gov.uspto.patent.bulk.SampleBulkFiles.writeBulkFile;
+import static gov.uspto.patent.bulk.SampleBulkFiles.zip;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import gov.uspto.common.filter.SuffixFilter;
+import gov.uspto.patent.PatentDocFormat;
+import gov.uspto.patent.PatentReader;
+import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.model.Patent;
+
+public class DumpFileXmlMappedTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private List<String> readLineBased(File file) throws IOException {
+        List<String> records = new ArrayList<String>();
+        DumpFileXml dumpFile = new DumpFileXml(file);
+        dumpFile.setFileFilter(new SuffixFilter("xml"));
+        try {
+            dumpFile.open();
+            String record;
+            while ((record = dumpFile.read()) != null) {
+                records.add(record);
+            }
+        } finally {
+            dumpFile.close();
+        }
+        return records;
+    }
+
+    private void assertSameRecords(File file) throws IOException {
+        List<String> expected = readLineBased(file);
+
+        DumpFileXmlMapped dumpFile = new DumpFileXmlMapped(file);
+        dumpFile.setFileFilter(new SuffixFilter("xml"));
+        try {
+            dumpFile.open();
+            assertEquals(PatentDocFormat.RedbookGrant, dumpFile.getPatentDocFormat());
+            for (String expectedRecord : expected) {
+                String record = dumpFile.read().replace("\r\n", "\n");
+                assertEquals(expectedRecord, record);
+            }
+            assertNull(dumpFile.read());
+            assertEquals(expected.size(), dumpFile.getCurrentRecCount());
+        } finally {
+            dumpFile.close();
+        }
+    }
+
+    @Test
+    public void mappedFile() throws IOException {
+        assertSameRecords(writeBulkFile(tempFolder.newFile("ipg140101.xml"), 1));
+    }
+
+    @Test
+    public void zipEntry() throws IOException {
+        File bulkFile = writeBulkFile(tempFolder.newFile("ipg140101.xml"), 1);
+        assertSameRecords(zip(tempFolder.newFile("ipg140101.zip"), bulkFile));
+    }
+
+    @Test
+    public void skip() throws IOException {
+        File bulkFile = writeBulkFile(tempFolder.newFile("ipg140101.xml"), 1);
+        List<String> expected = readLineBased(bulkFile);
+
+        DumpFileXmlMapped dumpFile = new DumpFileXmlMapped(bulkFile);
+        try {
+            dumpFile.open();
+            dumpFile.skip(2);
+            assertEquals(2, dumpFile.getCurrentRecCount());
+            assertEquals(expected.get(2), dumpFile.read().replace("\r\n", "\n"));
+        } finally {
+            dumpFile.close();
+        }
+    }
+
+    @Test
+    public void skipSameAsLineBased() throws IOException {
+        File bulkFile = writeBulkFile(tempFolder.newFile("ipg140101.xml"), 1);
+        List<String> expected = readLineBased(bulkFile);
+
+        DumpFileXml dumpFile = new DumpFileXml(bulkFile);
+        try {
+            dumpFile.open();
+            dumpFile.skip(2);
+            assertEquals(2, dumpFile.getCurrentRecCount());
+            assertEquals(expected.get(2), dumpFile.next());
+        } finally {
+            dumpFile.close();
+        }
+    }
+
+    @Test
+    public void nextDocumentNullAtEnd() throws IOException {
+        File bulkFile = writeBulkFile(tempFolder.newFile("ipg140101.xml"), 1);
+        int records = readLineBased(bulkFile).size();
+
+        for (DumpReader dumpFile : new DumpReader[] { new DumpFileXml(bulkFile), new DumpFileXmlMapped(bulkFile) }) {
+            try {
+                dumpFile.open();
+                for (int i = 0; i < records; i++) {
+                    dumpFile.nextDocument().close();
+                }
+                assertNull(dumpFile.nextDocument());
+            } finally {
+                dumpFile.close();
+            }
+        }
+    }
+
+    @Test
+    public void recordBytes() throws IOException, PatentReaderException {
+        DumpFileXmlMapped dumpFile = new DumpFileXmlMapped(writeBulkFile(tempFolder.newFile("ipg140101.xml"), 1));
+        try {
+            dumpFile.open();
+            assertEquals(StandardCharsets.UTF_8, dumpFile.getPatentDocFormat().getCharset());
+            PatentReader patentReader = new PatentReader(dumpFile.getPatentDocFormat());
+
+            RecordSlice record;
+            while ((record = dumpFile.nextRecord()) != null) {
+                Patent fromText = patentReader.read(new StringReader(record.toString()));
+                Patent fromBytes = patentReader.read(record.asInputStream());
+                assertEquals(fromText.getDocumentId(), fromBytes.getDocumentId());
+                assertEquals(fromText.getTitle(), fromBytes.getTitle());
+                assertEquals(fromText.getAbstract().getRawText(), fromBytes.getAbstract().getRawText());
+            }
+        } finally {
+            dumpFile.close();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package gov.uspto.patent.bulk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static gov.uspto.patent.bulk.SampleBulkFiles.writeBulkFile;
+import static gov.uspto.patent.bulk.SampleBulkFiles.zip;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import gov.uspto.common.filter.SuffixFilter;
+
+public class DumpIndexTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private List<String> readAll(File file) throws IOException {
+        List<String> records = new ArrayList<String>();
+        DumpFileXmlMapped dumpFile = new DumpFileXmlMapped(file);
+        dumpFile.setFileFilter(new SuffixFilter("xml"));
+        try {
+            dumpFile.open();
+            String record;
+            while ((record = dumpFile.read()) != null) {
+                records.add(record);
+            }
+        } finally {
+            dumpFile.close();
+        }
+        return records;
+    }
+
+    private void assertSeek(File file) throws IOException {
+        List<String> records = readAll(file);
+        DumpIndex index = DumpIndex.loadOrBuild(file, new SuffixFilter("xml"));
+        assertEquals(records.size(), index.size());
+        assertTrue(DumpIndex.indexFile(file).isFile());
+
+        DumpFileXmlMapped dumpFile = new DumpFileXmlMapped(file);
+        dumpFile.setFileFilter(new SuffixFilter("xml"));
+        dumpFile.setIndex(index);
+        try {
+            dumpFile.open();
+
+            // seek backwards by id, then continue reading from there.
+            for (int i = index.size(); i >= 1; i--) {
+                DumpIndex.Entry entry = index.get(i);
+                assertTrue(dumpFile.seek(entry.getDocId()));
+                assertEquals(records.get(i - 1), dumpFile.next());
+                assertEquals(i, dumpFile.getCurrentRecCount());
+                if (i < index.size()) {
+                    assertEquals(records.get(i), dumpFile.next());
+                }
+            }
+
+            assertFalse(dumpFile.seek("US0000000A1"));
+            assertFalse(dumpFile.seek(index.size() + 1));
+
+            assertTrue(dumpFile.seek(1));
+            dumpFile.skip(2);
+            assertEquals(records.get(2), dumpFile.next());
+        } finally {
+            dumpFile.close();
+        }
+    }
+
+    @Test
+    public void seekPlainFile() throws IOException {
+        assertSeek(writeBulkFile(tempFolder.newFile("ipg140101.xml"), 1));
+    }
+
+    @Test
+    public void seekZipFile() throws IOException {
+        File bulkFile = writeBulkFile(tempFolder.newFile("ipg140101.xml"), 1);
+        assertSeek(zip(tempFolder.newFile("ipg140101.zip"), bulkFile));
+    }
+
+    @Test
+    public void readWrite() throws IOException {
+        File bulkFile = writeBulkFile(tempFolder.newFile("ipg140101.xml"), 1);
+        DumpIndex index = DumpIndex.build(bulkFile, new SuffixFilter("xml"));
+        File indexFile = tempFolder.newFile("index.idx");
+        index.write(indexFile);
+
+        DumpIndex read = DumpIndex.read(indexFile);
+        assertEquals(index.size(), read.size());
+        for (int i = 1; i <= index.size(); i++) {
+            assertEquals(index.get(i).toString(), read.get(i).toString());
+        }
+        assertTrue(read.matches(bulkFile));
+
+        bulkFile.setLastModified(bulkFile.lastModified() - 10000);
+        assertFalse(read.matches(bulkFile));
+    }
+}
@@ -0,0 +1,69 @@
+package gov.uspto.patent.bulk;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Bulk files built from the sample records, for the bulk reader tests.
+ */
+public class SampleBulkFiles {
+
+    private SampleBulkFiles() {
+        // static helpers.
+    }
+
+    /**
+     * Sample records of a directory under resources/samples, concatenated as in a bulk file.
+     *
+     * @param sampleDir sample directory, such as "xml2014"
+     * @param copies number of times all samples are repeated
+     */
+    public static byte[] samples(String sampleDir, int copies) throws IOException {
+        File[] samples = new File("resources/samples/" + sampleDir).listFiles();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < copies; i++) {
+            for (File sample : samples) {
+                out.write(Files.readAllBytes(sample.toPath()));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Write a grant bulk file of the xml2014 samples.
+     *
+     * @param bulkFile file to write
+     * @param copies number of times all samples are repeated
+     * @return bulkFile
+     */
+    public static File writeBulkFile(File bulkFile, int copies) throws IOException {
+        try (OutputStream out = new FileOutputStream(bulkFile)) {
+            out.write(samples("xml2014", copies));
+        }
+        return bulkFile;
+    }
+
+    /**
+     * Write a zip with an entry for each file, named by the file name.
+     *
+     * @param zipFile zip to write
+     * @param files files to add
+     * @return zipFile
+     */
+    public static File zip(File zipFile, File... files) throws IOException {
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zipFile))) {
+            for (File file : files) {
+                out.putNextEntry(new ZipEntry(file.getName()));
+                out.write(Files.readAllBytes(file.toPath()));
+                out.closeEntry();
+            }
+        }
+        return zipFile;
+    }
+}
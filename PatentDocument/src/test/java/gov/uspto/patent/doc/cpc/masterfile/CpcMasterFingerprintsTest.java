@@ -0,0 +1,128 @@
+package gov.uspto.patent.doc.cpc.masterfile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import gov.uspto.patent.model.CountryCode;
+import gov.uspto.patent.model.DocumentId;
+import gov.uspto.patent.model.classification.CpcClassification;
+
+public class CpcMasterFingerprintsTest {
+
+    private File storeFile;
+
+    @Before
+    public void setUp() throws IOException {
+        storeFile = File.createTempFile("cpcFingerprints", ".bin");
+        storeFile.delete();
+    }
+
+    @After
+    public void tearDown() {
+        storeFile.delete();
+    }
+
+    private static MasterClassificationRecord record(String patentNumber, String... cpcs) throws ParseException {
+        List<CpcClassification> cpcClasses = new ArrayList<CpcClassification>();
+        for (int i = 0; i < cpcs.length; i++) {
+            CpcClassification cpcClass = CpcClassification.fromText(cpcs[i]);
+            cpcClass.setIsMainClassification(i == 0);
+            cpcClasses.add(cpcClass);
+        }
+        return new MasterClassificationRecord(new DocumentId(CountryCode.US, patentNumber, "B2"),
+                new DocumentId(CountryCode.US, "13897484"), cpcClasses);
+    }
+
+    @Test
+    public void deltaAgainstPreviousMaster() throws IOException, ParseException {
+        try (CpcMasterFingerprints fingerprints = CpcMasterFingerprints.open(storeFile)) {
+            assertEquals(0, fingerprints.getStoredCount());
+            for (int i = 0; i < 5000; i++) {
+                assertEquals(CpcMasterChange.Type.ADDED,
+                        fingerprints.compare(record(String.valueOf(8000000 + i), "H04N21/4394", "H04N21/00")));
+            }
+            assertEquals(CpcMasterChange.Type.ADDED,
+                    fingerprints.compare(record("9400000", "F04D29/703", "F04D17/08", "F04D29/4226")));
+            assertTrue(fingerprints.removed().isEmpty());
+            fingerprints.commit();
+        }
+
+        try (CpcMasterFingerprints fingerprints = CpcMasterFingerprints.open(storeFile)) {
+            assertEquals(5001, fingerprints.getStoredCount());
+            // further classifications in another order are unchanged.
+            assertNull(fingerprints.compare(record("09400000", "F04D29/703", "F04D29/4226", "F04D17/08")));
+            assertEquals(CpcMasterChange.Type.CHANGED,
+                    fingerprints.compare(record("8000000", "H04N21/00", "H04N21/4394")));
+            assertEquals(CpcMasterChange.Type.ADDED, fingerprints.compare(record("9400001", "A61B5/0205")));
+            for (int i = 1; i < 4999; i++) {
+                assertNull(fingerprints.compare(record(String.valueOf(8000000 + i), "H04N21/4394", "H04N21/00")));
+            }
+
+            List<DocumentId> removed = fingerprints.removed();
+            assertEquals(1, removed.size());
+            assertEquals("8004999", removed.get(0).getDocNumber());
+            fingerprints.commit();
+        }
+
+        try (CpcMasterFingerprints fingerprints = CpcMasterFingerprints.open(storeFile)) {
+            assertEquals(5001, fingerprints.getStoredCount());
+        }
+    }
+
+    @Test
+    public void notCommittedKeepsStore() throws IOException, ParseException {
+        try (CpcMasterFingerprints fingerprints = CpcMasterFingerprints.open(storeFile)) {
+            fingerprints.compare(record("9400000", "F04D29/703"));
+            fingerprints.commit();
+        }
+        try (CpcMasterFingerprints fingerprints = CpcMasterFingerprints.open(storeFile)) {
+            fingerprints.compare(record("9400000", "H04N21/4394"));
+        }
+        try (CpcMasterFingerprints fingerprints = CpcMasterFingerprints.open(storeFile)) {
+            assertEquals(CpcMasterChange.Type.CHANGED, fingerprints.compare(record("9400000", "H04N21/4394")));
+        }
+        assertFalse(new File(storeFile.getPath() + ".next").exists());
+    }
+
+    @Test
+    public void deltaCsvAndJson() throws IOException, ParseException {
+        MasterClassificationRecord record = record("9400000", "F04D29/703", "F04D17/08");
+        CpcMasterChange changed = new CpcMasterChange(CpcMasterChange.Type.CHANGED, record);
+        CpcMasterChange removed = CpcMasterChange.removed(new DocumentId(CountryCode.US, "9400001", "B2"));
+
+        StringWriter csv = new StringWriter();
+        MasterCpcDeltaCsvBuilder csvBuilder = new MasterCpcDeltaCsvBuilder();
+        csvBuilder.write(changed, csv);
+        csvBuilder.write(removed, csv);
+        String[] rows = csv.toString().split("\n");
+        assertEquals(3, rows.length);
+        assertTrue(rows[0], rows[0].startsWith("changed,US9400000B2,US,9400000,B2,"));
+        assertTrue(rows[0], rows[0].endsWith(",main," + record.getMainCPC().toText()));
+        assertEquals(11, rows[2].split(",", -1).length);
+        assertTrue(rows[2], rows[2].startsWith("removed,US9400001B2,US,9400001,B2,"));
+
+        StringWriter json = new StringWriter();
+        MasterCpcDeltaJsonBuilder jsonBuilder = new MasterCpcDeltaJsonBuilder();
+        jsonBuilder.write(changed, json);
+        jsonBuilder.write(removed, json);
+        String[] lines = json.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0], lines[0].contains("\"mainCpc\":\"" + record.getMainCPC().toText() + "\""));
+        String furtherCpc = record.getFutherCPC().get(0).toText();
+        assertTrue(lines[0], lines[0].contains("\"furtherCpc\":[\"" + furtherCpc + "\"]"));
+        assertEquals("{\"change\":\"removed\",\"grantId\":\"US9400001B2\"}", lines[1]);
+    }
+}
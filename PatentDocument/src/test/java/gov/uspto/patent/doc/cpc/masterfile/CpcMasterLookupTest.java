@@ -0,0 +1,129 @@
+package gov.uspto.patent.doc.cpc.masterfile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.model.CountryCode;
+import gov.uspto.patent.model.DocumentId;
+import gov.uspto.patent.model.Patent;
+import gov.uspto.patent.model.PatentGranted;
+import gov.uspto.patent.model.PatentType;
+import gov.uspto.patent.model.classification.Classification;
+import gov.uspto.patent.model.classification.ClassificationType;
+import gov.uspto.patent.model.classification.CpcClassification;
+import gov.uspto.patent.model.classification.UspcClassification;
+
+public class CpcMasterLookupTest {
+
+    private File lookupFile;
+
+    @Before
+    public void setUp() throws IOException {
+        lookupFile = File.createTempFile("cpcLookup", ".bin");
+    }
+
+    @After
+    public void tearDown() {
+        lookupFile.delete();
+    }
+
+    private static MasterClassificationRecord record(String patentNumber, String... cpcs) throws ParseException {
+        List<CpcClassification> cpcClasses = new ArrayList<CpcClassification>();
+        for (int i = 0; i < cpcs.length; i++) {
+            CpcClassification cpcClass = CpcClassification.fromText(cpcs[i]);
+            cpcClass.setIsMainClassification(i == 0);
+            cpcClasses.add(cpcClass);
+        }
+        return new MasterClassificationRecord(new DocumentId(CountryCode.US, patentNumber, "B2"), null, cpcClasses);
+    }
+
+    @Test
+    public void lookupSample() throws PatentReaderException, IOException, ParseException {
+        CpcMasterLookup.Builder builder = new CpcMasterLookup.Builder(lookupFile);
+        try (InputStream inputStream = new FileInputStream("resources/samples/cpcMaster/cpcMaster.xml");
+                CpcMasterStaxReader reader = new CpcMasterStaxReader(inputStream)) {
+            assertTrue(builder.add(reader.next()));
+        }
+        for (int i = 0; i < 5000; i++) {
+            builder.add(record(String.valueOf(8000000 + i), "H04N21/4394", "H04N21/00"));
+        }
+        builder.add(record("D712345", "A61B5/0205"));
+        builder.build();
+
+        try (CpcMasterLookup lookup = CpcMasterLookup.open(lookupFile)) {
+            assertEquals(5002, lookup.getRecordCount());
+            assertEquals(12, lookup.getSymbolCount());
+
+            List<CpcClassification> cpcClasses = lookup.lookup(new DocumentId(CountryCode.US, "09400000", "B1"));
+            assertEquals(9, cpcClasses.size());
+            assertEquals("F04D 29/703", cpcClasses.get(0).toText());
+            assertTrue(cpcClasses.get(0).isMainClassification());
+            assertFalse(cpcClasses.get(1).isMainClassification());
+
+            assertEquals("H04N 21/4394", lookup.lookup(new DocumentId(CountryCode.US, "8004999")).get(0).toText());
+            assertEquals("A61B 5/0205", lookup.lookup(new DocumentId(CountryCode.US, "D0712345", "S")).get(0).toText());
+            assertNull(lookup.lookup(new DocumentId(CountryCode.US, "8005000")));
+            assertNull(lookup.lookup(new DocumentId(CountryCode.EP, "9400000")));
+        }
+    }
+
+    @Test
+    public void laterRecordReplaces() throws IOException, ParseException {
+        CpcMasterLookup.Builder builder = new CpcMasterLookup.Builder(lookupFile);
+        builder.add(record("9400000", "H04N21/4394"));
+        builder.add(record("9400000", "F04D29/703"));
+        builder.build();
+
+        try (CpcMasterLookup lookup = CpcMasterLookup.open(lookupFile)) {
+            assertEquals(1, lookup.getRecordCount());
+            assertEquals("F04D 29/703", lookup.lookup(new DocumentId(CountryCode.US, "9400000")).get(0).toText());
+        }
+    }
+
+    @Test
+    public void closeWithoutBuild() throws IOException, ParseException {
+        try (CpcMasterLookup.Builder builder = new CpcMasterLookup.Builder(lookupFile)) {
+            builder.add(record("9400000", "H04N21/4394"));
+            assertTrue(new File(lookupFile.getPath() + ".records.tmp").exists());
+        }
+        assertFalse(new File(lookupFile.getPath() + ".records.tmp").exists());
+        assertEquals(0, lookupFile.length());
+    }
+
+    @Test
+    public void overlayReplacesCpcOnly() throws IOException, ParseException {
+        CpcMasterLookup.Builder builder = new CpcMasterLookup.Builder(lookupFile);
+        builder.add(record("9400000", "F04D29/703", "F04D17/08"));
+        builder.build();
+
+        Patent patent = new PatentGranted(new DocumentId(CountryCode.US, "9400000", "B2"), PatentType.UTILITY);
+        UspcClassification uspc = UspcClassification.fromText("415/119");
+        patent.addClassification(Arrays.<Classification> asList(CpcClassification.fromText("H04N21/4394"), uspc));
+
+        try (CpcMasterLookup lookup = CpcMasterLookup.open(lookupFile)) {
+            assertTrue(lookup.overlay(patent));
+        }
+
+        List<? extends Classification> cpcClasses = Classification.getByType(patent.getClassification(),
+                ClassificationType.CPC);
+        assertEquals(2, cpcClasses.size());
+        assertFalse(cpcClasses.contains(CpcClassification.fromText("H04N21/4394")));
+        assertTrue(patent.getClassification().contains(uspc));
+    }
+}
@@ -0,0 +1,114 @@
+package gov.uspto.patent.doc.cpc.masterfile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CpcMasterParserTest {
+
+    private static final String HEADER = "<?xml version=\"1.0\" ?>\n<uspat:CPCMasterClassificationFile"
+            + " xmlns:uspat=\"patent:uspto:doc:us:gov\" xmlns:com=\"http://www.wipo.int/standards/XMLSchema/ST96/Common\""
+            + " xmlns:pat=\"http://www.wipo.int/standards/XMLSchema/ST96/Patent\">\n";
+    private static final String FOOTER = "</uspat:CPCMasterClassificationFile>";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private static String record(String patentNumber, String subgroup) {
+        return "<uspat:CPCMasterClassificationRecord><pat:PatentGrantIdentification><com:IPOfficeCode>US</com:IPOfficeCode>"
+                + "<pat:PatentNumber>" + patentNumber + "</pat:PatentNumber>"
+                + "<com:PatentDocumentKindCode>B2</com:PatentDocumentKindCode></pat:PatentGrantIdentification>"
+                + "<pat:ApplicationIdentification><com:IPOfficeCode>US</com:IPOfficeCode><com:ApplicationNumber>"
+                + "<com:ApplicationNumberText>13897484</com:ApplicationNumberText></com:ApplicationNumber>"
+                + "</pat:ApplicationIdentification>"
+                + "<pat:CPCClassificationBag><pat:MainCPC><pat:CPCClassification><pat:CPCSection>H</pat:CPCSection>"
+                + "<pat:Class>04</pat:Class><pat:Subclass>N</pat:Subclass><pat:MainGroup>21</pat:MainGroup>"
+                + "<pat:Subgroup>" + subgroup + "</pat:Subgroup>"
+                + "</pat:CPCClassification></pat:MainCPC></pat:CPCClassificationBag>"
+                + "</uspat:CPCMasterClassificationRecord>\n";
+    }
+
+    /**
+     * Master zip of two files, records numbered from start.
+     */
+    private File masterZip(String name, int start, int records, String subgroup) throws IOException {
+        File zipFile = tempFolder.newFile(name);
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zipFile))) {
+            for (int file = 0; file < 2; file++) {
+                StringBuilder xml = new StringBuilder(HEADER);
+                for (int i = 0; i < records; i++) {
+                    xml.append(record(String.valueOf(start + file * records + i), subgroup));
+                }
+                xml.append(FOOTER);
+                out.putNextEntry(new ZipEntry("US_Grant_CPC_MCF_XML_" + file + ".xml"));
+                out.write(xml.toString().getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return zipFile;
+    }
+
+    private CpcMasterParser parser(File zipFile, File outDir) throws IOException {
+        CpcMasterParser parser = new CpcMasterParser(zipFile, new MasterCpcCsvBuilder(), outDir.toPath());
+        parser.open();
+        return parser;
+    }
+
+    @Test
+    public void csvForEachMasterFile() throws IOException {
+        File outDir = tempFolder.newFolder("csv");
+        CpcMasterParser parser = parser(masterZip("master.zip", 9400000, 50, "4394"), outDir);
+        parser.process(2);
+        parser.close();
+
+        for (int file = 0; file < 2; file++) {
+            File csv = new File(outDir, "cpc_master_US_Grant_CPC_MCF_XML_" + file + ".xml.csv");
+            List<String> rows = Files.readAllLines(csv.toPath(), StandardCharsets.UTF_8);
+            assertEquals(50, rows.size());
+            assertTrue(rows.get(0), rows.get(0).startsWith("US" + (9400000 + file * 50) + "B2,"));
+        }
+    }
+
+    @Test
+    public void deltaAgainstFingerprints() throws IOException {
+        File storeFile = new File(tempFolder.getRoot(), "fingerprints.bin");
+
+        File outDir = tempFolder.newFolder("first");
+        try (CpcMasterFingerprints fingerprints = CpcMasterFingerprints.open(storeFile)) {
+            CpcMasterParser parser = parser(masterZip("first.zip", 9400000, 50, "4394"), outDir);
+            File deltaFile = new File(outDir, "delta.csv");
+            parser.setDelta(fingerprints, new MasterCpcDeltaCsvBuilder(), deltaFile);
+            parser.process(2);
+            parser.close();
+            assertEquals(100, Files.readAllLines(deltaFile.toPath(), StandardCharsets.UTF_8).size());
+        }
+
+        // one record dropped from the front, one added at the end.
+        outDir = tempFolder.newFolder("second");
+        try (CpcMasterFingerprints fingerprints = CpcMasterFingerprints.open(storeFile)) {
+            assertEquals(100, fingerprints.getStoredCount());
+            CpcMasterParser parser = parser(masterZip("second.zip", 9400001, 50, "4394"), outDir);
+            File deltaFile = new File(outDir, "delta.csv");
+            parser.setDelta(fingerprints, new MasterCpcDeltaCsvBuilder(), deltaFile);
+            parser.process(2);
+            parser.close();
+
+            List<String> rows = Files.readAllLines(deltaFile.toPath(), StandardCharsets.UTF_8);
+            assertEquals(2, rows.size());
+            assertTrue(rows.get(0), rows.get(0).startsWith("added,US9400100B2,"));
+            assertTrue(rows.get(1), rows.get(1).startsWith("removed,US9400000B2,"));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package gov.uspto.patent.doc.cpc.masterfile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.Test;
+
+import gov.uspto.patent.PatentReaderException;
+
+public class CpcMasterStaxReaderTest {
+
+    private static final String SAMPLE = "resources/samples/cpcMaster/cpcMaster.xml";
+
+    private static final String HEADER = "<?xml version=\"1.0\" ?>\n<uspat:CPCMasterClassificationFile"
+            + " xmlns:uspat=\"patent:uspto:doc:us:gov\" xmlns:com=\"http://www.wipo.int/standards/XMLSchema/ST96/Common\""
+            + " xmlns:pat=\"http://www.wipo.int/standards/XMLSchema/ST96/Patent\">\n";
+    private static final String FOOTER = "</uspat:CPCMasterClassificationFile>";
+
+    private static String record(String patentNumber, String subgroup) {
+        return "<uspat:CPCMasterClassificationRecord><pat:PatentGrantIdentification><com:IPOfficeCode>US</com:IPOfficeCode>"
+                + "<pat:PatentNumber>" + patentNumber + "</pat:PatentNumber>"
+                + "<com:PatentDocumentKindCode>B2</com:PatentDocumentKindCode></pat:PatentGrantIdentification>"
+                + "<pat:CPCClassificationBag><pat:MainCPC><pat:CPCClassification><pat:CPCSection>H</pat:CPCSection>"
+                + "<pat:Class>04</pat:Class><pat:Subclass>N</pat:Subclass><pat:MainGroup>21</pat:MainGroup>"
+                + (subgroup != null ? "<pat:Subgroup>" + subgroup + "</pat:Subgroup>" : "")
+                + "</pat:CPCClassification></pat:MainCPC></pat:CPCClassificationBag>"
+                + "</uspat:CPCMasterClassificationRecord>\n";
+    }
+
+    @Test
+    public void readSample() throws PatentReaderException, IOException {
+        try (InputStream inputStream = new FileInputStream(SAMPLE);
+                CpcMasterStaxReader reader = new CpcMasterStaxReader(inputStream)) {
+            MasterClassificationRecord record = reader.next();
+            assertEquals("9400000", record.getGrantId().getDocNumber());
+            assertEquals("B2", record.getGrantId().getKindCode());
+            assertEquals("13897484", record.getAppId().getDocNumber());
+            assertEquals("F04D 29/703", record.getMainCPC().toText());
+            assertEquals(8, record.getFutherCPC().size());
+            assertNull(reader.next());
+            assertEquals(1, reader.getRecordCount());
+        }
+    }
+
+    @Test
+    public void sameAsCpcMasterReader() throws PatentReaderException, IOException {
+        String xml = new String(Files.readAllBytes(Paths.get(SAMPLE)), StandardCharsets.UTF_8);
+        String rawRecord = xml.substring(xml.indexOf("<uspat:CPCMasterClassificationRecord>"),
+                xml.indexOf(FOOTER));
+        MasterClassificationRecord expected = new CpcMasterReader().read(new StringReader(rawRecord));
+
+        try (InputStream inputStream = new FileInputStream(SAMPLE);
+                CpcMasterStaxReader reader = new CpcMasterStaxReader(inputStream)) {
+            MasterClassificationRecord record = reader.next();
+            MasterCpcCsvBuilder csvBuilder = new MasterCpcCsvBuilder();
+            assertEquals(csvBuilder.build(expected), csvBuilder.build(record));
+        }
+    }
+
+    @Test
+    public void continuesAfterIncompleteRecord() throws PatentReaderException, IOException {
+        String xml = HEADER + record("1", null) + record("2", "4394") + FOOTER;
+        try (CpcMasterStaxReader reader = new CpcMasterStaxReader(
+                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)))) {
+            try {
+                reader.next();
+                fail("incomplete record read");
+            } catch (PatentReaderException e) {
+                // expected.
+            }
+            MasterClassificationRecord record = reader.next();
+            assertEquals("2", record.getGrantId().getDocNumber());
+            assertEquals("H04N 21/4394", record.getMainCPC().toText());
+            assertNull(reader.next());
+        }
+    }
+}
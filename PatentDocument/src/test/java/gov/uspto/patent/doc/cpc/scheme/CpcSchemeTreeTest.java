@@ -0,0 +1,140 @@
+package gov.uspto.patent.doc.cpc.scheme;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.model.classification.CpcClassification;
+
+public class CpcSchemeTreeTest {
+
+	private static final File SAMPLE_DIR = new File("resources/samples/cpcScheme");
+	private static final File SAMPLE = new File(SAMPLE_DIR, "cpc-scheme-A01L.xml");
+
+	private static final String SECTION_XML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<class-scheme>"
+			+ "<classification-item level=\"2\"><classification-symbol>A</classification-symbol>"
+			+ "<class-title><title-part><text>HUMAN NECESSITIES</text></title-part></class-title>"
+			+ "<classification-item level=\"4\"><classification-symbol>A01</classification-symbol>"
+			+ "<class-title><title-part><text>AGRICULTURE</text></title-part></class-title>"
+			+ "<classification-item level=\"5\"><classification-symbol>A01L</classification-symbol>"
+			+ "</classification-item></classification-item></classification-item></class-scheme>";
+
+	private Path schemeDir;
+
+	@Before
+	public void setUp() throws IOException {
+		schemeDir = Files.createTempDirectory("cpcScheme");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		for (File file : schemeDir.toFile().listFiles()) {
+			file.delete();
+		}
+		Files.delete(schemeDir);
+	}
+
+	@Test
+	public void sameTitlesAsCpcXmlParser() throws IOException, PatentReaderException {
+		CpcSchemeTree tree = CpcSchemeTree.load(SAMPLE_DIR, 2);
+		assertEquals(20, tree.size());
+
+		ClassificationItem root = new CpcXmlParser().parse(SAMPLE);
+		assertEquals(root.getTitleText(), tree.getTitle("A01L"));
+		Iterator<ClassificationItem> items = root.getItemIterator();
+		int count = 1;
+		while (items.hasNext()) {
+			ClassificationItem item = items.next();
+			if (!item.getTitleText().isEmpty()) {
+				assertEquals(item.getSymbol(), item.getTitleText(), tree.getTitle(item.getSymbol()));
+			}
+			count++;
+		}
+		assertEquals(tree.size(), count);
+	}
+
+	@Test
+	public void pathAndChildren() throws IOException, ParseException {
+		CpcSchemeTree tree = CpcSchemeTree.load(SAMPLE_DIR, 1);
+
+		int node = tree.indexOf("A01L 1/02");
+		assertEquals("Solid horseshoes consisting of one part", tree.getTitle(node));
+		assertEquals(node, tree.indexOf(CpcClassification.fromText("A01L1/02")));
+		assertEquals(tree.indexOf("A01L1/00"), tree.getParent(node));
+		assertEquals(tree.indexOf("A01L1/00"), tree.indexOf(CpcClassification.fromParts("", "A", "01", "L", "1", null)));
+
+		int[] path = tree.getPath(node);
+		assertEquals(4, path.length);
+		assertEquals(-1, tree.getParent(path[0]));
+		assertEquals(3, tree.getTitlePath("A01L1/02").size());
+
+		int[] children = tree.getChildren(tree.indexOf("A01L7/00"));
+		assertEquals(5, children.length);
+		assertEquals("A01L7/10", tree.getSymbol(children[4]));
+
+		assertEquals(-1, tree.indexOf("A01L99/00"));
+		assertNull(tree.getTitle("A01L99/00"));
+	}
+
+	@Test
+	public void subclassFilePlacedInSection() throws IOException {
+		Files.copy(SAMPLE.toPath(), schemeDir.resolve(SAMPLE.getName()));
+		Files.write(schemeDir.resolve("cpc-scheme-A.xml"), SECTION_XML.getBytes(StandardCharsets.UTF_8));
+
+		CpcSchemeTree tree = CpcSchemeTree.load(schemeDir.toFile(), 2);
+		assertEquals(22, tree.size());
+		assertEquals(0, tree.indexOf("A"));
+		assertTrue(tree.getTitle("A01L").startsWith("SHOEING OF ANIMALS"));
+		assertEquals(tree.indexOf("A01"), tree.getParent(tree.indexOf("A01L")));
+
+		String title = tree.getTitle("A01L1/02");
+		assertEquals(Arrays.asList("HUMAN NECESSITIES", "AGRICULTURE", tree.getTitle("A01L"), tree.getTitle("A01L1/00"),
+				title), tree.getTitlePath("A01L1/02"));
+	}
+
+	@Test
+	public void failedFileSkipped() throws IOException {
+		Files.copy(SAMPLE.toPath(), schemeDir.resolve(SAMPLE.getName()));
+		Files.write(schemeDir.resolve("cpc-scheme-A01B.xml"),
+				"<class-scheme><classification-item>".getBytes(StandardCharsets.UTF_8));
+
+		CpcSchemeTree tree = CpcSchemeTree.load(schemeDir.toFile(), 2);
+		assertEquals(20, tree.size());
+		assertTrue(tree.getTitle("A01L").startsWith("SHOEING OF ANIMALS"));
+	}
+
+	@Test
+	public void snapshotRoundTrip() throws IOException, FileNotFoundException {
+		Files.copy(SAMPLE.toPath(), schemeDir.resolve(SAMPLE.getName()));
+		Files.write(schemeDir.resolve("cpc-scheme-A.xml"), SECTION_XML.getBytes(StandardCharsets.UTF_8));
+		CpcSchemeTree tree = CpcSchemeTree.load(schemeDir.toFile(), 2);
+
+		File snapshotFile = schemeDir.resolve("scheme.snapshot").toFile();
+		tree.writeSnapshot(snapshotFile);
+		CpcSchemeTree read = CpcSchemeTree.readSnapshot(snapshotFile);
+
+		assertEquals(tree.size(), read.size());
+		for (int node = 0; node < tree.size(); node++) {
+			assertEquals(tree.getSymbol(node), read.getSymbol(node));
+			assertEquals(tree.getTitle(node), read.getTitle(node));
+			assertEquals(tree.getParent(node), read.getParent(node));
+			assertEquals(tree.indexOf(tree.getSymbol(node)), read.indexOf(tree.getSymbol(node)));
+		}
+		assertEquals(tree.getTitlePath("A01L7/10"), read.getTitlePath("A01L7/10"));
+	}
+}
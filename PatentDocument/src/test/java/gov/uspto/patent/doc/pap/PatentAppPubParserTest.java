@@ -14,7 +14,11 @@ import com.google.common.base.Preconditions;
 
 import gov.uspto.document.test.ValidatePatent;
 import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.model.CountryCode;
+import gov.uspto.patent.model.DocumentId;
 import gov.uspto.patent.model.Patent;
+import gov.uspto.patent.model.entity.Inventor;
+import gov.uspto.patent.model.entity.NamePerson;
 
 public class PatentAppPubParserTest {
 
@@ -30,4 +34,24 @@ public class PatentAppPubParserTest {
         }
     }
 
+    @Test
+    public void inventorAssigneeAndPriority() throws PatentReaderException, IOException {
+        Patent patent = new PatentAppPubParser().parse(new File("resources/samples/pap/US20010000943A1.xml"));
+
+        // inventors have only a residence, no address element.
+        Inventor inventor = patent.getInventors().get(0);
+        assertEquals("Fukuoka", ((NamePerson) inventor.getName()).getLastName());
+        assertEquals("Sodegaura-shi", inventor.getAddress().getCity());
+        assertEquals(CountryCode.JP, inventor.getAddress().getCountry());
+        assertEquals(CountryCode.JP, inventor.getResidency());
+
+        assertEquals(1, patent.getAssignee().size());
+        assertEquals("IDEMITSU KOSAN CO., LTD.", patent.getAssignee().get(0).getName().getName());
+
+        assertEquals(1, patent.getPriorityIds().size());
+        DocumentId priorityId = patent.getPriorityIds().iterator().next();
+        assertEquals(CountryCode.JP, priorityId.getCountryCode());
+        assertEquals("11-097727", priorityId.getDocNumber());
+    }
+
 }
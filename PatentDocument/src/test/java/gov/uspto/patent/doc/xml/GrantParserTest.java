@@ -1,5 +1,8 @@
 package gov.uspto.patent.doc.xml;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
@@ -12,6 +15,9 @@ import com.google.common.base.Preconditions;
 
 import gov.uspto.document.test.ValidatePatent;
 import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.model.CountryCode;
+import gov.uspto.patent.model.DocumentId;
+import gov.uspto.patent.model.PatCitation;
 import gov.uspto.patent.model.Patent;
 
 public class GrantParserTest {
@@ -52,4 +58,27 @@ public class GrantParserTest {
         }
     }
 
+    @Test
+    public void citationClassifications() throws PatentReaderException, IOException {
+        Patent patent = new GrantParser().parse(new File("resources/samples/xml2014/US08926509.xml"));
+
+        // a citation without a classification does not get the patent's own.
+        PatCitation citation = (PatCitation) patent.getCitations().get(0);
+        assertEquals("4313443", citation.getDocumentId().getDocNumber());
+        assertNull(citation.getClassification());
+
+        citation = (PatCitation) patent.getCitations().get(3);
+        assertEquals("600510", citation.getClassification().getText());
+    }
+
+    @Test
+    public void priorityClaims() throws PatentReaderException, IOException {
+        Patent patent = new GrantParser().parse(new File("resources/samples/xml2014/US08927118.xml"));
+
+        assertEquals(1, patent.getPriorityIds().size());
+        DocumentId priorityId = patent.getPriorityIds().iterator().next();
+        assertEquals(CountryCode.JP, priorityId.getCountryCode());
+        assertEquals("2008-148514", priorityId.getDocNumber());
+    }
+
 }
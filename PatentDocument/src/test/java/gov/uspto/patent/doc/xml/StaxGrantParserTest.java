@@ -0,0 +1,98 @@
+package gov.uspto.patent.doc.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import gov.uspto.document.test.ValidatePatent;
+import gov.uspto.patent.PatentDocFormat;
+import gov.uspto.patent.PatentReader;
+import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.PatentSection;
+import gov.uspto.patent.model.Claim;
+import gov.uspto.patent.model.DescriptionSection;
+import gov.uspto.patent.model.Patent;
+
+public class StaxGrantParserTest {
+
+    private static final String[] SAMPLE_DIRS = new String[] { "resources/samples/xml2004",
+            "resources/samples/xml2006", "resources/samples/xml2014" };
+
+    private Patent read(File file, PatentReader.Engine engine) throws PatentReaderException, IOException {
+        return read(file, engine, PatentSection.ALL);
+    }
+
+    private Patent read(File file, PatentReader.Engine engine, Set<PatentSection> sections)
+            throws PatentReaderException, IOException {
+        try (Reader reader = new FileReader(file)) {
+            PatentReader patentReader = new PatentReader(PatentDocFormat.RedbookGrant, engine);
+            patentReader.setSections(sections);
+            return patentReader.read(reader);
+        }
+    }
+
+    @Test
+    public void sameAsDom4j() throws PatentReaderException, IOException, IllegalAccessException,
+            IllegalArgumentException, InvocationTargetException {
+        for (String dir : SAMPLE_DIRS) {
+            for (File file : new File(dir).listFiles()) {
+                Patent expected = read(file, PatentReader.Engine.DOM4J);
+                Patent patent = read(file, PatentReader.Engine.STAX);
+                ValidatePatent.methodsReturnNonNull(patent);
+
+                assertEquals(file.getName(), expected.getAbstract().getRawText(), patent.getAbstract().getRawText());
+
+                assertEquals(expected.getClaims().size(), patent.getClaims().size());
+                for (int i = 0; i < expected.getClaims().size(); i++) {
+                    Claim expectedClaim = expected.getClaims().get(i);
+                    Claim claim = patent.getClaims().get(i);
+                    assertEquals(expectedClaim.getRawText(), claim.getRawText());
+                    assertEquals(expectedClaim.getClaimType(), claim.getClaimType());
+                    assertEquals(expectedClaim.getDependentIds(), claim.getDependentIds());
+                }
+
+                assertEquals(expected.getDescription().getSections().size(),
+                        patent.getDescription().getSections().size());
+                for (int i = 0; i < expected.getDescription().getSections().size(); i++) {
+                    DescriptionSection expectedSection = expected.getDescription().getSections().get(i);
+                    DescriptionSection section = patent.getDescription().getSections().get(i);
+                    assertEquals(expectedSection.getSection(), section.getSection());
+                    assertEquals(file.getName(), expectedSection.getRawText(), section.getRawText());
+                }
+                assertEquals(expected.getDescription().getFigures().toString(),
+                        patent.getDescription().getFigures().toString());
+
+                assertEquals(file.getName(), expected.toString(), patent.toString());
+            }
+        }
+    }
+
+    @Test
+    public void sections() throws PatentReaderException, IOException {
+        Set<PatentSection> sections = EnumSet.of(PatentSection.CLASSIFICATIONS);
+        for (String dir : SAMPLE_DIRS) {
+            for (File file : new File(dir).listFiles()) {
+                Patent expected = read(file, PatentReader.Engine.DOM4J);
+                for (PatentReader.Engine engine : PatentReader.Engine.values()) {
+                    Patent patent = read(file, engine, sections);
+                    assertEquals(expected.getDocumentId(), patent.getDocumentId());
+                    assertEquals(expected.getClassification().toString(), patent.getClassification().toString());
+                    assertNull(patent.getTitle());
+                    assertNull(patent.getDescription());
+                    assertTrue(patent.getClaims().isEmpty());
+                    assertTrue(patent.getInventors().isEmpty());
+                }
+            }
+        }
+    }
+}
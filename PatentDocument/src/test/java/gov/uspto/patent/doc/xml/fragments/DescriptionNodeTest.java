@@ -0,0 +1,49 @@
+package gov.uspto.patent.doc.xml.fragments;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import org.dom4j.DocumentException;
+import org.dom4j.Node;
+import org.junit.Test;
+
+import gov.uspto.parser.dom4j.XmlReaders;
+
+public class DescriptionNodeTest {
+
+	private Node read(String xml) throws DocumentException {
+		return XmlReaders.read(new StringReader(xml)).getRootElement();
+	}
+
+	@Test
+	public void allSectionsInOnePass() throws DocumentException {
+		Node descN = read("<description>"
+				+ "<?RELAPP description=\"Other Patent Relations\" end=\"lead\"?><p>rel</p><?RELAPP end=\"tail\"?>"
+				+ "<?BRFSUM description=\"Brief Summary\" end=\"lead\"?><p>sum 1</p><p>sum 2</p><?BRFSUM end=\"tail\"?>"
+				+ "<?DETDESC description=\"Detailed Description\" end=\"lead\"?><p>det</p><?DETDESC end=\"tail\"?>"
+				+ "</description>");
+
+		Map<String, List<Node>> sections = DescriptionNode.getSections(descN);
+		assertEquals(3, sections.size());
+		assertEquals(1, sections.get("RELAPP").size());
+		assertEquals(2, sections.get("BRFSUM").size());
+		assertEquals("<p>sum 1</p><p>sum 2</p>", DescriptionNode.getSectionText(descN, new String[] { "BRFSUM" }));
+		assertEquals("<p>det</p>", DescriptionNode.getSectionText(descN, new String[] { "detailed-description", "DETDESC" }));
+	}
+
+	@Test
+	public void unmatchedLeadDropped() throws DocumentException {
+		Node descN = read("<description>"
+				+ "<?BRFSUM end=\"lead\"?><p>open</p><?DETDESC end=\"lead\"?><p>det</p><?DETDESC end=\"tail\"?>"
+				+ "<p>outside</p>"
+				+ "</description>");
+
+		Map<String, List<Node>> sections = DescriptionNode.getSections(descN);
+		assertNull(sections.get("BRFSUM"));
+		assertEquals("", DescriptionNode.getSectionText(descN, new String[] { "summary-of-invention", "BRFSUM" }));
+		assertEquals(1, DescriptionNode.getSectionNodes(descN, "DETDESC").size());
+	}
+}
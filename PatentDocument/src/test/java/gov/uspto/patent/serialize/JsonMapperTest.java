@@ -1,7 +1,14 @@
 package gov.uspto.patent.serialize;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.util.Arrays;
+import java.util.EnumSet;
 
 import javax.json.JsonObject;
 
@@ -9,6 +16,10 @@ import org.junit.Test;
 
 import gov.uspto.patent.FreetextField;
 import gov.uspto.patent.InvalidDataException;
+import gov.uspto.patent.PatentDocFormat;
+import gov.uspto.patent.PatentReader;
+import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.PatentSection;
 import gov.uspto.patent.doc.xml.FormattedText;
 import gov.uspto.patent.model.Abstract;
 import gov.uspto.patent.model.CountryCode;
@@ -17,6 +28,7 @@ import gov.uspto.patent.model.Description;
 import gov.uspto.patent.model.DescriptionSection;
 import gov.uspto.patent.model.DocumentDate;
 import gov.uspto.patent.model.DocumentId;
+import gov.uspto.patent.model.Patent;
 import gov.uspto.patent.model.PatentGranted;
 import gov.uspto.patent.model.PatentType;
 import gov.uspto.patent.model.entity.Address;
@@ -58,5 +70,24 @@ public class JsonMapperTest {
 
         //System.out.println(json.getPrettyPrint(jsonObj));
     }
+
+    @Test
+    public void descriptionNotRead() throws PatentReaderException, IOException {
+        File sample = new File("resources/samples/xml2014/US08926509.xml");
+        Patent patent;
+        try (Reader reader = new FileReader(sample)) {
+            PatentReader patentReader = new PatentReader(PatentDocFormat.RedbookGrant);
+            patentReader.setSections(EnumSet.of(PatentSection.TITLE, PatentSection.CLAIMS));
+            patent = patentReader.read(reader);
+        }
+        assertNull(patent.getDescription());
+
+        JsonObject jsonObj = new JsonMapper(false, false).buildJson(patent);
+        assertEquals("", jsonObj.getJsonObject("description").getString("full_raw"));
+
+        JsonObject flatObj = new JsonMapperFlat(false, false).buildJson(patent);
+        assertEquals("", flatObj.getString("descFullRaw"));
+        assertEquals(patent.getTitle(), flatObj.getString("title"));
+    }
     
 }
@@ -0,0 +1,140 @@
+package gov.uspto.patent.thread;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static gov.uspto.patent.bulk.SampleBulkFiles.writeBulkFile;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.CharStreams;
+
+import gov.uspto.patent.PatentDocReader;
+import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.bulk.DumpFileXmlMapped;
+import gov.uspto.patent.bulk.DumpReader;
+import gov.uspto.patent.serialize.DocumentBuilder;
+import gov.uspto.patent.thread.MultiThreadProcess.FileResult;
+import gov.uspto.patent.thread.MultiThreadProcess.OutputFactory;
+
+public class MultiThreadProcessTest {
+
+    private static final Pattern DOC_NUMBER = Pattern.compile("<doc-number>([^<]+)</doc-number>");
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Reads the first doc-number of the record.
+     */
+    private static class DocNumberReader implements PatentDocReader<String> {
+        @Override
+        public String read(Reader reader) throws PatentReaderException, IOException {
+            Matcher matcher = DOC_NUMBER.matcher(CharStreams.toString(reader));
+            if (!matcher.find()) {
+                throw new PatentReaderException("doc-number not found");
+            }
+            return matcher.group(1);
+        }
+    }
+
+    private static class LineBuilder implements DocumentBuilder<String> {
+        @Override
+        public void write(String docNumber, Writer writer) throws IOException {
+            writer.write(docNumber);
+            writer.write('\n');
+        }
+    }
+
+    private MultiThreadProcess<String> newProcess(final File outDir) {
+        return new MultiThreadProcess<String>(MultiThreadProcess.fixedReader(new DocNumberReader()),
+                new LineBuilder(), new OutputFactory() {
+                    @Override
+                    public Writer create(DumpReader dumpReader) throws IOException {
+                        return new FileWriter(new File(outDir, dumpReader.getFile().getName() + ".txt"));
+                    }
+                }, 3);
+    }
+
+    @Test
+    public void processFiles() throws IOException, InterruptedException {
+        File outDir = tempFolder.newFolder("out");
+        int[] copies = new int[] { 1, 30, 5 };
+
+        MultiThreadProcess<String> process = newProcess(outDir);
+        try {
+            for (int i = 0; i < copies.length; i++) {
+                process.submit(new DumpFileXmlMapped(writeBulkFile(tempFolder.newFile("ipg" + i + ".xml"), copies[i])));
+            }
+
+            List<FileResult> results = process.awaitCompletion();
+            assertEquals(copies.length, results.size());
+
+            int samples = new File("resources/samples/xml2014").listFiles().length;
+            for (int i = 0; i < copies.length; i++) {
+                FileResult result = results.get(i);
+                assertTrue(result.isSuccess());
+                assertEquals(copies[i] * samples, result.getRecords());
+
+                List<String> lines = Files.readAllLines(new File(outDir, "ipg" + i + ".xml.txt").toPath(),
+                        StandardCharsets.UTF_8);
+                assertEquals(copies[i] * samples, lines.size());
+                // file order kept.
+                for (int j = samples; j < lines.size(); j++) {
+                    assertEquals(lines.get(j - samples), lines.get(j));
+                }
+            }
+        } finally {
+            process.close();
+        }
+    }
+
+    @Test
+    public void failedFileIsolated() throws IOException, InterruptedException {
+        File outDir = tempFolder.newFolder("out");
+        File missing = writeBulkFile(tempFolder.newFile("ipg0.xml"), 1);
+        DumpFileXmlMapped missingReader = new DumpFileXmlMapped(missing);
+        missing.delete();
+
+        MultiThreadProcess<String> process = newProcess(outDir);
+        try {
+            process.setMaxRetries(2);
+            process.submit(missingReader);
+            process.submit(new DumpFileXmlMapped(writeBulkFile(tempFolder.newFile("ipg1.xml"), 2)));
+
+            List<FileResult> results = process.awaitCompletion();
+            assertFalse(results.get(0).isSuccess());
+            assertEquals(3, results.get(0).getAttempts());
+            assertTrue(results.get(1).isSuccess());
+        } finally {
+            process.close();
+        }
+    }
+
+    @Test
+    public void limit() throws IOException, InterruptedException {
+        File outDir = tempFolder.newFolder("out");
+        MultiThreadProcess<String> process = newProcess(outDir);
+        try {
+            process.setLimit(4);
+            process.submit(new DumpFileXmlMapped(writeBulkFile(tempFolder.newFile("ipg0.xml"), 5)));
+            List<FileResult> results = process.awaitCompletion();
+            assertEquals(4, results.get(0).getRecords());
+        } finally {
+            process.close();
+        }
+    }
+}
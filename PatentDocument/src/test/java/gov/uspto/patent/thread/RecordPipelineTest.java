@@ -0,0 +1,121 @@
+package gov.uspto.patent.thread;
+
+import static org.junit.Assert.assertEquals;
+import static gov.uspto.patent.bulk.SampleBulkFiles.writeBulkFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.CharStreams;
+
+import gov.uspto.patent.PatentDocReader;
+import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.bulk.DumpFileXmlMapped;
+
+public class RecordPipelineTest {
+
+    private static final int COPIES = 20;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Returns record text, sleeping a variable amount so records complete out of order.
+     */
+    private static class SlowReader implements PatentDocReader<String> {
+        private int calls;
+
+        @Override
+        public String read(Reader reader) throws PatentReaderException, IOException {
+            String text = CharStreams.toString(reader);
+            int call;
+            synchronized (this) {
+                call = ++calls;
+            }
+            try {
+                Thread.sleep((call * 7) % 5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return text;
+        }
+    }
+
+    private List<Integer> run(File bulkFile, boolean ordered, int limit) throws IOException {
+        return run(bulkFile, new SlowReader(), ordered, limit);
+    }
+
+    private List<Integer> run(File bulkFile, PatentDocReader<String> reader, boolean ordered, int limit)
+            throws IOException {
+        final List<Integer> recordNumbers = new ArrayList<Integer>();
+        DumpFileXmlMapped dumpFile = new DumpFileXmlMapped(bulkFile);
+        try {
+            dumpFile.open();
+            RecordPipeline<String> pipeline = new RecordPipeline<String>(reader, 4, 8);
+            pipeline.setOrdered(ordered);
+            if (limit > 0) {
+                pipeline.setLimit(limit);
+            }
+            int read = pipeline.run(dumpFile, new RecordPipeline.RecordHandler<String>() {
+                @Override
+                public void handle(int recordNumber, String record) throws IOException {
+                    recordNumbers.add(recordNumber);
+                }
+            });
+            assertEquals(recordNumbers.size(), read);
+        } finally {
+            dumpFile.close();
+        }
+        return recordNumbers;
+    }
+
+    private List<Integer> range(int count) {
+        List<Integer> expected = new ArrayList<Integer>();
+        for (int i = 1; i <= count; i++) {
+            expected.add(i);
+        }
+        return expected;
+    }
+
+    @Test
+    public void ordered() throws IOException {
+        int records = COPIES * new File("resources/samples/xml2014").listFiles().length;
+        assertEquals(range(records), run(writeBulkFile(tempFolder.newFile("ipg140101.xml"), COPIES), true, 0));
+    }
+
+    @Test
+    public void unordered() throws IOException {
+        int records = COPIES * new File("resources/samples/xml2014").listFiles().length;
+        List<Integer> recordNumbers = run(writeBulkFile(tempFolder.newFile("ipg140101.xml"), COPIES), false, 0);
+        Collections.sort(recordNumbers);
+        assertEquals(range(records), recordNumbers);
+    }
+
+    @Test
+    public void limit() throws IOException {
+        assertEquals(range(5), run(writeBulkFile(tempFolder.newFile("ipg140101.xml"), COPIES), true, 5));
+    }
+
+    @Test(expected = StackOverflowError.class)
+    public void workerErrorRethrown() throws IOException {
+        run(writeBulkFile(tempFolder.newFile("ipg140101.xml"), COPIES), new PatentDocReader<String>() {
+            private int calls;
+
+            @Override
+            public synchronized String read(Reader reader) throws PatentReaderException, IOException {
+                if (++calls == 3) {
+                    throw new StackOverflowError();
+                }
+                return CharStreams.toString(reader);
+            }
+        }, true, 0);
+    }
+}
@@ -0,0 +1,89 @@
+package gov.uspto.patent.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import gov.uspto.patent.bulk.DumpFileXml;
+import gov.uspto.patent.bulk.DumpFileXmlMapped;
+
+/**
+ * Split a bulk file into records, the grant samples concatenated as a weekly bulk file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DumpFileBenchmark {
+
+    private static final int COPIES = 50;
+
+    private File bulkFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        bulkFile = File.createTempFile("ipg-benchmark", ".xml");
+        try (Writer writer = Files.newBufferedWriter(bulkFile.toPath(), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < COPIES; i++) {
+                for (File file : Samples.files("xml2014")) {
+                    writer.write(Samples.read(file));
+                    writer.write("\n");
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bulkFile.delete();
+    }
+
+    @Benchmark
+    public int dumpFileXmlRead(Blackhole blackhole) throws IOException {
+        DumpFileXml dumpFile = new DumpFileXml(bulkFile);
+        try {
+            dumpFile.open();
+            String record;
+            while ((record = dumpFile.read()) != null) {
+                blackhole.consume(record);
+            }
+            return dumpFile.getCurrentRecCount();
+        } finally {
+            dumpFile.close();
+        }
+    }
+
+    @Benchmark
+    public int dumpFileXmlMappedRead(Blackhole blackhole) throws IOException {
+        DumpFileXmlMapped dumpFile = new DumpFileXmlMapped(bulkFile);
+        try {
+            dumpFile.open();
+            String record;
+            while ((record = dumpFile.read()) != null) {
+                blackhole.consume(record);
+            }
+            return dumpFile.getCurrentRecCount();
+        } finally {
+            dumpFile.close();
+        }
+    }
+}
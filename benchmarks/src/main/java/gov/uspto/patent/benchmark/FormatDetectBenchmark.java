@@ -0,0 +1,47 @@
+package gov.uspto.patent.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gov.uspto.patent.PatentDocFormat;
+import gov.uspto.patent.PatentDocFormatDetect;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatDetectBenchmark {
+
+    @Param({ "xml2014", "xmlApp2004", "pap", "sgml", "greenbook" })
+    public String formatDir;
+
+    private String content;
+    private PatentDocFormatDetect formatDetect;
+
+    @Setup
+    public void setup() throws IOException {
+        File[] files = Samples.files(formatDir);
+        content = Samples.read(files[0]);
+        formatDetect = new PatentDocFormatDetect();
+    }
+
+    @Benchmark
+    public PatentDocFormat fromContent() throws IOException {
+        return formatDetect.fromContent(content);
+    }
+}
@@ -0,0 +1,72 @@
+package gov.uspto.patent.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.doc.simplehtml.FreetextConfig;
+import gov.uspto.patent.doc.xml.FormattedText;
+import gov.uspto.patent.doc.xml.GrantParser;
+import gov.uspto.patent.model.Claim;
+import gov.uspto.patent.model.Patent;
+
+/**
+ * Render the description, abstract and claims of the grant samples, one operation renders all samples.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormattedTextBenchmark {
+
+    private List<String> rawTexts;
+    private FormattedText formattedText;
+    private FreetextConfig textConfig;
+
+    @Setup
+    public void setup() throws IOException, PatentReaderException {
+        rawTexts = new ArrayList<String>();
+        GrantParser parser = new GrantParser();
+        for (File file : Samples.files("xml2014")) {
+            Patent patent = parser.parse(Samples.read(file));
+            rawTexts.add(patent.getDescription().getAllRawText());
+            rawTexts.add(patent.getAbstract().getRawText());
+            for (Claim claim : patent.getClaims()) {
+                rawTexts.add(claim.getRawText());
+            }
+        }
+        formattedText = new FormattedText();
+        textConfig = FreetextConfig.getDefault();
+    }
+
+    @Benchmark
+    public void getSimpleHtml(Blackhole blackhole) {
+        for (String rawText : rawTexts) {
+            blackhole.consume(formattedText.getSimpleHtml(rawText));
+        }
+    }
+
+    @Benchmark
+    public void getPlainText(Blackhole blackhole) {
+        for (String rawText : rawTexts) {
+            blackhole.consume(formattedText.getPlainText(rawText, textConfig));
+        }
+    }
+}
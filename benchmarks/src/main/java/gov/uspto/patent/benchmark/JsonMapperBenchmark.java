@@ -0,0 +1,73 @@
+package gov.uspto.patent.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.doc.xml.GrantParser;
+import gov.uspto.patent.model.Patent;
+import gov.uspto.patent.serialize.DocumentBuilder;
+import gov.uspto.patent.serialize.JsonMapper;
+import gov.uspto.patent.serialize.JsonMapperFlat;
+
+/**
+ * Serialize the grant samples to JSON, one operation writes all samples.
+ *
+ *<p>
+ * Text fields are rendered once in setup and cached on the fields, so only the JSON mapping is measured;
+ * see {@link FormattedTextBenchmark} for text rendering.
+ *</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonMapperBenchmark {
+
+    @Param({ "hierarchy", "flat" })
+    public String mapper;
+
+    private List<Patent> patents;
+    private DocumentBuilder<Patent> docBuilder;
+
+    @Setup
+    public void setup() throws IOException, PatentReaderException {
+        docBuilder = "flat".equals(mapper) ? new JsonMapperFlat(false, false) : new JsonMapper(false, false);
+
+        patents = new ArrayList<Patent>();
+        GrantParser parser = new GrantParser();
+        for (File file : Samples.files("xml2014")) {
+            Patent patent = parser.parse(Samples.read(file));
+            docBuilder.write(patent, new StringWriter());
+            patents.add(patent);
+        }
+    }
+
+    @Benchmark
+    public void write(Blackhole blackhole) throws IOException {
+        for (Patent patent : patents) {
+            StringWriter writer = new StringWriter();
+            docBuilder.write(patent, writer);
+            blackhole.consume(writer.toString());
+        }
+    }
+}
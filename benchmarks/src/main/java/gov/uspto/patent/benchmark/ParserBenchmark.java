@@ -0,0 +1,97 @@
+package gov.uspto.patent.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import gov.uspto.parser.dom4j.Dom4JParser;
+import gov.uspto.patent.PatentReaderException;
+import gov.uspto.patent.doc.greenbook.Greenbook;
+import gov.uspto.patent.doc.pap.PatentAppPubParser;
+import gov.uspto.patent.doc.sgml.Sgml;
+import gov.uspto.patent.doc.xml.ApplicationParser;
+import gov.uspto.patent.doc.xml.GrantParser;
+
+/**
+ * Parse each sample document of a format, one operation parses all samples of the format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    private List<String> grants;
+    private List<String> applications;
+    private List<String> sgml;
+    private List<String> pap;
+    private List<String> greenbook;
+
+    @Setup
+    public void setup() throws IOException {
+        grants = read("xml2014");
+        applications = read("xmlApp2004");
+        sgml = read("sgml");
+        pap = read("pap");
+        greenbook = read("greenbook");
+    }
+
+    private List<String> read(String formatDir) throws IOException {
+        List<String> docs = new ArrayList<String>();
+        for (File file : Samples.files(formatDir)) {
+            docs.add(Samples.read(file));
+        }
+        return docs;
+    }
+
+    @Benchmark
+    public void grantParser(Blackhole blackhole) throws PatentReaderException {
+        parse(new GrantParser(), grants, blackhole);
+    }
+
+    @Benchmark
+    public void applicationParser(Blackhole blackhole) throws PatentReaderException {
+        parse(new ApplicationParser(), applications, blackhole);
+    }
+
+    @Benchmark
+    public void sgml(Blackhole blackhole) throws PatentReaderException {
+        parse(new Sgml(), sgml, blackhole);
+    }
+
+    @Benchmark
+    public void patentAppPubParser(Blackhole blackhole) throws PatentReaderException {
+        parse(new PatentAppPubParser(), pap, blackhole);
+    }
+
+    @Benchmark
+    public void greenbook(Blackhole blackhole) throws PatentReaderException {
+        Greenbook parser = new Greenbook();
+        for (String doc : greenbook) {
+            blackhole.consume(parser.parse(new StringReader(doc)));
+        }
+    }
+
+    private void parse(Dom4JParser parser, List<String> docs, Blackhole blackhole) throws PatentReaderException {
+        for (String doc : docs) {
+            blackhole.consume(parser.parse(doc));
+        }
+    }
+}
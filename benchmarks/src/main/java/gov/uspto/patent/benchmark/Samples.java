@@ -0,0 +1,55 @@
+package gov.uspto.patent.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Sample documents from PatentDocument/resources/samples.
+ *
+ *<p>
+ * Location set with -Dsamples.dir, else found relative to the working directory (project or benchmarks directory).
+ *</p>
+ */
+public class Samples {
+
+    private static final String[] SAMPLE_DIRS = new String[] { "PatentDocument/resources/samples",
+            "../PatentDocument/resources/samples" };
+
+    public static File dir() {
+        String samplesDir = System.getProperty("samples.dir");
+        if (samplesDir != null) {
+            return new File(samplesDir);
+        }
+        for (String dir : SAMPLE_DIRS) {
+            File file = new File(dir);
+            if (file.isDirectory()) {
+                return file;
+            }
+        }
+        throw new IllegalStateException("Samples directory not found, set -Dsamples.dir");
+    }
+
+    /**
+     * Sample files of a format directory, such as "xml2014" or "greenbook", sorted by name.
+     */
+    public static File[] files(String formatDir) {
+        File[] files = new File(dir(), formatDir).listFiles();
+        Preconditions.checkState(files != null && files.length > 0, "No samples found for: " + formatDir);
+        Arrays.sort(files);
+        return files;
+    }
+
+    public static String read(File file) throws IOException {
+        return read(file, StandardCharsets.UTF_8);
+    }
+
+    public static String read(File file, Charset charset) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), charset);
+    }
+}
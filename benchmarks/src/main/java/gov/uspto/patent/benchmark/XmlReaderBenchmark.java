@@ -0,0 +1,79 @@
+package gov.uspto.patent.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.dom4j.DocumentException;
+import org.dom4j.io.SAXReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.xml.sax.SAXException;
+
+import gov.uspto.parser.dom4j.XmlReaders;
+
+/**
+ * Load one small record into a dom4j Document, with a new configured SAXReader per record against the
+ * shared per thread reader; small records, such as CPC master file records, show the per record setup cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XmlReaderBenchmark {
+
+    private static final String CPC_RECORD = "<uspat:CPCMasterClassificationRecord xmlns:uspat=\"patent:uspto:doc:us:gov\""
+            + " xmlns:pat=\"http://www.wipo.int/standards/XMLSchema/ST96/Patent\">"
+            + "<pat:PatentGrantIdentification><pat:PatentNumber>9226437</pat:PatentNumber></pat:PatentGrantIdentification>"
+            + "<pat:CPCClassificationBag><pat:MainCPC><pat:CPCClassification><pat:CPCSection>A</pat:CPCSection>"
+            + "<pat:Class>01</pat:Class><pat:Subclass>B</pat:Subclass><pat:MainGroup>33</pat:MainGroup>"
+            + "<pat:Subgroup>00</pat:Subgroup></pat:CPCClassification></pat:MainCPC></pat:CPCClassificationBag>"
+            + "</uspat:CPCMasterClassificationRecord>";
+
+    @Param({ "cpc", "grant" })
+    public String record;
+
+    private List<String> docs;
+
+    @Setup
+    public void setup() throws IOException {
+        docs = new ArrayList<String>();
+        if ("cpc".equals(record)) {
+            docs.add(CPC_RECORD);
+        } else {
+            File[] files = Samples.files("xml2014");
+            docs.add(Samples.read(files[0]));
+        }
+    }
+
+    @Benchmark
+    public void newReader(Blackhole blackhole) throws DocumentException, SAXException {
+        for (String doc : docs) {
+            SAXReader sax = new SAXReader(false);
+            sax.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            blackhole.consume(sax.read(new StringReader(doc)));
+        }
+    }
+
+    @Benchmark
+    public void threadReader(Blackhole blackhole) throws DocumentException {
+        for (String doc : docs) {
+            blackhole.consume(XmlReaders.read(new StringReader(doc)));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package gov.uspto.patent.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import gov.uspto.common.file.archive.ZipReader;
+import gov.uspto.common.filter.SuffixFilter;
+
+/**
+ * Inflate a zipped bulk file, the grant samples concatenated as a weekly bulk file; the commons-compress
+ * entry stream against the ZipReader decompression layer, with and without read ahead.
+ *
+ *<p>
+ * Each record is scanned for newlines, as a light stand in for the record splitter, so read ahead has
+ * work to overlap with.
+ *</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZipInflateBenchmark {
+
+    private static final int COPIES = 50;
+    private static final String ENTRY_NAME = "ipg-benchmark.xml";
+
+    private File zipFile;
+    private final byte[] buffer = new byte[64 * 1024];
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        zipFile = File.createTempFile("ipg-benchmark", ".zip");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zipFile))) {
+            out.putNextEntry(new ZipEntry(ENTRY_NAME));
+            for (int i = 0; i < COPIES; i++) {
+                for (File file : Samples.files("xml2014")) {
+                    out.write(Files.readAllBytes(file.toPath()));
+                }
+            }
+            out.closeEntry();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        zipFile.delete();
+    }
+
+    private long drain(InputStream in, Blackhole blackhole) throws IOException {
+        long total = 0;
+        int count;
+        while ((count = in.read(buffer)) != -1) {
+            int lines = 0;
+            for (int i = 0; i < count; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+            blackhole.consume(lines);
+            total += count;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long commonsCompress(Blackhole blackhole) throws IOException {
+        try (ZipFile zip = new ZipFile(zipFile)) {
+            ZipArchiveEntry entry = zip.getEntry(ENTRY_NAME);
+            try (InputStream in = zip.getInputStream(entry)) {
+                return drain(in, blackhole);
+            }
+        }
+    }
+
+    private long zipReader(int readAhead, Blackhole blackhole) throws IOException {
+        ZipReader zipReader = new ZipReader(zipFile, new SuffixFilter("xml"));
+        zipReader.setReadAhead(readAhead);
+        try {
+            zipReader.open();
+            try (InputStream in = zipReader.readEntryStream(zipReader.getEntry(ENTRY_NAME))) {
+                return drain(in, blackhole);
+            }
+        } finally {
+            zipReader.close();
+        }
+    }
+
+    @Benchmark
+    public long zipReader(Blackhole blackhole) throws IOException {
+        return zipReader(ZipReader.DEFAULT_READ_AHEAD, blackhole);
+    }
+
+    @Benchmark
+    public long zipReaderNoReadAhead(Blackhole blackhole) throws IOException {
+        return zipReader(0, blackhole);
+    }
+}